@@ -0,0 +1,74 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.benchmark;
+
+import static net.coru.kloadgen.util.PropsKeysHelper.VALUE_SCHEMA;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.coru.kloadgen.serializer.AvroDeserializer;
+import net.coru.kloadgen.serializer.AvroSerializer;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvroDeserializerBenchmark {
+
+  private static final String TOPIC = "benchmark";
+
+  private static final int HEADER_SIZE = 5;
+
+  @Param({"small", "medium", "large"})
+  public String size;
+
+  private final AvroDeserializer deserializer = new AvroDeserializer();
+
+  private final GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(BenchmarkRecords.ORDER_SCHEMA);
+
+  private byte[] payload;
+
+  private BinaryDecoder decoder;
+
+  @Setup
+  public void setUp() {
+    String schema = BenchmarkRecords.ORDER_SCHEMA.toString();
+    payload = new AvroSerializer<EnrichedRecord>().serialize(TOPIC, BenchmarkRecords.enriched(BenchmarkRecords.avroOrder(BenchmarkRecords.items(size)), schema));
+    deserializer.configure(Map.of(VALUE_SCHEMA, schema), false);
+  }
+
+  @Benchmark
+  public Object avroDeserializer(EncodedBytes encoded) {
+    return deserializer.deserialize(TOPIC, encoded.record(payload));
+  }
+
+  @Benchmark
+  public GenericRecord parsedSchemaBaseline(EncodedBytes encoded) throws IOException {
+    decoder = DecoderFactory.get().binaryDecoder(encoded.record(payload), HEADER_SIZE, payload.length - HEADER_SIZE, decoder);
+    return reader.read(null, decoder);
+  }
+}
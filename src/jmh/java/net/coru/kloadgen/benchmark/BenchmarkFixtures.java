@@ -0,0 +1,44 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import net.coru.kloadgen.extractor.SchemaExtractor;
+import net.coru.kloadgen.extractor.impl.SchemaExtractorImpl;
+import net.coru.kloadgen.model.FieldValueMapping;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.jmeter.util.JMeterUtils;
+
+final class BenchmarkFixtures {
+
+  private static final String RESOURCES = "src/test/resources";
+
+  private static final SchemaExtractor EXTRACTOR = new SchemaExtractorImpl();
+
+  private BenchmarkFixtures() {
+  }
+
+  static void setUpJMeter() {
+    JMeterUtils.loadJMeterProperties(new File(RESOURCES).getAbsolutePath() + "/kloadgen.properties");
+    JMeterUtils.setLocale(Locale.ENGLISH);
+    JMeterContextService.getContext().setVariables(new JMeterVariables());
+  }
+
+  static ParsedSchema parse(String schemaFile, String schemaType) throws IOException {
+    return EXTRACTOR.schemaTypesList(new File(RESOURCES, schemaFile), schemaType);
+  }
+
+  static List<FieldValueMapping> fieldMappings(ParsedSchema schema) {
+    return EXTRACTOR.flatPropertiesList(schema);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.DynamicMessage;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+final class BenchmarkRecords {
+
+  static final Schema ITEM_SCHEMA = SchemaBuilder.record("Item").namespace("net.coru.kloadgen.benchmark").fields()
+                                                 .requiredLong("id")
+                                                 .requiredString("name")
+                                                 .requiredDouble("price")
+                                                 .name("tags").type().array().items().stringType().noDefault()
+                                                 .endRecord();
+
+  static final Schema ORDER_SCHEMA = SchemaBuilder.record("Order").namespace("net.coru.kloadgen.benchmark").fields()
+                                                  .requiredLong("id")
+                                                  .requiredString("customer")
+                                                  .name("items").type().array().items(ITEM_SCHEMA).noDefault()
+                                                  .endRecord();
+
+  static final String ORDER_PROTO = "syntax = \"proto3\";\n"
+                                    + "package benchmark;\n"
+                                    + "message Order {\n"
+                                    + "  int64 id = 1;\n"
+                                    + "  string customer = 2;\n"
+                                    + "  repeated Item items = 3;\n"
+                                    + "}\n"
+                                    + "message Item {\n"
+                                    + "  int64 id = 1;\n"
+                                    + "  string name = 2;\n"
+                                    + "  double price = 3;\n"
+                                    + "  repeated string tags = 4;\n"
+                                    + "}\n";
+
+  private static final int TAGS = 3;
+
+  private BenchmarkRecords() {
+  }
+
+  static int items(String size) {
+    switch (size) {
+      case "small":
+        return 1;
+      case "medium":
+        return 20;
+      case "large":
+        return 500;
+      default:
+        throw new IllegalArgumentException("Unknown record size " + size);
+    }
+  }
+
+  static GenericRecord avroOrder(int items) {
+    List<GenericRecord> orderItems = new ArrayList<>(items);
+    for (int i = 0; i < items; i++) {
+      GenericRecord item = new GenericData.Record(ITEM_SCHEMA);
+      item.put("id", (long) i);
+      item.put("name", "item-" + i);
+      item.put("price", i * 1.25);
+      item.put("tags", tags(i));
+      orderItems.add(item);
+    }
+    GenericRecord order = new GenericData.Record(ORDER_SCHEMA);
+    order.put("id", 42L);
+    order.put("customer", "customer-42");
+    order.put("items", orderItems);
+    return order;
+  }
+
+  static DynamicMessage protobufOrder(int items) {
+    Descriptor orderDescriptor = new ProtobufSchema(ORDER_PROTO).toDescriptor();
+    Descriptor itemDescriptor = orderDescriptor.findFieldByName("items").getMessageType();
+    DynamicMessage.Builder order = DynamicMessage.newBuilder(orderDescriptor)
+                                                 .setField(orderDescriptor.findFieldByName("id"), 42L)
+                                                 .setField(orderDescriptor.findFieldByName("customer"), "customer-42");
+    for (int i = 0; i < items; i++) {
+      DynamicMessage.Builder item = DynamicMessage.newBuilder(itemDescriptor)
+                                                  .setField(itemDescriptor.findFieldByName("id"), (long) i)
+                                                  .setField(itemDescriptor.findFieldByName("name"), "item-" + i)
+                                                  .setField(itemDescriptor.findFieldByName("price"), i * 1.25);
+      for (String tag : tags(i)) {
+        item.addRepeatedField(itemDescriptor.findFieldByName("tags"), tag);
+      }
+      order.addRepeatedField(orderDescriptor.findFieldByName("items"), item.build());
+    }
+    return order.build();
+  }
+
+  static ObjectNode jsonOrder(int items) {
+    ObjectNode order = JsonNodeFactory.instance.objectNode();
+    order.put("id", 42L);
+    order.put("customer", "customer-42");
+    ArrayNode orderItems = order.putArray("items");
+    for (int i = 0; i < items; i++) {
+      ObjectNode item = orderItems.addObject();
+      item.put("id", (long) i);
+      item.put("name", "item-" + i);
+      item.put("price", i * 1.25);
+      ArrayNode itemTags = item.putArray("tags");
+      tags(i).forEach(itemTags::add);
+    }
+    return order;
+  }
+
+  static EnrichedRecord enriched(Object record, String schema) {
+    return EnrichedRecord.builder().schemaMetadata(new SchemaMetadata(1, 1, schema)).genericRecord(record).build();
+  }
+
+  private static List<String> tags(int item) {
+    List<String> tags = new ArrayList<>(TAGS);
+    for (int i = 0; i < TAGS; i++) {
+      tags.add("tag-" + item + "-" + i);
+    }
+    return tags;
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class EncodedBytes {
+
+  public double encodedBytes;
+
+  private int iterations;
+
+  private int lastLength;
+
+  @Setup(Level.Trial)
+  public void setUp(BenchmarkParams params) {
+    iterations = params.getMeasurement().getCount();
+  }
+
+  byte[] record(byte[] encoded) {
+    lastLength = encoded.length;
+    return encoded;
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    encodedBytes = (double) lastLength / iterations;
+  }
+}
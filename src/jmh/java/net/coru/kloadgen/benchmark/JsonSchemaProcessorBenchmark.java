@@ -0,0 +1,51 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import net.coru.kloadgen.processor.JsonSchemaProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSchemaProcessorBenchmark {
+
+  @Param({"jsonschema/basic.jcs", "jsonschema/complex-document.jcs", "jsonschema/collections.jcs", "jsonschema/nested-collections.jcs",
+          "jsonschema/test-map.jcs"})
+  public String schema;
+
+  private JsonSchemaProcessor processor;
+
+  @Setup
+  public void setUp() throws IOException {
+    BenchmarkFixtures.setUpJMeter();
+    processor = new JsonSchemaProcessor();
+    processor.processSchema(BenchmarkFixtures.fieldMappings(BenchmarkFixtures.parse(schema, "JSON")));
+  }
+
+  @Benchmark
+  public ObjectNode next() {
+    return processor.next();
+  }
+}
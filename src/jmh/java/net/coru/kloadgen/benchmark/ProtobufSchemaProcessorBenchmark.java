@@ -0,0 +1,55 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.protobuf.Descriptors.DescriptorValidationException;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import net.coru.kloadgen.processor.ProtobufSchemaProcessor;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtobufSchemaProcessorBenchmark {
+
+  @Param({"proto-files/easyTest.proto", "proto-files/complexTest.proto", "proto-files/embeddedTypeTest.proto", "proto-files/mapTest.proto",
+          "proto-files/dateTimeTest.proto"})
+  public String schema;
+
+  private ProtobufSchemaProcessor processor;
+
+  @Setup
+  public void setUp() throws IOException, DescriptorValidationException {
+    BenchmarkFixtures.setUpJMeter();
+    ParsedSchema parsedSchema = BenchmarkFixtures.parse(schema, "PROTOBUF");
+    processor = new ProtobufSchemaProcessor();
+    processor.processSchema(parsedSchema, new SchemaMetadata(1, 1, ""), BenchmarkFixtures.fieldMappings(parsedSchema));
+  }
+
+  @Benchmark
+  public EnrichedRecord next() {
+    return processor.next();
+  }
+}
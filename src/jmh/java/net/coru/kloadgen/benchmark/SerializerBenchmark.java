@@ -0,0 +1,87 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import net.coru.kloadgen.serializer.AvroSerializer;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import net.coru.kloadgen.serializer.GenericAvroRecordBinarySerializer;
+import net.coru.kloadgen.serializer.GenericJsonRecordSerializer;
+import net.coru.kloadgen.serializer.ProtobufSerializer;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+  private static final String TOPIC = "benchmark";
+
+  @Param({"small", "medium", "large"})
+  public String size;
+
+  private final AvroSerializer<EnrichedRecord> avroSerializer = new AvroSerializer<>();
+
+  private final GenericAvroRecordBinarySerializer<GenericRecord> avroBinarySerializer = new GenericAvroRecordBinarySerializer<>();
+
+  private final GenericJsonRecordSerializer<ObjectNode> jsonSerializer = new GenericJsonRecordSerializer<>();
+
+  private final ProtobufSerializer<EnrichedRecord> protobufSerializer = new ProtobufSerializer<>();
+
+  private GenericRecord avroRecord;
+
+  private EnrichedRecord enrichedAvroRecord;
+
+  private EnrichedRecord enrichedProtobufRecord;
+
+  private ObjectNode jsonRecord;
+
+  @Setup
+  public void setUp() {
+    int items = BenchmarkRecords.items(size);
+    avroRecord = BenchmarkRecords.avroOrder(items);
+    enrichedAvroRecord = BenchmarkRecords.enriched(avroRecord, BenchmarkRecords.ORDER_SCHEMA.toString());
+    enrichedProtobufRecord = BenchmarkRecords.enriched(BenchmarkRecords.protobufOrder(items), BenchmarkRecords.ORDER_PROTO);
+    jsonRecord = BenchmarkRecords.jsonOrder(items);
+  }
+
+  @Benchmark
+  public byte[] avroSerializer(EncodedBytes encoded) {
+    return encoded.record(avroSerializer.serialize(TOPIC, enrichedAvroRecord));
+  }
+
+  @Benchmark
+  public byte[] avroBinarySerializer(EncodedBytes encoded) {
+    return encoded.record(avroBinarySerializer.serialize(TOPIC, avroRecord));
+  }
+
+  @Benchmark
+  public byte[] jsonSerializer(EncodedBytes encoded) {
+    return encoded.record(jsonSerializer.serialize(TOPIC, jsonRecord));
+  }
+
+  @Benchmark
+  public byte[] protobufSerializer(EncodedBytes encoded) {
+    return encoded.record(protobufSerializer.serialize(TOPIC, enrichedProtobufRecord));
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import net.coru.kloadgen.serializer.AvroSerializer;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+  private static final String SCHEMA = "{\"type\":\"record\",\"name\":\"User\",\"fields\":[{\"name\":\"name\",\"type\":\"string\"},{\"name\":\"age\",\"type\":\"int\"}]}";
+
+  private static final int ROUND_TRIPS = 20;
+
+  @Param({"PLATFORM", "VIRTUAL"})
+  public String threadModel;
+
+  @Param({"100", "10000"})
+  public int clients;
+
+  private DriverConfig config;
+
+  private MockProducer<Object, Object> producer;
+
+  private Thread completer;
+
+  private volatile boolean completing;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    JMeterUtils.loadJMeterProperties(new File("src/test/resources").getAbsolutePath() + "/kloadgen.properties");
+    JMeterUtils.setLocale(Locale.ENGLISH);
+    Properties properties = new Properties();
+    properties.setProperty(DriverConfig.TOPIC, "benchmark");
+    properties.setProperty(DriverConfig.THREADS, String.valueOf(clients));
+    properties.setProperty(DriverConfig.THREAD_MODEL, threadModel);
+    properties.setProperty(DriverConfig.CLOSED_LOOP, "true");
+    properties.setProperty(DriverConfig.MESSAGES, String.valueOf((long) clients * ROUND_TRIPS));
+    properties.setProperty(DriverConfig.REPORT_INTERVAL_SECONDS, "3600");
+    properties.setProperty(DriverConfig.VALUE_SCHEMA, SCHEMA);
+    properties.setProperty(DriverConfig.FIELD_PREFIX + "0.name", "name");
+    properties.setProperty(DriverConfig.FIELD_PREFIX + "0.type", "string");
+    properties.setProperty(DriverConfig.FIELD_PREFIX + "1.name", "age");
+    properties.setProperty(DriverConfig.FIELD_PREFIX + "1.type", "int");
+    config = DriverConfig.from(properties);
+  }
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    StringSerializer keySerializer = new StringSerializer();
+    AvroSerializer<EnrichedRecord> valueSerializer = new AvroSerializer<>();
+    Serializer<Object> keys = (topic, key) -> keySerializer.serialize(topic, (String) key);
+    Serializer<Object> values = (topic, value) -> valueSerializer.serialize(topic, (EnrichedRecord) value);
+    producer = new MockProducer<>(false, keys, values);
+    completing = true;
+    completer = new Thread(this::complete, "kloadgen-benchmark-completer");
+    completer.setDaemon(true);
+    completer.start();
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws InterruptedException {
+    completing = false;
+    completer.join();
+  }
+
+  @Benchmark
+  public DriverSummary closedLoopRoundTrips(Footprint footprint) throws InterruptedException {
+    DriverSummary summary = new NativeDriver(config) {
+
+      @Override
+      protected Producer<Object, Object> createProducer(Properties producerProperties) {
+        return producer;
+      }
+    }.run();
+    footprint.stop();
+    return summary;
+  }
+
+  private void complete() {
+    while (completing) {
+      if (!producer.completeNext()) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+
+    private static final Path STATUS = Path.of("/proc/self/status");
+
+    public double peakHeapKb;
+
+    public double peakRssKb;
+
+    public double peakThreads;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private int iterations;
+
+    private long heapBefore;
+
+    private long rssBefore;
+
+    private Thread sampler;
+
+    private long heapKb;
+
+    private long rssKb;
+
+    private volatile boolean sampling;
+
+    @Setup(Level.Trial)
+    public void setUpTrial(BenchmarkParams params) {
+      iterations = params.getMeasurement().getCount();
+    }
+
+    @Setup(Level.Iteration)
+    public void start() {
+      System.gc();
+      heapBefore = usedHeap();
+      rssBefore = residentSetKb();
+      heapKb = 0;
+      rssKb = 0;
+      ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+      sampling = true;
+      sampler = new Thread(this::sample, "kloadgen-benchmark-footprint");
+      sampler.setDaemon(true);
+      sampler.start();
+    }
+
+    void stop() throws InterruptedException {
+      sampling = false;
+      sampler.join();
+      peakHeapKb = (double) heapKb / iterations;
+      peakRssKb = (double) rssKb / iterations;
+      peakThreads = (double) ManagementFactory.getThreadMXBean().getPeakThreadCount() / iterations;
+    }
+
+    private void sample() {
+      while (sampling) {
+        heapKb = Math.max(heapKb, (usedHeap() - heapBefore) / 1024);
+        rssKb = Math.max(rssKb, residentSetKb() - rssBefore);
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+      }
+    }
+
+    private long usedHeap() {
+      return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long residentSetKb() {
+      if (!Files.isReadable(STATUS)) {
+        return 0;
+      }
+      try {
+        return Files.readAllLines(STATUS).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                    .findFirst()
+                    .orElse(0L);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
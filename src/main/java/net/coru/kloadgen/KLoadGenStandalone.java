@@ -6,14 +6,20 @@
 
 package net.coru.kloadgen;
 
+import static net.coru.kloadgen.util.PropsKeysHelper.AGGREGATE_INTERVAL_SECONDS;
+import static net.coru.kloadgen.util.PropsKeysHelper.WORKER_JVM_OPTIONS;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.Shard;
+import net.coru.kloadgen.metrics.AggregatingResultWriter;
 import net.coru.kloadgen.util.ListenToTest;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -35,6 +41,8 @@ public class KLoadGenStandalone {
 
   public static final String JMETER_REPORT_OUTPUT_DIR_PROPERTY = "jmeter.reportgenerator.outputdir";
 
+  private static final String STATISTICS_FILE = "statistics.json";
+
   private static final Logger log = Logger.getLogger("KLoadGenStandalone");
 
   public static void main(String... args) {
@@ -50,8 +58,9 @@ public class KLoadGenStandalone {
       }
       JMeterUtils.setJMeterHome(jMeterPropsFile.toAbsolutePath().toString());
       JMeterUtils.loadJMeterProperties(jMeterPropsFile.toAbsolutePath() + "/bin/jmeter.properties");
+      Path optionalPropsFile = null;
       if (line.hasOption("o")) {
-        Path optionalPropsFile = Paths.get(line.getOptionValue("o"));
+        optionalPropsFile = Paths.get(line.getOptionValue("o"));
         if (!Files.exists(optionalPropsFile) || !Files.isReadable(optionalPropsFile) || Files.isDirectory(optionalPropsFile)) {
           throw new KLoadGenException("Optionals properties File not Valid");
         }
@@ -63,13 +72,28 @@ public class KLoadGenStandalone {
         throw new KLoadGenException("Test plan File not Valid");
       }
 
+      Path reportFolder = null;
       if (line.hasOption("r")) {
-        Path resultsFile = Paths.get(line.getOptionValue("r"));
-        if (!Files.isDirectory(resultsFile)) {
+        reportFolder = Paths.get(line.getOptionValue("r")).toAbsolutePath();
+        if (!Files.isDirectory(reportFolder)) {
           throw new KLoadGenException("Path is required to be a folder");
         }
 
-        JMeterUtils.setProperty(JMETER_REPORT_OUTPUT_DIR_PROPERTY, resultsFile.toAbsolutePath().toString());
+        JMeterUtils.setProperty(JMETER_REPORT_OUTPUT_DIR_PROPERTY, reportFolder.toString());
+      }
+
+      int workers = Integer.parseInt(line.getOptionValue("w", "1").trim());
+      if (workers > 1 && !line.hasOption("s")) {
+        if (!line.hasOption("a") || line.hasOption("l")) {
+          throw new KLoadGenException("Workers need \"a\" and no \"l\", only aggregated results can be merged");
+        }
+        Path aggregateFile = aggregateFile(line);
+        new ShardedStandalone(jMeterPropsFile, testPlanFile, optionalPropsFile, workers, JMeterUtils.getProperty(WORKER_JVM_OPTIONS))
+            .run(aggregateFile, statisticsFile(aggregateFile, reportFolder));
+        return;
+      }
+      if (line.hasOption("s")) {
+        Shard.configure(Shard.parse(line.getOptionValue("s")));
       }
 
       StandardJMeterEngine jmeter = new StandardJMeterEngine();
@@ -89,6 +113,17 @@ public class KLoadGenStandalone {
         reportGenerator = createCollector(testPlanTree, resultsFile);
         testPlanTree.add(testPlanTree.getArray()[0], new ListenToTest(reportGenerator));
       }
+
+      if (line.hasOption("a")) {
+        Path aggregateFile = aggregateFile(line);
+        if (!line.hasOption("l")) {
+          testPlanTree.add(testPlanTree.getArray()[0], new ResultCollector(createSummariser()));
+        }
+        Path stateFile = line.hasOption("state") ? Paths.get(line.getOptionValue("state")).toAbsolutePath() : null;
+        testPlanTree.add(testPlanTree.getArray()[0], new AggregatingResultWriter(aggregateFile,
+                                                                                  statisticsFile(aggregateFile, line.hasOption("l") ? null : reportFolder),
+                                                                                  stateFile, JMeterUtils.getPropDefault(AGGREGATE_INTERVAL_SECONDS, 1)));
+      }
       jmeter.configure(testPlanTree);
       jmeter.run();
 
@@ -96,7 +131,7 @@ public class KLoadGenStandalone {
       log.log(Level.SEVERE, "Parsing failed.  Reason: ", ex);
       HelpFormatter formatter = new HelpFormatter();
       formatter.printHelp("kloadgen", options);
-    } catch (KLoadGenException | ConfigurationException ex) {
+    } catch (KLoadGenException | ConfigurationException | NumberFormatException ex) {
       log.log(Level.SEVERE, "Wrong parameters.  Reason: ", ex);
       HelpFormatter formatter = new HelpFormatter();
       formatter.printHelp("kloadgen", options);
@@ -113,20 +148,45 @@ public class KLoadGenStandalone {
     options.addOption(Option.builder("t").longOpt("testPlan").hasArg().desc("Test plan file").required().build());
     options.addOption(Option.builder("r").longOpt("reportOutput").hasArg().desc("Report Output Folder").build());
     options.addOption(Option.builder("l").longOpt("logFileName").hasArg().desc("Jtl File where logs will be dump").build());
+    options.addOption(Option.builder("a").longOpt("aggregateFileName").hasArg().desc("File where aggregated interval results will be written").build());
+    options.addOption(Option.builder("w").longOpt("workers").hasArg().desc("Number of worker JVMs to fork, each one running its shard of the test plan").build());
+    options.addOption(Option.builder("s").longOpt("shard").hasArg().desc("Shard run by this worker, as <index>/<count>").build());
+    options.addOption(Option.builder().longOpt("state").hasArg().desc("File where the worker aggregated totals will be written").build());
     return options;
   }
 
   private static ReportGenerator createCollector(HashTree testPlanTree, Path resultsFile) throws ConfigurationException {
+    ResultCollector resultCollector;
+    resultCollector = new ResultCollector(createSummariser());
+    resultCollector.setFilename(resultsFile.toAbsolutePath().toString());
+    testPlanTree.add(testPlanTree.getArray()[0], resultCollector);
+    return new ReportGenerator(resultsFile.toAbsolutePath().toString(), resultCollector);
+  }
+
+  private static Summariser createSummariser() {
     Summariser summariser = null;
     String summariserName = JMeterUtils.getPropDefault("summariser.name", "KLoagGenSummariser");//$NON-NLS-1$
     if (summariserName.length() > 0) {
       log.info(String.format("Creating summariser <%s>", summariserName));
       summariser = new Summariser(summariserName);
     }
-    ResultCollector resultCollector;
-    resultCollector = new ResultCollector(summariser);
-    resultCollector.setFilename(resultsFile.toAbsolutePath().toString());
-    testPlanTree.add(testPlanTree.getArray()[0], resultCollector);
-    return new ReportGenerator(resultsFile.toAbsolutePath().toString(), resultCollector);
+    return summariser;
+  }
+
+  private static Path aggregateFile(CommandLine line) {
+    Path aggregateFile = Paths.get(line.getOptionValue("a")).toAbsolutePath();
+    if (Files.isDirectory(aggregateFile)) {
+      throw new KLoadGenException("Folders are not allow in this Option");
+    }
+    return aggregateFile;
+  }
+
+  private static Path statisticsFile(Path aggregateFile, Path reportFolder) {
+    if (Objects.nonNull(reportFolder)) {
+      return reportFolder.resolve(STATISTICS_FILE);
+    }
+    String fileName = aggregateFile.getFileName().toString();
+    int extension = fileName.lastIndexOf('.');
+    return aggregateFile.resolveSibling((extension > 0 ? fileName.substring(0, extension) : fileName) + "-statistics.json");
   }
 }
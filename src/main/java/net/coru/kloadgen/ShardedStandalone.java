@@ -0,0 +1,115 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.Shard;
+import net.coru.kloadgen.metrics.AggregatingResultWriter;
+import org.apache.commons.lang3.StringUtils;
+
+@Slf4j
+public class ShardedStandalone {
+
+  private final Path jmeterHome;
+
+  private final Path testPlanFile;
+
+  private final Path optionalPropsFile;
+
+  private final int workers;
+
+  private final List<String> jvmOptions;
+
+  public ShardedStandalone(Path jmeterHome, Path testPlanFile, Path optionalPropsFile, int workers, String jvmOptions) {
+    if (workers <= 0) {
+      throw new KLoadGenException("Workers must be greater than 0");
+    }
+    this.jmeterHome = jmeterHome.toAbsolutePath();
+    this.testPlanFile = testPlanFile.toAbsolutePath();
+    this.optionalPropsFile = Objects.isNull(optionalPropsFile) ? null : optionalPropsFile.toAbsolutePath();
+    this.workers = workers;
+    this.jvmOptions = StringUtils.isBlank(jvmOptions) ? List.of() : Arrays.asList(jvmOptions.trim().split("\\s+"));
+  }
+
+  public void run(Path aggregateFile, Path statisticsFile) throws IOException {
+    Path workerDir = Files.createTempDirectory("kloadgen-standalone-");
+    List<Process> processes = new ArrayList<>(workers);
+    Thread shutdownHook = new Thread(() -> processes.forEach(Process::destroy), "kloadgen-workers-shutdown");
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+    log.info("Starting {} JMeter workers", workers);
+    try {
+      for (int i = 0; i < workers; i++) {
+        processes.add(new ProcessBuilder(command(new Shard(i, workers), intervalFile(workerDir, i), stateFile(workerDir, i))).inheritIO().start());
+      }
+      List<Path> intervalFiles = new ArrayList<>(workers);
+      List<Path> stateFiles = new ArrayList<>(workers);
+      for (int i = 0; i < workers; i++) {
+        int exitCode = processes.get(i).waitFor();
+        if (exitCode != 0 || !Files.isReadable(stateFile(workerDir, i))) {
+          throw new KLoadGenException(String.format("JMeter worker %d failed with exit code %d", i, exitCode));
+        }
+        intervalFiles.add(intervalFile(workerDir, i));
+        stateFiles.add(stateFile(workerDir, i));
+      }
+      AggregatingResultWriter.merge(intervalFiles, stateFiles, aggregateFile, statisticsFile);
+      log.info("JMeter workers finished, aggregated results written to {} and {}", aggregateFile, statisticsFile);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KLoadGenException("Standalone run interrupted", e);
+    } finally {
+      processes.forEach(Process::destroy);
+      try {
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+      } catch (IllegalStateException e) {
+        log.debug("JVM is already shutting down");
+      }
+      for (int i = 0; i < workers; i++) {
+        Files.deleteIfExists(intervalFile(workerDir, i));
+        Files.deleteIfExists(stateFile(workerDir, i));
+        Files.deleteIfExists(workerFile(workerDir, i, "-statistics.json"));
+      }
+      Files.deleteIfExists(workerDir);
+    }
+  }
+
+  List<String> command(Shard shard, Path intervalFile, Path stateFile) {
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmOptions);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(KLoadGenStandalone.class.getName());
+    command.addAll(List.of("-h", jmeterHome.toString(), "-t", testPlanFile.toString()));
+    if (Objects.nonNull(optionalPropsFile)) {
+      command.addAll(List.of("-o", optionalPropsFile.toString()));
+    }
+    command.addAll(List.of("-a", intervalFile.toString(), "-s", shard.toString(), "--state", stateFile.toString()));
+    return command;
+  }
+
+  private static Path intervalFile(Path workerDir, int index) {
+    return workerFile(workerDir, index, ".csv");
+  }
+
+  private static Path stateFile(Path workerDir, int index) {
+    return workerFile(workerDir, index, ".properties");
+  }
+
+  private static Path workerFile(Path workerDir, int index, String suffix) {
+    return workerDir.resolve("worker-" + index + suffix);
+  }
+}
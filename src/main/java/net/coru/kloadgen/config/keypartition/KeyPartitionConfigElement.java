@@ -0,0 +1,53 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.config.keypartition;
+
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_PARTITION_COUNT;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_PARTITION_POOL_SIZE;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_PARTITION_PREFIX;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_PARTITION_WEIGHTS;
+import static net.coru.kloadgen.util.PropsKeysHelper.PARTITION_KEYED_MESSAGE_KEY;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jmeter.config.ConfigTestElement;
+import org.apache.jmeter.engine.event.LoopIterationEvent;
+import org.apache.jmeter.engine.event.LoopIterationListener;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+
+@Getter
+@Setter
+@Slf4j
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeyPartitionConfigElement extends ConfigTestElement implements TestBean, LoopIterationListener {
+
+  private String partitionWeights;
+
+  private String keysPerPartition;
+
+  private String partitionCount;
+
+  private String keyPrefix;
+
+  @Override
+  public void iterationStart(LoopIterationEvent loopIterationEvent) {
+
+    JMeterVariables variables = JMeterContextService.getContext().getVariables();
+    variables.put(KEY_PARTITION_WEIGHTS, partitionWeights);
+    variables.put(KEY_PARTITION_POOL_SIZE, keysPerPartition);
+    variables.put(KEY_PARTITION_COUNT, partitionCount);
+    variables.put(KEY_PARTITION_PREFIX, keyPrefix);
+    variables.put(PARTITION_KEYED_MESSAGE_KEY, Boolean.TRUE.toString());
+  }
+
+}
@@ -0,0 +1,51 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.config.keypartition;
+
+import java.beans.PropertyDescriptor;
+
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+
+public class KeyPartitionConfigElementBeanInfo extends BeanInfoSupport {
+
+  private static final String PARTITION_WEIGHTS = "partitionWeights";
+
+  private static final String KEYS_PER_PARTITION = "keysPerPartition";
+
+  private static final String PARTITION_COUNT = "partitionCount";
+
+  private static final String KEY_PREFIX = "keyPrefix";
+
+  public KeyPartitionConfigElementBeanInfo() {
+
+    super(KeyPartitionConfigElement.class);
+
+    createPropertyGroup("key_partition_configuration", new String[]{
+        PARTITION_WEIGHTS, KEYS_PER_PARTITION, PARTITION_COUNT, KEY_PREFIX
+    });
+
+    PropertyDescriptor partitionWeightsProp = property(PARTITION_WEIGHTS);
+    partitionWeightsProp.setValue(DEFAULT, "");
+    partitionWeightsProp.setValue(NOT_UNDEFINED, Boolean.TRUE);
+    partitionWeightsProp.setValue(NOT_EXPRESSION, Boolean.FALSE);
+
+    PropertyDescriptor keysPerPartitionProp = property(KEYS_PER_PARTITION);
+    keysPerPartitionProp.setValue(DEFAULT, "1000");
+    keysPerPartitionProp.setValue(NOT_UNDEFINED, Boolean.TRUE);
+    keysPerPartitionProp.setValue(NOT_EXPRESSION, Boolean.FALSE);
+
+    PropertyDescriptor partitionCountProp = property(PARTITION_COUNT);
+    partitionCountProp.setValue(DEFAULT, "0");
+    partitionCountProp.setValue(NOT_UNDEFINED, Boolean.TRUE);
+    partitionCountProp.setValue(NOT_EXPRESSION, Boolean.FALSE);
+
+    PropertyDescriptor keyPrefixProp = property(KEY_PREFIX);
+    keyPrefixProp.setValue(DEFAULT, "key-");
+    keyPrefixProp.setValue(NOT_UNDEFINED, Boolean.TRUE);
+    keyPrefixProp.setValue(NOT_EXPRESSION, Boolean.FALSE);
+  }
+}
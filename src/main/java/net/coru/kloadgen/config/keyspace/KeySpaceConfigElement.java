@@ -0,0 +1,61 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.config.keyspace;
+
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_CARDINALITY;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_HOT_KEYS_RATIO;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_HOT_TRAFFIC_RATIO;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_KEYED_MESSAGE_KEY;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_PATTERN;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_PREFIX;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_TOMBSTONE_RATIO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.jmeter.config.ConfigTestElement;
+import org.apache.jmeter.engine.event.LoopIterationEvent;
+import org.apache.jmeter.engine.event.LoopIterationListener;
+import org.apache.jmeter.testbeans.TestBean;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+
+@Getter
+@Setter
+@Slf4j
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeySpaceConfigElement extends ConfigTestElement implements TestBean, LoopIterationListener {
+
+  private String keyCardinality;
+
+  private String keyPattern;
+
+  private String hotKeysRatio;
+
+  private String hotTrafficRatio;
+
+  private String tombstoneRatio;
+
+  private String keyPrefix;
+
+  @Override
+  public void iterationStart(LoopIterationEvent loopIterationEvent) {
+
+    JMeterVariables variables = JMeterContextService.getContext().getVariables();
+    variables.put(KEY_SPACE_CARDINALITY, keyCardinality);
+    variables.put(KEY_SPACE_PATTERN, keyPattern);
+    variables.put(KEY_SPACE_HOT_KEYS_RATIO, hotKeysRatio);
+    variables.put(KEY_SPACE_HOT_TRAFFIC_RATIO, hotTrafficRatio);
+    variables.put(KEY_SPACE_TOMBSTONE_RATIO, tombstoneRatio);
+    variables.put(KEY_SPACE_PREFIX, keyPrefix);
+    variables.put(KEY_SPACE_KEYED_MESSAGE_KEY, Boolean.TRUE.toString());
+  }
+
+}
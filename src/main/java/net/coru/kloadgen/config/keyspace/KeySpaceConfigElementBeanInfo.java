@@ -0,0 +1,69 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.config.keyspace;
+
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+
+import net.coru.kloadgen.loadgen.key.KeySpacePattern;
+import org.apache.jmeter.testbeans.BeanInfoSupport;
+
+public class KeySpaceConfigElementBeanInfo extends BeanInfoSupport {
+
+  private static final String KEY_CARDINALITY = "keyCardinality";
+
+  private static final String KEY_PATTERN = "keyPattern";
+
+  private static final String HOT_KEYS_RATIO = "hotKeysRatio";
+
+  private static final String HOT_TRAFFIC_RATIO = "hotTrafficRatio";
+
+  private static final String TOMBSTONE_RATIO = "tombstoneRatio";
+
+  private static final String KEY_PREFIX = "keyPrefix";
+
+  public KeySpaceConfigElementBeanInfo() {
+
+    super(KeySpaceConfigElement.class);
+
+    createPropertyGroup("key_space_configuration", new String[]{
+        KEY_CARDINALITY, KEY_PATTERN, HOT_KEYS_RATIO, HOT_TRAFFIC_RATIO, TOMBSTONE_RATIO, KEY_PREFIX
+    });
+
+    PropertyDescriptor keyCardinalityProp = property(KEY_CARDINALITY);
+    keyCardinalityProp.setValue(DEFAULT, "1000000");
+    keyCardinalityProp.setValue(NOT_UNDEFINED, Boolean.TRUE);
+    keyCardinalityProp.setValue(NOT_EXPRESSION, Boolean.FALSE);
+
+    PropertyDescriptor keyPatternProp = property(KEY_PATTERN);
+    keyPatternProp.setValue(DEFAULT, KeySpacePattern.UNIFORM.name());
+    keyPatternProp.setValue(TAGS, Arrays.stream(KeySpacePattern.values()).map(Enum::name).toArray(String[]::new));
+    keyPatternProp.setValue(NOT_UNDEFINED, Boolean.TRUE);
+    keyPatternProp.setValue(NOT_EXPRESSION, Boolean.FALSE);
+    keyPatternProp.setValue(NOT_OTHER, Boolean.TRUE);
+
+    PropertyDescriptor hotKeysRatioProp = property(HOT_KEYS_RATIO);
+    hotKeysRatioProp.setValue(DEFAULT, "0.2");
+    hotKeysRatioProp.setValue(NOT_UNDEFINED, Boolean.TRUE);
+    hotKeysRatioProp.setValue(NOT_EXPRESSION, Boolean.FALSE);
+
+    PropertyDescriptor hotTrafficRatioProp = property(HOT_TRAFFIC_RATIO);
+    hotTrafficRatioProp.setValue(DEFAULT, "0.8");
+    hotTrafficRatioProp.setValue(NOT_UNDEFINED, Boolean.TRUE);
+    hotTrafficRatioProp.setValue(NOT_EXPRESSION, Boolean.FALSE);
+
+    PropertyDescriptor tombstoneRatioProp = property(TOMBSTONE_RATIO);
+    tombstoneRatioProp.setValue(DEFAULT, "0");
+    tombstoneRatioProp.setValue(NOT_UNDEFINED, Boolean.TRUE);
+    tombstoneRatioProp.setValue(NOT_EXPRESSION, Boolean.FALSE);
+
+    PropertyDescriptor keyPrefixProp = property(KEY_PREFIX);
+    keyPrefixProp.setValue(DEFAULT, "key-");
+    keyPrefixProp.setValue(NOT_UNDEFINED, Boolean.TRUE);
+    keyPrefixProp.setValue(NOT_EXPRESSION, Boolean.FALSE);
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+@Slf4j
+public final class ConsumerLagProbe {
+
+  private static final Map<String, ConsumerLagProbe> PROBES = new HashMap<>();
+
+  private final String probeKey;
+
+  private final Admin admin;
+
+  private final String groupId;
+
+  private final String topic;
+
+  private final long refreshMillis;
+
+  private final long timeoutMillis;
+
+  private int references;
+
+  private LagSnapshot lastSnapshot;
+
+  private ConsumerLagProbe(String probeKey, Admin admin, String groupId, String topic, long refreshMillis, long timeoutMillis) {
+    this.probeKey = probeKey;
+    this.admin = admin;
+    this.groupId = groupId;
+    this.topic = topic;
+    this.refreshMillis = refreshMillis;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  public static synchronized ConsumerLagProbe acquire(Properties props, String groupId, String topic, long refreshMillis, long timeoutMillis) {
+    String probeKey = String.join("|", props.getProperty(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG), groupId, topic);
+    ConsumerLagProbe probe = PROBES.computeIfAbsent(probeKey, key -> {
+      log.info("Opening lag probe for group {} on topic {}", groupId, topic);
+      return new ConsumerLagProbe(key, Admin.create(adminProperties(props)), groupId, topic, refreshMillis, timeoutMillis);
+    });
+    probe.references++;
+    return probe;
+  }
+
+  public void release() {
+    synchronized (ConsumerLagProbe.class) {
+      references--;
+      if (references == 0) {
+        PROBES.remove(probeKey);
+        admin.close(Duration.ofMillis(timeoutMillis));
+      }
+    }
+  }
+
+  public synchronized long millisUntilRefresh() {
+    return Objects.isNull(lastSnapshot) ? 0 : Math.max(0, lastSnapshot.getTimestamp() + refreshMillis - System.currentTimeMillis());
+  }
+
+  public synchronized LagSnapshot snapshot() throws InterruptedException, ExecutionException, TimeoutException {
+    long now = System.currentTimeMillis();
+    if (Objects.nonNull(lastSnapshot) && now - lastSnapshot.getTimestamp() < refreshMillis) {
+      return lastSnapshot;
+    }
+    Set<TopicPartition> partitions = admin.describeTopics(List.of(topic)).allTopicNames().get(timeoutMillis, TimeUnit.MILLISECONDS)
+                                          .get(topic).partitions().stream()
+                                          .map(partitionInfo -> new TopicPartition(topic, partitionInfo.partition()))
+                                          .collect(Collectors.toSet());
+    Map<TopicPartition, Long> committed = new HashMap<>();
+    admin.listConsumerGroupOffsets(groupId).partitionsToOffsetAndMetadata().get(timeoutMillis, TimeUnit.MILLISECONDS)
+         .forEach((partition, offset) -> addCommitted(committed, partitions, partition, offset));
+    Map<TopicPartition, Long> endOffsets = listOffsets(partitions, OffsetSpec.latest());
+    Set<TopicPartition> uncommitted = partitions.stream().filter(partition -> !committed.containsKey(partition)).collect(Collectors.toSet());
+    if (!uncommitted.isEmpty()) {
+      committed.putAll(listOffsets(uncommitted, OffsetSpec.earliest()));
+    }
+    lastSnapshot = LagSnapshot.of(now, committed, endOffsets, lastSnapshot);
+    return lastSnapshot;
+  }
+
+  private static void addCommitted(Map<TopicPartition, Long> committed, Set<TopicPartition> partitions, TopicPartition partition, OffsetAndMetadata offset) {
+    if (partitions.contains(partition) && Objects.nonNull(offset)) {
+      committed.put(partition, offset.offset());
+    }
+  }
+
+  private Map<TopicPartition, Long> listOffsets(Set<TopicPartition> partitions, OffsetSpec offsetSpec)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    Map<TopicPartition, ListOffsetsResultInfo> offsets = admin.listOffsets(partitions.stream().collect(Collectors.toMap(partition -> partition, partition -> offsetSpec)))
+                                                              .all().get(timeoutMillis, TimeUnit.MILLISECONDS);
+    return offsets.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().offset()));
+  }
+
+  private static Properties adminProperties(Properties props) {
+    Set<String> adminConfigs = AdminClientConfig.configNames();
+    Properties adminProps = new Properties();
+    props.forEach((key, value) -> {
+      if (adminConfigs.contains(key.toString()) && Objects.nonNull(value) && !value.toString().isEmpty()) {
+        adminProps.put(key, value);
+      }
+    });
+    return adminProps;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+@Getter
+public class DecodeResult {
+
+  private int records;
+
+  private int invalidRecords;
+
+  private int partitions;
+
+  private long bytes;
+
+  private long maxQueueNanos;
+
+  private long decodeNanos;
+
+  private long wallNanos;
+
+  private long finishedMillis;
+
+  private String firstError;
+
+  void add(PartitionDecodeResult partitionResult) {
+    partitions++;
+    records += partitionResult.getRecords();
+    invalidRecords += partitionResult.getInvalidRecords();
+    bytes += partitionResult.getBytes();
+    maxQueueNanos = Math.max(maxQueueNanos, partitionResult.getQueueNanos());
+    decodeNanos += partitionResult.getDecodeNanos();
+    if (firstError == null) {
+      firstError = partitionResult.getFirstError();
+    }
+  }
+
+  void finish(long wallNanos) {
+    this.wallNanos = wallNanos;
+    this.finishedMillis = System.currentTimeMillis();
+  }
+
+  public long getMaxQueueMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxQueueNanos);
+  }
+
+  public long getDecodeMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(decodeNanos);
+  }
+
+  public long getWallMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(wallNanos);
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.google.protobuf.Message;
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.Deserializer;
+
+@Slf4j
+public class DecodeWorkerPool implements Closeable {
+
+  private final List<Worker> workers;
+
+  public DecodeWorkerPool(int workerCount, Supplier<Deserializer<Object>> keyDeserializers, Supplier<Deserializer<Object>> valueDeserializers) {
+    if (workerCount < 1) {
+      throw new KLoadGenException("Decode worker count must be greater than 0, but was " + workerCount);
+    }
+    workers = new ArrayList<>(workerCount);
+    for (int i = 0; i < workerCount; i++) {
+      workers.add(new Worker(keyDeserializers.get(), valueDeserializers.get()));
+    }
+  }
+
+  public DecodeResult decode(ConsumerRecords<byte[], byte[]> records) throws InterruptedException {
+    return submit(records).await();
+  }
+
+  public PendingDecode submit(ConsumerRecords<byte[], byte[]> records) {
+    long start = System.nanoTime();
+    List<CompletableFuture<PartitionDecodeResult>> futures = new ArrayList<>(records.partitions().size());
+    for (TopicPartition partition : records.partitions()) {
+      Worker worker = workers.get(partition.partition() % workers.size());
+      List<ConsumerRecord<byte[], byte[]>> partitionRecords = records.records(partition);
+      long submitted = System.nanoTime();
+      futures.add(CompletableFuture.supplyAsync(() -> worker.decode(partitionRecords, submitted), worker.executor));
+    }
+    CompletableFuture<DecodeResult> result = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(decoded -> {
+      DecodeResult decodeResult = new DecodeResult();
+      futures.forEach(future -> decodeResult.add(future.join()));
+      decodeResult.finish(System.nanoTime() - start);
+      return decodeResult;
+    });
+    return new PendingDecode(result);
+  }
+
+  public int getWorkerCount() {
+    return workers.size();
+  }
+
+  @Override
+  public void close() {
+    for (Worker worker : workers) {
+      worker.executor.shutdown();
+    }
+    for (Worker worker : workers) {
+      try {
+        if (!worker.executor.awaitTermination(5, TimeUnit.SECONDS)) {
+          worker.executor.shutdownNow();
+        }
+      } catch (InterruptedException e) {
+        worker.executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+      worker.keyDeserializer.close();
+      worker.valueDeserializer.close();
+    }
+  }
+
+  static boolean isValid(Object value) {
+    if (value instanceof GenericRecord) {
+      GenericRecord genericRecord = (GenericRecord) value;
+      return GenericData.get().validate(genericRecord.getSchema(), genericRecord);
+    } else if (value instanceof Message) {
+      return ((Message) value).isInitialized();
+    }
+    return true;
+  }
+
+  private static class Worker {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "kloadgen-decode-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    private final Deserializer<Object> keyDeserializer;
+
+    private final Deserializer<Object> valueDeserializer;
+
+    Worker(Deserializer<Object> keyDeserializer, Deserializer<Object> valueDeserializer) {
+      this.keyDeserializer = keyDeserializer;
+      this.valueDeserializer = valueDeserializer;
+    }
+
+    PartitionDecodeResult decode(List<ConsumerRecord<byte[], byte[]>> records, long submitted) {
+      long start = System.nanoTime();
+      int invalidRecords = 0;
+      long bytes = 0;
+      String firstError = null;
+      for (ConsumerRecord<byte[], byte[]> consumerRecord : records) {
+        bytes += Math.max(0, consumerRecord.serializedKeySize()) + Math.max(0, consumerRecord.serializedValueSize());
+        try {
+          if (Objects.nonNull(consumerRecord.key())) {
+            keyDeserializer.deserialize(consumerRecord.topic(), consumerRecord.headers(), consumerRecord.key());
+          }
+          if (Objects.nonNull(consumerRecord.value())
+              && !isValid(valueDeserializer.deserialize(consumerRecord.topic(), consumerRecord.headers(), consumerRecord.value()))) {
+            invalidRecords++;
+            firstError = Objects.requireNonNullElse(firstError, "Invalid record at offset " + consumerRecord.offset());
+          }
+        } catch (RuntimeException e) {
+          invalidRecords++;
+          if (Objects.isNull(firstError)) {
+            firstError = e.getMessage();
+            log.debug("Failed to decode record at offset {}", consumerRecord.offset(), e);
+          }
+        }
+      }
+      return new PartitionDecodeResult(records.size(), invalidRecords, bytes, start - submitted, System.nanoTime() - start, firstError);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.kafka.common.TopicPartition;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class LagSnapshot {
+
+  public static final double NOT_CATCHING_UP = -1;
+
+  private final long timestamp;
+
+  private final Map<Integer, Long> partitionLag;
+
+  private final long totalLag;
+
+  private final long committedOffsets;
+
+  private final long endOffsets;
+
+  private final double consumeRate;
+
+  private final double produceRate;
+
+  private final double catchUpSeconds;
+
+  static LagSnapshot of(long timestamp, Map<TopicPartition, Long> committed, Map<TopicPartition, Long> endOffsets, LagSnapshot previous) {
+    Map<Integer, Long> partitionLag = new TreeMap<>();
+    long committedTotal = 0;
+    long endTotal = 0;
+    for (Map.Entry<TopicPartition, Long> endOffset : endOffsets.entrySet()) {
+      long committedOffset = Math.min(committed.getOrDefault(endOffset.getKey(), 0L), endOffset.getValue());
+      partitionLag.put(endOffset.getKey().partition(), endOffset.getValue() - committedOffset);
+      committedTotal += committedOffset;
+      endTotal += endOffset.getValue();
+    }
+    long totalLag = endTotal - committedTotal;
+
+    double consumeRate = 0;
+    double produceRate = 0;
+    if (Objects.nonNull(previous) && timestamp > previous.timestamp) {
+      double elapsedSeconds = (timestamp - previous.timestamp) / 1000.0;
+      consumeRate = Math.max(0, committedTotal - previous.committedOffsets) / elapsedSeconds;
+      produceRate = Math.max(0, endTotal - previous.endOffsets) / elapsedSeconds;
+    }
+
+    double catchUpSeconds;
+    if (totalLag == 0) {
+      catchUpSeconds = 0;
+    } else if (consumeRate > produceRate) {
+      catchUpSeconds = totalLag / (consumeRate - produceRate);
+    } else {
+      catchUpSeconds = NOT_CATCHING_UP;
+    }
+    return new LagSnapshot(timestamp, partitionLag, totalLag, committedTotal, endTotal, consumeRate, produceRate, catchUpSeconds);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.sampler.ConsumerCommitStrategy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+@Slf4j
+public class OffsetCommitter {
+
+  private final Consumer<?, ?> consumer;
+
+  private final ConsumerCommitStrategy commitStrategy;
+
+  private final int commitIntervalRecords;
+
+  private final Map<TopicPartition, OffsetAndMetadata> decodedOffsets = new HashMap<>();
+
+  private int uncommittedRecords;
+
+  public OffsetCommitter(Consumer<?, ?> consumer, ConsumerCommitStrategy commitStrategy, int commitIntervalRecords) {
+    this.consumer = consumer;
+    this.commitStrategy = commitStrategy;
+    this.commitIntervalRecords = commitIntervalRecords;
+  }
+
+  public void consumed(int recordCount) {
+    uncommittedRecords += recordCount;
+    if (isCommitDue()) {
+      if (ConsumerCommitStrategy.ASYNC == commitStrategy) {
+        consumer.commitAsync(OffsetCommitter::onCommitted);
+      } else {
+        consumer.commitSync();
+      }
+      uncommittedRecords = 0;
+    }
+  }
+
+  public void decoded(int recordCount, Map<TopicPartition, OffsetAndMetadata> offsets) {
+    uncommittedRecords += recordCount;
+    decodedOffsets.putAll(offsets);
+    if (isCommitDue()) {
+      if (ConsumerCommitStrategy.ASYNC == commitStrategy) {
+        consumer.commitAsync(Map.copyOf(decodedOffsets), OffsetCommitter::onCommitted);
+      } else {
+        consumer.commitSync(Map.copyOf(decodedOffsets));
+      }
+      decodedOffsets.clear();
+      uncommittedRecords = 0;
+    }
+  }
+
+  public void commitRemaining() {
+    if (ConsumerCommitStrategy.NONE != commitStrategy && uncommittedRecords > 0) {
+      consumer.commitSync();
+    }
+    decodedOffsets.clear();
+    uncommittedRecords = 0;
+  }
+
+  private boolean isCommitDue() {
+    return ConsumerCommitStrategy.NONE != commitStrategy && uncommittedRecords >= commitIntervalRecords;
+  }
+
+  private static void onCommitted(Map<TopicPartition, OffsetAndMetadata> offsets, Exception e) {
+    if (Objects.nonNull(e)) {
+      log.warn("Failed to commit offsets {}", offsets, e);
+    }
+  }
+}
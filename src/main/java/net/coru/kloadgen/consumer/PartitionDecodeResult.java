@@ -0,0 +1,27 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+class PartitionDecodeResult {
+
+  private final int records;
+
+  private final int invalidRecords;
+
+  private final long bytes;
+
+  private final long queueNanos;
+
+  private final long decodeNanos;
+
+  private final String firstError;
+}
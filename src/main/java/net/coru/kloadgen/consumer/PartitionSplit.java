@@ -0,0 +1,26 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+
+public final class PartitionSplit {
+
+  private PartitionSplit() {
+  }
+
+  public static List<TopicPartition> forThread(List<PartitionInfo> partitions, int threadNum, int threadCount) {
+    return partitions.stream()
+                     .filter(partitionInfo -> partitionInfo.partition() % threadCount == threadNum)
+                     .map(partitionInfo -> new TopicPartition(partitionInfo.topic(), partitionInfo.partition()))
+                     .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+
+public class PendingDecode {
+
+  private final CompletableFuture<DecodeResult> result;
+
+  PendingDecode(CompletableFuture<DecodeResult> result) {
+    this.result = result;
+  }
+
+  public boolean isDone() {
+    return result.isDone();
+  }
+
+  public DecodeResult await() throws InterruptedException {
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      throw new KLoadGenException("Decode worker failed", e);
+    }
+  }
+}
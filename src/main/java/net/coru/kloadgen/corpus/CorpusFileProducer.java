@@ -0,0 +1,84 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.corpus;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.producer.SerializingProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+@Slf4j
+public class CorpusFileProducer extends SerializingProducer {
+
+  private static final Map<Path, RecordCorpusWriter> WRITERS = new HashMap<>();
+
+  private static final Map<Path, Integer> WRITER_USERS = new HashMap<>();
+
+  private final Path corpusFile;
+
+  private final RecordCorpusWriter writer;
+
+  public CorpusFileProducer(Properties props, Path corpusFile) {
+    super(props, "when writing a record corpus");
+    this.corpusFile = corpusFile.toAbsolutePath();
+    this.writer = acquireWriter(this.corpusFile);
+  }
+
+  @Override
+  protected long write(ProducerRecord<Object, Object> record, byte[] key, byte[] value) throws IOException {
+    return writer.append(key, value, record.headers());
+  }
+
+  @Override
+  public void flush() {
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      throw new KLoadGenException("Error flushing record corpus", e);
+    }
+  }
+
+  @Override
+  protected void release() {
+    releaseWriter(corpusFile);
+  }
+
+  private static synchronized RecordCorpusWriter acquireWriter(Path corpusFile) {
+    RecordCorpusWriter corpusWriter = WRITERS.get(corpusFile);
+    if (Objects.isNull(corpusWriter)) {
+      try {
+        corpusWriter = new RecordCorpusWriter(corpusFile);
+      } catch (IOException e) {
+        throw new KLoadGenException("Error opening record corpus " + corpusFile, e);
+      }
+      WRITERS.put(corpusFile, corpusWriter);
+    }
+    WRITER_USERS.merge(corpusFile, 1, Integer::sum);
+    return corpusWriter;
+  }
+
+  private static synchronized void releaseWriter(Path corpusFile) {
+    int users = WRITER_USERS.merge(corpusFile, -1, Integer::sum);
+    if (users <= 0) {
+      WRITER_USERS.remove(corpusFile);
+      RecordCorpusWriter corpusWriter = WRITERS.remove(corpusFile);
+      try {
+        corpusWriter.close();
+        log.info("Record corpus {} closed with {} records", corpusFile, corpusWriter.getRecordCount());
+      } catch (IOException e) {
+        log.error("Error closing record corpus {}", corpusFile, e);
+      }
+    }
+  }
+}
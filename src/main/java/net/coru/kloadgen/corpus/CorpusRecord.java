@@ -0,0 +1,23 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.corpus;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import lombok.Value;
+import org.apache.kafka.common.header.Header;
+
+@Value
+public class CorpusRecord {
+
+  ByteBuffer key;
+
+  ByteBuffer value;
+
+  List<Header> headers;
+}
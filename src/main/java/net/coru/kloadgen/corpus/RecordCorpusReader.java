@@ -0,0 +1,183 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.corpus;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static net.coru.kloadgen.corpus.RecordCorpusWriter.FILE_HEADER_SIZE;
+import static net.coru.kloadgen.corpus.RecordCorpusWriter.MAGIC;
+import static net.coru.kloadgen.corpus.RecordCorpusWriter.VERSION;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.Shard;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+public final class RecordCorpusReader {
+
+  private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+
+  private static final Map<Path, RecordCorpusReader> READERS = new HashMap<>();
+
+  private final LongBuffer index;
+
+  private final int recordCount;
+
+  private final long[] regionStarts;
+
+  private final ByteBuffer[] regions;
+
+  private final AtomicLong cursor = new AtomicLong();
+
+  private final Shard shard;
+
+  private final long shardRecordCount;
+
+  private int references;
+
+  public RecordCorpusReader(Path corpusFile) throws IOException {
+    this(corpusFile, Shard.current());
+  }
+
+  public RecordCorpusReader(Path corpusFile, Shard shard) throws IOException {
+    this.shard = shard;
+    try (FileChannel dataChannel = FileChannel.open(corpusFile, READ);
+        FileChannel indexChannel = FileChannel.open(RecordCorpusWriter.indexFileOf(corpusFile), READ)) {
+      long indexSize = indexChannel.size();
+      if (indexSize > MAX_REGION_SIZE) {
+        throw new KLoadGenException(String.format("Corpus index %s holds too many records", corpusFile));
+      }
+      index = indexChannel.map(READ_ONLY, 0, indexSize).asLongBuffer();
+      recordCount = (int) (indexSize / Long.BYTES);
+      shardRecordCount = shard.share((long) recordCount);
+      checkFileHeader(corpusFile, dataChannel);
+
+      List<Long> starts = new ArrayList<>();
+      List<ByteBuffer> mappedRegions = new ArrayList<>();
+      long fileSize = dataChannel.size();
+      long regionStart = recordCount > 0 ? index.get(0) : fileSize;
+      for (int i = 0; i < recordCount; i++) {
+        long recordStart = index.get(i);
+        long recordEnd = i + 1 < recordCount ? index.get(i + 1) : fileSize;
+        if (recordEnd - recordStart > MAX_REGION_SIZE) {
+          throw new KLoadGenException(String.format("Record %d in corpus %s is too large to be mapped", i, corpusFile));
+        }
+        if (recordEnd - regionStart > MAX_REGION_SIZE) {
+          starts.add(regionStart);
+          mappedRegions.add(dataChannel.map(READ_ONLY, regionStart, recordStart - regionStart));
+          regionStart = recordStart;
+        }
+      }
+      if (regionStart < fileSize) {
+        starts.add(regionStart);
+        mappedRegions.add(dataChannel.map(READ_ONLY, regionStart, fileSize - regionStart));
+      }
+      regionStarts = starts.stream().mapToLong(Long::longValue).toArray();
+      regions = mappedRegions.toArray(new ByteBuffer[0]);
+    }
+  }
+
+  public static synchronized RecordCorpusReader acquire(Path corpusFile) throws IOException {
+    Path key = corpusFile.toAbsolutePath();
+    RecordCorpusReader reader = READERS.get(key);
+    if (Objects.isNull(reader)) {
+      reader = new RecordCorpusReader(key);
+      READERS.put(key, reader);
+    }
+    reader.references++;
+    return reader;
+  }
+
+  public void release() {
+    synchronized (RecordCorpusReader.class) {
+      if (--references == 0) {
+        READERS.values().remove(this);
+      }
+    }
+  }
+
+  public int getRecordCount() {
+    return recordCount;
+  }
+
+  public CorpusRecord next(boolean loop) {
+    CorpusRecord result = null;
+    if (shardRecordCount > 0) {
+      long position = cursor.getAndIncrement();
+      if (loop || position < shardRecordCount) {
+        result = read((int) shard.position(position % shardRecordCount));
+      }
+    }
+    return result;
+  }
+
+  public CorpusRecord read(int recordIndex) {
+    long offset = index.get(recordIndex);
+    int region = regionOf(offset);
+    ByteBuffer buffer = regions[region].duplicate();
+    buffer.position((int) (offset - regionStarts[region]));
+
+    ByteBuffer key = readSlice(buffer);
+    ByteBuffer value = readSlice(buffer);
+    int headerCount = buffer.getInt();
+    List<Header> headers = new ArrayList<>(headerCount);
+    for (int i = 0; i < headerCount; i++) {
+      String headerName = new String(readBytes(buffer), StandardCharsets.UTF_8);
+      headers.add(new RecordHeader(headerName, readBytes(buffer)));
+    }
+    return new CorpusRecord(key, value, headers);
+  }
+
+  private int regionOf(long offset) {
+    int position = Arrays.binarySearch(regionStarts, offset);
+    return position >= 0 ? position : -position - 2;
+  }
+
+  private static ByteBuffer readSlice(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    ByteBuffer slice = null;
+    if (length != RecordCorpusWriter.NULL_LENGTH) {
+      slice = buffer.slice();
+      slice.limit(length);
+      buffer.position(buffer.position() + length);
+    }
+    return slice;
+  }
+
+  private static byte[] readBytes(ByteBuffer buffer) {
+    ByteBuffer slice = readSlice(buffer);
+    byte[] bytes = null;
+    if (Objects.nonNull(slice)) {
+      bytes = new byte[slice.remaining()];
+      slice.get(bytes);
+    }
+    return bytes;
+  }
+
+  private static void checkFileHeader(Path corpusFile, FileChannel dataChannel) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+    int read = dataChannel.read(header, 0);
+    header.flip();
+    if (read < FILE_HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+      throw new KLoadGenException(String.format("File %s is not a KLoadGen record corpus", corpusFile));
+    }
+  }
+}
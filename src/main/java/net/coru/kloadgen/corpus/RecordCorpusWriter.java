@@ -0,0 +1,212 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.corpus;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+@Slf4j
+public final class RecordCorpusWriter implements Closeable {
+
+  static final int MAGIC = 0x4B4C4743;
+
+  static final int VERSION = 1;
+
+  static final int FILE_HEADER_SIZE = 2 * Integer.BYTES;
+
+  static final int NULL_LENGTH = -1;
+
+  static final String INDEX_SUFFIX = ".idx";
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final DataOutputStream data;
+
+  private final DataOutputStream index;
+
+  private long position;
+
+  private long recordCount;
+
+  public RecordCorpusWriter(Path corpusFile) throws IOException {
+    Path indexFile = indexFileOf(corpusFile);
+    boolean existing = Files.exists(corpusFile) && Files.size(corpusFile) > 0;
+    if (existing) {
+      checkFileHeader(corpusFile);
+      if (indexMatches(corpusFile, indexFile)) {
+        recordCount = Files.size(indexFile) / Long.BYTES;
+      } else {
+        log.warn("Index of corpus {} does not match its records, rebuilding it", corpusFile);
+        recordCount = rebuildIndex(corpusFile, indexFile);
+      }
+      position = Files.size(corpusFile);
+    }
+    data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(corpusFile, CREATE, APPEND), BUFFER_SIZE));
+    index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile, CREATE, APPEND), BUFFER_SIZE));
+    if (!existing) {
+      data.writeInt(MAGIC);
+      data.writeInt(VERSION);
+      position = FILE_HEADER_SIZE;
+    }
+  }
+
+  public static Path indexFileOf(Path corpusFile) {
+    return corpusFile.resolveSibling(corpusFile.getFileName() + INDEX_SUFFIX);
+  }
+
+  public synchronized long append(byte[] key, byte[] value, Headers headers) throws IOException {
+    index.writeLong(position);
+    position += writeBytes(key);
+    position += writeBytes(value);
+
+    Header[] headerArray = Objects.isNull(headers) ? new Header[0] : headers.toArray();
+    data.writeInt(headerArray.length);
+    position += Integer.BYTES;
+    for (Header header : headerArray) {
+      position += writeBytes(header.key().getBytes(StandardCharsets.UTF_8));
+      position += writeBytes(header.value());
+    }
+    return recordCount++;
+  }
+
+  public synchronized long getRecordCount() {
+    return recordCount;
+  }
+
+  public synchronized void flush() throws IOException {
+    data.flush();
+    index.flush();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      data.close();
+    } finally {
+      index.close();
+    }
+  }
+
+  private int writeBytes(byte[] bytes) throws IOException {
+    if (Objects.isNull(bytes)) {
+      data.writeInt(NULL_LENGTH);
+      return Integer.BYTES;
+    }
+    data.writeInt(bytes.length);
+    data.write(bytes);
+    return Integer.BYTES + bytes.length;
+  }
+
+  private static boolean indexMatches(Path corpusFile, Path indexFile) throws IOException {
+    if (!Files.exists(indexFile) || Files.size(indexFile) % Long.BYTES != 0) {
+      return false;
+    }
+    try (FileChannel dataChannel = FileChannel.open(corpusFile, READ);
+        FileChannel indexChannel = FileChannel.open(indexFile, READ)) {
+      long dataSize = dataChannel.size();
+      long indexSize = indexChannel.size();
+      if (indexSize == 0) {
+        return dataSize == FILE_HEADER_SIZE;
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+      return readLong(indexChannel, 0, buffer) == FILE_HEADER_SIZE
+             && recordEnd(dataChannel, readLong(indexChannel, indexSize - Long.BYTES, buffer), dataSize, buffer) == dataSize;
+    }
+  }
+
+  private static long rebuildIndex(Path corpusFile, Path indexFile) throws IOException {
+    long count = 0;
+    try (FileChannel dataChannel = FileChannel.open(corpusFile, READ, WRITE);
+        DataOutputStream indexOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile, CREATE, TRUNCATE_EXISTING, WRITE),
+                                                                                     BUFFER_SIZE))) {
+      long dataSize = dataChannel.size();
+      ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+      long recordStart = FILE_HEADER_SIZE;
+      long recordEnd = recordEnd(dataChannel, recordStart, dataSize, buffer);
+      while (recordEnd > 0) {
+        indexOutput.writeLong(recordStart);
+        count++;
+        recordStart = recordEnd;
+        recordEnd = recordStart < dataSize ? recordEnd(dataChannel, recordStart, dataSize, buffer) : -1;
+      }
+      if (recordStart < dataSize) {
+        log.warn("Corpus {} ends with an incomplete record, dropping its last {} bytes", corpusFile, dataSize - recordStart);
+        dataChannel.truncate(recordStart);
+      }
+    }
+    return count;
+  }
+
+  private static long recordEnd(FileChannel dataChannel, long recordStart, long dataSize, ByteBuffer buffer) throws IOException {
+    long position = fieldEnd(dataChannel, recordStart, dataSize, buffer);
+    position = fieldEnd(dataChannel, position, dataSize, buffer);
+    if (position < 0 || position + Integer.BYTES > dataSize) {
+      return -1;
+    }
+    int headerCount = readInt(dataChannel, position, buffer);
+    position = headerCount < 0 ? -1 : position + Integer.BYTES;
+    for (int i = 0; i < 2 * headerCount && position >= 0; i++) {
+      position = fieldEnd(dataChannel, position, dataSize, buffer);
+    }
+    return position;
+  }
+
+  private static long fieldEnd(FileChannel dataChannel, long position, long dataSize, ByteBuffer buffer) throws IOException {
+    if (position < 0 || position + Integer.BYTES > dataSize) {
+      return -1;
+    }
+    int length = readInt(dataChannel, position, buffer);
+    long end = position + Integer.BYTES + Math.max(0, length);
+    return length < NULL_LENGTH || end > dataSize ? -1 : end;
+  }
+
+  private static int readInt(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+    return read(channel, position, buffer, Integer.BYTES).getInt(0);
+  }
+
+  private static long readLong(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+    return read(channel, position, buffer, Long.BYTES).getLong(0);
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, ByteBuffer buffer, int length) throws IOException {
+    buffer.clear().limit(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new KLoadGenException("Unexpected end of corpus file");
+      }
+    }
+    return buffer;
+  }
+
+  private static void checkFileHeader(Path corpusFile) throws IOException {
+    try (DataInputStream input = new DataInputStream(Files.newInputStream(corpusFile))) {
+      if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+        throw new KLoadGenException(String.format("File %s is not a KLoadGen record corpus", corpusFile));
+      }
+    }
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+import lombok.Getter;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.impl.SchemaBundle;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.processor.GenerationMode;
+import org.apache.commons.lang3.StringUtils;
+
+@Getter
+public class DriverConfig {
+
+  public static final String TOPIC = "driver.topic";
+
+  public static final String TOPICS = "driver.topics";
+
+  public static final String THREADS = "driver.threads";
+
+  public static final String THREAD_MODEL = "driver.thread.model";
+
+  public static final String CLOSED_LOOP = "driver.closed.loop";
+
+  public static final String RATE = "driver.rate";
+
+  public static final String DURATION_SECONDS = "driver.duration.seconds";
+
+  public static final String MESSAGES = "driver.messages";
+
+  public static final String WARMUP_SECONDS = "driver.warmup.seconds";
+
+  public static final String WARMUP_MESSAGES = "driver.warmup.messages";
+
+  public static final String REPORT_INTERVAL_SECONDS = "driver.report.interval.seconds";
+
+  public static final String VALUE_SCHEMA_TYPE = "driver.value.schema.type";
+
+  public static final String VALUE_SUBJECT = "driver.value.subject";
+
+  public static final String VALUE_SCHEMA = "driver.value.schema";
+
+  public static final String VALUE_SCHEMA_FILE = "driver.value.schema.file";
+
+  public static final String GENERATION_MODE = "driver.generation.mode";
+
+  public static final String NULL_SINK = "driver.null.sink";
+
+  public static final String WORKER_JVM_OPTIONS = "driver.worker.jvm.options";
+
+  public static final String FIELD_PREFIX = "driver.field.";
+
+  public static final String KAFKA_PREFIX = "kafka.";
+
+  private static final String DRIVER_PREFIX = "driver.";
+
+  private static final List<String> REGISTRY_PREFIXES = List.of("schema.registry.", "basic.auth.", "bearer.auth.");
+
+  private static final List<String> VALUE_SOURCES = List.of(VALUE_SUBJECT, VALUE_SCHEMA, VALUE_SCHEMA_FILE);
+
+  private final List<TopicConfig> topics;
+
+  private final int threads;
+
+  private final ThreadModel threadModel;
+
+  private final boolean closedLoop;
+
+  private final double rate;
+
+  private final long durationSeconds;
+
+  private final long messages;
+
+  private final long warmUpSeconds;
+
+  private final long warmUpMessages;
+
+  private final long reportIntervalSeconds;
+
+  private final boolean nullSink;
+
+  private final Properties producerProperties;
+
+  private final Map<String, String> registryOriginals;
+
+  private DriverConfig(Properties properties) throws IOException {
+    topics = readTopics(properties);
+    threads = Integer.parseInt(properties.getProperty(THREADS, "1").trim());
+    threadModel = ThreadModel.valueOf(properties.getProperty(THREAD_MODEL, ThreadModel.PLATFORM.name()).trim().toUpperCase());
+    closedLoop = Boolean.parseBoolean(properties.getProperty(CLOSED_LOOP, "false").trim());
+    rate = Double.parseDouble(properties.getProperty(RATE, "0").trim());
+    durationSeconds = Long.parseLong(properties.getProperty(DURATION_SECONDS, "0").trim());
+    messages = Long.parseLong(properties.getProperty(MESSAGES, "0").trim());
+    warmUpSeconds = Long.parseLong(properties.getProperty(WARMUP_SECONDS, "0").trim());
+    warmUpMessages = Long.parseLong(properties.getProperty(WARMUP_MESSAGES, "0").trim());
+    reportIntervalSeconds = Long.parseLong(properties.getProperty(REPORT_INTERVAL_SECONDS, "10").trim());
+    nullSink = Boolean.parseBoolean(properties.getProperty(NULL_SINK, "false").trim());
+    producerProperties = new Properties();
+    registryOriginals = new HashMap<>();
+    for (String name : properties.stringPropertyNames()) {
+      if (name.startsWith(KAFKA_PREFIX)) {
+        producerProperties.put(name.substring(KAFKA_PREFIX.length()), properties.getProperty(name));
+      } else if (REGISTRY_PREFIXES.stream().anyMatch(name::startsWith)) {
+        registryOriginals.put(name, properties.getProperty(name));
+      }
+    }
+    if (registryOriginals.containsKey(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG)) {
+      registryOriginals.put(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG,
+                            SchemaBundle.registryUrl(registryOriginals.get(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG)));
+    }
+    if (threads <= 0 || rate < 0 || reportIntervalSeconds <= 0) {
+      throw new KLoadGenException("Threads and report interval must be greater than 0 and rate can not be negative");
+    }
+    if (threads < topics.size()) {
+      throw new KLoadGenException(String.format("%s must be at least the number of topics, %d", THREADS, topics.size()));
+    }
+    if (topics.stream().map(TopicConfig::getValueSchemaType).distinct().count() > 1) {
+      throw new KLoadGenException("All topics share one producer, so they must have the same value schema type");
+    }
+  }
+
+  public String getValueSchemaType() {
+    return topics.get(0).getValueSchemaType();
+  }
+
+  public static DriverConfig from(Properties properties) {
+    try {
+      return new DriverConfig(properties);
+    } catch (IOException e) {
+      throw new KLoadGenException("Unable to read the value schema", e);
+    } catch (IllegalArgumentException e) {
+      throw new KLoadGenException("Wrong driver configuration: " + e.getMessage(), e);
+    }
+  }
+
+  public static DriverConfig load(Path configFile) throws IOException {
+    return from(read(configFile));
+  }
+
+  static Properties read(Path configFile) throws IOException {
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(configFile, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    }
+    return properties;
+  }
+
+  private static String required(Properties properties, String name) {
+    String value = properties.getProperty(name);
+    if (StringUtils.isBlank(value)) {
+      throw new KLoadGenException("Missing driver property " + name);
+    }
+    return value.trim();
+  }
+
+  private static List<TopicConfig> readTopics(Properties properties) throws IOException {
+    if (StringUtils.isBlank(properties.getProperty(TOPICS))) {
+      return List.of(readTopic(required(properties, TOPIC), properties));
+    }
+    List<TopicConfig> topics = new ArrayList<>();
+    for (String topic : StringUtils.split(properties.getProperty(TOPICS), ',')) {
+      topics.add(readTopic(topic.trim(), topicProperties(properties, topic.trim())));
+    }
+    return topics;
+  }
+
+  private static Properties topicProperties(Properties properties, String topic) {
+    String prefix = TOPICS + "." + topic + ".";
+    Map<String, String> overrides = properties.stringPropertyNames().stream()
+                                              .filter(name -> name.startsWith(prefix))
+                                              .collect(Collectors.toMap(name -> DRIVER_PREFIX + name.substring(prefix.length()), properties::getProperty));
+    boolean ownFields = overrides.keySet().stream().anyMatch(name -> name.startsWith(FIELD_PREFIX));
+    boolean ownValue = VALUE_SOURCES.stream().anyMatch(overrides::containsKey);
+    Properties topicProperties = new Properties();
+    for (String name : properties.stringPropertyNames()) {
+      if (!name.startsWith(TOPICS) && !(ownFields && name.startsWith(FIELD_PREFIX)) && !(ownValue && VALUE_SOURCES.contains(name))) {
+        topicProperties.setProperty(name, properties.getProperty(name));
+      }
+    }
+    topicProperties.putAll(overrides);
+    return topicProperties;
+  }
+
+  private static TopicConfig readTopic(String topic, Properties properties) throws IOException {
+    String valueSubject = StringUtils.trimToNull(properties.getProperty(VALUE_SUBJECT));
+    String valueSchema = readSchema(properties);
+    if (StringUtils.isBlank(valueSubject) == StringUtils.isBlank(valueSchema)) {
+      throw new KLoadGenException(String.format("Exactly one of %s, %s or %s is required for topic %s", VALUE_SUBJECT, VALUE_SCHEMA, VALUE_SCHEMA_FILE, topic));
+    }
+    return new TopicConfig(topic, properties.getProperty(VALUE_SCHEMA_TYPE, "AVRO").trim().toUpperCase(), valueSubject, valueSchema,
+                           GenerationMode.valueOf(properties.getProperty(GENERATION_MODE, GenerationMode.INTERPRETED.name()).trim().toUpperCase()),
+                           readFieldMappings(properties));
+  }
+
+  private static String readSchema(Properties properties) throws IOException {
+    if (StringUtils.isNotBlank(properties.getProperty(VALUE_SCHEMA_FILE))) {
+      return Files.readString(Path.of(properties.getProperty(VALUE_SCHEMA_FILE).trim()));
+    }
+    return StringUtils.trimToNull(properties.getProperty(VALUE_SCHEMA));
+  }
+
+  private static List<FieldValueMapping> readFieldMappings(Properties properties) {
+    List<FieldValueMapping> mappings = new ArrayList<>();
+    for (int i = 0; StringUtils.isNotBlank(properties.getProperty(FIELD_PREFIX + i + ".name")); i++) {
+      String prefix = FIELD_PREFIX + i + ".";
+      mappings.add(FieldValueMapping.builder()
+                                    .fieldName(properties.getProperty(prefix + "name").trim())
+                                    .fieldType(required(properties, prefix + "type"))
+                                    .valueLength(Integer.valueOf(properties.getProperty(prefix + "length", "0").trim()))
+                                    .fieldValueList(properties.getProperty(prefix + "values", ""))
+                                    .required(Boolean.valueOf(properties.getProperty(prefix + "required", "true").trim()))
+                                    .isAncestorRequired(Boolean.valueOf(properties.getProperty(prefix + "ancestor.required", "false").trim()))
+                                    .build());
+    }
+    return mappings;
+  }
+}
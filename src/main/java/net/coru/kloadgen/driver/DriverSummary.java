@@ -0,0 +1,94 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import lombok.Value;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.metrics.LatencyHistogram;
+
+@Value
+public class DriverSummary {
+
+  private static final String SENT = "sent";
+
+  private static final String ACKNOWLEDGED = "acknowledged";
+
+  private static final String FAILED = "failed";
+
+  private static final String SENT_BYTES = "sent.bytes";
+
+  private static final String ELAPSED_MILLIS = "elapsed.ms";
+
+  private static final String LATENCY = "latency";
+
+  long sent;
+
+  long acknowledged;
+
+  long failed;
+
+  long sentBytes;
+
+  long elapsedMillis;
+
+  LatencyHistogram latency;
+
+  public double getThroughput() {
+    return elapsedMillis == 0 ? 0 : acknowledged * 1000.0 / elapsedMillis;
+  }
+
+  public static DriverSummary merge(List<DriverSummary> summaries) {
+    LatencyHistogram latency = new LatencyHistogram();
+    summaries.forEach(summary -> latency.add(summary.getLatency()));
+    return new DriverSummary(summaries.stream().mapToLong(DriverSummary::getSent).sum(),
+                             summaries.stream().mapToLong(DriverSummary::getAcknowledged).sum(),
+                             summaries.stream().mapToLong(DriverSummary::getFailed).sum(),
+                             summaries.stream().mapToLong(DriverSummary::getSentBytes).sum(),
+                             summaries.stream().mapToLong(DriverSummary::getElapsedMillis).max().orElse(0),
+                             latency);
+  }
+
+  public static DriverSummary load(Path summaryFile) throws IOException {
+    Properties properties = DriverConfig.read(summaryFile);
+    try {
+      return new DriverSummary(Long.parseLong(properties.getProperty(SENT)), Long.parseLong(properties.getProperty(ACKNOWLEDGED)),
+                               Long.parseLong(properties.getProperty(FAILED)), Long.parseLong(properties.getProperty(SENT_BYTES)),
+                               Long.parseLong(properties.getProperty(ELAPSED_MILLIS)), LatencyHistogram.decode(properties.getProperty(LATENCY, "")));
+    } catch (NumberFormatException e) {
+      throw new KLoadGenException("Wrong driver summary file " + summaryFile, e);
+    }
+  }
+
+  public void store(Path summaryFile) throws IOException {
+    Properties properties = new Properties();
+    properties.setProperty(SENT, String.valueOf(sent));
+    properties.setProperty(ACKNOWLEDGED, String.valueOf(acknowledged));
+    properties.setProperty(FAILED, String.valueOf(failed));
+    properties.setProperty(SENT_BYTES, String.valueOf(sentBytes));
+    properties.setProperty(ELAPSED_MILLIS, String.valueOf(elapsedMillis));
+    properties.setProperty(LATENCY, latency.encode());
+    try (Writer writer = Files.newBufferedWriter(summaryFile, StandardCharsets.UTF_8)) {
+      properties.store(writer, null);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "sent=%d acked=%d failed=%d bytes=%d elapsed=%dms rate=%.1f msg/s p50=%dus p99=%dus p99.9=%dus max=%dus",
+                         sent, acknowledged, failed, sentBytes, elapsedMillis, getThroughput(), latency.percentileMicros(50),
+                         latency.percentileMicros(99), latency.percentileMicros(99.9), latency.getMaxMicros());
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import static net.coru.kloadgen.util.ProducerKeysHelper.KAFKA_TOPIC_CONFIG;
+import static net.coru.kloadgen.util.ProducerKeysHelper.VALUE_GENERATION_MODE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.model.FieldValueMapping;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+public final class JmxConverter {
+
+  private static final String SCHEMA_SAMPLER_CLASS = "net.coru.kloadgen.sampler.KafkaSchemaSampler";
+
+  private static final String VALUE_SCHEMA_PROPERTIES = "valueSchemaProperties";
+
+  private JmxConverter() {
+  }
+
+  public static Properties convert(Path testPlanFile) throws IOException {
+    Document document;
+    try (InputStream input = Files.newInputStream(testPlanFile)) {
+      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+      factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+      DocumentBuilder builder = factory.newDocumentBuilder();
+      document = builder.parse(input);
+    } catch (ParserConfigurationException | SAXException e) {
+      throw new KLoadGenException("Unable to read test plan " + testPlanFile, e);
+    }
+
+    Properties properties = new Properties();
+    convertSamplerArguments(document, properties);
+    convertThreadGroup(document, properties);
+
+    Map<String, String> beanProperties = beanProperties(document);
+    putIfPresent(properties, "schema.registry.url", beanProperties.get("schemaRegistryUrl"));
+    putIfPresent(properties, DriverConfig.VALUE_SUBJECT, beanProperties.get("valueSubjectName"));
+    putIfPresent(properties, DriverConfig.VALUE_SCHEMA, beanProperties.get("valueSchemaDefinition"));
+    putIfPresent(properties, DriverConfig.VALUE_SCHEMA_TYPE, beanProperties.get("valueSchemaType"));
+    if (properties.containsKey(DriverConfig.VALUE_SCHEMA)) {
+      properties.remove(DriverConfig.VALUE_SUBJECT);
+    }
+    convertFieldMappings(document, properties);
+
+    if (!properties.containsKey(DriverConfig.TOPIC)) {
+      throw new KLoadGenException("No Kafka schema sampler found in " + testPlanFile);
+    }
+    return properties;
+  }
+
+  private static void convertSamplerArguments(Document document, Properties properties) {
+    NodeList samplers = document.getElementsByTagName("JavaSampler");
+    for (int i = 0; i < samplers.getLength(); i++) {
+      Element sampler = (Element) samplers.item(i);
+      if (!SCHEMA_SAMPLER_CLASS.equals(childProperty(sampler, "classname"))) {
+        continue;
+      }
+      NodeList arguments = sampler.getElementsByTagName("elementProp");
+      for (int j = 0; j < arguments.getLength(); j++) {
+        Element argument = (Element) arguments.item(j);
+        if (!"Argument".equals(argument.getAttribute("elementType"))) {
+          continue;
+        }
+        String name = childProperty(argument, "Argument.name");
+        String value = childProperty(argument, "Argument.value");
+        if (KAFKA_TOPIC_CONFIG.equals(name)) {
+          putIfPresent(properties, DriverConfig.TOPIC, value);
+        } else if (VALUE_GENERATION_MODE.equals(name)) {
+          putIfPresent(properties, DriverConfig.GENERATION_MODE, value);
+        } else if (ProducerConfig.configNames().contains(name) && !name.endsWith(".serializer")) {
+          putIfPresent(properties, DriverConfig.KAFKA_PREFIX + name, value);
+        }
+      }
+      return;
+    }
+  }
+
+  private static void convertThreadGroup(Document document, Properties properties) {
+    NodeList threadGroups = document.getElementsByTagName("ThreadGroup");
+    if (threadGroups.getLength() > 0) {
+      Element threadGroup = (Element) threadGroups.item(0);
+      putIfPresent(properties, DriverConfig.THREADS, childProperty(threadGroup, "ThreadGroup.num_threads"));
+      if (Boolean.parseBoolean(childProperty(threadGroup, "ThreadGroup.scheduler"))) {
+        putIfPresent(properties, DriverConfig.DURATION_SECONDS, childProperty(threadGroup, "ThreadGroup.duration"));
+      }
+    }
+  }
+
+  private static Map<String, String> beanProperties(Document document) {
+    Map<String, String> beanProperties = new HashMap<>();
+    NodeList stringProperties = document.getElementsByTagName("stringProp");
+    for (int i = 0; i < stringProperties.getLength(); i++) {
+      Element property = (Element) stringProperties.item(i);
+      beanProperties.putIfAbsent(property.getAttribute("name"), property.getTextContent());
+    }
+    return beanProperties;
+  }
+
+  private static void convertFieldMappings(Document document, Properties properties) {
+    NodeList collections = document.getElementsByTagName("collectionProp");
+    for (int i = 0; i < collections.getLength(); i++) {
+      Element collection = (Element) collections.item(i);
+      if (!VALUE_SCHEMA_PROPERTIES.equals(collection.getAttribute("name"))) {
+        continue;
+      }
+      int index = 0;
+      for (Node node = collection.getFirstChild(); Objects.nonNull(node); node = node.getNextSibling()) {
+        if (node instanceof Element) {
+          Element mapping = (Element) node;
+          String prefix = DriverConfig.FIELD_PREFIX + index + ".";
+          putIfPresent(properties, prefix + "name", childProperty(mapping, FieldValueMapping.FIELD_NAME));
+          putIfPresent(properties, prefix + "type", childProperty(mapping, FieldValueMapping.FIELD_TYPE));
+          putIfPresent(properties, prefix + "length", childProperty(mapping, FieldValueMapping.VALUE_LENGTH));
+          putIfPresent(properties, prefix + "values", childProperty(mapping, FieldValueMapping.FIELD_VALUES_LIST));
+          putIfPresent(properties, prefix + "required", childProperty(mapping, FieldValueMapping.FIELD_REQUIRED));
+          putIfPresent(properties, prefix + "ancestor.required", childProperty(mapping, FieldValueMapping.FIELD_ANCESTOR_REQUIRED));
+          index++;
+        }
+      }
+      return;
+    }
+  }
+
+  private static String childProperty(Element element, String name) {
+    for (Node node = element.getFirstChild(); Objects.nonNull(node); node = node.getNextSibling()) {
+      if (node instanceof Element && name.equals(((Element) node).getAttribute("name"))) {
+        return node.getTextContent();
+      }
+    }
+    return null;
+  }
+
+  private static void putIfPresent(Properties properties, String name, String value) {
+    if (StringUtils.isNotBlank(value)) {
+      properties.setProperty(name, value.trim());
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.Shard;
+import net.coru.kloadgen.metrics.MetricsServer;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.jmeter.util.JMeterUtils;
+
+public class KLoadGenDriver {
+
+  private static final Logger log = Logger.getLogger("KLoadGenDriver");
+
+  public static void main(String... args) {
+    Options options = createCLIOptions();
+
+    CommandLineParser parser = new DefaultParser();
+    try {
+      CommandLine line = parser.parse(options, args);
+      Path configFile = Paths.get(line.getOptionValue("c"));
+      if (line.hasOption("x")) {
+        Path testPlanFile = Paths.get(line.getOptionValue("x"));
+        if (!Files.isReadable(testPlanFile) || Files.isDirectory(testPlanFile)) {
+          throw new KLoadGenException("Test plan File not Valid");
+        }
+        Properties properties = JmxConverter.convert(testPlanFile);
+        try (Writer writer = Files.newBufferedWriter(configFile, StandardCharsets.UTF_8)) {
+          properties.store(writer, "Converted from " + testPlanFile.getFileName());
+        }
+        log.info(String.format("Driver configuration written to %s", configFile));
+        return;
+      }
+      if (!Files.isReadable(configFile) || Files.isDirectory(configFile)) {
+        throw new KLoadGenException("Driver configuration File not Valid");
+      }
+      JMeterUtils.loadJMeterProperties(configFile.toAbsolutePath().toString());
+      int workers = Integer.parseInt(line.getOptionValue("w", "1").trim());
+      if (workers > 1 && !line.hasOption("s")) {
+        String jvmOptions = DriverConfig.read(configFile).getProperty(DriverConfig.WORKER_JVM_OPTIONS);
+        DriverSummary summary = new ShardedDriver(configFile, workers, jvmOptions).run();
+        log.info(summary.toString());
+        return;
+      }
+      if (line.hasOption("s")) {
+        Shard.configure(Shard.parse(line.getOptionValue("s")));
+      }
+      MetricsServer.startIfConfigured();
+      DriverSummary summary;
+      try {
+        summary = new NativeDriver(DriverConfig.load(configFile)).run();
+      } finally {
+        MetricsServer.release();
+      }
+      log.info(summary.toString());
+      if (line.hasOption("summary")) {
+        summary.store(Paths.get(line.getOptionValue("summary")));
+      }
+    } catch (ParseException ex) {
+      log.log(Level.SEVERE, "Parsing failed.  Reason: ", ex);
+      HelpFormatter formatter = new HelpFormatter();
+      formatter.printHelp("kloadgen-driver", options);
+    } catch (KLoadGenException | NumberFormatException ex) {
+      log.log(Level.SEVERE, "Wrong parameters.  Reason: ", ex);
+      HelpFormatter formatter = new HelpFormatter();
+      formatter.printHelp("kloadgen-driver", options);
+    } catch (IOException ex) {
+      log.log(Level.SEVERE, "Error accessing files.  Reason: ", ex);
+    }
+  }
+
+  private static Options createCLIOptions() {
+    Options options = new Options();
+    options.addOption(Option.builder("c").longOpt("config").hasArg().desc("Driver properties file").required().build());
+    options.addOption(Option.builder("x").longOpt("convert").hasArg().desc("Test plan file to convert into the driver properties file").build());
+    options.addOption(Option.builder("w").longOpt("workers").hasArg().desc("Number of worker JVMs to fork, each one sending its shard of the load").build());
+    options.addOption(Option.builder("s").longOpt("shard").hasArg().desc("Shard run by this worker, as <index>/<count>").build());
+    options.addOption(Option.builder().longOpt("summary").hasArg().desc("File where the worker summary will be written").build());
+    return options;
+  }
+}
@@ -0,0 +1,335 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.extractor.impl.SchemaExtractorImpl;
+import net.coru.kloadgen.loadgen.BaseLoadGenerator;
+import net.coru.kloadgen.loadgen.Shard;
+import net.coru.kloadgen.loadgen.impl.AvroLoadGenerator;
+import net.coru.kloadgen.loadgen.impl.JsonLoadGenerator;
+import net.coru.kloadgen.loadgen.impl.ProtobufLoadGenerator;
+import net.coru.kloadgen.loadgen.impl.SchemaCache;
+import net.coru.kloadgen.metrics.LatencyHistogram;
+import net.coru.kloadgen.metrics.LiveMetrics;
+import net.coru.kloadgen.metrics.WarmUp;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.processor.GenerationMode;
+import net.coru.kloadgen.serializer.AvroSerializer;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import net.coru.kloadgen.serializer.GenericJsonRecordSerializer;
+import net.coru.kloadgen.serializer.ProtobufSerializer;
+import net.coru.kloadgen.sink.NullSinkProducer;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+@Slf4j
+public class NativeDriver {
+
+  private static final Set<String> ENRICHED_SERIALIZERS = Set.of(AvroSerializer.class.getName(), ProtobufSerializer.class.getName());
+
+  private final DriverConfig config;
+
+  private final LongAdder sent = new LongAdder();
+
+  private final LongAdder acknowledged = new LongAdder();
+
+  private final LongAdder failed = new LongAdder();
+
+  private final LongAdder sentBytes = new LongAdder();
+
+  private final LatencyHistogram intervalLatency = new LatencyHistogram();
+
+  private final LatencyHistogram totalLatency = new LatencyHistogram();
+
+  private final Shard shard;
+
+  private final WarmUp warmUp;
+
+  private volatile boolean running;
+
+  public NativeDriver(DriverConfig config) {
+    this.config = config;
+    this.shard = Shard.current();
+    this.warmUp = new WarmUp("driver", config.getWarmUpSeconds(), shard.share(config.getWarmUpMessages()));
+  }
+
+  public DriverSummary run() {
+    List<TopicConfig> topics = config.getTopics();
+    List<List<FieldValueMapping>> fieldMappings = new ArrayList<>(topics.size());
+    for (TopicConfig topic : topics) {
+      fieldMappings.add(topic.getFieldMappings().isEmpty() ? extractFieldMappings(topic) : topic.getFieldMappings());
+    }
+    Properties producerProperties = producerProperties();
+    boolean enrichedValue = ENRICHED_SERIALIZERS.contains(producerProperties.getProperty(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+    List<BaseLoadGenerator> generators = new ArrayList<>(config.getThreads());
+    for (int i = 0; i < config.getThreads(); i++) {
+      generators.add(createGenerator(topics.get(i % topics.size()), copyOf(fieldMappings.get(i % topics.size())), producerProperties));
+    }
+
+    long messages = config.getMessages() > 0 ? shard.share(config.getMessages()) : Long.MAX_VALUE;
+    AtomicLong remaining = new AtomicLong(messages);
+    long start = System.nanoTime();
+    ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "kloadgen-driver-report");
+      thread.setDaemon(true);
+      return thread;
+    });
+    Thread shutdownHook = new Thread(this::stop, "kloadgen-driver-shutdown");
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+    log.info("Starting {} {} threads on {}, closed loop: {}, null sink: {}, shard: {}", config.getThreads(), config.getThreadModel(),
+             topics.stream().map(TopicConfig::getTopic).collect(Collectors.toList()), config.isClosedLoop(), config.isNullSink(), shard);
+    running = true;
+
+    try (Producer<Object, Object> producer = createProducer(producerProperties)) {
+      LiveMetrics.registerProducer(producer);
+      try {
+        reporter.scheduleAtFixedRate(() -> report(start), config.getReportIntervalSeconds(), config.getReportIntervalSeconds(), TimeUnit.SECONDS);
+        List<Thread> workers = new ArrayList<>(config.getThreads());
+        ThreadFactory threadFactory = WorkerThreads.threadFactory(config.getThreadModel(), "kloadgen-driver-");
+        for (int i = 0; i < config.getThreads(); i++) {
+          BaseLoadGenerator generator = generators.get(i);
+          String topic = topics.get(i % topics.size()).getTopic();
+          Thread worker = threadFactory.newThread(() -> produce(topic, generator, producer, enrichedValue, remaining, start));
+          workers.add(worker);
+          worker.start();
+        }
+        for (Thread worker : workers) {
+          worker.join();
+        }
+        producer.flush();
+      } finally {
+        LiveMetrics.unregisterProducer(producer);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KLoadGenException("Driver interrupted", e);
+    } finally {
+      running = false;
+      reporter.shutdownNow();
+      removeShutdownHook(shutdownHook);
+    }
+
+    totalLatency.add(intervalLatency.drain());
+    DriverSummary summary = new DriverSummary(sent.sum(), acknowledged.sum(), failed.sum(), sentBytes.sum(),
+                                              TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - measuredStart(start)), totalLatency);
+    log.info("Driver finished: {}", summary);
+    return summary;
+  }
+
+  public void stop() {
+    running = false;
+  }
+
+  protected Producer<Object, Object> createProducer(Properties producerProperties) {
+    return config.isNullSink() ? new NullSinkProducer(producerProperties) : new KafkaProducer<>(producerProperties);
+  }
+
+  private void produce(String topic, BaseLoadGenerator generator, Producer<Object, Object> producer, boolean enrichedValue, AtomicLong remaining,
+                       long start) {
+    JMeterContextService.getContext().setVariables(new JMeterVariables());
+    double threadRate = shard.share(config.getRate()) / config.getThreads();
+    long intervalNanos = threadRate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / threadRate) : 0;
+    long nextSend = System.nanoTime();
+    while (running) {
+      boolean warm = warmUp.record(1);
+      if (!warm && (System.nanoTime() >= deadline(start) || remaining.getAndDecrement() <= 0)) {
+        break;
+      }
+      if (intervalNanos > 0) {
+        nextSend += intervalNanos;
+        long wait = nextSend - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+      }
+      try {
+        EnrichedRecord record = config.isNullSink() ? NullSinkProducer.generate(generator::nextMessage) : generator.nextMessage();
+        long sendStart = System.nanoTime();
+        Future<RecordMetadata> result = producer.send(new ProducerRecord<>(topic, enrichedValue ? record : record.getGenericRecord()),
+                                                      (metadata, exception) -> complete(warm, sendStart, metadata, exception));
+        if (!warm) {
+          sent.increment();
+        }
+        if (config.isClosedLoop()) {
+          result.get();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        log.debug("Send failed", e);
+      } catch (RuntimeException e) {
+        if (!warm) {
+          failed.increment();
+          LiveMetrics.recordFailure();
+        }
+        log.error("Failed to send message", e);
+      }
+    }
+  }
+
+  private void complete(boolean warm, long sendStart, RecordMetadata metadata, Exception exception) {
+    if (warm) {
+      return;
+    }
+    if (exception != null) {
+      failed.increment();
+      LiveMetrics.recordFailure();
+      log.debug("Send failed", exception);
+    } else {
+      long bytes = Math.max(0, metadata.serializedKeySize()) + Math.max(0, metadata.serializedValueSize());
+      long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sendStart);
+      acknowledged.increment();
+      sentBytes.add(bytes);
+      intervalLatency.recordMicros(latencyMicros);
+      LiveMetrics.recordSend(bytes, latencyMicros);
+    }
+  }
+
+  private long measuredStart(long start) {
+    return warmUp.getFinishedNanos() == Long.MIN_VALUE ? start : Math.max(start, warmUp.getFinishedNanos());
+  }
+
+  private long deadline(long start) {
+    return config.getDurationSeconds() > 0 ? measuredStart(start) + TimeUnit.SECONDS.toNanos(config.getDurationSeconds()) : Long.MAX_VALUE;
+  }
+
+  private void report(long start) {
+    if (!warmUp.isFinished()) {
+      log.info("{}s warming up", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+      return;
+    }
+    LatencyHistogram interval = intervalLatency.drain();
+    totalLatency.add(interval);
+    double rate = interval.getCount() / (double) config.getReportIntervalSeconds();
+    log.info("{}s sent={} acked={} failed={} rate={} msg/s p50={}us p99={}us p99.9={}us max={}us",
+             TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), sent.sum(), acknowledged.sum(), failed.sum(), String.format(Locale.ROOT, "%.1f", rate),
+             interval.percentileMicros(50), interval.percentileMicros(99), interval.percentileMicros(99.9), interval.getMaxMicros());
+  }
+
+  private Properties producerProperties() {
+    Properties properties = new Properties();
+    properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+    properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, defaultValueSerializer());
+    properties.putAll(config.getProducerProperties());
+    return properties;
+  }
+
+  private String defaultValueSerializer() {
+    switch (config.getValueSchemaType()) {
+      case "PROTOBUF":
+        return ProtobufSerializer.class.getName();
+      case "JSON":
+        return GenericJsonRecordSerializer.class.getName();
+      default:
+        return AvroSerializer.class.getName();
+    }
+  }
+
+  private BaseLoadGenerator createGenerator(TopicConfig topic, List<FieldValueMapping> fieldMappings, Properties producerProperties) {
+    BaseLoadGenerator generator;
+    switch (topic.getValueSchemaType()) {
+      case "AVRO":
+        generator = new AvroLoadGenerator();
+        break;
+      case "PROTOBUF":
+        generator = new ProtobufLoadGenerator();
+        break;
+      case "JSON":
+        generator = new JsonLoadGenerator();
+        break;
+      default:
+        throw new KLoadGenException("Unsupported schema type " + topic.getValueSchemaType());
+    }
+    if (topic.getValueSubject() != null) {
+      generator.setUpGenerator(config.getRegistryOriginals(), topic.getValueSubject(), fieldMappings);
+    } else {
+      generator.setUpGenerator(topic.getValueSchema(), fieldMappings);
+    }
+    if (generator instanceof AvroLoadGenerator) {
+      AvroLoadGenerator avroGenerator = (AvroLoadGenerator) generator;
+      if (GenerationMode.PLANNED == topic.getGenerationMode()) {
+        avroGenerator.enableRecordPlan();
+      } else if (GenerationMode.FUSED == topic.getGenerationMode()
+                 && !(AvroSerializer.class.getName().equals(producerProperties.getProperty(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG))
+                      && avroGenerator.enableFlatRecordEncoding())) {
+        log.warn("Value schema of topic {} cannot be encoded while generating, the interpreted mode is used", topic.getTopic());
+      }
+    } else if (generator instanceof ProtobufLoadGenerator && GenerationMode.PLANNED == topic.getGenerationMode()) {
+      ((ProtobufLoadGenerator) generator).enableMessagePlan();
+    }
+    return generator;
+  }
+
+  private List<FieldValueMapping> extractFieldMappings(TopicConfig topic) {
+    ParsedSchema schema;
+    try {
+      if (topic.getValueSubject() != null) {
+        schema = SchemaCache.getSchema(config.getRegistryOriginals(), topic.getValueSubject(), null).getRight();
+      } else if ("PROTOBUF".equals(topic.getValueSchemaType())) {
+        schema = SchemaCache.parseSchema(ProtobufSchema.TYPE, topic.getValueSchema(), ProtobufSchema::new);
+      } else if ("JSON".equals(topic.getValueSchemaType())) {
+        schema = SchemaCache.parseSchema(JsonSchema.TYPE, topic.getValueSchema(), JsonSchema::new);
+      } else {
+        schema = SchemaCache.parseSchema(AvroSchema.TYPE, topic.getValueSchema(), AvroSchema::new);
+      }
+    } catch (Exception e) {
+      throw new KLoadGenException("Unable to read the value schema of topic " + topic.getTopic(), e);
+    }
+    return new SchemaExtractorImpl().flatPropertiesList(schema);
+  }
+
+  private static List<FieldValueMapping> copyOf(List<FieldValueMapping> fieldMappings) {
+    return fieldMappings.stream()
+                        .map(mapping -> FieldValueMapping.builder()
+                                                         .fieldName(mapping.getFieldName())
+                                                         .fieldType(mapping.getFieldType())
+                                                         .valueLength(mapping.getValueLength())
+                                                         .fieldValueList(mapping.getPropertyAsString(FieldValueMapping.FIELD_VALUES_LIST))
+                                                         .constraints(mapping.getConstraints())
+                                                         .required(mapping.getRequired())
+                                                         .isAncestorRequired(mapping.getAncestorRequired())
+                                                         .build())
+                        .collect(Collectors.toList());
+  }
+
+  private static void removeShutdownHook(Thread shutdownHook) {
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException e) {
+      log.debug("JVM is already shutting down");
+    }
+  }
+}
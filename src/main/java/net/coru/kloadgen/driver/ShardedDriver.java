@@ -0,0 +1,93 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.Shard;
+import org.apache.commons.lang3.StringUtils;
+
+@Slf4j
+public class ShardedDriver {
+
+  private final Path configFile;
+
+  private final int workers;
+
+  private final List<String> jvmOptions;
+
+  public ShardedDriver(Path configFile, int workers, String jvmOptions) {
+    if (workers <= 0) {
+      throw new KLoadGenException("Workers must be greater than 0");
+    }
+    this.configFile = configFile.toAbsolutePath();
+    this.workers = workers;
+    this.jvmOptions = StringUtils.isBlank(jvmOptions) ? List.of() : Arrays.asList(jvmOptions.trim().split("\\s+"));
+  }
+
+  public DriverSummary run() throws IOException {
+    Path summaryDir = Files.createTempDirectory("kloadgen-driver-");
+    List<Process> processes = new ArrayList<>(workers);
+    Thread shutdownHook = new Thread(() -> processes.forEach(Process::destroy), "kloadgen-workers-shutdown");
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+    log.info("Starting {} driver workers", workers);
+    try {
+      for (int i = 0; i < workers; i++) {
+        processes.add(new ProcessBuilder(command(new Shard(i, workers), summaryFile(summaryDir, i))).inheritIO().start());
+      }
+      List<DriverSummary> summaries = new ArrayList<>(workers);
+      for (int i = 0; i < workers; i++) {
+        int exitCode = processes.get(i).waitFor();
+        Path summaryFile = summaryFile(summaryDir, i);
+        if (exitCode != 0 || !Files.isReadable(summaryFile)) {
+          throw new KLoadGenException(String.format("Driver worker %d failed with exit code %d", i, exitCode));
+        }
+        summaries.add(DriverSummary.load(summaryFile));
+      }
+      DriverSummary summary = DriverSummary.merge(summaries);
+      log.info("Driver workers finished: {}", summary);
+      return summary;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KLoadGenException("Driver interrupted", e);
+    } finally {
+      processes.forEach(Process::destroy);
+      try {
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+      } catch (IllegalStateException e) {
+        log.debug("JVM is already shutting down");
+      }
+      for (int i = 0; i < workers; i++) {
+        Files.deleteIfExists(summaryFile(summaryDir, i));
+      }
+      Files.deleteIfExists(summaryDir);
+    }
+  }
+
+  List<String> command(Shard shard, Path summaryFile) {
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(jvmOptions);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(KLoadGenDriver.class.getName());
+    command.addAll(List.of("-c", configFile.toString(), "-s", shard.toString(), "--summary", summaryFile.toString()));
+    return command;
+  }
+
+  private static Path summaryFile(Path summaryDir, int index) {
+    return summaryDir.resolve("worker-" + index + ".properties");
+  }
+}
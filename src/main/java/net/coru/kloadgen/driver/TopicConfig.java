@@ -0,0 +1,31 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.processor.GenerationMode;
+
+@Getter
+@AllArgsConstructor
+public class TopicConfig {
+
+  private final String topic;
+
+  private final String valueSchemaType;
+
+  private final String valueSubject;
+
+  private final String valueSchema;
+
+  private final GenerationMode generationMode;
+
+  private final List<FieldValueMapping> fieldMappings;
+}
@@ -0,0 +1,31 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+final class WorkerThreads {
+
+  private WorkerThreads() {
+  }
+
+  static boolean supportsVirtualThreads() {
+    return false;
+  }
+
+  static ThreadFactory threadFactory(ThreadModel threadModel, String prefix) {
+    if (ThreadModel.VIRTUAL == threadModel) {
+      log.warn("Virtual threads need Java 21 or later, using platform threads");
+    }
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> new Thread(runnable, prefix + counter.getAndIncrement());
+  }
+}
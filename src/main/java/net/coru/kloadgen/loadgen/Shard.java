@@ -0,0 +1,84 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen;
+
+import static net.coru.kloadgen.util.PropsKeysHelper.SHARD_COUNT;
+import static net.coru.kloadgen.util.PropsKeysHelper.SHARD_INDEX;
+
+import lombok.Value;
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.jmeter.util.JMeterUtils;
+
+@Value
+public class Shard {
+
+  public static final Shard NONE = new Shard(0, 1);
+
+  private static volatile Shard current;
+
+  int index;
+
+  int count;
+
+  public Shard(int index, int count) {
+    if (count <= 0 || index < 0 || index >= count) {
+      throw new KLoadGenException(String.format("Shard index must be between 0 and %d, but was %d", count - 1, index));
+    }
+    this.index = index;
+    this.count = count;
+  }
+
+  public static Shard current() {
+    Shard shard = current;
+    if (shard == null) {
+      synchronized (Shard.class) {
+        if (current == null) {
+          current = new Shard(JMeterUtils.getPropDefault(SHARD_INDEX, 0), JMeterUtils.getPropDefault(SHARD_COUNT, 1));
+        }
+        shard = current;
+      }
+    }
+    return shard;
+  }
+
+  public static synchronized void configure(Shard shard) {
+    current = shard;
+  }
+
+  public static Shard parse(String shard) {
+    String[] parts = shard.trim().split("/");
+    try {
+      if (parts.length != 2) {
+        throw new NumberFormatException(shard);
+      }
+      return new Shard(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    } catch (NumberFormatException e) {
+      throw new KLoadGenException("Shard must be <index>/<count>, but was " + shard, e);
+    }
+  }
+
+  public boolean isSharded() {
+    return count > 1;
+  }
+
+  public long position(long localPosition) {
+    return localPosition * count + index;
+  }
+
+  public long share(long total) {
+    return total / count + (index < total % count ? 1 : 0);
+  }
+
+  public double share(double total) {
+    return total / count;
+  }
+
+  @Override
+  public String toString() {
+    return index + "/" + count;
+  }
+}
@@ -9,6 +9,7 @@ package net.coru.kloadgen.loadgen.impl;
 import java.util.List;
 import java.util.Map;
 
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
 import lombok.extern.slf4j.Slf4j;
 import net.coru.kloadgen.exception.KLoadGenException;
@@ -16,7 +17,6 @@ import net.coru.kloadgen.loadgen.BaseLoadGenerator;
 import net.coru.kloadgen.model.FieldValueMapping;
 import net.coru.kloadgen.processor.AvroSchemaProcessor;
 import net.coru.kloadgen.serializer.EnrichedRecord;
-import org.apache.avro.Schema;
 
 @Slf4j
 public class AvroLoadGenerator extends AbstractLoadGenerator implements BaseLoadGenerator {
@@ -28,8 +28,13 @@ public class AvroLoadGenerator extends AbstractLoadGenerator implements BaseLoad
   }
 
   public void setUpGenerator(Map<String, String> originals, String avroSchemaName, List<FieldValueMapping> fieldExprMappings) {
+    setUpGenerator(originals, avroSchemaName, null, fieldExprMappings);
+  }
+
+  @Override
+  void setUpGenerator(Map<String, String> originals, String avroSchemaName, Integer version, List<FieldValueMapping> fieldExprMappings) {
     try {
-      var schema = retrieveSchema(originals, avroSchemaName);
+      var schema = retrieveSchema(originals, avroSchemaName, version);
       this.avroSchemaProcessor.processSchema(schema.getRight(), schema.getLeft(), fieldExprMappings);
     } catch (Exception exc) {
       log.error("Please make sure that properties data type and expression function return type are compatible with each other", exc);
@@ -39,14 +44,21 @@ public class AvroLoadGenerator extends AbstractLoadGenerator implements BaseLoad
 
   public void setUpGenerator(String schema, List<FieldValueMapping> fieldExprMappings) {
     try {
-      Schema.Parser parser = new Schema.Parser();
-      this.avroSchemaProcessor.processSchema(parser.parse(schema), new SchemaMetadata(1, 1, schema), fieldExprMappings);
+      this.avroSchemaProcessor.processSchema(SchemaCache.parseSchema(AvroSchema.TYPE, schema, AvroSchema::new), new SchemaMetadata(1, 1, schema), fieldExprMappings);
     } catch (Exception exc) {
       log.error("Please make sure that properties data type and expression function return type are compatible with each other", exc);
       throw new KLoadGenException(exc);
     }
   }
 
+  public boolean enableFlatRecordEncoding() {
+    return avroSchemaProcessor.enableFlatRecordEncoding();
+  }
+
+  public boolean enableRecordPlan() {
+    return avroSchemaProcessor.enableRecordPlan();
+  }
+
   public EnrichedRecord nextMessage() {
     return avroSchemaProcessor.next();
   }
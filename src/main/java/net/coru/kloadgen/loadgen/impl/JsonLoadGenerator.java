@@ -9,9 +9,11 @@ package net.coru.kloadgen.loadgen.impl;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.json.JsonSchema;
 import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
 import lombok.extern.slf4j.Slf4j;
 import net.coru.kloadgen.exception.KLoadGenException;
@@ -44,7 +46,9 @@ public class JsonLoadGenerator extends AbstractLoadGenerator implements BaseLoad
 
   public void setUpGenerator(String schema, List<FieldValueMapping> fieldExprMappings) {
     try {
-      var parsedSchema = new JsonSchemaProvider().parseSchema(schema, Collections.emptyList(), true);
+      var parsedSchema = Optional.ofNullable(SchemaCache.parseSchema(JsonSchema.TYPE, schema,
+                                                                    jsonSchema -> new JsonSchemaProvider().parseSchema(jsonSchema, Collections.emptyList(), true)
+                                                                                                        .orElse(null)));
       metadata = parsedSchema.map(parsSchema -> Pair.of(new SchemaMetadata(1, 1, "JSON", Collections.emptyList(), schema), parsSchema)).orElse(null);
       this.jsonSchemaProcessor.processSchema(fieldExprMappings);
     } catch (Exception exc) {
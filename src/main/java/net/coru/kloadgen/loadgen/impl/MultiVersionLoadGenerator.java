@@ -0,0 +1,152 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.extractor.impl.SchemaExtractorImpl;
+import net.coru.kloadgen.loadgen.BaseLoadGenerator;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.commons.lang3.tuple.Pair;
+
+@Slf4j
+public class MultiVersionLoadGenerator implements BaseLoadGenerator {
+
+  private static final String LATEST = "latest";
+
+  private final Supplier<AbstractLoadGenerator> generatorFactory;
+
+  private final List<Pair<Integer, Integer>> versionWeights;
+
+  private final List<BaseLoadGenerator> generators = new ArrayList<>();
+
+  private int[] cumulativeWeights;
+
+  public MultiVersionLoadGenerator(BaseLoadGenerator template, String versionWeights) {
+    if (template instanceof AvroLoadGenerator) {
+      generatorFactory = AvroLoadGenerator::new;
+    } else if (template instanceof ProtobufLoadGenerator) {
+      generatorFactory = ProtobufLoadGenerator::new;
+    } else {
+      throw new KLoadGenException("Schema version rotation is only supported for AVRO and PROTOBUF schemas");
+    }
+    this.versionWeights = parseVersionWeights(versionWeights);
+  }
+
+  static List<Pair<Integer, Integer>> parseVersionWeights(String versionWeights) {
+    List<Pair<Integer, Integer>> result = new ArrayList<>();
+    for (String entry : versionWeights.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      String[] parts = entry.trim().split(":");
+      if (parts.length > 2) {
+        throw new KLoadGenException("Wrong schema version weight: " + entry);
+      }
+      try {
+        Integer version = LATEST.equalsIgnoreCase(parts[0].trim()) ? null : Integer.valueOf(parts[0].trim());
+        int weight = parts.length == 2 ? Integer.parseInt(parts[1].trim()) : 1;
+        if (weight <= 0) {
+          throw new KLoadGenException("Schema version weight must be greater than 0: " + entry);
+        }
+        result.add(Pair.of(version, weight));
+      } catch (NumberFormatException e) {
+        throw new KLoadGenException("Wrong schema version weight: " + entry, e);
+      }
+    }
+    if (result.isEmpty()) {
+      throw new KLoadGenException("No schema version configured in: " + versionWeights);
+    }
+    return result;
+  }
+
+  static List<FieldValueMapping> versionMappings(List<FieldValueMapping> versionFields, List<FieldValueMapping> configuredMappings) {
+    Map<String, FieldValueMapping> configured = new HashMap<>();
+    if (Objects.nonNull(configuredMappings)) {
+      configuredMappings.forEach(mapping -> configured.put(mapping.getFieldName(), mapping));
+    }
+    List<FieldValueMapping> result = new ArrayList<>(versionFields.size());
+    for (FieldValueMapping versionField : versionFields) {
+      FieldValueMapping configuredMapping = configured.get(versionField.getFieldName());
+      if (Objects.nonNull(configuredMapping) && Objects.equals(configuredMapping.getFieldType(), versionField.getFieldType())) {
+        result.add(configuredMapping);
+      } else {
+        result.add(versionField);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void setUpGenerator(Map<String, String> originals, String avroSchemaName, List<FieldValueMapping> fieldExprMappings) {
+    SchemaExtractorImpl schemaExtractor = new SchemaExtractorImpl();
+    cumulativeWeights = new int[versionWeights.size()];
+    int totalWeight = 0;
+    for (int i = 0; i < versionWeights.size(); i++) {
+      Integer version = versionWeights.get(i).getLeft();
+      Pair<SchemaMetadata, ParsedSchema> schema;
+      try {
+        schema = SchemaCache.getSchema(originals, avroSchemaName, version);
+      } catch (Exception e) {
+        throw new KLoadGenException(String.format("Unable to retrieve version %s of subject %s", Objects.toString(version, LATEST), avroSchemaName), e);
+      }
+      AbstractLoadGenerator generator = generatorFactory.get();
+      generator.setUpGenerator(originals, avroSchemaName, version, versionMappings(schemaExtractor.flatPropertiesList(schema.getRight()), fieldExprMappings));
+      generators.add(generator);
+      totalWeight += versionWeights.get(i).getRight();
+      cumulativeWeights[i] = totalWeight;
+      log.debug("Generating version {} of subject {} with schema id {}", schema.getLeft().getVersion(), avroSchemaName, schema.getLeft().getId());
+    }
+  }
+
+  @Override
+  public void setUpGenerator(String schema, List<FieldValueMapping> fieldExprMappings) {
+    throw new KLoadGenException("Schema version rotation needs the schema to be read from the Schema Registry");
+  }
+
+  public boolean enableRecordPlan() {
+    return enableOnEveryVersion(AvroLoadGenerator.class, AvroLoadGenerator::enableRecordPlan);
+  }
+
+  public boolean enableFlatRecordEncoding() {
+    return enableOnEveryVersion(AvroLoadGenerator.class, AvroLoadGenerator::enableFlatRecordEncoding);
+  }
+
+  public boolean enableMessagePlan() {
+    return enableOnEveryVersion(ProtobufLoadGenerator.class, ProtobufLoadGenerator::enableMessagePlan);
+  }
+
+  private <T> boolean enableOnEveryVersion(Class<T> generatorType, Predicate<T> enableMode) {
+    boolean enabled = !generators.isEmpty();
+    for (BaseLoadGenerator generator : generators) {
+      enabled &= generatorType.isInstance(generator) && enableMode.test(generatorType.cast(generator));
+    }
+    return enabled;
+  }
+
+  @Override
+  public EnrichedRecord nextMessage() {
+    int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+    int index = 0;
+    while (cumulativeWeights[index] <= pick) {
+      index++;
+    }
+    return generators.get(index).nextMessage();
+  }
+}
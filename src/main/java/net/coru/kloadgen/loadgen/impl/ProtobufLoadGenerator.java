@@ -4,6 +4,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import lombok.extern.slf4j.Slf4j;
@@ -24,8 +25,13 @@ public class ProtobufLoadGenerator extends AbstractLoadGenerator implements Base
 
   @Override
   public void setUpGenerator(Map<String, String> originals, String avroSchemaName, List<FieldValueMapping> fieldExprMappings) {
+    setUpGenerator(originals, avroSchemaName, null, fieldExprMappings);
+  }
+
+  @Override
+  void setUpGenerator(Map<String, String> originals, String avroSchemaName, Integer version, List<FieldValueMapping> fieldExprMappings) {
     try {
-      var schema = retrieveSchema(originals, avroSchemaName);
+      var schema = retrieveSchema(originals, avroSchemaName, version);
       this.protobufSchemaProcessor.processSchema(schema.getRight(), schema.getLeft(), fieldExprMappings);
     } catch (Exception exc) {
       log.error("Please make sure that properties data type and expression function return type are compatible with each other", exc);
@@ -36,7 +42,7 @@ public class ProtobufLoadGenerator extends AbstractLoadGenerator implements Base
   @Override
   public void setUpGenerator(String schema, List<FieldValueMapping> fieldExprMappings) {
     try {
-      ProtobufSchema protobufSchema = new ProtobufSchema(schema);
+      ParsedSchema protobufSchema = SchemaCache.parseSchema(ProtobufSchema.TYPE, schema, ProtobufSchema::new);
       this.protobufSchemaProcessor.processSchema(protobufSchema, new SchemaMetadata(1, 1, "PROTOBUF", Collections.emptyList(), schema), fieldExprMappings);
     } catch (Exception exc) {
       log.error("Please make sure that properties data type and expression function return type are compatible with each other", exc);
@@ -44,6 +50,10 @@ public class ProtobufLoadGenerator extends AbstractLoadGenerator implements Base
     }
   }
 
+  public boolean enableMessagePlan() {
+    return protobufSchemaProcessor.enableMessagePlan();
+  }
+
   @Override
   public EnrichedRecord nextMessage() {
 
@@ -0,0 +1,149 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.impl;
+
+import static net.coru.kloadgen.util.SchemaRegistryKeyHelper.SCHEMA_REGISTRY_BUNDLE;
+import static net.coru.kloadgen.util.SchemaRegistryKeyHelper.SCHEMA_REGISTRY_BUNDLE_EXPORT;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import io.confluent.kafka.schemaregistry.testutil.MockSchemaRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.util.JMeterUtils;
+
+@Slf4j
+public final class SchemaBundle {
+
+  public static final String MOCK_URL_PREFIX = "mock://";
+
+  public static final String BUNDLE_SCOPE = "kloadgen-bundle";
+
+  public static final String BUNDLE_REGISTRY_URL = MOCK_URL_PREFIX + BUNDLE_SCOPE;
+
+  private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+  private static final TypeReference<List<SchemaBundleEntry>> ENTRIES_TYPE = new TypeReference<>() {};
+
+  private static Path loadedBundle;
+
+  private SchemaBundle() {
+  }
+
+  public static String registryUrl(String configuredUrl) {
+    String bundleFile = JMeterUtils.getProperty(SCHEMA_REGISTRY_BUNDLE);
+    if (StringUtils.isBlank(bundleFile)) {
+      return configuredUrl;
+    }
+    load(Paths.get(bundleFile.trim()));
+    return BUNDLE_REGISTRY_URL;
+  }
+
+  public static void exportIfEnabled(SchemaRegistryClient client, String subject, SchemaMetadata metadata) {
+    String bundleFile = JMeterUtils.getProperty(SCHEMA_REGISTRY_BUNDLE_EXPORT);
+    if (StringUtils.isNotBlank(bundleFile) && !(client instanceof MockSchemaRegistryClient)) {
+      try {
+        export(Paths.get(bundleFile.trim()), client, subject, metadata);
+      } catch (IOException | RestClientException e) {
+        throw new KLoadGenException("Error exporting subject " + subject + " to schema bundle " + bundleFile, e);
+      }
+    }
+  }
+
+  public static SchemaRegistryClient mockClient(String registryUrl) {
+    return MockSchemaRegistry.getClientForScope(registryUrl.substring(MOCK_URL_PREFIX.length()),
+                                                List.of(new AvroSchemaProvider(), new JsonSchemaProvider(), new ProtobufSchemaProvider()));
+  }
+
+  public static synchronized void export(Path bundleFile, SchemaRegistryClient client, String subject, SchemaMetadata metadata)
+      throws IOException, RestClientException {
+    Map<String, SchemaBundleEntry> entries = new LinkedHashMap<>();
+    for (SchemaBundleEntry entry : readEntries(bundleFile)) {
+      entries.put(entryKey(entry.getSubject(), entry.getVersion()), entry);
+    }
+    addEntry(entries, client, subject, metadata);
+    Path parent = bundleFile.toAbsolutePath().getParent();
+    if (Objects.nonNull(parent)) {
+      Files.createDirectories(parent);
+    }
+    MAPPER.writeValue(bundleFile.toFile(), new ArrayList<>(entries.values()));
+  }
+
+  public static synchronized SchemaRegistryClient load(Path bundleFile) {
+    SchemaRegistryClient client = mockClient(BUNDLE_REGISTRY_URL);
+    Path bundlePath = bundleFile.toAbsolutePath();
+    if (bundlePath.equals(loadedBundle)) {
+      return client;
+    }
+    try {
+      List<SchemaBundleEntry> entries = readEntries(bundlePath);
+      if (entries.isEmpty()) {
+        throw new KLoadGenException("Schema bundle " + bundlePath + " is empty or does not exist");
+      }
+      MockSchemaRegistry.dropScope(BUNDLE_SCOPE);
+      client = mockClient(BUNDLE_REGISTRY_URL);
+      for (SchemaBundleEntry entry : entries) {
+        ParsedSchema parsedSchema = client.parseSchema(entry.getSchemaType(), entry.getSchema(), entry.getReferences())
+                                          .orElseThrow(() -> new KLoadGenException("Unable to parse schema of subject " + entry.getSubject()));
+        ((MockSchemaRegistryClient) client).register(entry.getSubject(), parsedSchema, entry.getVersion(), entry.getId());
+      }
+      loadedBundle = bundlePath;
+      log.info("Loaded {} schemas from bundle {}", entries.size(), bundlePath);
+      return client;
+    } catch (IOException | RestClientException e) {
+      throw new KLoadGenException("Error loading schema bundle " + bundlePath, e);
+    }
+  }
+
+  static List<SchemaBundleEntry> readEntries(Path bundleFile) throws IOException {
+    if (!Files.exists(bundleFile)) {
+      return List.of();
+    }
+    return MAPPER.readValue(bundleFile.toFile(), ENTRIES_TYPE);
+  }
+
+  private static void addEntry(Map<String, SchemaBundleEntry> entries, SchemaRegistryClient client, String subject, SchemaMetadata metadata)
+      throws IOException, RestClientException {
+    String key = entryKey(subject, metadata.getVersion());
+    if (entries.containsKey(key)) {
+      return;
+    }
+    List<SchemaReference> references = Objects.requireNonNullElse(metadata.getReferences(), List.of());
+    for (SchemaReference reference : references) {
+      addEntry(entries, client, reference.getSubject(), client.getSchemaMetadata(reference.getSubject(), reference.getVersion()));
+    }
+    entries.put(key, new SchemaBundleEntry(subject, metadata.getId(), metadata.getVersion(),
+                                           StringUtils.defaultIfBlank(metadata.getSchemaType(), AvroSchema.TYPE), metadata.getSchema(),
+                                           new ArrayList<>(references)));
+  }
+
+  private static String entryKey(String subject, int version) {
+    return subject + ":" + version;
+  }
+}
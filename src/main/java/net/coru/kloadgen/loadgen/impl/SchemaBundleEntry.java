@@ -0,0 +1,33 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchemaBundleEntry {
+
+  private String subject;
+
+  private int id;
+
+  private int version;
+
+  private String schemaType;
+
+  private String schema;
+
+  private List<SchemaReference> references = new ArrayList<>();
+}
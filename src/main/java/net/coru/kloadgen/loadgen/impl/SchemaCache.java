@@ -0,0 +1,118 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.impl;
+
+import static io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.processor.ProtobufSchemaProcessor;
+import org.apache.commons.lang3.tuple.Pair;
+
+@Slf4j
+public final class SchemaCache {
+
+  private static final int CLIENT_CACHE_CAPACITY = 1000;
+
+  private static final Map<String, SchemaRegistryClient> CLIENTS = new ConcurrentHashMap<>();
+
+  private static final Map<String, Pair<SchemaMetadata, ParsedSchema>> REGISTRY_SCHEMAS = new ConcurrentHashMap<>();
+
+  private static final Map<String, ParsedSchema> PARSED_SCHEMAS = new ConcurrentHashMap<>();
+
+  private static int users;
+
+  private SchemaCache() {
+  }
+
+  public static Pair<SchemaMetadata, ParsedSchema> getSchema(Map<String, String> originals, String subject, Integer version)
+      throws IOException, RestClientException {
+    String clientKey = new TreeMap<>(originals).toString();
+    String schemaKey = String.join("|", clientKey, subject, Objects.isNull(version) ? "latest" : version.toString());
+    try {
+      return REGISTRY_SCHEMAS.computeIfAbsent(schemaKey, key -> fetchSchema(originals, subject, version));
+    } catch (SchemaFetchException e) {
+      if (e.getCause() instanceof RestClientException) {
+        throw (RestClientException) e.getCause();
+      }
+      throw (IOException) e.getCause();
+    }
+  }
+
+  public static SchemaRegistryClient client(Map<String, String> originals) {
+    return CLIENTS.computeIfAbsent(new TreeMap<>(originals).toString(), key -> createClient(originals));
+  }
+
+  public static synchronized void acquire() {
+    users++;
+  }
+
+  public static synchronized void release() {
+    if (users > 0 && --users == 0) {
+      REGISTRY_SCHEMAS.clear();
+      PARSED_SCHEMAS.clear();
+      ProtobufSchemaProcessor.clearDescriptors();
+    }
+  }
+
+  public static ParsedSchema parseSchema(String schemaType, String schema, Function<String, ParsedSchema> parser) {
+    return PARSED_SCHEMAS.computeIfAbsent(schemaType + "\n" + schema, key -> parser.apply(schema));
+  }
+
+  static synchronized void clear() {
+    users = 0;
+    CLIENTS.clear();
+    REGISTRY_SCHEMAS.clear();
+    PARSED_SCHEMAS.clear();
+    ProtobufSchemaProcessor.clearDescriptors();
+  }
+
+  private static Pair<SchemaMetadata, ParsedSchema> fetchSchema(Map<String, String> originals, String subject, Integer version) {
+    var schemaRegistryClient = client(originals);
+    try {
+      var metadata = Objects.isNull(version) ? schemaRegistryClient.getLatestSchemaMetadata(subject)
+          : schemaRegistryClient.getSchemaMetadata(subject, version);
+      log.info("Fetched schema {} version {} from the registry", subject, metadata.getVersion());
+      SchemaBundle.exportIfEnabled(schemaRegistryClient, subject, metadata);
+      return Pair.of(metadata, schemaRegistryClient.getSchemaBySubjectAndId(subject, metadata.getId()));
+    } catch (IOException | RestClientException e) {
+      throw new SchemaFetchException(e);
+    }
+  }
+
+  private static SchemaRegistryClient createClient(Map<String, String> originals) {
+    String registryUrl = originals.get(SCHEMA_REGISTRY_URL_CONFIG);
+    if (Objects.nonNull(registryUrl) && registryUrl.startsWith(SchemaBundle.MOCK_URL_PREFIX)) {
+      return SchemaBundle.mockClient(registryUrl);
+    }
+    return new CachedSchemaRegistryClient(registryUrl, CLIENT_CACHE_CAPACITY, List.of(new AvroSchemaProvider(), new JsonSchemaProvider(),
+                                                                                      new ProtobufSchemaProvider()), originals);
+  }
+
+  private static class SchemaFetchException extends KLoadGenException {
+
+    SchemaFetchException(Exception cause) {
+      super(cause);
+    }
+  }
+}
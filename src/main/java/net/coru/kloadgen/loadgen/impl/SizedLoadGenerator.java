@@ -0,0 +1,135 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.protobuf.Message;
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.BaseLoadGenerator;
+import net.coru.kloadgen.loadgen.size.AvroRecordSizeAdjuster;
+import net.coru.kloadgen.loadgen.size.JsonRecordSizeAdjuster;
+import net.coru.kloadgen.loadgen.size.ProtobufRecordSizeAdjuster;
+import net.coru.kloadgen.loadgen.size.RecordSizeAdjuster;
+import net.coru.kloadgen.loadgen.size.SizeDistribution;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.common.serialization.Serializer;
+
+@Slf4j
+public class SizedLoadGenerator implements BaseLoadGenerator {
+
+  private static final int MAX_ADJUSTMENTS = 4;
+
+  private final BaseLoadGenerator delegate;
+
+  private final SizeDistribution sizeDistribution;
+
+  private final Serializer<Object> valueSerializer;
+
+  private final String topic;
+
+  private final boolean enrichedValue;
+
+  private final String paddingField;
+
+  private RecordSizeAdjuster sizeAdjuster;
+
+  private int framingSize = -1;
+
+  private boolean notAdjustableLogged;
+
+  public SizedLoadGenerator(BaseLoadGenerator delegate, SizeDistribution sizeDistribution, String paddingField) {
+    this(delegate, sizeDistribution, paddingField, null, null, false);
+  }
+
+  public SizedLoadGenerator(BaseLoadGenerator delegate, SizeDistribution sizeDistribution, String paddingField, Serializer<Object> valueSerializer,
+      String topic, boolean enrichedValue) {
+    if (StringUtils.isBlank(paddingField)) {
+      throw new KLoadGenException("A value size distribution needs the free text field to pad");
+    }
+    this.delegate = delegate;
+    this.sizeDistribution = sizeDistribution;
+    this.paddingField = paddingField.trim();
+    this.valueSerializer = valueSerializer;
+    this.topic = topic;
+    this.enrichedValue = enrichedValue;
+  }
+
+  @Override
+  public void setUpGenerator(Map<String, String> originals, String avroSchemaName, List<FieldValueMapping> fieldExprMappings) {
+    delegate.setUpGenerator(originals, avroSchemaName, fieldExprMappings);
+  }
+
+  @Override
+  public void setUpGenerator(String schema, List<FieldValueMapping> fieldExprMappings) {
+    delegate.setUpGenerator(schema, fieldExprMappings);
+  }
+
+  @Override
+  public EnrichedRecord nextMessage() {
+    EnrichedRecord record = delegate.nextMessage();
+    return Objects.isNull(record) ? null : resize(record, sizeDistribution.next());
+  }
+
+  private EnrichedRecord resize(EnrichedRecord record, int targetSize) {
+    if (Objects.isNull(sizeAdjuster)) {
+      sizeAdjuster = adjusterFor(record.getGenericRecord(), paddingField);
+      framingSize = framingSize(record);
+    }
+    int targetEncodedSize = Math.max(0, targetSize - framingSize);
+    EnrichedRecord resized = record;
+    for (int attempt = 0; attempt < MAX_ADJUSTMENTS; attempt++) {
+      int delta = targetEncodedSize - sizeAdjuster.sizeOf(resized);
+      if (delta == 0) {
+        break;
+      }
+      EnrichedRecord adjusted = sizeAdjuster.adjust(resized, delta);
+      if (Objects.isNull(adjusted)) {
+        if (!notAdjustableLogged) {
+          log.warn("Padding field {} is empty in some records, their sizes will not follow the distribution", paddingField);
+          notAdjustableLogged = true;
+        }
+        break;
+      }
+      resized = adjusted;
+    }
+    return resized;
+  }
+
+  private int framingSize(EnrichedRecord record) {
+    if (Objects.isNull(valueSerializer)) {
+      return 0;
+    }
+    try {
+      byte[] serialized = valueSerializer.serialize(topic, enrichedValue ? record : record.getGenericRecord());
+      return Math.max(0, serialized.length - sizeAdjuster.sizeOf(record));
+    } finally {
+      valueSerializer.close();
+    }
+  }
+
+  private static RecordSizeAdjuster adjusterFor(Object genericRecord, String paddingField) {
+    RecordSizeAdjuster adjuster;
+    if (genericRecord instanceof GenericRecord) {
+      adjuster = new AvroRecordSizeAdjuster(paddingField);
+    } else if (genericRecord instanceof JsonNode) {
+      adjuster = new JsonRecordSizeAdjuster(paddingField);
+    } else if (genericRecord instanceof Message) {
+      adjuster = new ProtobufRecordSizeAdjuster(paddingField);
+    } else {
+      throw new KLoadGenException("Record size distributions are not supported for " + genericRecord.getClass().getName());
+    }
+    return adjuster;
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.key;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.Shard;
+
+public final class KeySpace {
+
+  private static final long MAX_CARDINALITY = (long) Integer.MAX_VALUE * Long.SIZE;
+
+  private static final Map<String, KeySpace> KEY_SPACES = new ConcurrentHashMap<>();
+
+  private final long cardinality;
+
+  private final KeySpacePattern pattern;
+
+  private final long hotKeys;
+
+  private final double hotTrafficRatio;
+
+  private final double tombstoneRatio;
+
+  private final String keyPrefix;
+
+  private final AtomicLong cursor = new AtomicLong();
+
+  private final AtomicLongArray liveKeys;
+
+  private final Shard shard;
+
+  private final long shardCardinality;
+
+  KeySpace(long cardinality, KeySpacePattern pattern, double hotKeysRatio, double hotTrafficRatio, double tombstoneRatio, String keyPrefix) {
+    this(cardinality, pattern, hotKeysRatio, hotTrafficRatio, tombstoneRatio, keyPrefix, Shard.NONE);
+  }
+
+  KeySpace(long cardinality, KeySpacePattern pattern, double hotKeysRatio, double hotTrafficRatio, double tombstoneRatio, String keyPrefix, Shard shard) {
+    if (cardinality < shard.getCount() || cardinality > MAX_CARDINALITY) {
+      throw new KLoadGenException(String.format("Key cardinality must be between %d and %d, but was %d", shard.getCount(), MAX_CARDINALITY, cardinality));
+    }
+    checkRatio("Hot keys ratio", hotKeysRatio);
+    checkRatio("Hot traffic ratio", hotTrafficRatio);
+    checkRatio("Tombstone ratio", tombstoneRatio);
+    this.cardinality = cardinality;
+    this.pattern = pattern;
+    this.shard = shard;
+    this.shardCardinality = shard.share(cardinality);
+    this.hotKeys = Math.max(1, (long) (shardCardinality * hotKeysRatio));
+    this.hotTrafficRatio = hotTrafficRatio;
+    this.tombstoneRatio = tombstoneRatio;
+    this.keyPrefix = keyPrefix;
+    this.liveKeys = new AtomicLongArray((int) ((cardinality + Long.SIZE - 1) / Long.SIZE));
+  }
+
+  public static KeySpace forTopic(
+      String topic, long cardinality, KeySpacePattern pattern, double hotKeysRatio, double hotTrafficRatio, double tombstoneRatio, String keyPrefix) {
+    String keySpaceId = String.join("|", topic, String.valueOf(cardinality), pattern.name(), String.valueOf(hotKeysRatio),
+                                    String.valueOf(hotTrafficRatio), String.valueOf(tombstoneRatio), keyPrefix);
+    return KEY_SPACES.computeIfAbsent(keySpaceId, id -> new KeySpace(cardinality, pattern, hotKeysRatio, hotTrafficRatio, tombstoneRatio, keyPrefix,
+                                                                     Shard.current()));
+  }
+
+  public long nextKey() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long key;
+    switch (pattern) {
+      case SEQUENTIAL:
+        key = cursor.getAndIncrement() % shardCardinality;
+        break;
+      case HOTSET:
+        if (hotKeys >= shardCardinality || random.nextDouble() < hotTrafficRatio) {
+          key = random.nextLong(hotKeys);
+        } else {
+          key = hotKeys + random.nextLong(shardCardinality - hotKeys);
+        }
+        break;
+      case RECENT:
+        long position = cursor.get();
+        if (position > 0 && random.nextDouble() < hotTrafficRatio) {
+          key = (position - 1 - random.nextLong(Math.min(position, hotKeys))) % shardCardinality;
+        } else {
+          key = cursor.getAndIncrement() % shardCardinality;
+        }
+        break;
+      case UNIFORM:
+      default:
+        key = random.nextLong(shardCardinality);
+        break;
+    }
+    return shard.position(key);
+  }
+
+  public boolean nextIsTombstone(long key) {
+    boolean tombstone = tombstoneRatio > 0 && isLive(key) && ThreadLocalRandom.current().nextDouble() < tombstoneRatio;
+    if (tombstone) {
+      clear(key);
+    } else {
+      set(key);
+    }
+    return tombstone;
+  }
+
+  public String keyName(long key) {
+    return keyPrefix + key;
+  }
+
+  public boolean isLive(long key) {
+    return (liveKeys.get((int) (key >>> 6)) & (1L << key)) != 0;
+  }
+
+  public long getCardinality() {
+    return cardinality;
+  }
+
+  private void set(long key) {
+    int word = (int) (key >>> 6);
+    long mask = 1L << key;
+    long current = liveKeys.get(word);
+    while ((current & mask) == 0 && !liveKeys.compareAndSet(word, current, current | mask)) {
+      current = liveKeys.get(word);
+    }
+  }
+
+  private void clear(long key) {
+    int word = (int) (key >>> 6);
+    long mask = 1L << key;
+    long current = liveKeys.get(word);
+    while ((current & mask) != 0 && !liveKeys.compareAndSet(word, current, current & ~mask)) {
+      current = liveKeys.get(word);
+    }
+  }
+
+  private static void checkRatio(String name, double ratio) {
+    if (ratio < 0 || ratio > 1) {
+      throw new KLoadGenException(String.format("%s must be between 0 and 1, but was %s", name, ratio));
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.key;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.common.utils.Utils;
+
+public final class PartitionKeyPool {
+
+  private static final String DEFAULT_PARTITION = "*";
+
+  private static final int MAX_ATTEMPTS_PER_KEY = 1000;
+
+  private static final Map<String, PartitionKeyPool> POOLS = new ConcurrentHashMap<>();
+
+  private final int[] partitions;
+
+  private final double[] cumulativeWeights;
+
+  private final String[][] keys;
+
+  private PartitionKeyPool(int[] partitions, double[] cumulativeWeights, String[][] keys) {
+    this.partitions = partitions;
+    this.cumulativeWeights = cumulativeWeights;
+    this.keys = keys;
+  }
+
+  public static PartitionKeyPool forTopic(String topic, int partitionCount, String partitionWeights, int keysPerPartition, String keyPrefix) {
+    String poolId = String.join("|", topic, String.valueOf(partitionCount), partitionWeights, String.valueOf(keysPerPartition), keyPrefix);
+    return POOLS.computeIfAbsent(poolId, id -> build(partitionCount, parseWeights(partitionWeights, partitionCount), keysPerPartition, keyPrefix));
+  }
+
+  static double[] parseWeights(String partitionWeights, int partitionCount) {
+    double[] weights = new double[partitionCount];
+    Arrays.fill(weights, 1);
+    if (StringUtils.isNotBlank(partitionWeights)) {
+      String[] entries = partitionWeights.split(",");
+      for (String entry : entries) {
+        String partition = StringUtils.substringBefore(entry, ":").trim();
+        if (DEFAULT_PARTITION.equals(partition)) {
+          Arrays.fill(weights, parseWeight(entry));
+        }
+      }
+      for (String entry : entries) {
+        String partition = StringUtils.substringBefore(entry, ":").trim();
+        if (!DEFAULT_PARTITION.equals(partition)) {
+          int partitionNumber = parsePartition(partition, partitionCount);
+          weights[partitionNumber] = parseWeight(entry);
+        }
+      }
+    }
+    if (Arrays.stream(weights).sum() <= 0) {
+      throw new KLoadGenException("At least one partition must have a weight greater than 0: " + partitionWeights);
+    }
+    return weights;
+  }
+
+  static PartitionKeyPool build(int partitionCount, double[] weights, int keysPerPartition, String keyPrefix) {
+    if (keysPerPartition <= 0) {
+      throw new KLoadGenException("Key pool size must be greater than 0");
+    }
+    int targetPartitions = (int) Arrays.stream(weights).filter(weight -> weight > 0).count();
+    String[][] partitionKeys = new String[partitionCount][];
+    int[] filled = new int[partitionCount];
+    for (int partition = 0; partition < partitionCount; partition++) {
+      partitionKeys[partition] = new String[weights[partition] > 0 ? keysPerPartition : 0];
+    }
+
+    int completedPartitions = 0;
+    long maxAttempts = (long) MAX_ATTEMPTS_PER_KEY * keysPerPartition * partitionCount;
+    for (long candidate = 0; completedPartitions < targetPartitions; candidate++) {
+      if (candidate >= maxAttempts) {
+        throw new KLoadGenException("Unable to generate keys for every partition with a positive weight");
+      }
+      String key = keyPrefix + candidate;
+      int partition = partitionOf(key, partitionCount);
+      if (filled[partition] < partitionKeys[partition].length) {
+        partitionKeys[partition][filled[partition]++] = key;
+        if (filled[partition] == keysPerPartition) {
+          completedPartitions++;
+        }
+      }
+    }
+
+    int[] partitions = new int[targetPartitions];
+    double[] cumulativeWeights = new double[targetPartitions];
+    String[][] keys = new String[targetPartitions][];
+    double total = 0;
+    int position = 0;
+    for (int partition = 0; partition < partitionCount; partition++) {
+      if (weights[partition] > 0) {
+        total += weights[partition];
+        partitions[position] = partition;
+        cumulativeWeights[position] = total;
+        keys[position] = partitionKeys[partition];
+        position++;
+      }
+    }
+    return new PartitionKeyPool(partitions, cumulativeWeights, keys);
+  }
+
+  public static int partitionOf(String key, int partitionCount) {
+    return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % partitionCount;
+  }
+
+  public String next() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int position = 0;
+    if (partitions.length > 1) {
+      position = Arrays.binarySearch(cumulativeWeights, random.nextDouble(cumulativeWeights[cumulativeWeights.length - 1]));
+      position = position >= 0 ? position + 1 : -position - 1;
+    }
+    String[] partitionKeys = keys[position];
+    return partitionKeys[random.nextInt(partitionKeys.length)];
+  }
+
+  int[] getPartitions() {
+    return partitions;
+  }
+
+  private static int parsePartition(String partition, int partitionCount) {
+    int partitionNumber;
+    try {
+      partitionNumber = Integer.parseInt(partition);
+    } catch (NumberFormatException e) {
+      throw new KLoadGenException("Wrong partition number: " + partition, e);
+    }
+    if (partitionNumber < 0 || partitionNumber >= partitionCount) {
+      throw new KLoadGenException(String.format("Partition %d does not exist, the topic has %d partitions", partitionNumber, partitionCount));
+    }
+    return partitionNumber;
+  }
+
+  private static double parseWeight(String entry) {
+    double weight;
+    try {
+      weight = Double.parseDouble(StringUtils.substringAfter(entry, ":").trim());
+    } catch (NumberFormatException e) {
+      throw new KLoadGenException("Wrong partition weight: " + entry, e);
+    }
+    if (weight < 0) {
+      throw new KLoadGenException("Partition weights must not be negative: " + entry);
+    }
+    return weight;
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.size;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+
+public class AvroRecordSizeAdjuster implements RecordSizeAdjuster {
+
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+  private final String[] paddingPath;
+
+  private BinaryEncoder encoder;
+
+  private GenericDatumWriter<GenericRecord> writer;
+
+  private Schema writerSchema;
+
+  public AvroRecordSizeAdjuster(String paddingField) {
+    paddingPath = paddingField.split("\\.");
+  }
+
+  @Override
+  public int sizeOf(EnrichedRecord record) {
+    GenericRecord genericRecord = (GenericRecord) record.getGenericRecord();
+    if (!genericRecord.getSchema().equals(writerSchema)) {
+      writerSchema = genericRecord.getSchema();
+      writer = new GenericDatumWriter<>(writerSchema, GenericData.get());
+    }
+    output.reset();
+    encoder = EncoderFactory.get().binaryEncoder(output, encoder);
+    try {
+      writer.write(genericRecord, encoder);
+      encoder.flush();
+    } catch (IOException e) {
+      throw new KLoadGenException("Error measuring record size", e);
+    }
+    return output.size();
+  }
+
+  @Override
+  public EnrichedRecord adjust(EnrichedRecord record, int delta) {
+    GenericRecord parent = (GenericRecord) record.getGenericRecord();
+    for (int i = 0; i < paddingPath.length - 1 && Objects.nonNull(parent); i++) {
+      Object value = parent.get(field(parent.getSchema(), i).pos());
+      if (Objects.nonNull(value) && !(value instanceof GenericRecord)) {
+        throw notPaddable();
+      }
+      parent = (GenericRecord) value;
+    }
+    if (Objects.isNull(parent)) {
+      return null;
+    }
+    Field field = field(parent.getSchema(), paddingPath.length - 1);
+    Object value = parent.get(field.pos());
+    if (Objects.isNull(value)) {
+      return null;
+    } else if (value instanceof CharSequence && !(value instanceof GenericEnumSymbol)) {
+      parent.put(field.pos(), RecordPadding.resize(value.toString(), delta));
+    } else if (value instanceof ByteBuffer) {
+      parent.put(field.pos(), RecordPadding.resize((ByteBuffer) value, delta));
+    } else {
+      throw notPaddable();
+    }
+    return record;
+  }
+
+  private Field field(Schema recordSchema, int depth) {
+    Field field = recordSchema.getField(paddingPath[depth]);
+    if (Objects.isNull(field)) {
+      throw notPaddable();
+    }
+    return field;
+  }
+
+  private KLoadGenException notPaddable() {
+    return new KLoadGenException(String.format("Padding field %s is not a string or bytes field of the value schema", String.join(".", paddingPath)));
+  }
+}
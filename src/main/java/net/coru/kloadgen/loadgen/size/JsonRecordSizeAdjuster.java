@@ -0,0 +1,70 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.size;
+
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+
+public class JsonRecordSizeAdjuster implements RecordSizeAdjuster {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  static {
+    MAPPER.getFactory().configure(JsonWriteFeature.ESCAPE_NON_ASCII.mappedFeature(), true);
+  }
+
+  private final String[] paddingPath;
+
+  public JsonRecordSizeAdjuster(String paddingField) {
+    paddingPath = paddingField.split("\\.");
+  }
+
+  @Override
+  public int sizeOf(EnrichedRecord record) {
+    try {
+      return MAPPER.writeValueAsBytes(record.getGenericRecord()).length;
+    } catch (JsonProcessingException e) {
+      throw new KLoadGenException("Error measuring record size", e);
+    }
+  }
+
+  @Override
+  public EnrichedRecord adjust(EnrichedRecord record, int delta) {
+    JsonNode parent = (JsonNode) record.getGenericRecord();
+    for (int i = 0; i < paddingPath.length - 1 && Objects.nonNull(parent) && !parent.isNull(); i++) {
+      if (!parent.isObject()) {
+        throw notPaddable();
+      }
+      parent = parent.get(paddingPath[i]);
+    }
+    if (Objects.isNull(parent) || parent.isNull()) {
+      return null;
+    } else if (!parent.isObject()) {
+      throw notPaddable();
+    }
+    JsonNode value = parent.get(paddingPath[paddingPath.length - 1]);
+    if (Objects.isNull(value) || value.isNull()) {
+      return null;
+    } else if (!value.isTextual()) {
+      throw notPaddable();
+    }
+    ((ObjectNode) parent).set(paddingPath[paddingPath.length - 1], TextNode.valueOf(RecordPadding.resize(value.textValue(), delta)));
+    return record;
+  }
+
+  private KLoadGenException notPaddable() {
+    return new KLoadGenException(String.format("Padding field %s is not a string field of the value schema", String.join(".", paddingPath)));
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.size;
+
+import java.util.Objects;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor.JavaType;
+import com.google.protobuf.Message;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+
+public class ProtobufRecordSizeAdjuster implements RecordSizeAdjuster {
+
+  private final String[] paddingPath;
+
+  public ProtobufRecordSizeAdjuster(String paddingField) {
+    paddingPath = paddingField.split("\\.");
+  }
+
+  @Override
+  public int sizeOf(EnrichedRecord record) {
+    return ((Message) record.getGenericRecord()).getSerializedSize();
+  }
+
+  @Override
+  public EnrichedRecord adjust(EnrichedRecord record, int delta) {
+    Message adjusted = adjustMessage((Message) record.getGenericRecord(), 0, delta);
+    return Objects.isNull(adjusted) ? null : EnrichedRecord.builder().schemaMetadata(record.getSchemaMetadata()).genericRecord(adjusted).build();
+  }
+
+  private Message adjustMessage(Message message, int depth, int delta) {
+    FieldDescriptor descriptor = message.getDescriptorForType().findFieldByName(paddingPath[depth]);
+    if (Objects.isNull(descriptor) || descriptor.isRepeated()) {
+      throw notPaddable();
+    }
+    Object value = null;
+    if (depth < paddingPath.length - 1) {
+      if (JavaType.MESSAGE != descriptor.getJavaType()) {
+        throw notPaddable();
+      }
+      value = message.hasField(descriptor) ? adjustMessage((Message) message.getField(descriptor), depth + 1, delta) : null;
+    } else if (JavaType.STRING == descriptor.getJavaType()) {
+      value = RecordPadding.resize((String) message.getField(descriptor), delta);
+    } else if (JavaType.BYTE_STRING == descriptor.getJavaType()) {
+      value = RecordPadding.resize((ByteString) message.getField(descriptor), delta);
+    } else {
+      throw notPaddable();
+    }
+    return Objects.isNull(value) ? null : message.toBuilder().setField(descriptor, value).build();
+  }
+
+  private KLoadGenException notPaddable() {
+    return new KLoadGenException(String.format("Padding field %s is not a string or bytes field of the value schema", String.join(".", paddingPath)));
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.size;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.google.protobuf.ByteString;
+import org.apache.commons.lang3.RandomStringUtils;
+
+final class RecordPadding {
+
+  private RecordPadding() {
+  }
+
+  static String resize(String value, int delta) {
+    String result;
+    if (delta > 0) {
+      result = value + RandomStringUtils.randomAlphabetic(delta);
+    } else {
+      result = value.substring(0, Math.max(0, value.length() + delta));
+    }
+    return result;
+  }
+
+  static ByteBuffer resize(ByteBuffer value, int delta) {
+    ByteBuffer source = value.duplicate();
+    int length = Math.max(0, source.remaining() + delta);
+    ByteBuffer result = ByteBuffer.allocate(length);
+    if (length > source.remaining()) {
+      result.put(source);
+      result.put(RandomStringUtils.randomAlphabetic(length - source.remaining()).getBytes(StandardCharsets.US_ASCII));
+    } else {
+      source.limit(source.position() + length);
+      result.put(source);
+    }
+    result.flip();
+    return result;
+  }
+
+  static ByteString resize(ByteString value, int delta) {
+    ByteString result;
+    if (delta > 0) {
+      result = value.concat(ByteString.copyFrom(RandomStringUtils.randomAlphabetic(delta), StandardCharsets.US_ASCII));
+    } else {
+      result = value.substring(0, Math.max(0, value.size() + delta));
+    }
+    return result;
+  }
+}
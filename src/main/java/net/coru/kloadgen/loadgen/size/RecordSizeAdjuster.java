@@ -0,0 +1,16 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.size;
+
+import net.coru.kloadgen.serializer.EnrichedRecord;
+
+public interface RecordSizeAdjuster {
+
+  int sizeOf(EnrichedRecord record);
+
+  EnrichedRecord adjust(EnrichedRecord record, int delta);
+}
@@ -0,0 +1,129 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.size;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.commons.lang3.StringUtils;
+
+public final class SizeDistribution {
+
+  private static final String FIXED = "fixed";
+
+  private static final String UNIFORM = "uniform";
+
+  private static final String HISTOGRAM = "histogram";
+
+  private final int[] sizes;
+
+  private final double[] cumulativeWeights;
+
+  private final boolean uniformRange;
+
+  private SizeDistribution(int[] sizes, double[] cumulativeWeights, boolean uniformRange) {
+    this.sizes = sizes;
+    this.cumulativeWeights = cumulativeWeights;
+    this.uniformRange = uniformRange;
+  }
+
+  public static SizeDistribution parse(String specification) {
+    String type = StringUtils.substringBefore(specification, ":").trim().toLowerCase();
+    String arguments = StringUtils.substringAfter(specification, ":").trim();
+    SizeDistribution distribution;
+    try {
+      switch (type) {
+        case FIXED:
+          distribution = fixed(Integer.parseInt(arguments));
+          break;
+        case UNIFORM:
+          distribution = uniform(Integer.parseInt(StringUtils.substringBefore(arguments, "-").trim()),
+                                 Integer.parseInt(StringUtils.substringAfter(arguments, "-").trim()));
+          break;
+        case HISTOGRAM:
+          distribution = histogram(Files.readAllLines(Paths.get(arguments)));
+          break;
+        default:
+          throw new KLoadGenException("Unknown size distribution: " + specification);
+      }
+    } catch (NumberFormatException | IOException e) {
+      throw new KLoadGenException("Wrong size distribution: " + specification, e);
+    }
+    return distribution;
+  }
+
+  public static SizeDistribution fixed(int size) {
+    checkSize(size);
+    return new SizeDistribution(new int[]{size}, new double[]{1}, false);
+  }
+
+  public static SizeDistribution uniform(int minimum, int maximum) {
+    checkSize(minimum);
+    if (maximum < minimum) {
+      throw new KLoadGenException(String.format("Wrong uniform size range %d-%d", minimum, maximum));
+    }
+    return new SizeDistribution(new int[]{minimum, maximum}, new double[0], true);
+  }
+
+  static SizeDistribution histogram(List<String> lines) {
+    List<Integer> buckets = new ArrayList<>();
+    List<Double> weights = new ArrayList<>();
+    for (String line : lines) {
+      String bucket = line.trim();
+      if (!bucket.isEmpty() && !bucket.startsWith("#")) {
+        int size = Integer.parseInt(StringUtils.substringBefore(bucket, ",").trim());
+        double weight = Double.parseDouble(StringUtils.defaultIfBlank(StringUtils.substringAfter(bucket, ","), "1").trim());
+        checkSize(size);
+        if (weight < 0) {
+          throw new KLoadGenException("Histogram weights must not be negative: " + bucket);
+        }
+        if (weight > 0) {
+          buckets.add(size);
+          weights.add(weight);
+        }
+      }
+    }
+    if (buckets.isEmpty()) {
+      throw new KLoadGenException("Size histogram weights must add up to more than 0");
+    }
+    int[] sizes = new int[buckets.size()];
+    double[] cumulativeWeights = new double[buckets.size()];
+    double total = 0;
+    for (int i = 0; i < sizes.length; i++) {
+      sizes[i] = buckets.get(i);
+      total += weights.get(i);
+      cumulativeWeights[i] = total;
+    }
+    return new SizeDistribution(sizes, cumulativeWeights, false);
+  }
+
+  public int next() {
+    int size;
+    if (uniformRange) {
+      size = ThreadLocalRandom.current().nextInt(sizes[0], sizes[1] + 1);
+    } else if (sizes.length == 1) {
+      size = sizes[0];
+    } else {
+      double point = ThreadLocalRandom.current().nextDouble(cumulativeWeights[cumulativeWeights.length - 1]);
+      int position = Arrays.binarySearch(cumulativeWeights, point);
+      size = sizes[position >= 0 ? position + 1 : -position - 1];
+    }
+    return size;
+  }
+
+  private static void checkSize(int size) {
+    if (size < 0) {
+      throw new KLoadGenException("Record sizes must not be negative: " + size);
+    }
+  }
+}
@@ -0,0 +1,398 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.jmeter.engine.util.NoThreadClone;
+import org.apache.jmeter.samplers.SampleEvent;
+import org.apache.jmeter.samplers.SampleListener;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.testelement.AbstractTestElement;
+import org.apache.jmeter.testelement.TestStateListener;
+
+@Slf4j
+public class AggregatingResultWriter extends AbstractTestElement implements SampleListener, TestStateListener, NoThreadClone {
+
+  static final String HEADER = "timeStamp,label,samples,errors,bytes,sentBytes,meanMs,minMs,p50Ms,p90Ms,p95Ms,p99Ms,maxMs,threads";
+
+  private static final long serialVersionUID = 1L;
+
+  private static final String TOTAL = "Total";
+
+  private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+  private static final String START_MILLIS = "start.millis";
+
+  private static final String END_MILLIS = "end.millis";
+
+  private static final String LABEL_PREFIX = "label.";
+
+  private static final String NAME = "name";
+
+  private final transient Path intervalFile;
+
+  private final transient Path statisticsFile;
+
+  private final transient Path stateFile;
+
+  private final int intervalSeconds;
+
+  private final transient ConcurrentMap<String, LabelAggregate> labels = new ConcurrentHashMap<>();
+
+  private final transient LongAccumulator maxThreads = new LongAccumulator(Math::max, 0);
+
+  private transient BufferedWriter writer;
+
+  private transient ScheduledExecutorService flusher;
+
+  private long startMillis;
+
+  public AggregatingResultWriter(Path intervalFile, Path statisticsFile, int intervalSeconds) {
+    this(intervalFile, statisticsFile, null, intervalSeconds);
+  }
+
+  public AggregatingResultWriter(Path intervalFile, Path statisticsFile, Path stateFile, int intervalSeconds) {
+    this.intervalFile = intervalFile;
+    this.statisticsFile = statisticsFile;
+    this.stateFile = stateFile;
+    this.intervalSeconds = Math.max(1, intervalSeconds);
+    setName("KLoadGen Aggregating Result Writer");
+  }
+
+  @Override
+  public void sampleOccurred(SampleEvent sampleEvent) {
+    record(sampleEvent.getResult());
+  }
+
+  @Override
+  public void sampleStarted(SampleEvent sampleEvent) {
+  }
+
+  @Override
+  public void sampleStopped(SampleEvent sampleEvent) {
+  }
+
+  @Override
+  public synchronized void testStarted() {
+    try {
+      writer = Files.newBufferedWriter(intervalFile, StandardCharsets.UTF_8);
+      writer.write(HEADER);
+      writer.newLine();
+    } catch (IOException e) {
+      throw new KLoadGenException("Unable to open the aggregated results file " + intervalFile, e);
+    }
+    startMillis = System.currentTimeMillis();
+    flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "kloadgen-aggregate-flush");
+      thread.setDaemon(true);
+      return thread;
+    });
+    flusher.scheduleAtFixedRate(this::flush, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+  }
+
+  @Override
+  public void testStarted(String host) {
+    testStarted();
+  }
+
+  @Override
+  public synchronized void testEnded() {
+    if (flusher != null) {
+      flusher.shutdownNow();
+      flusher = null;
+    }
+    flush();
+    try {
+      if (writer != null) {
+        writer.close();
+        writer = null;
+      }
+      long endMillis = System.currentTimeMillis();
+      MAPPER.writeValue(statisticsFile.toFile(), statistics(endMillis));
+      if (stateFile != null) {
+        storeState(endMillis);
+      }
+      log.info("Aggregated results written to {} and {}", intervalFile, statisticsFile);
+    } catch (IOException e) {
+      log.error("Unable to write the aggregated results", e);
+    }
+  }
+
+  @Override
+  public void testEnded(String host) {
+    testEnded();
+  }
+
+  void record(SampleResult sampleResult) {
+    labels.computeIfAbsent(sampleResult.getSampleLabel(), label -> new LabelAggregate()).record(sampleResult);
+    maxThreads.accumulate(sampleResult.getAllThreads());
+  }
+
+  synchronized void flush() {
+    if (writer == null) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long threads = maxThreads.getThenReset();
+    try {
+      for (Entry<String, LabelAggregate> label : labels.entrySet()) {
+        String line = label.getValue().drain(now, csv(label.getKey()), threads);
+        if (line != null) {
+          writer.write(line);
+          writer.newLine();
+        }
+      }
+      writer.flush();
+    } catch (IOException e) {
+      log.error("Unable to write the aggregated results", e);
+    }
+  }
+
+  public static void merge(List<Path> workerIntervalFiles, List<Path> workerStateFiles, Path intervalFile, Path statisticsFile) throws IOException {
+    Map<String, LabelAggregate> merged = new HashMap<>();
+    long startMillis = Long.MAX_VALUE;
+    long endMillis = 0;
+    for (Path workerStateFile : workerStateFiles) {
+      Properties state = new Properties();
+      try (Reader reader = Files.newBufferedReader(workerStateFile, StandardCharsets.UTF_8)) {
+        state.load(reader);
+      }
+      startMillis = Math.min(startMillis, Long.parseLong(state.getProperty(START_MILLIS)));
+      endMillis = Math.max(endMillis, Long.parseLong(state.getProperty(END_MILLIS)));
+      for (int i = 0; state.containsKey(LABEL_PREFIX + i + "." + NAME); i++) {
+        String prefix = LABEL_PREFIX + i + ".";
+        merged.computeIfAbsent(state.getProperty(prefix + NAME), label -> new LabelAggregate()).merge(LabelAggregate.load(state, prefix));
+      }
+    }
+    MAPPER.writeValue(statisticsFile.toFile(), statistics(merged, startMillis, endMillis));
+
+    List<String> lines = new ArrayList<>();
+    for (Path workerIntervalFile : workerIntervalFiles) {
+      List<String> workerLines = Files.readAllLines(workerIntervalFile, StandardCharsets.UTF_8);
+      lines.addAll(workerLines.subList(Math.min(1, workerLines.size()), workerLines.size()));
+    }
+    lines.sort(Comparator.comparingLong(line -> Long.parseLong(line.substring(0, line.indexOf(',')))));
+    try (BufferedWriter mergedWriter = Files.newBufferedWriter(intervalFile, StandardCharsets.UTF_8)) {
+      mergedWriter.write(HEADER);
+      mergedWriter.newLine();
+      for (String line : lines) {
+        mergedWriter.write(line);
+        mergedWriter.newLine();
+      }
+    }
+  }
+
+  Map<String, Object> statistics(long endMillis) {
+    return statistics(labels, startMillis, endMillis);
+  }
+
+  private void storeState(long endMillis) throws IOException {
+    Properties state = new Properties();
+    state.setProperty(START_MILLIS, String.valueOf(startMillis));
+    state.setProperty(END_MILLIS, String.valueOf(endMillis));
+    int index = 0;
+    for (Entry<String, LabelAggregate> label : labels.entrySet()) {
+      String prefix = LABEL_PREFIX + index++ + ".";
+      state.setProperty(prefix + NAME, label.getKey());
+      label.getValue().store(state, prefix);
+    }
+    try (Writer stateWriter = Files.newBufferedWriter(stateFile, StandardCharsets.UTF_8)) {
+      state.store(stateWriter, "KLoadGen aggregated results");
+    }
+  }
+
+  private static Map<String, Object> statistics(Map<String, LabelAggregate> labels, long startMillis, long endMillis) {
+    double seconds = Math.max(1, endMillis - startMillis) / 1000.0;
+    Map<String, Object> statistics = new LinkedHashMap<>();
+    LabelAggregate total = new LabelAggregate();
+    labels.entrySet().stream()
+          .sorted(Entry.comparingByKey())
+          .forEach(label -> {
+            statistics.put(label.getKey(), label.getValue().statistics(label.getKey(), seconds));
+            total.merge(label.getValue());
+          });
+    statistics.put(TOTAL, total.statistics(TOTAL, seconds));
+    return statistics;
+  }
+
+  private static String csv(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  private static long millis(long micros) {
+    return Math.round(micros / 1000.0);
+  }
+
+  private static final class LabelAggregate {
+
+    private final LatencyHistogram interval = new LatencyHistogram();
+
+    private final LatencyHistogram total = new LatencyHistogram();
+
+    private long results;
+
+    private long samples;
+
+    private long errors;
+
+    private long bytes;
+
+    private long sentBytes;
+
+    private long elapsedMillis;
+
+    private long minMillis = Long.MAX_VALUE;
+
+    private long totalSamples;
+
+    private long totalErrors;
+
+    private long totalBytes;
+
+    private long totalSentBytes;
+
+    private long totalElapsedMillis;
+
+    private long totalMinMillis = Long.MAX_VALUE;
+
+    synchronized void record(SampleResult sampleResult) {
+      results++;
+      samples += sampleResult.getSampleCount();
+      errors += sampleResult.getErrorCount();
+      bytes += sampleResult.getBytesAsLong();
+      sentBytes += sampleResult.getSentBytes();
+      elapsedMillis += sampleResult.getTime();
+      minMillis = Math.min(minMillis, sampleResult.getTime());
+      interval.recordMicros(TimeUnit.MILLISECONDS.toMicros(sampleResult.getTime()));
+    }
+
+    String drain(long timestamp, String label, long threads) {
+      long intervalResults;
+      long intervalSamples;
+      long intervalErrors;
+      long intervalBytes;
+      long intervalSentBytes;
+      long intervalElapsed;
+      long intervalMin;
+      LatencyHistogram drained;
+      synchronized (this) {
+        if (results == 0) {
+          return null;
+        }
+        intervalResults = results;
+        intervalSamples = samples;
+        intervalErrors = errors;
+        intervalBytes = bytes;
+        intervalSentBytes = sentBytes;
+        intervalElapsed = elapsedMillis;
+        intervalMin = minMillis;
+        drained = interval.drain();
+        results = 0;
+        samples = 0;
+        errors = 0;
+        bytes = 0;
+        sentBytes = 0;
+        elapsedMillis = 0;
+        minMillis = Long.MAX_VALUE;
+      }
+      totalSamples += intervalSamples;
+      totalErrors += intervalErrors;
+      totalBytes += intervalBytes;
+      totalSentBytes += intervalSentBytes;
+      totalElapsedMillis += intervalElapsed;
+      totalMinMillis = Math.min(totalMinMillis, intervalMin);
+      total.add(drained);
+      return String.join(",", String.valueOf(timestamp), label, String.valueOf(intervalSamples), String.valueOf(intervalErrors),
+                         String.valueOf(intervalBytes), String.valueOf(intervalSentBytes),
+                         String.format(Locale.ROOT, "%.2f", intervalElapsed / (double) intervalResults),
+                         String.valueOf(intervalMin),
+                         String.valueOf(millis(drained.percentileMicros(50))), String.valueOf(millis(drained.percentileMicros(90))),
+                         String.valueOf(millis(drained.percentileMicros(95))), String.valueOf(millis(drained.percentileMicros(99))),
+                         String.valueOf(millis(drained.getMaxMicros())), String.valueOf(threads));
+    }
+
+    void store(Properties state, String prefix) {
+      state.setProperty(prefix + "samples", String.valueOf(totalSamples));
+      state.setProperty(prefix + "errors", String.valueOf(totalErrors));
+      state.setProperty(prefix + "bytes", String.valueOf(totalBytes));
+      state.setProperty(prefix + "sent.bytes", String.valueOf(totalSentBytes));
+      state.setProperty(prefix + "elapsed.millis", String.valueOf(totalElapsedMillis));
+      state.setProperty(prefix + "min.millis", String.valueOf(totalMinMillis));
+      state.setProperty(prefix + "latency", total.encode());
+    }
+
+    static LabelAggregate load(Properties state, String prefix) {
+      LabelAggregate aggregate = new LabelAggregate();
+      aggregate.totalSamples = Long.parseLong(state.getProperty(prefix + "samples"));
+      aggregate.totalErrors = Long.parseLong(state.getProperty(prefix + "errors"));
+      aggregate.totalBytes = Long.parseLong(state.getProperty(prefix + "bytes"));
+      aggregate.totalSentBytes = Long.parseLong(state.getProperty(prefix + "sent.bytes"));
+      aggregate.totalElapsedMillis = Long.parseLong(state.getProperty(prefix + "elapsed.millis"));
+      aggregate.totalMinMillis = Long.parseLong(state.getProperty(prefix + "min.millis"));
+      aggregate.total.add(LatencyHistogram.decode(state.getProperty(prefix + "latency")));
+      return aggregate;
+    }
+
+    void merge(LabelAggregate other) {
+      totalSamples += other.totalSamples;
+      totalErrors += other.totalErrors;
+      totalBytes += other.totalBytes;
+      totalSentBytes += other.totalSentBytes;
+      totalElapsedMillis += other.totalElapsedMillis;
+      totalMinMillis = Math.min(totalMinMillis, other.totalMinMillis);
+      total.add(other.total);
+    }
+
+    Map<String, Object> statistics(String label, double seconds) {
+      Map<String, Object> statistics = new LinkedHashMap<>();
+      statistics.put("transaction", label);
+      statistics.put("sampleCount", totalSamples);
+      statistics.put("errorCount", totalErrors);
+      statistics.put("errorPct", totalSamples == 0 ? 0.0 : totalErrors * 100.0 / totalSamples);
+      statistics.put("meanResTime", total.getCount() == 0 ? 0.0 : totalElapsedMillis / (double) total.getCount());
+      statistics.put("medianResTime", millis(total.percentileMicros(50)));
+      statistics.put("minResTime", totalMinMillis == Long.MAX_VALUE ? 0 : totalMinMillis);
+      statistics.put("maxResTime", millis(total.getMaxMicros()));
+      statistics.put("pct1ResTime", millis(total.percentileMicros(90)));
+      statistics.put("pct2ResTime", millis(total.percentileMicros(95)));
+      statistics.put("pct3ResTime", millis(total.percentileMicros(99)));
+      statistics.put("throughput", totalSamples / seconds);
+      statistics.put("receivedKBytesPerSec", totalBytes / 1024.0 / seconds);
+      statistics.put("sentKBytesPerSec", totalSentBytes / 1024.0 / seconds);
+      return statistics;
+    }
+  }
+}
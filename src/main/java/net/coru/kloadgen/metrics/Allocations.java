@@ -0,0 +1,41 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+public final class Allocations {
+
+  private static final com.sun.management.ThreadMXBean THREADS = threadMXBean();
+
+  private Allocations() {
+  }
+
+  public static boolean isSupported() {
+    return THREADS != null;
+  }
+
+  public static long currentThreadAllocatedBytes() {
+    return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static com.sun.management.ThreadMXBean threadMXBean() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+    com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+    if (!allocations.isThreadAllocatedMemorySupported()) {
+      return null;
+    }
+    if (!allocations.isThreadAllocatedMemoryEnabled()) {
+      allocations.setThreadAllocatedMemoryEnabled(true);
+    }
+    return allocations;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+  private static final int MAX_EXPONENT = 40;
+
+  private static final int BUCKETS = LINEAR_LIMIT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  private final AtomicLong count = new AtomicLong();
+
+  private final AtomicLong maxMicros = new AtomicLong();
+
+  public void recordMicros(long micros) {
+    long value = Math.max(0, micros);
+    counts.incrementAndGet(bucketOf(value));
+    count.incrementAndGet();
+    maxMicros.accumulateAndGet(value, Math::max);
+  }
+
+  public LatencyHistogram drain() {
+    LatencyHistogram interval = new LatencyHistogram();
+    for (int i = 0; i < BUCKETS; i++) {
+      long bucketCount = counts.getAndSet(i, 0);
+      if (bucketCount > 0) {
+        interval.counts.set(i, bucketCount);
+        interval.count.addAndGet(bucketCount);
+      }
+    }
+    count.addAndGet(-interval.count.get());
+    interval.maxMicros.set(maxMicros.getAndSet(0));
+    return interval;
+  }
+
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++) {
+      long bucketCount = other.counts.get(i);
+      if (bucketCount > 0) {
+        counts.addAndGet(i, bucketCount);
+      }
+    }
+    count.addAndGet(other.count.get());
+    maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  public long getMaxMicros() {
+    return maxMicros.get();
+  }
+
+  public long percentileMicros(double percentile) {
+    long total = count.get();
+    if (total == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(valueOf(i), maxMicros.get());
+      }
+    }
+    return maxMicros.get();
+  }
+
+  public String encode() {
+    StringBuilder encoded = new StringBuilder().append(maxMicros.get());
+    for (int i = 0; i < BUCKETS; i++) {
+      long bucketCount = counts.get(i);
+      if (bucketCount > 0) {
+        encoded.append(',').append(i).append(':').append(bucketCount);
+      }
+    }
+    return encoded.toString();
+  }
+
+  public static LatencyHistogram decode(String encoded) {
+    LatencyHistogram histogram = new LatencyHistogram();
+    String[] parts = encoded.trim().split(",");
+    try {
+      histogram.maxMicros.set(Long.parseLong(parts[0]));
+      for (int i = 1; i < parts.length; i++) {
+        int separator = parts[i].indexOf(':');
+        long bucketCount = Long.parseLong(parts[i].substring(separator + 1));
+        histogram.counts.set(Integer.parseInt(parts[i].substring(0, separator)), bucketCount);
+        histogram.count.addAndGet(bucketCount);
+      }
+    } catch (RuntimeException e) {
+      throw new KLoadGenException("Wrong encoded latency histogram: " + encoded, e);
+    }
+    return histogram;
+  }
+
+  static int bucketOf(long value) {
+    if (value < LINEAR_LIMIT) {
+      return (int) value;
+    }
+    int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+    int shift = exponent - SUB_BUCKET_BITS;
+    long subBucket = Math.min(value >> shift, 2L * SUB_BUCKETS - 1) - SUB_BUCKETS;
+    return Math.min(LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + (int) subBucket, BUCKETS - 1);
+  }
+
+  static long valueOf(int bucket) {
+    if (bucket < LINEAR_LIMIT) {
+      return bucket;
+    }
+    int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+    long subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+    int shift = exponent - SUB_BUCKET_BITS;
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
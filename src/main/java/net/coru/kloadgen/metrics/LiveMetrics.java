@@ -0,0 +1,202 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.metrics;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+
+public final class LiveMetrics {
+
+  private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
+
+  private static final String BUFFER_AVAILABLE_BYTES = "buffer-available-bytes";
+
+  private static final String BUFFER_TOTAL_BYTES = "buffer-total-bytes";
+
+  private static final long[] LATENCY_BUCKETS_MICROS = {500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000,
+                                                         2_500_000, 5_000_000, 10_000_000};
+
+  private static final LongAdder SENT = new LongAdder();
+
+  private static final LongAdder SENT_BYTES = new LongAdder();
+
+  private static final LongAdder FAILED = new LongAdder();
+
+  private static final LongAdder CONSUMED = new LongAdder();
+
+  private static final LongAdder CONSUMED_BYTES = new LongAdder();
+
+  private static final LongAdder[] SEND_LATENCY = latencyBuckets();
+
+  private static final LongAdder SEND_LATENCY_MICROS = new LongAdder();
+
+  private static final Set<Producer<?, ?>> PRODUCERS = ConcurrentHashMap.newKeySet();
+
+  private static final Map<Pair<String, String>, Long> CONSUMER_LAG = new ConcurrentHashMap<>();
+
+  private static volatile boolean enabled;
+
+  private LiveMetrics() {
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  public static void recordSend(long bytes, long latencyMicros) {
+    if (enabled) {
+      SENT.increment();
+      SENT_BYTES.add(bytes);
+      SEND_LATENCY[latencyBucketOf(latencyMicros)].increment();
+      SEND_LATENCY_MICROS.add(Math.max(0, latencyMicros));
+    }
+  }
+
+  public static void recordFailure() {
+    if (enabled) {
+      FAILED.increment();
+    }
+  }
+
+  public static void recordConsumed(long records, long bytes) {
+    if (enabled) {
+      CONSUMED.add(records);
+      CONSUMED_BYTES.add(bytes);
+    }
+  }
+
+  public static void recordConsumerLag(String groupId, String topic, long lag) {
+    if (enabled) {
+      CONSUMER_LAG.put(Pair.of(groupId, topic), lag);
+    }
+  }
+
+  public static void registerProducer(Producer<?, ?> producer) {
+    PRODUCERS.add(producer);
+  }
+
+  public static void unregisterProducer(Producer<?, ?> producer) {
+    PRODUCERS.remove(producer);
+  }
+
+  public static String scrape() {
+    StringBuilder out = new StringBuilder();
+    metric(out, "kloadgen_messages_sent_total", "counter", "Messages acknowledged by the broker.", SENT.sum());
+    metric(out, "kloadgen_bytes_sent_total", "counter", "Serialized key and value bytes acknowledged by the broker.", SENT_BYTES.sum());
+    metric(out, "kloadgen_messages_failed_total", "counter", "Messages that failed to be generated or sent.", FAILED.sum());
+    metric(out, "kloadgen_messages_consumed_total", "counter", "Messages polled by the consumer samplers.", CONSUMED.sum());
+    metric(out, "kloadgen_bytes_consumed_total", "counter", "Serialized key and value bytes polled by the consumer samplers.", CONSUMED_BYTES.sum());
+
+    header(out, "kloadgen_send_latency_seconds", "histogram", "Send latency of the acknowledged messages.");
+    long cumulative = 0;
+    for (int i = 0; i < LATENCY_BUCKETS_MICROS.length; i++) {
+      cumulative += SEND_LATENCY[i].sum();
+      sample(out, "kloadgen_send_latency_seconds_bucket{le=\"" + LATENCY_BUCKETS_MICROS[i] / 1_000_000.0 + "\"}", cumulative);
+    }
+    cumulative += SEND_LATENCY[LATENCY_BUCKETS_MICROS.length].sum();
+    sample(out, "kloadgen_send_latency_seconds_bucket{le=\"+Inf\"}", cumulative);
+    sample(out, "kloadgen_send_latency_seconds_sum", SEND_LATENCY_MICROS.sum() / 1_000_000.0);
+    sample(out, "kloadgen_send_latency_seconds_count", cumulative);
+
+    long availableBuffer = 0;
+    long totalBuffer = 0;
+    for (Producer<?, ?> producer : PRODUCERS) {
+      availableBuffer += producerMetric(producer.metrics(), BUFFER_AVAILABLE_BYTES);
+      totalBuffer += producerMetric(producer.metrics(), BUFFER_TOTAL_BYTES);
+    }
+    metric(out, "kloadgen_producer_buffer_available_bytes", "gauge", "Unused record accumulator memory of the active producers.", availableBuffer);
+    metric(out, "kloadgen_producer_buffer_total_bytes", "gauge", "Record accumulator memory of the active producers.", totalBuffer);
+    metric(out, "kloadgen_producer_buffer_usage_ratio", "gauge", "Used over total record accumulator memory of the active producers.",
+           totalBuffer == 0 ? 0 : (totalBuffer - availableBuffer) / (double) totalBuffer);
+
+    if (!CONSUMER_LAG.isEmpty()) {
+      header(out, "kloadgen_consumer_lag", "gauge", "Last consumer group lag read by the consumer lag samplers.");
+      for (Entry<Pair<String, String>, Long> lag : CONSUMER_LAG.entrySet()) {
+        sample(out, "kloadgen_consumer_lag{group=\"" + escape(lag.getKey().getLeft()) + "\",topic=\"" + escape(lag.getKey().getRight()) + "\"}",
+               lag.getValue());
+      }
+    }
+    return out.toString();
+  }
+
+  static void enable() {
+    enabled = true;
+  }
+
+  static synchronized void reset() {
+    enabled = false;
+    SENT.reset();
+    SENT_BYTES.reset();
+    FAILED.reset();
+    CONSUMED.reset();
+    CONSUMED_BYTES.reset();
+    for (LongAdder bucket : SEND_LATENCY) {
+      bucket.reset();
+    }
+    SEND_LATENCY_MICROS.reset();
+    PRODUCERS.clear();
+    CONSUMER_LAG.clear();
+  }
+
+  static int latencyBucketOf(long latencyMicros) {
+    int bucket = 0;
+    while (bucket < LATENCY_BUCKETS_MICROS.length && latencyMicros > LATENCY_BUCKETS_MICROS[bucket]) {
+      bucket++;
+    }
+    return bucket;
+  }
+
+  private static LongAdder[] latencyBuckets() {
+    LongAdder[] buckets = new LongAdder[LATENCY_BUCKETS_MICROS.length + 1];
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+    return buckets;
+  }
+
+  private static long producerMetric(Map<MetricName, ? extends Metric> metrics, String name) {
+    for (Entry<MetricName, ? extends Metric> metric : metrics.entrySet()) {
+      if (name.equals(metric.getKey().name()) && PRODUCER_METRICS_GROUP.equals(metric.getKey().group())
+          && metric.getValue().metricValue() instanceof Number) {
+        return ((Number) metric.getValue().metricValue()).longValue();
+      }
+    }
+    return 0;
+  }
+
+  private static void metric(StringBuilder out, String name, String type, String help, double value) {
+    header(out, name, type, help);
+    sample(out, name, value);
+  }
+
+  private static void header(StringBuilder out, String name, String type, String help) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void sample(StringBuilder out, String name, double value) {
+    out.append(name).append(' ');
+    if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+      out.append((long) value);
+    } else {
+      out.append(value);
+    }
+    out.append('\n');
+  }
+
+  private static String escape(String value) {
+    return String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+}
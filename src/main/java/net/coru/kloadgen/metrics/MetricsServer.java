@@ -0,0 +1,107 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.metrics;
+
+import static net.coru.kloadgen.util.PropsKeysHelper.METRICS_PORT;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.Shard;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.util.JMeterUtils;
+
+@Slf4j
+public final class MetricsServer {
+
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static HttpServer server;
+
+  private static ExecutorService executor;
+
+  private static int users;
+
+  private MetricsServer() {
+  }
+
+  public static synchronized void startIfConfigured() {
+    String port = JMeterUtils.getPropDefault(METRICS_PORT, "");
+    if (StringUtils.isNotBlank(port)) {
+      try {
+        int basePort = Integer.parseInt(port.trim());
+        start(basePort > 0 ? basePort + Shard.current().getIndex() : basePort);
+        users++;
+      } catch (NumberFormatException e) {
+        throw new KLoadGenException("Wrong metrics port: " + port, e);
+      }
+    }
+  }
+
+  public static synchronized int start(int port) {
+    if (server == null) {
+      try {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+      } catch (IOException e) {
+        throw new KLoadGenException("Unable to start the metrics endpoint on port " + port, e);
+      }
+      executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kloadgen-metrics");
+        thread.setDaemon(true);
+        return thread;
+      });
+      server.createContext("/metrics", MetricsServer::handle);
+      server.setExecutor(executor);
+      server.start();
+      LiveMetrics.enable();
+      log.info("Serving live metrics on http://localhost:{}/metrics", server.getAddress().getPort());
+    }
+    return server.getAddress().getPort();
+  }
+
+  public static synchronized void release() {
+    if (users > 0 && --users == 0) {
+      stop();
+    }
+  }
+
+  public static synchronized void stop() {
+    users = 0;
+    if (server != null) {
+      LiveMetrics.reset();
+      server.stop(0);
+      executor.shutdownNow();
+      server = null;
+      executor = null;
+    }
+  }
+
+  private static void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body = LiveMetrics.scrape().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream responseBody = exchange.getResponseBody()) {
+        responseBody.write(body);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+}
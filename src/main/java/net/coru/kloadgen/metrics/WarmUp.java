@@ -0,0 +1,94 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+
+@Slf4j
+public final class WarmUp {
+
+  public static final WarmUp NONE = new WarmUp("none", 0, 0);
+
+  private static final Map<String, WarmUp> WARM_UPS = new HashMap<>();
+
+  private final String name;
+
+  private final long durationNanos;
+
+  private final long records;
+
+  private final AtomicLong recorded = new AtomicLong();
+
+  private final AtomicLong startNanos = new AtomicLong(Long.MIN_VALUE);
+
+  private final AtomicBoolean finished;
+
+  private volatile long finishedNanos = Long.MIN_VALUE;
+
+  private int references;
+
+  public WarmUp(String name, long durationSeconds, long records) {
+    if (durationSeconds < 0 || records < 0) {
+      throw new KLoadGenException("Warm-up duration and records can not be negative");
+    }
+    this.name = name;
+    this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+    this.records = records;
+    this.finished = new AtomicBoolean(durationSeconds == 0 && records == 0);
+  }
+
+  public static synchronized WarmUp acquire(String name, long durationSeconds, long records) {
+    if (durationSeconds == 0 && records == 0) {
+      return NONE;
+    }
+    WarmUp warmUp = WARM_UPS.computeIfAbsent(String.join("|", name, String.valueOf(durationSeconds), String.valueOf(records)),
+                                             key -> new WarmUp(name, durationSeconds, records));
+    warmUp.references++;
+    return warmUp;
+  }
+
+  public void release() {
+    synchronized (WarmUp.class) {
+      if (this != NONE && --references == 0) {
+        WARM_UPS.values().remove(this);
+      }
+    }
+  }
+
+  public boolean record(long count) {
+    if (finished.get()) {
+      return false;
+    }
+    long now = System.nanoTime();
+    startNanos.compareAndSet(Long.MIN_VALUE, now);
+    long total = recorded.addAndGet(count);
+    if (total <= records || now - startNanos.get() < durationNanos) {
+      return true;
+    }
+    if (finished.compareAndSet(false, true)) {
+      finishedNanos = now;
+      log.info("Warm-up of {} finished after {} records and {} ms, recording statistics from now on", name, total - count,
+               TimeUnit.NANOSECONDS.toMillis(now - startNanos.get()));
+    }
+    return false;
+  }
+
+  public boolean isFinished() {
+    return finished.get();
+  }
+
+  public long getFinishedNanos() {
+    return finishedNanos;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.processor;
+
+import static org.apache.avro.Schema.Type.ARRAY;
+import static org.apache.avro.Schema.Type.MAP;
+import static org.apache.avro.Schema.Type.NULL;
+import static org.apache.avro.Schema.Type.RECORD;
+import static org.apache.avro.Schema.Type.UNION;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.randomtool.generator.AvroGeneratorTool;
+import net.coru.kloadgen.randomtool.util.ValueUtils;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+@Slf4j
+public final class AvroRecordPlan {
+
+  static final int MAX_PLANS = 64;
+
+  private static final PlanCache<List<Object>, Optional<AvroRecordPlan>> PLANS = new PlanCache<>(MAX_PLANS);
+
+  private final RecordGenerator generator;
+
+  interface RecordGenerator {
+
+    GenericRecord next(AvroGeneratorTool generatorTool);
+  }
+
+  private AvroRecordPlan(RecordGenerator generator) {
+    this.generator = generator;
+  }
+
+  public static Optional<AvroRecordPlan> forSchema(Schema schema, List<FieldValueMapping> fieldExprMappings) {
+    if (RECORD != schema.getType() || Objects.isNull(fieldExprMappings) || fieldExprMappings.isEmpty()) {
+      return Optional.empty();
+    }
+    return PLANS.computeIfAbsent(List.of(schema, List.copyOf(fieldExprMappings)), key -> Optional.ofNullable(build(schema, fieldExprMappings)));
+  }
+
+  static int cachedPlans() {
+    return PLANS.size();
+  }
+
+  static void clear() {
+    PLANS.clear();
+  }
+
+  public GenericRecord next(AvroGeneratorTool generatorTool) {
+    return generator.next(generatorTool);
+  }
+
+  private static AvroRecordPlan build(Schema recordSchema, List<FieldValueMapping> fieldExprMappings) {
+    try {
+      return build(recordSchema, "", fieldExprMappings);
+    } catch (ReflectiveOperationException | LinkageError e) {
+      log.warn("Record plan for {} cannot be generated, the interpreted mode is used", recordSchema.getFullName(), e);
+      return null;
+    }
+  }
+
+  private static AvroRecordPlan build(Schema recordSchema, String prefix, List<FieldValueMapping> fieldExprMappings) throws ReflectiveOperationException {
+    PlanClassWriter writer = new PlanClassWriter(MethodHandles.lookup(), RecordGenerator.class);
+    writer.create(GenericData.Record.class);
+    writer.loadConstant(recordSchema, Schema.class);
+    writer.construct(GenericData.Record.class.getConstructor(Schema.class));
+    Method put = GenericData.Record.class.getMethod("put", int.class, Object.class);
+    int plannedMappings = 0;
+    for (Field field : recordSchema.getFields()) {
+      String fieldPath = prefix + field.name();
+      List<FieldValueMapping> nestedMappings = fieldExprMappings.stream()
+                                                                .filter(mapping -> mapping.getFieldName().startsWith(fieldPath + "."))
+                                                                .collect(Collectors.toList());
+      List<FieldValueMapping> directMappings = fieldExprMappings.stream()
+                                                                .filter(mapping -> mapping.getFieldName().equals(fieldPath))
+                                                                .collect(Collectors.toList());
+      if (directMappings.size() > 1 || !directMappings.isEmpty() && !nestedMappings.isEmpty()) {
+        return null;
+      }
+      if (!nestedMappings.isEmpty()) {
+        if (RECORD != field.schema().getType()) {
+          return null;
+        }
+        AvroRecordPlan nestedPlan = build(field.schema(), fieldPath + ".", nestedMappings);
+        if (Objects.isNull(nestedPlan)) {
+          return null;
+        }
+        writer.dup();
+        writer.pushInt(field.pos());
+        writer.loadConstant(nestedPlan, AvroRecordPlan.class);
+        writer.loadArgument(0);
+        writer.invoke(AvroRecordPlan.class.getMethod("next", AvroGeneratorTool.class));
+        writer.invoke(put);
+        plannedMappings += nestedMappings.size();
+      } else if (!directMappings.isEmpty()) {
+        FieldValueMapping mapping = directMappings.get(0);
+        if (!isSimple(field.schema()) || mapping.getAncestorRequired() && mapping.getFieldValuesList().contains("null")) {
+          return null;
+        }
+        if (!isAlwaysNull(field, mapping, prefix.isEmpty())) {
+          writer.dup();
+          writer.pushInt(field.pos());
+          generateField(writer, field, mapping);
+          writer.invoke(put);
+        }
+        plannedMappings++;
+      }
+    }
+    return plannedMappings == fieldExprMappings.size() ? new AvroRecordPlan(writer.define(RecordGenerator.class)) : null;
+  }
+
+  private static void generateField(PlanClassWriter writer, Field field, FieldValueMapping mapping) throws NoSuchMethodException {
+    List<String> fieldValuesList = List.copyOf(mapping.getFieldValuesList());
+    writer.loadArgument(0);
+    writer.loadConstant(field, Field.class);
+    writer.loadConstant(mapping.getFieldName(), String.class);
+    writer.loadConstant(mapping.getFieldType(), String.class);
+    writer.loadConstant(mapping.getValueLength(), Integer.class);
+    writer.loadConstant(fieldValuesList, List.class);
+    if (ValueUtils.hasContextValues(fieldValuesList)) {
+      writer.loadConstant(AvroSchemaProcessor.extractConstraints(field), Map.class);
+      writer.invoke(AvroGeneratorTool.class.getMethod("generateObject", Field.class, String.class, String.class, Integer.class, List.class, Map.class));
+    } else {
+      writer.loadConstant(fieldValuesList, List.class);
+      writer.loadConstant(AvroSchemaProcessor.extractConstraints(field), Map.class);
+      writer.invoke(AvroGeneratorTool.class.getMethod("generateObject", Field.class, String.class, String.class, Integer.class, List.class, List.class, Map.class));
+    }
+  }
+
+  private static boolean isAlwaysNull(Field field, FieldValueMapping mapping, boolean topLevel) {
+    boolean optional = UNION == field.schema().getType() && field.schema().getTypes().stream().anyMatch(type -> NULL == type.getType());
+    return optional && (!topLevel || !mapping.getRequired()) && mapping.getFieldValuesList().contains("null");
+  }
+
+  private static boolean isSimple(Schema fieldSchema) {
+    if (UNION == fieldSchema.getType()) {
+      return fieldSchema.getTypes().stream().allMatch(AvroRecordPlan::isSimple);
+    }
+    return RECORD != fieldSchema.getType() && ARRAY != fieldSchema.getType() && MAP != fieldSchema.getType();
+  }
+}
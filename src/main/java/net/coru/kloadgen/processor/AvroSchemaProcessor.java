@@ -62,6 +62,10 @@ public class AvroSchemaProcessor extends SchemaProcessorLib {
 
   private AvroGeneratorTool avroGeneratorTool;
 
+  private FlatAvroRecordEncoder flatRecordEncoder;
+
+  private AvroRecordPlan recordPlan;
+
   public void processSchema(ParsedSchema schema, SchemaMetadata metadata, List<FieldValueMapping> fieldExprMappings) {
     this.schema = (Schema) schema.rawSchema();
     this.fieldExprMappings = fieldExprMappings;
@@ -69,7 +73,8 @@ public class AvroSchemaProcessor extends SchemaProcessorLib {
     randomObject = new RandomObject();
     randomMap = new RandomMap();
     avroGeneratorTool = new AvroGeneratorTool();
-
+    flatRecordEncoder = null;
+    recordPlan = null;
   }
 
   public void processSchema(Schema schema, SchemaMetadata metadata, List<FieldValueMapping> fieldExprMappings) {
@@ -79,10 +84,29 @@ public class AvroSchemaProcessor extends SchemaProcessorLib {
     randomObject = new RandomObject();
     randomMap = new RandomMap();
     avroGeneratorTool = new AvroGeneratorTool();
+    flatRecordEncoder = null;
+    recordPlan = null;
+  }
 
+  public boolean enableFlatRecordEncoding() {
+    if (FlatAvroRecordEncoder.supports(schema, fieldExprMappings)) {
+      flatRecordEncoder = new FlatAvroRecordEncoder(schema, fieldExprMappings);
+    }
+    return Objects.nonNull(flatRecordEncoder);
+  }
+
+  public boolean enableRecordPlan() {
+    recordPlan = AvroRecordPlan.forSchema(schema, fieldExprMappings).orElse(null);
+    return Objects.nonNull(recordPlan);
   }
 
   public EnrichedRecord next() {
+    if (Objects.nonNull(flatRecordEncoder)) {
+      return EnrichedRecord.builder().schemaMetadata(metadata).genericRecord(flatRecordEncoder.next()).build();
+    }
+    if (Objects.nonNull(recordPlan)) {
+      return EnrichedRecord.builder().schemaMetadata(metadata).genericRecord(recordPlan.next(avroGeneratorTool)).build();
+    }
     GenericRecord entity = new GenericData.Record(schema);
     if (Objects.nonNull(fieldExprMappings) && !fieldExprMappings.isEmpty()) {
       ArrayDeque<FieldValueMapping> fieldExpMappingsQueue = new ArrayDeque<>(fieldExprMappings);
@@ -163,7 +187,7 @@ public class AvroSchemaProcessor extends SchemaProcessorLib {
     return EnrichedRecord.builder().schemaMetadata(metadata).genericRecord(entity).build();
   }
 
-  private Map<ConstraintTypeEnum, String> extractConstraints(Schema.Field field) {
+  static Map<ConstraintTypeEnum, String> extractConstraints(Schema.Field field) {
     Map<ConstraintTypeEnum, String> constraints = new HashMap<>();
 
     if (Objects.nonNull(field.schema().getObjectProp("precision"))) {
@@ -0,0 +1,193 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.processor;
+
+import static org.apache.avro.Schema.Type.BOOLEAN;
+import static org.apache.avro.Schema.Type.BYTES;
+import static org.apache.avro.Schema.Type.DOUBLE;
+import static org.apache.avro.Schema.Type.ENUM;
+import static org.apache.avro.Schema.Type.FIXED;
+import static org.apache.avro.Schema.Type.FLOAT;
+import static org.apache.avro.Schema.Type.INT;
+import static org.apache.avro.Schema.Type.LONG;
+import static org.apache.avro.Schema.Type.NULL;
+import static org.apache.avro.Schema.Type.RECORD;
+import static org.apache.avro.Schema.Type.STRING;
+import static org.apache.avro.Schema.Type.UNION;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.model.ConstraintTypeEnum;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.randomtool.generator.AvroGeneratorTool;
+import net.coru.kloadgen.randomtool.util.ValueUtils;
+import net.coru.kloadgen.serializer.EncodedAvroRecord;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.Schema.Type;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+
+public class FlatAvroRecordEncoder {
+
+  private static final Set<Type> PRIMITIVE_TYPES = EnumSet.of(NULL, BOOLEAN, INT, LONG, FLOAT, DOUBLE, STRING, BYTES, ENUM, FIXED);
+
+  private final Schema schema;
+
+  private final List<Field> fields;
+
+  private final List<FieldValueMapping> mappings = new ArrayList<>();
+
+  private final List<List<String>> fieldValuesLists = new ArrayList<>();
+
+  private final List<List<String>> parameterLists = new ArrayList<>();
+
+  private final List<Map<ConstraintTypeEnum, String>> constraints = new ArrayList<>();
+
+  private final boolean[] alwaysNull;
+
+  private final AvroGeneratorTool avroGeneratorTool = new AvroGeneratorTool();
+
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+  private final BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(buffer, null);
+
+  public FlatAvroRecordEncoder(Schema schema, List<FieldValueMapping> fieldExprMappings) {
+    if (!supports(schema, fieldExprMappings)) {
+      throw new KLoadGenException("Schema " + schema.getFullName() + " is not a flat record");
+    }
+    this.schema = schema;
+    this.fields = schema.getFields();
+    this.alwaysNull = new boolean[fields.size()];
+    Map<String, FieldValueMapping> mappingsByName = mappingsByName(fieldExprMappings);
+    for (Field field : fields) {
+      FieldValueMapping mapping = mappingsByName.get(field.name());
+      mappings.add(mapping);
+      List<String> fieldValuesList = Objects.isNull(mapping) ? List.of() : mapping.getFieldValuesList();
+      fieldValuesLists.add(fieldValuesList);
+      parameterLists.add(ValueUtils.hasContextValues(fieldValuesList) ? null : new ArrayList<>(fieldValuesList));
+      constraints.add(AvroSchemaProcessor.extractConstraints(field));
+      alwaysNull[field.pos()] = Objects.isNull(mapping)
+                                || isOptional(field.schema()) && !mapping.getRequired() && fieldValuesList.contains("null");
+    }
+  }
+
+  public static boolean supports(Schema schema, List<FieldValueMapping> fieldExprMappings) {
+    if (RECORD != schema.getType() || Objects.isNull(fieldExprMappings) || fieldExprMappings.isEmpty()) {
+      return false;
+    }
+    Map<String, FieldValueMapping> mappingsByName = mappingsByName(fieldExprMappings);
+    if (mappingsByName.size() != fieldExprMappings.size()) {
+      return false;
+    }
+    for (FieldValueMapping mapping : fieldExprMappings) {
+      if (Objects.isNull(schema.getField(mapping.getFieldName())) || mapping.getAncestorRequired()) {
+        return false;
+      }
+    }
+    for (Field field : schema.getFields()) {
+      if (!isPrimitive(field.schema()) || !mappingsByName.containsKey(field.name()) && !isOptional(field.schema())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public EncodedAvroRecord next() {
+    buffer.reset();
+    try {
+      for (int i = 0; i < alwaysNull.length; i++) {
+        Field field = fields.get(i);
+        write(field.schema(), alwaysNull[i] ? null : generate(field, i));
+      }
+      encoder.flush();
+    } catch (IOException | ClassCastException | NullPointerException e) {
+      throw new KLoadGenException("Unable to encode record of schema " + schema.getFullName(), e);
+    }
+    return new EncodedAvroRecord(schema, buffer.toByteArray());
+  }
+
+  private Object generate(Field field, int position) {
+    FieldValueMapping mapping = mappings.get(position);
+    List<String> fieldValuesList = fieldValuesLists.get(position);
+    List<String> parameterList = parameterLists.get(position);
+    return avroGeneratorTool.generateObject(field, mapping.getFieldName(), mapping.getFieldType(), mapping.getValueLength(), fieldValuesList,
+                                            Objects.isNull(parameterList) ? ValueUtils.replaceValuesContext(fieldValuesList) : parameterList,
+                                            constraints.get(position));
+  }
+
+  private void write(Schema fieldSchema, Object value) throws IOException {
+    switch (fieldSchema.getType()) {
+      case UNION:
+        int index = GenericData.get().resolveUnion(fieldSchema, value);
+        encoder.writeIndex(index);
+        write(fieldSchema.getTypes().get(index), value);
+        break;
+      case NULL:
+        encoder.writeNull();
+        break;
+      case BOOLEAN:
+        encoder.writeBoolean((Boolean) value);
+        break;
+      case INT:
+        encoder.writeInt(((Number) value).intValue());
+        break;
+      case LONG:
+        encoder.writeLong(((Number) value).longValue());
+        break;
+      case FLOAT:
+        encoder.writeFloat(((Number) value).floatValue());
+        break;
+      case DOUBLE:
+        encoder.writeDouble(((Number) value).doubleValue());
+        break;
+      case STRING:
+        encoder.writeString(value instanceof CharSequence ? (CharSequence) value : value.toString());
+        break;
+      case BYTES:
+        encoder.writeBytes(((ByteBuffer) value).duplicate());
+        break;
+      case ENUM:
+        encoder.writeEnum(fieldSchema.getEnumOrdinal(value.toString()));
+        break;
+      case FIXED:
+        encoder.writeFixed(((GenericFixed) value).bytes());
+        break;
+      default:
+        throw new KLoadGenException("Unsupported type " + fieldSchema.getType() + " in flat record " + schema.getFullName());
+    }
+  }
+
+  private static Map<String, FieldValueMapping> mappingsByName(List<FieldValueMapping> fieldExprMappings) {
+    Map<String, FieldValueMapping> mappingsByName = new HashMap<>();
+    fieldExprMappings.forEach(mapping -> mappingsByName.put(mapping.getFieldName(), mapping));
+    return mappingsByName;
+  }
+
+  private static boolean isPrimitive(Schema fieldSchema) {
+    if (UNION == fieldSchema.getType()) {
+      return fieldSchema.getTypes().stream().allMatch(type -> UNION != type.getType() && isPrimitive(type));
+    }
+    return PRIMITIVE_TYPES.contains(fieldSchema.getType()) && Objects.isNull(fieldSchema.getLogicalType());
+  }
+
+  private static boolean isOptional(Schema fieldSchema) {
+    return UNION == fieldSchema.getType() && fieldSchema.getTypes().stream().anyMatch(type -> NULL == type.getType());
+  }
+}
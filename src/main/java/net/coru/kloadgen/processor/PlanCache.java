@@ -0,0 +1,38 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.processor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+final class PlanCache<K, V> {
+
+  private final Map<K, V> plans;
+
+  PlanCache(int capacity) {
+    plans = new LinkedHashMap<>(16, 0.75f, true) {
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  synchronized V computeIfAbsent(K key, Function<K, V> planBuilder) {
+    return plans.computeIfAbsent(key, planBuilder);
+  }
+
+  synchronized int size() {
+    return plans.size();
+  }
+
+  synchronized void clear() {
+    plans.clear();
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.processor;
+
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACC_SYNTHETIC;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ARETURN;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.NEW;
+import static org.objectweb.asm.Opcodes.POP;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.V11;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+final class PlanClassWriter {
+
+  private static final AtomicInteger GENERATED_CLASSES = new AtomicInteger();
+
+  private static final String CONSTANT_PREFIX = "constant";
+
+  private final MethodHandles.Lookup lookup;
+
+  private final String className;
+
+  private final ClassWriter classWriter;
+
+  private final MethodVisitor method;
+
+  private final List<Object> constants = new ArrayList<>();
+
+  private final List<Class<?>> constantTypes = new ArrayList<>();
+
+  PlanClassWriter(MethodHandles.Lookup lookup, Class<?> planInterface) {
+    Method[] abstractMethods = Arrays.stream(planInterface.getMethods()).filter(method -> Modifier.isAbstract(method.getModifiers())).toArray(Method[]::new);
+    if (!planInterface.isInterface() || abstractMethods.length != 1) {
+      throw new KLoadGenException("Plans can only implement an interface with one method, but was " + planInterface.getName());
+    }
+    this.lookup = lookup;
+    className = Type.getInternalName(lookup.lookupClass()) + "$Generated" + GENERATED_CLASSES.incrementAndGet();
+    classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+    classWriter.visit(V11, ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, className, null, Type.getInternalName(Object.class),
+                      new String[]{Type.getInternalName(planInterface)});
+    method = classWriter.visitMethod(ACC_PUBLIC, abstractMethods[0].getName(), Type.getMethodDescriptor(abstractMethods[0]), null, null);
+    method.visitCode();
+  }
+
+  void loadConstant(Object value, Class<?> type) {
+    int index = constants.size();
+    constants.add(value);
+    constantTypes.add(type);
+    classWriter.visitField(ACC_PRIVATE | ACC_FINAL, CONSTANT_PREFIX + index, Type.getDescriptor(type), null, null).visitEnd();
+    method.visitVarInsn(ALOAD, 0);
+    method.visitFieldInsn(GETFIELD, className, CONSTANT_PREFIX + index, Type.getDescriptor(type));
+  }
+
+  void loadArgument(int index) {
+    method.visitVarInsn(ALOAD, index + 1);
+  }
+
+  void pushInt(int value) {
+    method.visitLdcInsn(value);
+  }
+
+  void dup() {
+    method.visitInsn(DUP);
+  }
+
+  void pop() {
+    method.visitInsn(POP);
+  }
+
+  void create(Class<?> type) {
+    method.visitTypeInsn(NEW, Type.getInternalName(type));
+    method.visitInsn(DUP);
+  }
+
+  void construct(Constructor<?> constructor) {
+    method.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(constructor.getDeclaringClass()), "<init>", Type.getConstructorDescriptor(constructor), false);
+  }
+
+  void invoke(Method invoked) {
+    Class<?> owner = invoked.getDeclaringClass();
+    int opcode = Modifier.isStatic(invoked.getModifiers()) ? INVOKESTATIC : owner.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL;
+    method.visitMethodInsn(opcode, Type.getInternalName(owner), invoked.getName(), Type.getMethodDescriptor(invoked), owner.isInterface());
+  }
+
+  <T> T define(Class<T> planInterface) throws ReflectiveOperationException {
+    method.visitInsn(ARETURN);
+    method.visitMaxs(0, 0);
+    method.visitEnd();
+
+    MethodVisitor constructor = classWriter.visitMethod(ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", null, null);
+    constructor.visitCode();
+    constructor.visitVarInsn(ALOAD, 0);
+    constructor.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+    for (int i = 0; i < constants.size(); i++) {
+      constructor.visitVarInsn(ALOAD, 0);
+      constructor.visitVarInsn(ALOAD, 1);
+      constructor.visitLdcInsn(i);
+      constructor.visitInsn(AALOAD);
+      constructor.visitTypeInsn(CHECKCAST, Type.getInternalName(constantTypes.get(i)));
+      constructor.visitFieldInsn(PUTFIELD, className, CONSTANT_PREFIX + i, Type.getDescriptor(constantTypes.get(i)));
+    }
+    constructor.visitInsn(RETURN);
+    constructor.visitMaxs(0, 0);
+    constructor.visitEnd();
+    classWriter.visitEnd();
+
+    Class<?> planClass = lookup.defineClass(classWriter.toByteArray());
+    return planInterface.cast(planClass.getConstructor(Object[].class).newInstance((Object) constants.toArray()));
+  }
+}
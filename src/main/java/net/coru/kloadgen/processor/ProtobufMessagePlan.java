@@ -0,0 +1,120 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.processor;
+
+import static com.google.protobuf.Descriptors.FieldDescriptor.Type.ENUM;
+import static com.google.protobuf.Descriptors.FieldDescriptor.Type.GROUP;
+import static com.google.protobuf.Descriptors.FieldDescriptor.Type.MESSAGE;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.DynamicMessage;
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.randomtool.generator.ProtoBufGeneratorTool;
+
+@Slf4j
+public final class ProtobufMessagePlan {
+
+  static final int MAX_PLANS = 64;
+
+  private static final PlanCache<List<Object>, Optional<ProtobufMessagePlan>> PLANS = new PlanCache<>(MAX_PLANS);
+
+  private final MessageGenerator generator;
+
+  interface MessageGenerator {
+
+    DynamicMessage next(ProtoBufGeneratorTool generatorTool);
+  }
+
+  private ProtobufMessagePlan(MessageGenerator generator) {
+    this.generator = generator;
+  }
+
+  public static Optional<ProtobufMessagePlan> forDescriptor(Descriptor descriptor, List<FieldValueMapping> fieldExprMappings) {
+    if (Objects.isNull(fieldExprMappings) || fieldExprMappings.isEmpty()) {
+      return Optional.empty();
+    }
+    return PLANS.computeIfAbsent(List.of(descriptor, List.copyOf(fieldExprMappings)), key -> Optional.ofNullable(build(descriptor, fieldExprMappings)));
+  }
+
+  static int cachedPlans() {
+    return PLANS.size();
+  }
+
+  static void clear() {
+    PLANS.clear();
+  }
+
+  public DynamicMessage next(ProtoBufGeneratorTool generatorTool) {
+    return generator.next(generatorTool);
+  }
+
+  private static ProtobufMessagePlan build(Descriptor descriptor, List<FieldValueMapping> fieldExprMappings) {
+    Set<FieldDescriptor> plannedFields = new HashSet<>();
+    for (FieldValueMapping mapping : fieldExprMappings) {
+      FieldDescriptor field = descriptor.findFieldByName(mapping.getFieldName());
+      if (Objects.isNull(field) || !isSimple(field) || mapping.getAncestorRequired() && mapping.getFieldValuesList().contains("null") || !plannedFields.add(field)) {
+        return null;
+      }
+    }
+    try {
+      PlanClassWriter writer = new PlanClassWriter(MethodHandles.lookup(), MessageGenerator.class);
+      writer.loadConstant(descriptor, Descriptor.class);
+      writer.invoke(DynamicMessage.class.getMethod("newBuilder", Descriptor.class));
+      Method setField = DynamicMessage.Builder.class.getMethod("setField", FieldDescriptor.class, Object.class);
+      for (FieldValueMapping mapping : fieldExprMappings) {
+        FieldDescriptor field = descriptor.findFieldByName(mapping.getFieldName());
+        if (!(field.isOptional() && !mapping.getRequired() && mapping.getFieldValuesList().contains("null"))) {
+          writer.dup();
+          writer.loadConstant(field, FieldDescriptor.class);
+          generateField(writer, field, mapping);
+          writer.invoke(setField);
+          writer.pop();
+        }
+      }
+      writer.invoke(DynamicMessage.Builder.class.getMethod("build"));
+      return new ProtobufMessagePlan(writer.define(MessageGenerator.class));
+    } catch (ReflectiveOperationException | LinkageError e) {
+      log.warn("Message plan for {} cannot be generated, the interpreted mode is used", descriptor.getFullName(), e);
+      return null;
+    }
+  }
+
+  private static void generateField(PlanClassWriter writer, FieldDescriptor field, FieldValueMapping mapping) throws NoSuchMethodException {
+    writer.loadArgument(0);
+    if (ENUM == field.getType()) {
+      writer.loadConstant(field.getEnumType(), EnumDescriptor.class);
+      writer.loadConstant(mapping.getFieldType(), String.class);
+      writer.loadConstant(mapping.getValueLength(), Integer.class);
+      writer.invoke(Integer.class.getMethod("intValue"));
+      writer.loadConstant(List.copyOf(mapping.getFieldValuesList()), List.class);
+      writer.invoke(ProtoBufGeneratorTool.class.getMethod("generateObject", EnumDescriptor.class, String.class, int.class, List.class));
+    } else {
+      writer.loadConstant(field, FieldDescriptor.class);
+      writer.loadConstant(mapping.getFieldType(), String.class);
+      writer.loadConstant(mapping.getValueLength(), Integer.class);
+      writer.loadConstant(List.copyOf(mapping.getFieldValuesList()), List.class);
+      writer.loadConstant(mapping.getConstraints(), Map.class);
+      writer.invoke(ProtoBufGeneratorTool.class.getMethod("generateObject", FieldDescriptor.class, String.class, Integer.class, List.class, Map.class));
+    }
+  }
+
+  private static boolean isSimple(FieldDescriptor field) {
+    return !field.isRepeated() && MESSAGE != field.getType() && GROUP != field.getType();
+  }
+}
@@ -11,6 +11,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.Descriptors.DescriptorValidationException;
@@ -34,6 +35,8 @@ public class ProtobufSchemaProcessor extends SchemaProcessorLib {
 
   public static final String STRING_TYPE = "string";
 
+  private static final Map<ProtoFileElement, Descriptors.Descriptor> DESCRIPTORS = new ConcurrentHashMap<>();
+
   private Descriptors.Descriptor schema;
 
   private SchemaMetadata metadata;
@@ -46,6 +49,8 @@ public class ProtobufSchemaProcessor extends SchemaProcessorLib {
 
   private ProtoBufGeneratorTool generatorTool;
 
+  private ProtobufMessagePlan messagePlan;
+
   public void processSchema(ProtoFileElement schema, SchemaMetadata metadata, List<FieldValueMapping> fieldExprMappings)
       throws DescriptorValidationException, IOException {
     this.schema = new ProtoBufProcessorHelper().buildDescriptor(schema);
@@ -53,19 +58,43 @@ public class ProtobufSchemaProcessor extends SchemaProcessorLib {
     this.metadata = metadata;
     randomObject = new RandomObject();
     generatorTool = new ProtoBufGeneratorTool();
+    messagePlan = null;
   }
 
   public void processSchema(ParsedSchema parsedSchema, SchemaMetadata metadata, List<FieldValueMapping> fieldExprMappings)
       throws DescriptorValidationException, IOException {
-    this.schema = new ProtoBufProcessorHelper().buildDescriptor((ProtoFileElement) parsedSchema.rawSchema());
+    this.schema = descriptorFor((ProtoFileElement) parsedSchema.rawSchema());
     this.fieldExprMappings = fieldExprMappings;
     this.metadata = metadata;
     randomObject = new RandomObject();
     generatorTool = new ProtoBufGeneratorTool();
     randomMap = new RandomMap();
+    messagePlan = null;
+  }
+
+  private static Descriptors.Descriptor descriptorFor(ProtoFileElement protoFileElement) throws DescriptorValidationException, IOException {
+    Descriptors.Descriptor descriptor = DESCRIPTORS.get(protoFileElement);
+    if (Objects.isNull(descriptor)) {
+      descriptor = new ProtoBufProcessorHelper().buildDescriptor(protoFileElement);
+      Descriptors.Descriptor previous = DESCRIPTORS.putIfAbsent(protoFileElement, descriptor);
+      descriptor = Objects.requireNonNullElse(previous, descriptor);
+    }
+    return descriptor;
+  }
+
+  public static void clearDescriptors() {
+    DESCRIPTORS.clear();
+  }
+
+  public boolean enableMessagePlan() {
+    messagePlan = ProtobufMessagePlan.forDescriptor(schema, fieldExprMappings).orElse(null);
+    return Objects.nonNull(messagePlan);
   }
 
   public EnrichedRecord next() {
+    if (Objects.nonNull(messagePlan)) {
+      return EnrichedRecord.builder().schemaMetadata(metadata).genericRecord(messagePlan.next(generatorTool)).build();
+    }
     DynamicMessage.Builder messageBuilder = DynamicMessage.newBuilder(schema);
 
     if (Objects.nonNull(fieldExprMappings) && !fieldExprMappings.isEmpty()) {
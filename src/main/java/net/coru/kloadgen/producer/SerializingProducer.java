@@ -0,0 +1,156 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.producer;
+
+import static org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Utils;
+
+public abstract class SerializingProducer implements Producer<Object, Object> {
+
+  private final Serializer<Object> keySerializer;
+
+  private final Serializer<Object> valueSerializer;
+
+  private final String transactionsUnsupported;
+
+  protected SerializingProducer(Properties props, String sinkDescription) {
+    this.keySerializer = createSerializer(props, KEY_SERIALIZER_CLASS_CONFIG, true);
+    this.valueSerializer = createSerializer(props, VALUE_SERIALIZER_CLASS_CONFIG, false);
+    this.transactionsUnsupported = "Transactions are not supported " + sinkDescription;
+  }
+
+  protected abstract long write(ProducerRecord<Object, Object> record, byte[] key, byte[] value) throws IOException;
+
+  protected abstract void release();
+
+  protected void beforeSerialize(ProducerRecord<Object, Object> record) {
+  }
+
+  @Override
+  public Future<RecordMetadata> send(ProducerRecord<Object, Object> record) {
+    return send(record, null);
+  }
+
+  @Override
+  public Future<RecordMetadata> send(ProducerRecord<Object, Object> record, Callback callback) {
+    CompletableFuture<RecordMetadata> result = new CompletableFuture<>();
+    try {
+      beforeSerialize(record);
+      byte[] key = keySerializer.serialize(record.topic(), record.headers(), record.key());
+      byte[] value = valueSerializer.serialize(record.topic(), record.headers(), record.value());
+      long offset = write(record, key, value);
+      long timestamp = Objects.requireNonNullElse(record.timestamp(), System.currentTimeMillis());
+      RecordMetadata metadata = new RecordMetadata(new TopicPartition(record.topic(), 0), offset, 0, timestamp, sizeOf(key), sizeOf(value));
+      result.complete(metadata);
+      if (Objects.nonNull(callback)) {
+        callback.onCompletion(metadata, null);
+      }
+    } catch (IOException | RuntimeException e) {
+      result.completeExceptionally(e);
+      if (Objects.nonNull(callback)) {
+        callback.onCompletion(null, e);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public List<PartitionInfo> partitionsFor(String topic) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public Map<MetricName, ? extends Metric> metrics() {
+    return Collections.emptyMap();
+  }
+
+  @Override
+  public void close() {
+    close(Duration.ZERO);
+  }
+
+  @Override
+  public void close(Duration timeout) {
+    keySerializer.close();
+    valueSerializer.close();
+    release();
+  }
+
+  @Override
+  public void initTransactions() {
+    throw new UnsupportedOperationException(transactionsUnsupported);
+  }
+
+  @Override
+  public void beginTransaction() {
+    throw new UnsupportedOperationException(transactionsUnsupported);
+  }
+
+  @Override
+  @Deprecated
+  public void sendOffsetsToTransaction(Map<TopicPartition, OffsetAndMetadata> offsets, String consumerGroupId) {
+    throw new UnsupportedOperationException(transactionsUnsupported);
+  }
+
+  @Override
+  public void sendOffsetsToTransaction(Map<TopicPartition, OffsetAndMetadata> offsets, ConsumerGroupMetadata groupMetadata) {
+    throw new UnsupportedOperationException(transactionsUnsupported);
+  }
+
+  @Override
+  public void commitTransaction() {
+    throw new UnsupportedOperationException(transactionsUnsupported);
+  }
+
+  @Override
+  public void abortTransaction() {
+    throw new UnsupportedOperationException(transactionsUnsupported);
+  }
+
+  protected static int sizeOf(byte[] bytes) {
+    return Objects.isNull(bytes) ? -1 : bytes.length;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static Serializer<Object> createSerializer(Properties props, String serializerConfig, boolean isKey) {
+    try {
+      Serializer<Object> serializer = Utils.newInstance(props.getProperty(serializerConfig), Serializer.class);
+      serializer.configure(Utils.propsToMap(props), isKey);
+      return serializer;
+    } catch (ClassNotFoundException e) {
+      throw new KLoadGenException("Serializer class not found: " + props.getProperty(serializerConfig), e);
+    }
+  }
+}
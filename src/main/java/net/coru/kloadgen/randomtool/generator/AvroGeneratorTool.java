@@ -39,16 +39,23 @@ public class AvroGeneratorTool {
   private final RandomSequence randomSequence = new RandomSequence();
 
   public Object generateObject(Field field, FieldValueMapping fieldValueMapping, Map<ConstraintTypeEnum, String> constraints) {
-    String fieldType = fieldValueMapping.getFieldType();
-    Integer valueLength = fieldValueMapping.getValueLength();
-    List<String> fieldValuesList = fieldValueMapping.getFieldValuesList();
+    return generateObject(field, fieldValueMapping.getFieldName(), fieldValueMapping.getFieldType(), fieldValueMapping.getValueLength(),
+                          fieldValueMapping.getFieldValuesList(), constraints);
+  }
+
+  public Object generateObject(
+      Field field, String fieldName, String fieldType, Integer valueLength, List<String> fieldValuesList, Map<ConstraintTypeEnum, String> constraints) {
+    return generateObject(field, fieldName, fieldType, valueLength, fieldValuesList, ValueUtils.replaceValuesContext(fieldValuesList), constraints);
+  }
 
-    List<String> parameterList = ValueUtils.replaceValuesContext(fieldValuesList);
+  public Object generateObject(
+      Field field, String fieldName, String fieldType, Integer valueLength, List<String> fieldValuesList, List<String> parameterList,
+      Map<ConstraintTypeEnum, String> constraints) {
     boolean logicalType = Objects.nonNull(field.schema().getLogicalType());
 
     Object value;
     if (ENUM == field.schema().getType() && !"seq".equalsIgnoreCase(fieldType)) {
-      value = getEnumOrGenerate(fieldValueMapping.getFieldName(), fieldType, field.schema(), parameterList, field.schema().getType().getName());
+      value = getEnumOrGenerate(fieldName, fieldType, field.schema(), parameterList, field.schema().getType().getName());
     } else if (UNION == field.schema().getType() && !"seq".equalsIgnoreCase(fieldType)) {
       Schema safeSchema = getRecordUnion(field.schema().getTypes());
       if (differentTypesNeedCast(fieldType, safeSchema.getType())) {
@@ -56,7 +63,7 @@ public class AvroGeneratorTool {
         value = randomObject.generateRandom(fieldType, valueLength, parameterList, constraints);
         value = ValueUtils.castValue(value, field.schema().getType().getName());
       } else if (ENUM == safeSchema.getType()) {
-        value = getEnumOrGenerate(fieldValueMapping.getFieldName(), fieldType, safeSchema, parameterList, field.schema().getType().getName());
+        value = getEnumOrGenerate(fieldName, fieldType, safeSchema, parameterList, field.schema().getType().getName());
       } else {
         value = randomObject.generateRandom(fieldType, valueLength, parameterList, constraints);
         if ("null".equalsIgnoreCase(value.toString())) {
@@ -67,7 +74,7 @@ public class AvroGeneratorTool {
       String type = UNION.getName().equals(getValidTypeFromSchema(field.schema())) ? getRecordUnion(field.schema().getTypes()).getName()
           : getValidTypeFromSchema(field.schema());
       if (!fieldValuesList.isEmpty() && (fieldValuesList.size() > 1 || !RandomSequence.isTypeSupported(type))) {
-        return randomSequence.generateSequenceForFieldValueList(fieldValueMapping.getFieldName(), type, fieldValuesList, context);
+        return randomSequence.generateSequenceForFieldValueList(fieldName, type, fieldValuesList, context);
       } else {
         value = randomSequence.generateSeq(field.name(), type, parameterList, context);
       }
@@ -97,11 +104,12 @@ public class AvroGeneratorTool {
         return needCastForString(fieldType);
       case INT:
         return needCastForInt(fieldType);
+      case BYTES:
+        return needCastForBytes(fieldType);
       case LONG:
       case FLOAT:
       case DOUBLE:
       case BOOLEAN:
-      case BYTES:
       default:
         return !fieldTypeSchema.getName().equals(fieldType.split("_")[0]);
     }
@@ -124,10 +132,15 @@ public class AvroGeneratorTool {
     }
   }
 
+  private boolean needCastForBytes(String fieldType) {
+    return !"compressible-bytes".equals(fieldType) && !Type.BYTES.getName().equals(fieldType.split("_")[0]);
+  }
+
   private boolean needCastForString(String fieldType) {
     switch (fieldType) {
       case "timestamp":
       case "uuid":
+      case "compressible-string":
         return false;
       default:
         return !Type.STRING.getName().equals(fieldType);
@@ -0,0 +1,128 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.randomtool.random;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.Deflater;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+
+public class RandomCompressibleText {
+
+  public static final double DEFAULT_RATIO = 4.0;
+
+  private static final String[] WORDS = {
+      "order", "customer", "account", "payment", "status", "created", "updated", "amount", "currency", "country",
+      "product", "quantity", "price", "address", "street", "city", "event", "source", "target", "value",
+      "session", "device", "channel", "region", "store", "item", "total", "discount", "shipping", "pending",
+      "completed", "cancelled", "active", "inactive", "request", "response", "version", "type", "name", "code"
+  };
+
+  private static final String LETTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+  private static final int CHUNK_SIZE = 16;
+
+  private static final int TEMPLATE_SIZE = 8 * 1024;
+
+  private static final int SAMPLE_SIZE = 64 * 1024;
+
+  private static final int CALIBRATION_STEPS = 14;
+
+  private static final long TEMPLATE_SEED = 0x4B4C47L;
+
+  private static final long CALIBRATION_SEED = 0x43414CL;
+
+  private static final String TEMPLATE = buildTemplate(new Random(TEMPLATE_SEED));
+
+  private static final Map<String, Double> TEMPLATE_PROBABILITIES = new ConcurrentHashMap<>();
+
+  public String generateString(int length, double targetRatio) {
+    return generate(length, templateProbability(length, targetRatio), ThreadLocalRandom.current());
+  }
+
+  public byte[] generateBytes(int length, double targetRatio) {
+    return generateString(length, targetRatio).getBytes(StandardCharsets.US_ASCII);
+  }
+
+  static double compressionRatio(byte[] data) {
+    Deflater deflater = new Deflater();
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+      byte[] buffer = new byte[data.length + 64];
+      long compressed = 0;
+      while (!deflater.finished()) {
+        compressed += deflater.deflate(buffer);
+      }
+      return (double) data.length / Math.max(1, compressed);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  static double templateProbability(int length, double targetRatio) {
+    if (targetRatio < 1.0) {
+      throw new KLoadGenException("Compression ratio must be equal or greater than 1, but was " + targetRatio);
+    }
+    return TEMPLATE_PROBABILITIES.computeIfAbsent(length + ":" + targetRatio, key -> calibrate(length, targetRatio));
+  }
+
+  private static double calibrate(int length, double targetRatio) {
+    double low = 0.0;
+    double high = 1.0;
+    for (int step = 0; step < CALIBRATION_STEPS; step++) {
+      double probability = (low + high) / 2;
+      if (sampleRatio(length, probability) < targetRatio) {
+        low = probability;
+      } else {
+        high = probability;
+      }
+    }
+    return (low + high) / 2;
+  }
+
+  private static double sampleRatio(int length, double probability) {
+    Random random = new Random(CALIBRATION_SEED);
+    StringBuilder sample = new StringBuilder(SAMPLE_SIZE + length);
+    while (sample.length() < SAMPLE_SIZE) {
+      sample.append(generate(length, probability, random));
+    }
+    return compressionRatio(sample.toString().getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static String generate(int length, double templateProbability, Random random) {
+    StringBuilder value = new StringBuilder(length);
+    int templatePosition = random.nextInt(TEMPLATE_SIZE);
+    while (value.length() < length) {
+      int chunk = Math.min(CHUNK_SIZE, length - value.length());
+      if (random.nextDouble() < templateProbability) {
+        for (int i = 0; i < chunk; i++) {
+          value.append(TEMPLATE.charAt(templatePosition));
+          templatePosition = (templatePosition + 1) % TEMPLATE_SIZE;
+        }
+      } else {
+        for (int i = 0; i < chunk; i++) {
+          value.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        templatePosition = random.nextInt(TEMPLATE_SIZE);
+      }
+    }
+    return value.toString();
+  }
+
+  private static String buildTemplate(Random random) {
+    StringBuilder template = new StringBuilder(TEMPLATE_SIZE + CHUNK_SIZE);
+    while (template.length() < TEMPLATE_SIZE) {
+      template.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+    }
+    return template.substring(0, TEMPLATE_SIZE);
+  }
+}
@@ -8,6 +8,7 @@ package net.coru.kloadgen.randomtool.random;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -32,6 +33,8 @@ import org.apache.commons.lang3.StringUtils;
 
 public class RandomObject {
 
+  private final RandomCompressibleText randomCompressibleText = new RandomCompressibleText();
+
   public boolean isTypeValid(String type) {
     return ValidTypeConstants.VALID_OBJECT_TYPES.contains(type);
   }
@@ -142,6 +145,12 @@ public class RandomObject {
       case ValidTypeConstants.INT_NANOS:
         value = getTimeOfDayValueOrRandom(fieldType, fieldValueList);
         break;
+      case ValidTypeConstants.COMPRESSIBLE_STRING:
+        value = randomCompressibleText.generateString(getCompressibleLength(valueLength), getCompressionRatio(fieldValueList));
+        break;
+      case ValidTypeConstants.COMPRESSIBLE_BYTES:
+        value = ByteBuffer.wrap(randomCompressibleText.generateBytes(getCompressibleLength(valueLength), getCompressionRatio(fieldValueList)));
+        break;
       default:
         value = fieldType;
         break;
@@ -218,6 +227,22 @@ public class RandomObject {
     return value;
   }
 
+  private int getCompressibleLength(Integer valueLength) {
+    return valueLength == 0 ? RandomUtils.nextInt(1, 20) : valueLength;
+  }
+
+  private double getCompressionRatio(List<String> fieldValueList) {
+    double ratio = RandomCompressibleText.DEFAULT_RATIO;
+    if (!fieldValueList.isEmpty() && StringUtils.isNotBlank(fieldValueList.get(0))) {
+      try {
+        ratio = Double.parseDouble(fieldValueList.get(0).trim());
+      } catch (NumberFormatException exception) {
+        throw new KLoadGenException("Compression ratio must be a number, but was " + fieldValueList.get(0));
+      }
+    }
+    return ratio;
+  }
+
   private int getMaxLength(Integer valueLength, String maxValueStr) {
     int maxValue = Integer.parseInt(StringUtils.defaultIfEmpty(maxValueStr, "0"));
     if (valueLength > 0 && maxValue == 0) {
@@ -7,6 +7,7 @@
 package net.coru.kloadgen.randomtool.random;
 
 import com.google.common.collect.ImmutableMap;
+import net.coru.kloadgen.loadgen.Shard;
 import net.coru.kloadgen.randomtool.util.ValidTypeConstants;
 import net.coru.kloadgen.randomtool.util.ValueUtils;
 
@@ -17,13 +18,13 @@ import java.util.Map;
 public class RandomSequence {
 
     private static final Map<String, SequenceType<?>> supportedSequenceTypes = ImmutableMap.<String, SequenceType<?>>builder()
-            .put(ValidTypeConstants.INT, SequenceType.of(() -> 1, seqObject -> Integer.parseInt(seqObject.toString()) + 1))
-            .put(ValidTypeConstants.DOUBLE, SequenceType.of(() -> 1.0, seqObject -> Double.parseDouble(seqObject.toString()) + 1))
-            .put(ValidTypeConstants.LONG, SequenceType.of(() -> 1L, seqObject -> Long.parseLong(seqObject.toString()) + 1))
-            .put(ValidTypeConstants.FLOAT, SequenceType.of(() -> 1.0f, seqObject -> Float.parseFloat(seqObject.toString()) + 1))
-            .put(ValidTypeConstants.SHORT, SequenceType.of(() -> (short) 1, seqObject -> Integer.parseInt(seqObject.toString()) + 1))
-            .put(ValidTypeConstants.BYTES_DECIMAL, SequenceType.of(() -> BigDecimal.ONE, seqObject -> new BigDecimal(seqObject.toString()).add(BigDecimal.ONE)))
-            .put(ValidTypeConstants.FIXED_DECIMAL, SequenceType.of(() -> BigDecimal.ONE, seqObject -> new BigDecimal(seqObject.toString()).add(BigDecimal.ONE)))
+            .put(ValidTypeConstants.INT, SequenceType.of(() -> 1, (seqObject, step) -> Integer.parseInt(seqObject.toString()) + step))
+            .put(ValidTypeConstants.DOUBLE, SequenceType.of(() -> 1.0, (seqObject, step) -> Double.parseDouble(seqObject.toString()) + step))
+            .put(ValidTypeConstants.LONG, SequenceType.of(() -> 1L, (seqObject, step) -> Long.parseLong(seqObject.toString()) + step))
+            .put(ValidTypeConstants.FLOAT, SequenceType.of(() -> 1.0f, (seqObject, step) -> Float.parseFloat(seqObject.toString()) + step))
+            .put(ValidTypeConstants.SHORT, SequenceType.of(() -> (short) 1, (seqObject, step) -> Integer.parseInt(seqObject.toString()) + step))
+            .put(ValidTypeConstants.BYTES_DECIMAL, SequenceType.of(() -> BigDecimal.ONE, (seqObject, step) -> new BigDecimal(seqObject.toString()).add(BigDecimal.valueOf(step))))
+            .put(ValidTypeConstants.FIXED_DECIMAL, SequenceType.of(() -> BigDecimal.ONE, (seqObject, step) -> new BigDecimal(seqObject.toString()).add(BigDecimal.valueOf(step))))
             .build();
 
     public static boolean isTypeSupported(String fieldType) {
@@ -31,6 +32,13 @@ public class RandomSequence {
     }
 
     public Object generateSeq(String fieldName, String fieldType, List<String> fieldValueList, Map<String, Object> context) {
+        Shard shard = Shard.current();
+        if (shard.isSharded()) {
+            return context.compute(fieldName, (fieldNameMap, seqObject) ->
+                    seqObject == null
+                            ? addCasted(getFirstValueOrDefaultForType(fieldValueList, fieldType), fieldType, shard.getIndex())
+                            : addCasted(seqObject, fieldType, shard.getCount()));
+        }
         return context.compute(fieldName, (fieldNameMap, seqObject) ->
                 seqObject == null
                         ? getFirstValueOrDefaultForType(fieldValueList, fieldType)
@@ -59,4 +67,11 @@ public class RandomSequence {
         }
         return supportedSequenceTypes.get(fieldType).addOneCasted(seqObject);
     }
+
+    private Object addCasted(Object seqObject, String fieldType, int step) {
+        if (!isTypeSupported(fieldType)) {
+            throw new IllegalArgumentException("Field type is not supported for sequences");
+        }
+        return supportedSequenceTypes.get(fieldType).addCasted(seqObject, step);
+    }
 }
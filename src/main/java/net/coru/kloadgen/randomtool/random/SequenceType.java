@@ -6,21 +6,21 @@
 
 package net.coru.kloadgen.randomtool.random;
 
-import java.util.function.Function;
+import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
 class SequenceType<T> {
 
     private final Supplier<T> getDefaultForType;
-    private final Function<Object, T> addOneCasted;
+    private final BiFunction<Object, Integer, T> addCasted;
 
-    public SequenceType(Supplier<T> getDefaultForType, Function<Object, T> addOneCasted) {
+    public SequenceType(Supplier<T> getDefaultForType, BiFunction<Object, Integer, T> addCasted) {
         this.getDefaultForType = getDefaultForType;
-        this.addOneCasted = addOneCasted;
+        this.addCasted = addCasted;
     }
 
-    public static <T> SequenceType<T> of(Supplier<T> getDefaultForType, Function<Object, T> addOneCasted) {
-        return new SequenceType<T>(getDefaultForType, addOneCasted);
+    public static <T> SequenceType<T> of(Supplier<T> getDefaultForType, BiFunction<Object, Integer, T> addCasted) {
+        return new SequenceType<T>(getDefaultForType, addCasted);
     }
 
     Object getDefaultForType() {
@@ -28,6 +28,10 @@ class SequenceType<T> {
     }
 
     T addOneCasted(Object o) {
-        return this.addOneCasted.apply(o);
+        return addCasted(o, 1);
+    }
+
+    T addCasted(Object o, int step) {
+        return this.addCasted.apply(o, step);
     }
 }
@@ -115,11 +115,15 @@ public class ValidTypeConstants {
 
   public static final String INT_NANOS = "int_nanos";
 
+  public static final String COMPRESSIBLE_STRING = "compressible-string";
+
+  public static final String COMPRESSIBLE_BYTES = "compressible-bytes";
+
   public static final Set<String> VALID_OBJECT_TYPES = Set.of(
       ARRAY, MAP, ENUM, STRING, INT, LONG, TIMESTAMP, STRING_TIMESTAMP, SHORT, DOUBLE, LONG_TIMESTAMP, UUID, BOOLEAN,
       BYTES, INT_DATE, INT_TIME_MILLIS, LONG_TIME_MICROS, LONG_TIMESTAMP_MILLIS, LONG_TIMESTAMP_MICROS,
       LONG_LOCAL_TIMESTAMP_MILLIS, LONG_LOCAL_TIMESTAMP_MICROS, STRING_UUID, BYTES_DECIMAL, FIXED_DECIMAL,
-      INT_YEAR, INT_MONTH, INT_DAY, INT_HOURS, INT_MINUTES, INT_SECONDS, INT_NANOS
+      INT_YEAR, INT_MONTH, INT_DAY, INT_HOURS, INT_MINUTES, INT_SECONDS, INT_NANOS, COMPRESSIBLE_STRING, COMPRESSIBLE_BYTES
   );
 
   private ValidTypeConstants() {
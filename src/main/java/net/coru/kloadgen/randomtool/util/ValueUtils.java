@@ -20,15 +20,21 @@ import java.util.UUID;
 
 public class ValueUtils {
 
+  private static final String CONTEXT_VALUE = "\\$\\{\\w*}";
+
   private ValueUtils() {
 
   }
 
+  public static boolean hasContextValues(List<String> fieldValuesList) {
+    return fieldValuesList.stream().anyMatch(fieldValue -> fieldValue.matches(CONTEXT_VALUE));
+  }
+
   public static List<String> replaceValuesContext(List<String> fieldValuesList) {
     List<String> parameterList = new ArrayList<>(fieldValuesList);
 
     parameterList.replaceAll(fieldValue ->
-                                 fieldValue.matches("\\$\\{\\w*}") ?
+                                 fieldValue.matches(CONTEXT_VALUE) ?
                                      JMeterContextService.getContext().getVariables().get(fieldValue.substring(2, fieldValue.length() - 1)) : fieldValue);
     return parameterList;
   }
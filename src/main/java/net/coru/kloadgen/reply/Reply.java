@@ -0,0 +1,20 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.reply;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+@Getter
+@AllArgsConstructor
+public class Reply {
+
+  private final ConsumerRecord<byte[], byte[]> consumerRecord;
+
+  private final long receivedNanos;
+}
@@ -0,0 +1,201 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.reply;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+
+@Slf4j
+public final class ReplyCorrelator {
+
+  private static final Map<String, ReplyCorrelator> CORRELATORS = new HashMap<>();
+
+  private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+
+  private final Map<String, CompletableFuture<Reply>> pendingReplies = new ConcurrentHashMap<>();
+
+  private final String idPrefix = UUID.randomUUID() + "-";
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  private final AtomicLong unmatchedReplies = new AtomicLong();
+
+  private final String correlatorKey;
+
+  private final Consumer<byte[], byte[]> consumer;
+
+  private final String correlationHeader;
+
+  private Thread pollThread;
+
+  private volatile boolean running;
+
+  private volatile KLoadGenException failure;
+
+  private int references;
+
+  ReplyCorrelator(String correlatorKey, Consumer<byte[], byte[]> consumer, String correlationHeader) {
+    this.correlatorKey = correlatorKey;
+    this.consumer = consumer;
+    this.correlationHeader = correlationHeader;
+  }
+
+  public static synchronized ReplyCorrelator acquire(Properties props, String replyTopic, String correlationHeader) {
+    String correlatorKey = String.join("|", props.getProperty(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG), replyTopic, correlationHeader);
+    ReplyCorrelator correlator = CORRELATORS.computeIfAbsent(correlatorKey, key -> {
+      KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(consumerProperties(props));
+      ReplyCorrelator newCorrelator = new ReplyCorrelator(key, consumer, correlationHeader);
+      try {
+        newCorrelator.start(replyTopic);
+      } catch (RuntimeException e) {
+        consumer.close();
+        throw e;
+      }
+      return newCorrelator;
+    });
+    correlator.references++;
+    return correlator;
+  }
+
+  public void release() {
+    synchronized (ReplyCorrelator.class) {
+      references--;
+      if (references == 0) {
+        CORRELATORS.remove(correlatorKey, this);
+        stop();
+      }
+    }
+  }
+
+  public String nextCorrelationId() {
+    return idPrefix + sequence.incrementAndGet();
+  }
+
+  public CompletableFuture<Reply> register(String correlationId, long timeoutMillis) {
+    if (Objects.nonNull(failure)) {
+      throw failure;
+    }
+    CompletableFuture<Reply> pendingReply = new CompletableFuture<>();
+    pendingReplies.put(correlationId, pendingReply);
+    pendingReply.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((reply, e) -> pendingReplies.remove(correlationId, pendingReply));
+    if (Objects.nonNull(failure)) {
+      pendingReply.completeExceptionally(failure);
+    }
+    return pendingReply;
+  }
+
+  public long getUnmatchedReplies() {
+    return unmatchedReplies.get();
+  }
+
+  int getPendingCount() {
+    return pendingReplies.size();
+  }
+
+  void complete(ConsumerRecord<byte[], byte[]> consumerRecord) {
+    Header header = consumerRecord.headers().lastHeader(correlationHeader);
+    CompletableFuture<Reply> pendingReply = Objects.isNull(header) || Objects.isNull(header.value())
+        ? null : pendingReplies.remove(new String(header.value(), StandardCharsets.UTF_8));
+    if (Objects.isNull(pendingReply)) {
+      unmatchedReplies.incrementAndGet();
+    } else {
+      pendingReply.complete(new Reply(consumerRecord, System.nanoTime()));
+    }
+  }
+
+  void start(String replyTopic) {
+    List<TopicPartition> partitions = consumer.partitionsFor(replyTopic).stream()
+                                              .map(partitionInfo -> new TopicPartition(replyTopic, partitionInfo.partition()))
+                                              .collect(Collectors.toList());
+    if (partitions.isEmpty()) {
+      throw new KLoadGenException("Reply topic " + replyTopic + " has no partitions");
+    }
+    consumer.assign(partitions);
+    consumer.seekToEnd(partitions);
+    partitions.forEach(consumer::position);
+    running = true;
+    pollThread = new Thread(this::pollReplies, "kloadgen-reply-" + replyTopic);
+    pollThread.setDaemon(true);
+    pollThread.start();
+    log.info("Listening for replies on {} partitions of topic {}", partitions.size(), replyTopic);
+  }
+
+  private void pollReplies() {
+    try {
+      while (running) {
+        consumer.poll(POLL_TIMEOUT).forEach(this::complete);
+      }
+    } catch (WakeupException e) {
+      log.debug("Reply consumer woken up");
+    } catch (RuntimeException e) {
+      log.error("Reply consumer failed", e);
+      fail(e);
+    } finally {
+      consumer.close();
+    }
+  }
+
+  private void fail(RuntimeException cause) {
+    failure = new KLoadGenException("Reply consumer of " + correlatorKey + " failed", cause);
+    running = false;
+    synchronized (ReplyCorrelator.class) {
+      CORRELATORS.remove(correlatorKey, this);
+    }
+    pendingReplies.values().forEach(pendingReply -> pendingReply.completeExceptionally(failure));
+  }
+
+  private void stop() {
+    running = false;
+    consumer.wakeup();
+    try {
+      pollThread.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (unmatchedReplies.get() > 0) {
+      log.info("{} replies did not match any pending request", unmatchedReplies.get());
+    }
+  }
+
+  private static Properties consumerProperties(Properties props) {
+    Set<String> consumerConfigs = ConsumerConfig.configNames();
+    Properties consumerProps = new Properties();
+    props.forEach((key, value) -> {
+      if (consumerConfigs.contains(key.toString()) && Objects.nonNull(value) && !value.toString().isEmpty()) {
+        consumerProps.put(key, value);
+      }
+    });
+    consumerProps.remove(ConsumerConfig.GROUP_ID_CONFIG);
+    consumerProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+    consumerProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+    consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    return consumerProps;
+  }
+}
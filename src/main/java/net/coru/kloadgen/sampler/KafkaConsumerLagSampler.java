@@ -0,0 +1,118 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.sampler;
+
+import static net.coru.kloadgen.util.ProducerKeysHelper.KAFKA_TOPIC_CONFIG;
+import static net.coru.kloadgen.util.PropsKeysHelper.CATCH_UP_SECONDS_VARIABLE;
+import static net.coru.kloadgen.util.PropsKeysHelper.CONSUMER_LAG_VARIABLE;
+import static net.coru.kloadgen.util.PropsKeysHelper.CONSUME_RATE_VARIABLE;
+import static net.coru.kloadgen.util.PropsKeysHelper.LAG_REFRESH_MILLIS;
+import static net.coru.kloadgen.util.PropsKeysHelper.PRODUCE_RATE_VARIABLE;
+import static net.coru.kloadgen.util.PropsKeysHelper.TIMEOUT_MILLIS;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.GROUP_ID_CONFIG;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.consumer.ConsumerLagProbe;
+import net.coru.kloadgen.consumer.LagSnapshot;
+import net.coru.kloadgen.metrics.LiveMetrics;
+import net.coru.kloadgen.metrics.MetricsServer;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.config.Arguments;
+import org.apache.jmeter.protocol.java.sampler.AbstractJavaSamplerClient;
+import org.apache.jmeter.protocol.java.sampler.JavaSamplerContext;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.JMeterVariables;
+
+@Slf4j
+public class KafkaConsumerLagSampler extends AbstractJavaSamplerClient implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private transient ConsumerLagProbe probe;
+
+  private transient String groupId;
+
+  private transient String topic;
+
+  private transient LagSnapshot lastReported;
+
+  @Override
+  public void setupTest(JavaSamplerContext context) {
+    Properties props = SamplerUtil.setupCommonConsumerProperties(context);
+    long refreshMillis = Long.parseLong(StringUtils.defaultIfBlank(context.getParameter(LAG_REFRESH_MILLIS), "1000").trim());
+    long timeoutMillis = Long.parseLong(StringUtils.defaultIfBlank(context.getParameter(TIMEOUT_MILLIS), "5000").trim());
+    groupId = context.getParameter(GROUP_ID_CONFIG);
+    topic = context.getParameter(KAFKA_TOPIC_CONFIG);
+    MetricsServer.startIfConfigured();
+    probe = ConsumerLagProbe.acquire(props, groupId, topic, refreshMillis, timeoutMillis);
+  }
+
+  @Override
+  public void teardownTest(JavaSamplerContext context) {
+    if (Objects.nonNull(probe)) {
+      probe.release();
+    }
+    MetricsServer.release();
+  }
+
+  @Override
+  public Arguments getDefaultParameters() {
+    Arguments defaultParameters = SamplerUtil.getCommonConsumerDefaultParameters();
+    defaultParameters.addArgument(LAG_REFRESH_MILLIS, "1000");
+    return defaultParameters;
+  }
+
+  @Override
+  public SampleResult runTest(JavaSamplerContext javaSamplerContext) {
+    try {
+      TimeUnit.MILLISECONDS.sleep(probe.millisUntilRefresh());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+    SampleResult sampleResult = new SampleResult();
+    sampleResult.sampleStart();
+    try {
+      LagSnapshot snapshot = probe.snapshot();
+      sampleResult.sampleEnd();
+      if (snapshot == lastReported) {
+        return null;
+      }
+      lastReported = snapshot;
+      LiveMetrics.recordConsumerLag(groupId, topic, snapshot.getTotalLag());
+      JMeterVariables variables = javaSamplerContext.getJMeterVariables();
+      variables.put(CONSUMER_LAG_VARIABLE, String.valueOf(snapshot.getTotalLag()));
+      variables.put(CONSUME_RATE_VARIABLE, String.format(Locale.ROOT, "%.1f", snapshot.getConsumeRate()));
+      variables.put(PRODUCE_RATE_VARIABLE, String.format(Locale.ROOT, "%.1f", snapshot.getProduceRate()));
+      variables.put(CATCH_UP_SECONDS_VARIABLE, String.format(Locale.ROOT, "%.1f", snapshot.getCatchUpSeconds()));
+      sampleResult.setResponseData(String.format(Locale.ROOT, "{ lag: %d, consume rate: %.1f, produce rate: %.1f, catch up seconds: %.1f, partitions: %s }",
+                                                 snapshot.getTotalLag(), snapshot.getConsumeRate(), snapshot.getProduceRate(),
+                                                 snapshot.getCatchUpSeconds(), snapshot.getPartitionLag()), StandardCharsets.UTF_8.name());
+      sampleResult.setSuccessful(true);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fillErrorResult(sampleResult, "Interrupted while reading consumer lag");
+    } catch (Exception e) {
+      log.error("Failed to read consumer lag", e);
+      fillErrorResult(sampleResult, e.getMessage() != null ? e.getMessage() : "");
+    }
+    return sampleResult;
+  }
+
+  private void fillErrorResult(SampleResult sampleResult, String responseData) {
+    sampleResult.sampleEnd();
+    sampleResult.setResponseData(responseData, StandardCharsets.UTF_8.name());
+    sampleResult.setSuccessful(false);
+  }
+}
@@ -7,33 +7,71 @@
 package net.coru.kloadgen.sampler;
 
 import static net.coru.kloadgen.util.ProducerKeysHelper.KAFKA_TOPIC_CONFIG;
+import static net.coru.kloadgen.util.PropsKeysHelper.ASSIGNMENT_MODE;
+import static net.coru.kloadgen.util.PropsKeysHelper.COMMIT_INTERVAL_RECORDS;
+import static net.coru.kloadgen.util.PropsKeysHelper.COMMIT_STRATEGY;
+import static net.coru.kloadgen.util.PropsKeysHelper.DECODE_IN_FLIGHT;
+import static net.coru.kloadgen.util.PropsKeysHelper.DECODE_WORKERS;
+import static net.coru.kloadgen.util.PropsKeysHelper.SEEK_MODE;
+import static net.coru.kloadgen.util.PropsKeysHelper.SEEK_VALUE;
+import static net.coru.kloadgen.util.PropsKeysHelper.WARMUP_RECORDS;
+import static net.coru.kloadgen.util.PropsKeysHelper.WARMUP_SECONDS;
 import static org.apache.kafka.clients.consumer.ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG;
 import static org.apache.kafka.clients.consumer.ConsumerConfig.MAX_POLL_RECORDS_CONFIG;
 import static org.apache.kafka.clients.consumer.ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG;
 
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Collections;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.consumer.DecodeResult;
+import net.coru.kloadgen.consumer.DecodeWorkerPool;
+import net.coru.kloadgen.consumer.OffsetCommitter;
+import net.coru.kloadgen.consumer.PartitionSplit;
+import net.coru.kloadgen.consumer.PendingDecode;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.metrics.LiveMetrics;
+import net.coru.kloadgen.metrics.MetricsServer;
+import net.coru.kloadgen.metrics.WarmUp;
 import org.apache.avro.Conversions;
 import org.apache.avro.data.TimeConversions;
 import org.apache.avro.generic.GenericData;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.jmeter.config.Arguments;
 import org.apache.jmeter.protocol.java.sampler.AbstractJavaSamplerClient;
 import org.apache.jmeter.protocol.java.sampler.JavaSamplerContext;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.threads.JMeterThread;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.utils.Utils;
 import org.slf4j.Logger;
 
 @Slf4j
@@ -43,29 +81,142 @@ public class KafkaConsumerSampler extends AbstractJavaSamplerClient implements S
 
   private Long timeout;
 
+  private int maxPollRecords;
+
+  private ConsumerCommitStrategy commitStrategy;
+
+  private int commitIntervalRecords;
+
+  private ConsumerAssignmentMode assignmentMode;
+
+  private ConsumerSeekMode seekMode;
+
+  private long seekValue;
+
+  private int decodeWorkers;
+
+  private int decodeInFlight;
+
+  private transient DecodeWorkerPool decodePool;
+
+  private transient Deque<DecodingBatch> decodingBatches;
+
   private transient KafkaConsumer<Object, Object> consumer;
 
+  private transient OffsetCommitter offsetCommitter;
+
+  private transient WarmUp warmUp;
+
   @Override
   public void setupTest(JavaSamplerContext context) {
 
+    MetricsServer.startIfConfigured();
     Properties props = properties(context);
     String topic = context.getParameter(KAFKA_TOPIC_CONFIG);
+    warmUp = SamplerUtil.acquireWarmUp("consumer " + topic, context);
+    if (decodeWorkers > 0) {
+      decodePool = createDecodePool(props);
+      decodingBatches = new ArrayDeque<>(decodeInFlight + 1);
+    }
     consumer = new KafkaConsumer<>(props);
+    offsetCommitter = new OffsetCommitter(consumer, commitStrategy, commitIntervalRecords);
     configGenericData();
 
-    consumer.subscribe(Collections.singletonList(topic));
+    if (ConsumerAssignmentMode.ASSIGN == assignmentMode) {
+      JMeterThread thread = context.getJMeterContext().getThread();
+      int threadNum = Objects.nonNull(thread) ? thread.getThreadNum() : 0;
+      int threadCount = Objects.nonNull(context.getJMeterContext().getThreadGroup()) ? context.getJMeterContext().getThreadGroup().getNumThreads() : 1;
+      List<TopicPartition> partitions = PartitionSplit.forThread(consumer.partitionsFor(topic), threadNum, threadCount);
+      if (partitions.isEmpty()) {
+        logger().warn("Thread {} of {} has no partition of topic {} assigned", threadNum, threadCount, topic);
+      } else {
+        consumer.assign(partitions);
+        seek(partitions);
+      }
+    } else {
+      consumer.subscribe(List.of(topic), new SeekOnFirstAssignmentListener());
+    }
   }
 
   public Properties properties(JavaSamplerContext context) {
     Properties props = SamplerUtil.setupCommonConsumerProperties(context);
-    props.put(MAX_POLL_RECORDS_CONFIG, "1");
+    maxPollRecords = Integer.parseInt(StringUtils.defaultIfBlank(context.getParameter(MAX_POLL_RECORDS_CONFIG), "1").trim());
+    props.put(MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
     props.put(ENABLE_AUTO_COMMIT_CONFIG, "false");
     props.put(SESSION_TIMEOUT_MS_CONFIG, "10000");
     timeout = Long.parseLong(props.getProperty("timeout.millis"));
+    commitStrategy = enumParameter(context, COMMIT_STRATEGY, ConsumerCommitStrategy.SYNC);
+    assignmentMode = enumParameter(context, ASSIGNMENT_MODE, ConsumerAssignmentMode.SUBSCRIBE);
+    seekMode = enumParameter(context, SEEK_MODE, ConsumerSeekMode.NONE);
+    seekValue = Long.parseLong(StringUtils.defaultIfBlank(context.getParameter(SEEK_VALUE), "0").trim());
+    commitIntervalRecords = Integer.parseInt(StringUtils.defaultIfBlank(context.getParameter(COMMIT_INTERVAL_RECORDS), "1").trim());
+    decodeWorkers = Integer.parseInt(StringUtils.defaultIfBlank(context.getParameter(DECODE_WORKERS), "0").trim());
+    decodeInFlight = Integer.parseInt(StringUtils.defaultIfBlank(context.getParameter(DECODE_IN_FLIGHT), "2").trim());
+    if (decodeInFlight < 1) {
+      throw new KLoadGenException("Decode batches in flight must be greater than 0, but was " + decodeInFlight);
+    }
     log.debug("Populated properties: {}", props);
     return props;
   }
 
+  private static <E extends Enum<E>> E enumParameter(JavaSamplerContext context, String parameter, E defaultValue) {
+    String value = StringUtils.defaultIfBlank(context.getParameter(parameter), defaultValue.name()).trim().toUpperCase();
+    try {
+      return Enum.valueOf(defaultValue.getDeclaringClass(), value);
+    } catch (IllegalArgumentException e) {
+      throw new KLoadGenException(String.format("Wrong value %s for parameter %s", value, parameter), e);
+    }
+  }
+
+  private DecodeWorkerPool createDecodePool(Properties props) {
+    Map<String, Object> configs = new HashMap<>();
+    props.forEach((key, value) -> configs.put(key.toString(), value));
+    String keyDeserializer = props.getProperty(KEY_DESERIALIZER_CLASS_CONFIG);
+    String valueDeserializer = props.getProperty(VALUE_DESERIALIZER_CLASS_CONFIG);
+    props.put(KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+    props.put(VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+    return new DecodeWorkerPool(decodeWorkers, () -> newDeserializer(keyDeserializer, configs, true), () -> newDeserializer(valueDeserializer, configs, false));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Deserializer<Object> newDeserializer(String className, Map<String, Object> configs, boolean isKey) {
+    try {
+      Deserializer<Object> deserializer = Utils.newInstance(className, Deserializer.class);
+      deserializer.configure(configs, isKey);
+      return deserializer;
+    } catch (ClassNotFoundException e) {
+      throw new KLoadGenException("Deserializer class not found: " + className, e);
+    }
+  }
+
+  private void seek(Collection<TopicPartition> partitions) {
+    switch (seekMode) {
+      case BEGINNING:
+        consumer.seekToBeginning(partitions);
+        break;
+      case END:
+        consumer.seekToEnd(partitions);
+        break;
+      case OFFSET:
+        partitions.forEach(partition -> consumer.seek(partition, seekValue));
+        break;
+      case TIMESTAMP:
+        Map<TopicPartition, Long> timestamps = new HashMap<>();
+        partitions.forEach(partition -> timestamps.put(partition, seekValue));
+        for (Entry<TopicPartition, OffsetAndTimestamp> offset : consumer.offsetsForTimes(timestamps).entrySet()) {
+          if (Objects.isNull(offset.getValue())) {
+            consumer.seekToEnd(List.of(offset.getKey()));
+          } else {
+            consumer.seek(offset.getKey(), offset.getValue().offset());
+          }
+        }
+        break;
+      case NONE:
+      default:
+        break;
+    }
+  }
+
   private void configGenericData() {
     GenericData genericData = GenericData.get();
 
@@ -82,32 +233,77 @@ public class KafkaConsumerSampler extends AbstractJavaSamplerClient implements S
 
   @Override
   public void teardownTest(JavaSamplerContext context) {
+    if (Objects.nonNull(decodePool)) {
+      awaitDecodingBatches();
+    }
     if (Objects.nonNull(consumer)) {
+      try {
+        offsetCommitter.commitRemaining();
+      } catch (Exception e) {
+        logger().warn("Failed to commit the last consumed offsets", e);
+      }
       consumer.close();
     }
+    if (Objects.nonNull(decodePool)) {
+      decodePool.close();
+    }
+    if (Objects.nonNull(warmUp)) {
+      warmUp.release();
+    }
+    MetricsServer.release();
   }
 
   @Override
   public Arguments getDefaultParameters() {
-    return SamplerUtil.getCommonConsumerDefaultParameters();
+    Arguments defaultParameters = SamplerUtil.getCommonConsumerDefaultParameters();
+    defaultParameters.addArgument(MAX_POLL_RECORDS_CONFIG, "1");
+    defaultParameters.addArgument(COMMIT_STRATEGY, ConsumerCommitStrategy.SYNC.name());
+    defaultParameters.addArgument(COMMIT_INTERVAL_RECORDS, "1");
+    defaultParameters.addArgument(ASSIGNMENT_MODE, ConsumerAssignmentMode.SUBSCRIBE.name());
+    defaultParameters.addArgument(SEEK_MODE, ConsumerSeekMode.NONE.name());
+    defaultParameters.addArgument(SEEK_VALUE, "0");
+    defaultParameters.addArgument(DECODE_WORKERS, "0");
+    defaultParameters.addArgument(DECODE_IN_FLIGHT, "2");
+    defaultParameters.addArgument(WARMUP_SECONDS, "0");
+    defaultParameters.addArgument(WARMUP_RECORDS, "0");
+    return defaultParameters;
   }
 
   @Override
   public SampleResult runTest(JavaSamplerContext javaSamplerContext) {
+    JMeterThread thread = javaSamplerContext.getJMeterContext().getThread();
+    if (ConsumerAssignmentMode.ASSIGN == assignmentMode && consumer.assignment().isEmpty()) {
+      if (Objects.nonNull(thread)) {
+        thread.stop();
+      }
+      return null;
+    }
     SampleResult sampleResult = new SampleResult();
     sampleResult.sampleStart();
-    JMeterThread thread = javaSamplerContext.getJMeterContext().getThread();
     try {
       boolean running = true;
       Instant startTime = Instant.now();
       while (running) {
+        long pollStart = System.currentTimeMillis();
         ConsumerRecords<Object, Object> records = consumer.poll(Duration.of(5, ChronoUnit.SECONDS));
 
         if (!records.isEmpty()) {
           running = false;
-          ConsumerRecord<Object, Object> consumerRecord = records.iterator().next();
-          fillSampleResult(sampleResult, prettify(consumerRecord), true);
-          consumer.commitSync();
+          if (warmUp.record(records.count())) {
+            offsetCommitter.consumed(records.count());
+            return null;
+          }
+          if (Objects.nonNull(decodePool)) {
+            LiveMetrics.recordConsumed(records.count(), serializedBytes(records));
+            return decodeInPipeline(records, pollStart, System.currentTimeMillis());
+          } else if (maxPollRecords > 1) {
+            fillBatchSampleResult(sampleResult, records);
+          } else {
+            ConsumerRecord<Object, Object> consumerRecord = records.iterator().next();
+            fillSampleResult(sampleResult, prettify(consumerRecord), true);
+          }
+          LiveMetrics.recordConsumed(records.count(), serializedBytes(records));
+          offsetCommitter.consumed(records.count());
         }
 
         Instant endTime = Instant.now();
@@ -127,6 +323,110 @@ public class KafkaConsumerSampler extends AbstractJavaSamplerClient implements S
     return sampleResult;
   }
 
+  private void fillBatchSampleResult(SampleResult sampleResult, ConsumerRecords<Object, Object> records) {
+    long now = System.currentTimeMillis();
+    long bytes = 0;
+    long minLag = Long.MAX_VALUE;
+    long maxLag = Long.MIN_VALUE;
+    for (ConsumerRecord<Object, Object> consumerRecord : records) {
+      bytes += Math.max(0, consumerRecord.serializedKeySize()) + Math.max(0, consumerRecord.serializedValueSize());
+      long lag = now - consumerRecord.timestamp();
+      minLag = Math.min(minLag, lag);
+      maxLag = Math.max(maxLag, lag);
+    }
+    sampleResult.setSampleCount(records.count());
+    sampleResult.setBytes(bytes);
+    fillSampleResult(sampleResult, String.format("{ records: %d, bytes: %d, partitions: %d, min e2e lag ms: %d, max e2e lag ms: %d }",
+                                                 records.count(), bytes, records.partitions().size(), minLag, maxLag), true);
+  }
+
+  private SampleResult decodeInPipeline(ConsumerRecords<Object, Object> records, long pollStart, long pollEnd) throws InterruptedException {
+    decodingBatches.add(new DecodingBatch(decodePool.submit(asByteRecords(records)), records.count(), nextOffsets(records), pollStart, pollEnd));
+    DecodingBatch batch = decodingBatches.element();
+    if (decodingBatches.size() <= decodeInFlight && !batch.pendingDecode.isDone()) {
+      return null;
+    }
+    decodingBatches.remove();
+    long waitStart = System.nanoTime();
+    DecodeResult decodeResult = batch.pendingDecode.await();
+    long waitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStart);
+    offsetCommitter.decoded(batch.recordCount, batch.offsets);
+
+    boolean successful = decodeResult.getInvalidRecords() == 0;
+    SampleResult sampleResult = SampleResult.createTestSample(batch.pollStart, Math.max(batch.pollEnd, decodeResult.getFinishedMillis()));
+    sampleResult.addRawSubResult(stageResult("poll", batch.pollStart, batch.pollEnd, true));
+    sampleResult.addRawSubResult(stageResult("decode", batch.pollEnd, Math.max(batch.pollEnd, decodeResult.getFinishedMillis()), successful));
+    sampleResult.setSampleCount(decodeResult.getRecords());
+    sampleResult.setErrorCount(decodeResult.getInvalidRecords());
+    sampleResult.setBytes(decodeResult.getBytes());
+    sampleResult.setResponseData(String.format("{ records: %d, invalid: %d, bytes: %d, partitions: %d, workers: %d, poll ms: %d, decode wall ms: %d, "
+                                               + "decode worker ms: %d, max queue ms: %d, decode wait ms: %d, overlap ms: %d, in flight: %d%s }",
+                                               decodeResult.getRecords(), decodeResult.getInvalidRecords(), decodeResult.getBytes(),
+                                               decodeResult.getPartitions(), decodePool.getWorkerCount(), batch.pollEnd - batch.pollStart,
+                                               decodeResult.getWallMillis(), decodeResult.getDecodeMillis(), decodeResult.getMaxQueueMillis(), waitMillis,
+                                               Math.max(0, decodeResult.getWallMillis() - waitMillis), decodingBatches.size(),
+                                               Objects.isNull(decodeResult.getFirstError()) ? "" : ", first error: " + decodeResult.getFirstError()),
+                                 StandardCharsets.UTF_8.name());
+    sampleResult.setSuccessful(successful);
+    return sampleResult;
+  }
+
+  private void awaitDecodingBatches() {
+    int batches = decodingBatches.size();
+    long records = 0;
+    long invalidRecords = 0;
+    int failedBatches = 0;
+    while (!decodingBatches.isEmpty()) {
+      DecodingBatch batch = decodingBatches.remove();
+      try {
+        DecodeResult decodeResult = batch.pendingDecode.await();
+        records += decodeResult.getRecords();
+        invalidRecords += decodeResult.getInvalidRecords();
+        offsetCommitter.decoded(batch.recordCount, batch.offsets);
+      } catch (InterruptedException e) {
+        logger().warn("Interrupted while waiting for the batches being decoded, {} batches not drained", decodingBatches.size() + 1);
+        Thread.currentThread().interrupt();
+        break;
+      } catch (KLoadGenException e) {
+        failedBatches++;
+        logger().warn("Failed to decode a pending batch of {} records", batch.recordCount, e);
+      }
+    }
+    if (batches > 0) {
+      logger().info("Drained {} batches being decoded at test end: {} records, {} invalid, {} batches failed",
+                    batches, records, invalidRecords, failedBatches);
+    }
+  }
+
+  private static Map<TopicPartition, OffsetAndMetadata> nextOffsets(ConsumerRecords<Object, Object> records) {
+    Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    for (TopicPartition partition : records.partitions()) {
+      List<ConsumerRecord<Object, Object>> partitionRecords = records.records(partition);
+      offsets.put(partition, new OffsetAndMetadata(partitionRecords.get(partitionRecords.size() - 1).offset() + 1));
+    }
+    return offsets;
+  }
+
+  private static long serializedBytes(ConsumerRecords<Object, Object> records) {
+    long bytes = 0;
+    for (ConsumerRecord<Object, Object> consumerRecord : records) {
+      bytes += Math.max(0, consumerRecord.serializedKeySize()) + Math.max(0, consumerRecord.serializedValueSize());
+    }
+    return bytes;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ConsumerRecords<byte[], byte[]> asByteRecords(ConsumerRecords<Object, Object> records) {
+    return (ConsumerRecords<byte[], byte[]>) (ConsumerRecords<?, ?>) records;
+  }
+
+  private static SampleResult stageResult(String label, long start, long end, boolean successful) {
+    SampleResult stageResult = SampleResult.createTestSample(start, end);
+    stageResult.setSampleLabel(label);
+    stageResult.setSuccessful(successful);
+    return stageResult;
+  }
+
   private void fillSampleResult(SampleResult sampleResult, String responseData, boolean successful) {
     if (Objects.nonNull(sampleResult)) {
       sampleResult.setResponseData(responseData, StandardCharsets.UTF_8.name());
@@ -140,6 +440,41 @@ public class KafkaConsumerSampler extends AbstractJavaSamplerClient implements S
            ", value: " + consumerRecord.value().toString() + " }}";
   }
 
+  private class SeekOnFirstAssignmentListener implements ConsumerRebalanceListener {
+
+    private final Set<TopicPartition> seekedPartitions = new HashSet<>();
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+      if (Objects.nonNull(decodePool)) {
+        awaitDecodingBatches();
+      }
+      offsetCommitter.commitRemaining();
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+      List<TopicPartition> newPartitions = partitions.stream().filter(seekedPartitions::add).collect(Collectors.toList());
+      if (!newPartitions.isEmpty()) {
+        seek(newPartitions);
+      }
+    }
+  }
+
+  @AllArgsConstructor
+  private static class DecodingBatch {
+
+    private final PendingDecode pendingDecode;
+
+    private final int recordCount;
+
+    private final Map<TopicPartition, OffsetAndMetadata> offsets;
+
+    private final long pollStart;
+
+    private final long pollEnd;
+  }
+
   protected Logger logger() {
     return KafkaConsumerSampler.log;
   }
@@ -0,0 +1,138 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.sampler;
+
+import static net.coru.kloadgen.util.ProducerKeysHelper.CORPUS_FILE;
+import static net.coru.kloadgen.util.ProducerKeysHelper.CORPUS_FILE_DEFAULT;
+import static net.coru.kloadgen.util.ProducerKeysHelper.CORPUS_LOOP;
+import static net.coru.kloadgen.util.ProducerKeysHelper.KAFKA_TOPIC_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Properties;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.corpus.CorpusRecord;
+import net.coru.kloadgen.corpus.RecordCorpusReader;
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.jmeter.config.Arguments;
+import org.apache.jmeter.protocol.java.sampler.AbstractJavaSamplerClient;
+import org.apache.jmeter.protocol.java.sampler.JavaSamplerContext;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.JMeterThread;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.ByteBufferSerializer;
+
+@Slf4j
+public class KafkaCorpusReplaySampler extends AbstractJavaSamplerClient implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private transient KafkaProducer<ByteBuffer, ByteBuffer> producer;
+
+  private transient RecordCorpusReader corpusReader;
+
+  private String topic;
+
+  private boolean loop;
+
+  @Override
+  public void setupTest(JavaSamplerContext context) {
+    Properties props = SamplerUtil.setupCommonProperties(context);
+    props.put(KEY_SERIALIZER_CLASS_CONFIG, ByteBufferSerializer.class.getName());
+    props.put(VALUE_SERIALIZER_CLASS_CONFIG, ByteBufferSerializer.class.getName());
+
+    topic = context.getParameter(KAFKA_TOPIC_CONFIG);
+    loop = Boolean.parseBoolean(context.getParameter(CORPUS_LOOP));
+    corpusReader = openCorpus(Paths.get(context.getParameter(CORPUS_FILE)).toAbsolutePath());
+    try {
+      producer = new KafkaProducer<>(props);
+    } catch (KafkaException e) {
+      log.error(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void teardownTest(JavaSamplerContext context) {
+    if (Objects.nonNull(producer)) {
+      producer.close();
+    }
+    if (Objects.nonNull(corpusReader)) {
+      corpusReader.release();
+      corpusReader = null;
+    }
+  }
+
+  @Override
+  public Arguments getDefaultParameters() {
+    Arguments defaultParameters = SamplerUtil.getCommonDefaultParameters();
+    defaultParameters.addArgument(CORPUS_FILE, CORPUS_FILE_DEFAULT);
+    defaultParameters.addArgument(CORPUS_LOOP, "true");
+    return defaultParameters;
+  }
+
+  @Override
+  public SampleResult runTest(JavaSamplerContext javaSamplerContext) {
+    CorpusRecord corpusRecord = corpusReader.next(loop);
+    if (Objects.isNull(corpusRecord)) {
+      JMeterThread thread = javaSamplerContext.getJMeterContext().getThread();
+      if (Objects.nonNull(thread)) {
+        thread.stop();
+      }
+      return null;
+    }
+
+    SampleResult sampleResult = new SampleResult();
+    sampleResult.sampleStart();
+    ProducerRecord<ByteBuffer, ByteBuffer> producerRecord =
+        new ProducerRecord<>(topic, null, corpusRecord.getKey(), corpusRecord.getValue(), corpusRecord.getHeaders());
+    sampleResult.setSamplerData(String.format("key bytes: %s, payload bytes: %s", sizeOf(corpusRecord.getKey()), sizeOf(corpusRecord.getValue())));
+    try {
+      RecordMetadata recordMetadata = producer.send(producerRecord).get();
+      sampleResult.setSentBytes((long) Math.max(0, recordMetadata.serializedKeySize()) + Math.max(0, recordMetadata.serializedValueSize()));
+      fillSampleResult(sampleResult, String.format("Topic: %s, partition: %s, offset: %s", recordMetadata.topic(), recordMetadata.partition(),
+                                                   recordMetadata.offset()), true);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fillSampleResult(sampleResult, "Interrupted while sending message", false);
+    } catch (Exception e) {
+      log.error("Failed to send message", e);
+      fillSampleResult(sampleResult, e.getMessage() != null ? e.getMessage() : "", false);
+    }
+    return sampleResult;
+  }
+
+  private void fillSampleResult(SampleResult sampleResult, String responseData, boolean successful) {
+    sampleResult.setResponseData(responseData, StandardCharsets.UTF_8.name());
+    sampleResult.setSuccessful(successful);
+    sampleResult.sampleEnd();
+  }
+
+  private static int sizeOf(ByteBuffer buffer) {
+    return Objects.isNull(buffer) ? 0 : buffer.remaining();
+  }
+
+  private static RecordCorpusReader openCorpus(Path corpusFile) {
+    try {
+      RecordCorpusReader reader = RecordCorpusReader.acquire(corpusFile);
+      log.info("Record corpus {} mapped with {} records", corpusFile, reader.getRecordCount());
+      return reader;
+    } catch (IOException e) {
+      throw new KLoadGenException("Error mapping record corpus " + corpusFile, e);
+    }
+  }
+}
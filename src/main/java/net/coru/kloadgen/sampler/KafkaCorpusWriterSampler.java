@@ -0,0 +1,42 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.sampler;
+
+import static net.coru.kloadgen.util.ProducerKeysHelper.CORPUS_FILE;
+import static net.coru.kloadgen.util.ProducerKeysHelper.CORPUS_FILE_DEFAULT;
+
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import net.coru.kloadgen.corpus.CorpusFileProducer;
+import org.apache.jmeter.config.Arguments;
+import org.apache.jmeter.protocol.java.sampler.JavaSamplerContext;
+import org.apache.kafka.clients.producer.Producer;
+
+public class KafkaCorpusWriterSampler extends KafkaSchemaSampler {
+
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  protected Producer<Object, Object> createProducer(Properties props) {
+    return new CorpusFileProducer(props, Paths.get(props.getProperty(CORPUS_FILE)));
+  }
+
+  @Override
+  protected Properties properties(JavaSamplerContext context) {
+    Properties props = super.properties(context);
+    props.put(CORPUS_FILE, context.getParameter(CORPUS_FILE));
+    return props;
+  }
+
+  @Override
+  public Arguments getDefaultParameters() {
+    Arguments defaultParameters = super.getDefaultParameters();
+    defaultParameters.addArgument(CORPUS_FILE, CORPUS_FILE_DEFAULT);
+    return defaultParameters;
+  }
+}
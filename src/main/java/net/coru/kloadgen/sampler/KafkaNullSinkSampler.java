@@ -0,0 +1,28 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.sampler;
+
+import java.util.Properties;
+
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import net.coru.kloadgen.sink.NullSinkProducer;
+import org.apache.kafka.clients.producer.Producer;
+
+public class KafkaNullSinkSampler extends KafkaSchemaSampler {
+
+  private static final long serialVersionUID = 1L;
+
+  @Override
+  protected EnrichedRecord generateMessage() {
+    return NullSinkProducer.generate(super::generateMessage);
+  }
+
+  @Override
+  protected Producer<Object, Object> createProducer(Properties props) {
+    return new NullSinkProducer(props);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.sampler;
+
+import static net.coru.kloadgen.util.ProducerKeysHelper.REPLY_CORRELATION_HEADER;
+import static net.coru.kloadgen.util.ProducerKeysHelper.REPLY_CORRELATION_HEADER_DEFAULT;
+import static net.coru.kloadgen.util.ProducerKeysHelper.REPLY_TIMEOUT_MILLIS;
+import static net.coru.kloadgen.util.ProducerKeysHelper.REPLY_TOPIC;
+import static net.coru.kloadgen.util.ProducerKeysHelper.REPLY_TOPIC_DEFAULT;
+import static net.coru.kloadgen.util.ProducerKeysHelper.REPLY_TOPIC_HEADER;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import net.coru.kloadgen.reply.Reply;
+import net.coru.kloadgen.reply.ReplyCorrelator;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.config.Arguments;
+import org.apache.jmeter.protocol.java.sampler.JavaSamplerContext;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+public class KafkaRequestReplySampler extends KafkaSchemaSampler {
+
+  private static final long serialVersionUID = 1L;
+
+  private transient ReplyCorrelator correlator;
+
+  private String replyTopic;
+
+  private String correlationHeader;
+
+  private String replyTopicHeader;
+
+  private long replyTimeout;
+
+  private transient Properties replyProps;
+
+  private transient String correlationId;
+
+  private transient CompletableFuture<Reply> pendingReply;
+
+  private long sendNanos;
+
+  @Override
+  public void setupTest(JavaSamplerContext context) {
+    super.setupTest(context);
+    correlator = ReplyCorrelator.acquire(replyProps, replyTopic, correlationHeader);
+  }
+
+  @Override
+  protected Properties properties(JavaSamplerContext context) {
+    Properties props = super.properties(context);
+    replyTopic = context.getParameter(REPLY_TOPIC);
+    correlationHeader = StringUtils.defaultIfBlank(context.getParameter(REPLY_CORRELATION_HEADER), REPLY_CORRELATION_HEADER_DEFAULT);
+    replyTopicHeader = context.getParameter(REPLY_TOPIC_HEADER);
+    replyTimeout = Long.parseLong(StringUtils.defaultIfBlank(context.getParameter(REPLY_TIMEOUT_MILLIS), "5000").trim());
+    replyProps = props;
+    return props;
+  }
+
+  @Override
+  public void teardownTest(JavaSamplerContext context) {
+    super.teardownTest(context);
+    if (Objects.nonNull(correlator)) {
+      correlator.release();
+    }
+  }
+
+  @Override
+  public Arguments getDefaultParameters() {
+    Arguments defaultParameters = super.getDefaultParameters();
+    defaultParameters.addArgument(REPLY_TOPIC, REPLY_TOPIC_DEFAULT);
+    defaultParameters.addArgument(REPLY_CORRELATION_HEADER, REPLY_CORRELATION_HEADER_DEFAULT);
+    defaultParameters.addArgument(REPLY_TOPIC_HEADER, "");
+    defaultParameters.addArgument(REPLY_TIMEOUT_MILLIS, "5000");
+    return defaultParameters;
+  }
+
+  @Override
+  protected void beforeSend(ProducerRecord<Object, Object> producerRecord) {
+    correlationId = correlator.nextCorrelationId();
+    producerRecord.headers().add(correlationHeader, correlationId.getBytes(StandardCharsets.UTF_8));
+    if (StringUtils.isNotBlank(replyTopicHeader)) {
+      producerRecord.headers().add(replyTopicHeader, replyTopic.getBytes(StandardCharsets.UTF_8));
+    }
+    pendingReply = correlator.register(correlationId, replyTimeout);
+    sendNanos = System.nanoTime();
+  }
+
+  @Override
+  protected void completeSample(SampleResult sampleResult, RecordMetadata recordMetadata) throws Exception {
+    sampleResult.latencyEnd();
+    try {
+      Reply reply = pendingReply.get();
+      ConsumerRecord<byte[], byte[]> replyRecord = reply.getConsumerRecord();
+      sampleResult.setBytes((long) Math.max(0, replyRecord.serializedKeySize()) + Math.max(0, replyRecord.serializedValueSize()));
+      fillSampleResult(sampleResult, String.format("%s, reply partition: %s, reply offset: %s, round trip ms: %.3f", prettyPrint(recordMetadata),
+                                                   replyRecord.partition(), replyRecord.offset(),
+                                                   (reply.getReceivedNanos() - sendNanos) / (double) TimeUnit.MILLISECONDS.toNanos(1)), true);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof TimeoutException) {
+        fillSampleResult(sampleResult, String.format("No reply with %s %s after %d ms", correlationHeader, correlationId, replyTimeout), false);
+      } else {
+        throw e;
+      }
+    }
+  }
+}
@@ -12,13 +12,31 @@ import static java.util.Collections.singletonList;
 import static net.coru.kloadgen.util.ProducerKeysHelper.KAFKA_HEADERS;
 import static net.coru.kloadgen.util.ProducerKeysHelper.KAFKA_TOPIC_CONFIG;
 import static net.coru.kloadgen.util.ProducerKeysHelper.KEY_SERIALIZER_CLASS_CONFIG_DEFAULT;
+import static net.coru.kloadgen.util.ProducerKeysHelper.VALUE_GENERATION_MODE;
 import static net.coru.kloadgen.util.ProducerKeysHelper.VALUE_NAME_STRATEGY;
+import static net.coru.kloadgen.util.ProducerKeysHelper.VALUE_SCHEMA_VERSIONS;
+import static net.coru.kloadgen.util.ProducerKeysHelper.VALUE_SIZE_DISTRIBUTION;
+import static net.coru.kloadgen.util.ProducerKeysHelper.VALUE_SIZE_PADDING_FIELD;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_PARTITION_COUNT;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_PARTITION_POOL_SIZE;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_PARTITION_PREFIX;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_PARTITION_WEIGHTS;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_CARDINALITY;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_HOT_KEYS_RATIO;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_HOT_TRAFFIC_RATIO;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_KEYED_MESSAGE_KEY;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_PATTERN;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_PREFIX;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_TOMBSTONE_RATIO;
 import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SUBJECT_NAME;
 import static net.coru.kloadgen.util.PropsKeysHelper.MESSAGE_KEY_KEY_TYPE;
 import static net.coru.kloadgen.util.PropsKeysHelper.MESSAGE_KEY_KEY_VALUE;
 import static net.coru.kloadgen.util.PropsKeysHelper.MSG_KEY_VALUE;
+import static net.coru.kloadgen.util.PropsKeysHelper.PARTITION_KEYED_MESSAGE_KEY;
 import static net.coru.kloadgen.util.PropsKeysHelper.SCHEMA_KEYED_MESSAGE_KEY;
 import static net.coru.kloadgen.util.PropsKeysHelper.SIMPLE_KEYED_MESSAGE_KEY;
+import static net.coru.kloadgen.util.PropsKeysHelper.WARMUP_RECORDS;
+import static net.coru.kloadgen.util.PropsKeysHelper.WARMUP_SECONDS;
 import static org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG;
 import static org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG;
 
@@ -30,11 +48,26 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import lombok.SneakyThrows;
 import net.coru.kloadgen.exception.KLoadGenException;
 import net.coru.kloadgen.loadgen.BaseLoadGenerator;
+import net.coru.kloadgen.loadgen.impl.AvroLoadGenerator;
+import net.coru.kloadgen.loadgen.impl.MultiVersionLoadGenerator;
+import net.coru.kloadgen.loadgen.impl.ProtobufLoadGenerator;
+import net.coru.kloadgen.loadgen.impl.SchemaCache;
+import net.coru.kloadgen.loadgen.impl.SizedLoadGenerator;
+import net.coru.kloadgen.loadgen.key.KeySpace;
+import net.coru.kloadgen.loadgen.key.KeySpacePattern;
+import net.coru.kloadgen.loadgen.key.PartitionKeyPool;
+import net.coru.kloadgen.loadgen.size.SizeDistribution;
+import net.coru.kloadgen.metrics.LiveMetrics;
+import net.coru.kloadgen.metrics.MetricsServer;
+import net.coru.kloadgen.metrics.WarmUp;
 import net.coru.kloadgen.model.HeaderMapping;
+import net.coru.kloadgen.processor.GenerationMode;
+import net.coru.kloadgen.producer.SerializingProducer;
 import net.coru.kloadgen.randomtool.generator.StatelessGeneratorTool;
 import net.coru.kloadgen.serializer.AvroSerializer;
 import net.coru.kloadgen.serializer.EnrichedRecord;
@@ -49,7 +82,9 @@ import org.apache.jmeter.protocol.java.sampler.JavaSamplerContext;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.threads.JMeterContext;
 import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.KafkaException;
@@ -62,7 +97,7 @@ public class KafkaSchemaSampler extends AbstractJavaSamplerClient implements Ser
 
   private final transient StatelessGeneratorTool statelessGeneratorTool = new StatelessGeneratorTool();
 
-  private transient KafkaProducer<Object, Object> producer;
+  private transient Producer<Object, Object> producer;
 
   private String topic;
 
@@ -76,16 +111,35 @@ public class KafkaSchemaSampler extends AbstractJavaSamplerClient implements Ser
 
   private transient BaseLoadGenerator keyGenerator;
 
+  private transient PartitionKeyPool partitionKeyPool;
+
+  private transient KeySpace keySpace;
+
   private transient Properties props;
 
+  private transient WarmUp warmUp;
+
   @Override
   public void setupTest(JavaSamplerContext context) {
     props = properties(context);
+    SchemaCache.acquire();
     generator = SamplerUtil.configureValueGenerator(props);
+    configureGenerationMode();
+    if (StringUtils.isNotBlank(props.getProperty(VALUE_SIZE_DISTRIBUTION))) {
+      generator = new SizedLoadGenerator(generator, SizeDistribution.parse(props.getProperty(VALUE_SIZE_DISTRIBUTION)),
+                                         props.getProperty(VALUE_SIZE_PADDING_FIELD),
+                                         SerializingProducer.createSerializer(props, VALUE_SERIALIZER_CLASS_CONFIG, false),
+                                         context.getParameter(KAFKA_TOPIC_CONFIG), enrichedValueFlag());
+    }
 
     configGenericData();
 
-    if ("true".equals(context.getJMeterVariables().get(SCHEMA_KEYED_MESSAGE_KEY)) ||
+    boolean partitionKeyed = "true".equals(context.getJMeterVariables().get(PARTITION_KEYED_MESSAGE_KEY));
+    boolean keySpaceKeyed = "true".equals(context.getJMeterVariables().get(KEY_SPACE_KEYED_MESSAGE_KEY));
+    if (partitionKeyed || keySpaceKeyed) {
+      keyMessageFlag = true;
+      props.put(KEY_SERIALIZER_CLASS_CONFIG, KEY_SERIALIZER_CLASS_CONFIG_DEFAULT);
+    } else if ("true".equals(context.getJMeterVariables().get(SCHEMA_KEYED_MESSAGE_KEY)) ||
         "true".equals(context.getJMeterVariables().get(SIMPLE_KEYED_MESSAGE_KEY))) {
       keyMessageFlag = true;
       if (!Objects.isNull(JMeterContextService.getContext().getVariables().get(KEY_SUBJECT_NAME))) {
@@ -100,11 +154,97 @@ public class KafkaSchemaSampler extends AbstractJavaSamplerClient implements Ser
     }
 
     topic = context.getParameter(KAFKA_TOPIC_CONFIG);
+    warmUp = SamplerUtil.acquireWarmUp("producer " + topic, context);
+    if (keySpaceKeyed) {
+      keySpace = createKeySpace(context.getJMeterVariables());
+    }
+    MetricsServer.startIfConfigured();
     try {
-      producer = new KafkaProducer<>(props);
+      producer = createProducer(props);
+      LiveMetrics.registerProducer(producer);
     } catch (KafkaException e) {
       getNewLogger().error(e.getMessage(), e);
     }
+    if (partitionKeyed) {
+      partitionKeyPool = createPartitionKeyPool(context.getJMeterVariables());
+    }
+  }
+
+  private void configureGenerationMode() {
+    GenerationMode generationMode = generationMode();
+    if (GenerationMode.PLANNED == generationMode) {
+      if (!enablePlan()) {
+        getNewLogger().warn("No generation plan can be built for the value schema, the interpreted mode is used");
+      }
+    } else if (GenerationMode.FUSED == generationMode) {
+      boolean flatRecord = StringUtils.isBlank(props.getProperty(VALUE_SIZE_DISTRIBUTION))
+                           && AvroSerializer.class.getName().equals(props.getProperty(VALUE_SERIALIZER_CLASS_CONFIG))
+                           && enableFlatRecordEncoding();
+      if (!flatRecord) {
+        getNewLogger().warn("Value schema cannot be encoded while generating, the interpreted mode is used");
+      }
+    }
+  }
+
+  private boolean enablePlan() {
+    if (generator instanceof AvroLoadGenerator) {
+      return ((AvroLoadGenerator) generator).enableRecordPlan();
+    } else if (generator instanceof ProtobufLoadGenerator) {
+      return ((ProtobufLoadGenerator) generator).enableMessagePlan();
+    } else if (generator instanceof MultiVersionLoadGenerator) {
+      MultiVersionLoadGenerator multiVersionGenerator = (MultiVersionLoadGenerator) generator;
+      return multiVersionGenerator.enableRecordPlan() || multiVersionGenerator.enableMessagePlan();
+    }
+    return false;
+  }
+
+  private boolean enableFlatRecordEncoding() {
+    if (generator instanceof AvroLoadGenerator) {
+      return ((AvroLoadGenerator) generator).enableFlatRecordEncoding();
+    } else if (generator instanceof MultiVersionLoadGenerator) {
+      return ((MultiVersionLoadGenerator) generator).enableFlatRecordEncoding();
+    }
+    return false;
+  }
+
+  private GenerationMode generationMode() {
+    try {
+      return GenerationMode.valueOf(StringUtils.defaultIfBlank(props.getProperty(VALUE_GENERATION_MODE), GenerationMode.INTERPRETED.name()).trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new KLoadGenException("Wrong value generation mode: " + props.getProperty(VALUE_GENERATION_MODE), e);
+    }
+  }
+
+  protected Producer<Object, Object> createProducer(Properties props) {
+    return new KafkaProducer<>(props);
+  }
+
+  private PartitionKeyPool createPartitionKeyPool(JMeterVariables variables) {
+    int partitionCount = Integer.parseInt(StringUtils.defaultIfBlank(variables.get(KEY_PARTITION_COUNT), "0").trim());
+    if (partitionCount <= 0) {
+      partitionCount = Objects.isNull(producer) ? 0 : producer.partitionsFor(topic).size();
+    }
+    if (partitionCount <= 0) {
+      throw new KLoadGenException("Unable to find the number of partitions of topic " + topic);
+    }
+    return PartitionKeyPool.forTopic(topic, partitionCount, StringUtils.defaultString(variables.get(KEY_PARTITION_WEIGHTS)),
+                                     Integer.parseInt(StringUtils.defaultIfBlank(variables.get(KEY_PARTITION_POOL_SIZE), "1000").trim()),
+                                     StringUtils.defaultString(variables.get(KEY_PARTITION_PREFIX)));
+  }
+
+  private KeySpace createKeySpace(JMeterVariables variables) {
+    try {
+      return KeySpace.forTopic(topic,
+                               Long.parseLong(StringUtils.defaultIfBlank(variables.get(KEY_SPACE_CARDINALITY), "0").trim()),
+                               KeySpacePattern.valueOf(StringUtils.defaultIfBlank(variables.get(KEY_SPACE_PATTERN), KeySpacePattern.UNIFORM.name())
+                                                                  .trim().toUpperCase()),
+                               Double.parseDouble(StringUtils.defaultIfBlank(variables.get(KEY_SPACE_HOT_KEYS_RATIO), "0").trim()),
+                               Double.parseDouble(StringUtils.defaultIfBlank(variables.get(KEY_SPACE_HOT_TRAFFIC_RATIO), "0").trim()),
+                               Double.parseDouble(StringUtils.defaultIfBlank(variables.get(KEY_SPACE_TOMBSTONE_RATIO), "0").trim()),
+                               StringUtils.defaultString(variables.get(KEY_SPACE_PREFIX)));
+    } catch (IllegalArgumentException e) {
+      throw new KLoadGenException("Wrong key space configuration", e);
+    }
   }
 
   protected Properties properties(JavaSamplerContext context) {
@@ -112,6 +252,18 @@ public class KafkaSchemaSampler extends AbstractJavaSamplerClient implements Ser
     if (Objects.nonNull(context.getParameter(VALUE_NAME_STRATEGY))) {
       commonProps.put(VALUE_NAME_STRATEGY, context.getParameter(VALUE_NAME_STRATEGY));
     }
+    if (Objects.nonNull(context.getParameter(VALUE_SIZE_DISTRIBUTION))) {
+      commonProps.put(VALUE_SIZE_DISTRIBUTION, context.getParameter(VALUE_SIZE_DISTRIBUTION));
+    }
+    if (Objects.nonNull(context.getParameter(VALUE_SIZE_PADDING_FIELD))) {
+      commonProps.put(VALUE_SIZE_PADDING_FIELD, context.getParameter(VALUE_SIZE_PADDING_FIELD));
+    }
+    if (Objects.nonNull(context.getParameter(VALUE_GENERATION_MODE))) {
+      commonProps.put(VALUE_GENERATION_MODE, context.getParameter(VALUE_GENERATION_MODE));
+    }
+    if (Objects.nonNull(context.getParameter(VALUE_SCHEMA_VERSIONS))) {
+      commonProps.put(VALUE_SCHEMA_VERSIONS, context.getParameter(VALUE_SCHEMA_VERSIONS));
+    }
     return commonProps;
   }
 
@@ -131,24 +283,38 @@ public class KafkaSchemaSampler extends AbstractJavaSamplerClient implements Ser
 
   @Override
   public void teardownTest(JavaSamplerContext context) {
+    if (Objects.nonNull(warmUp)) {
+      warmUp.release();
+    }
     if (Objects.nonNull(producer)) {
+      LiveMetrics.unregisterProducer(producer);
       producer.close();
     }
+    MetricsServer.release();
+    SchemaCache.release();
   }
 
   @Override
   public Arguments getDefaultParameters() {
-    return SamplerUtil.getCommonDefaultParameters();
+    Arguments defaultParameters = SamplerUtil.getCommonDefaultParameters();
+    defaultParameters.addArgument(VALUE_SIZE_DISTRIBUTION, "");
+    defaultParameters.addArgument(VALUE_SIZE_PADDING_FIELD, "");
+    defaultParameters.addArgument(VALUE_SCHEMA_VERSIONS, "");
+    defaultParameters.addArgument(VALUE_GENERATION_MODE, GenerationMode.INTERPRETED.name());
+    defaultParameters.addArgument(WARMUP_SECONDS, "0");
+    defaultParameters.addArgument(WARMUP_RECORDS, "0");
+    return defaultParameters;
   }
 
   @SneakyThrows
   @Override
   public SampleResult runTest(JavaSamplerContext javaSamplerContext) {
 
+    boolean warmingUp = warmUp.record(1);
     SampleResult sampleResult = new SampleResult();
     sampleResult.sampleStart();
     JMeterContext jMeterContext = JMeterContextService.getContext();
-    EnrichedRecord messageVal = generator.nextMessage();
+    EnrichedRecord messageVal = generateMessage();
     List<HeaderMapping> kafkaHeaders = safeGetKafkaHeaders(jMeterContext);
 
     if (Objects.nonNull(messageVal)) {
@@ -160,7 +326,9 @@ public class KafkaSchemaSampler extends AbstractJavaSamplerClient implements Ser
 
         sampleResult.setRequestHeaders(StringUtils.join(headersSB, ","));
         fillSamplerResult(producerRecord, sampleResult);
+        beforeSend(producerRecord);
 
+        long sendStart = System.nanoTime();
         Future<RecordMetadata> result = producer.send(producerRecord, (metadata, e) -> {
           if (e != null) {
             super.getNewLogger().error("Send failed for record {}", producerRecord, e);
@@ -170,16 +338,39 @@ public class KafkaSchemaSampler extends AbstractJavaSamplerClient implements Ser
 
         super.getNewLogger().info("Send message with key: {} and body: {} and headers: {}",
                                   producerRecord.key(), producerRecord.value(), producerRecord.headers());
-        fillSampleResult(sampleResult, prettyPrint(result.get()), true);
+        RecordMetadata recordMetadata = result.get();
+        long sentBytes = (long) Math.max(0, recordMetadata.serializedKeySize()) + Math.max(0, recordMetadata.serializedValueSize());
+        if (!warmingUp) {
+          LiveMetrics.recordSend(sentBytes, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sendStart));
+        }
+        sampleResult.setSentBytes(sentBytes);
+        completeSample(sampleResult, recordMetadata);
       } catch (Exception e) {
+        if (!warmingUp) {
+          LiveMetrics.recordFailure();
+        }
         super.getNewLogger().error("Failed to send message", e);
         fillSampleResult(sampleResult, e.getMessage() != null ? e.getMessage() : "", false);
       }
     } else {
+      if (!warmingUp) {
+        LiveMetrics.recordFailure();
+      }
       super.getNewLogger().error("Failed to Generate message");
       fillSampleResult(sampleResult, "Failed to Generate message", false);
     }
-    return sampleResult;
+    return warmingUp ? null : sampleResult;
+  }
+
+  protected EnrichedRecord generateMessage() {
+    return generator.nextMessage();
+  }
+
+  protected void beforeSend(ProducerRecord<Object, Object> producerRecord) {
+  }
+
+  protected void completeSample(SampleResult sampleResult, RecordMetadata recordMetadata) throws Exception {
+    fillSampleResult(sampleResult, prettyPrint(recordMetadata), true);
   }
 
   private List<HeaderMapping> safeGetKafkaHeaders(JMeterContext jMeterContext) {
@@ -194,7 +385,13 @@ public class KafkaSchemaSampler extends AbstractJavaSamplerClient implements Ser
   private ProducerRecord<Object, Object> getProducerRecord(EnrichedRecord messageVal, boolean keyFlag, boolean valueFlag) {
     ProducerRecord<Object, Object> producerRecord;
     if (keyMessageFlag) {
-      if (Objects.isNull(keyGenerator)) {
+      if (Objects.nonNull(keySpace)) {
+        long key = keySpace.nextKey();
+        Object value = keySpace.nextIsTombstone(key) ? null : getObject(messageVal, valueFlag);
+        producerRecord = new ProducerRecord<>(topic, keySpace.keyName(key), value);
+      } else if (Objects.nonNull(partitionKeyPool)) {
+        producerRecord = new ProducerRecord<>(topic, partitionKeyPool.next(), getObject(messageVal, valueFlag));
+      } else if (Objects.isNull(keyGenerator)) {
         Object key = statelessGeneratorTool.generateObject("key", msgKeyType, 0, msgKeyValue).toString();
         producerRecord = new ProducerRecord<>(topic, key, getObject(messageVal, valueFlag));
       } else {
@@ -216,21 +413,20 @@ public class KafkaSchemaSampler extends AbstractJavaSamplerClient implements Ser
   }
 
   private void fillSamplerResult(ProducerRecord<Object, Object> producerRecord, SampleResult sampleResult) {
-    if (Objects.isNull(producerRecord.key())) {
-      sampleResult.setSamplerData(String.format("key: null, payload: %s", producerRecord.value().toString()));
-    } else {
-      sampleResult.setSamplerData(String.format("key: %s, payload: %s", producerRecord.key().toString(),
-                                                producerRecord.value().toString()));
-    }
+    sampleResult.setSamplerData(String.format("key: %s, payload: %s", payloadOf(producerRecord.key()), payloadOf(producerRecord.value())));
+  }
+
+  private static Object payloadOf(Object value) {
+    return value instanceof EnrichedRecord ? ((EnrichedRecord) value).getGenericRecord() : value;
   }
 
-  private void fillSampleResult(SampleResult sampleResult, String respondeData, boolean successful) {
+  protected void fillSampleResult(SampleResult sampleResult, String respondeData, boolean successful) {
     sampleResult.setResponseData(respondeData, StandardCharsets.UTF_8.name());
     sampleResult.setSuccessful(successful);
     sampleResult.sampleEnd();
   }
 
-  private String prettyPrint(RecordMetadata recordMetadata) {
+  protected String prettyPrint(RecordMetadata recordMetadata) {
     String template = "Topic: %s, partition: %s, offset: %s";
     return String.format(template, recordMetadata.topic(), recordMetadata.partition(), recordMetadata.offset());
   }
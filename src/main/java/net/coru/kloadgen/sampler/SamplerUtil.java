@@ -43,6 +43,7 @@ import static net.coru.kloadgen.util.ProducerKeysHelper.SSL_ENABLED;
 import static net.coru.kloadgen.util.ProducerKeysHelper.TOPIC_NAME_STRATEGY;
 import static net.coru.kloadgen.util.ProducerKeysHelper.VALUE_NAME_STRATEGY;
 import static net.coru.kloadgen.util.ProducerKeysHelper.VALUE_SERIALIZER_CLASS_CONFIG_DEFAULT;
+import static net.coru.kloadgen.util.ProducerKeysHelper.VALUE_SCHEMA_VERSIONS;
 import static net.coru.kloadgen.util.ProducerKeysHelper.ZOOKEEPER_SERVERS;
 import static net.coru.kloadgen.util.ProducerKeysHelper.ZOOKEEPER_SERVERS_DEFAULT;
 import static net.coru.kloadgen.util.PropsKeysHelper.KEY_DESERIALIZER_CLASS_PROPERTY;
@@ -65,6 +66,8 @@ import static net.coru.kloadgen.util.PropsKeysHelper.VALUE_SCHEMA_PROPERTIES;
 import static net.coru.kloadgen.util.PropsKeysHelper.VALUE_SCHEMA_TYPE;
 import static net.coru.kloadgen.util.PropsKeysHelper.VALUE_SERIALIZER_CLASS_PROPERTY;
 import static net.coru.kloadgen.util.PropsKeysHelper.VALUE_SUBJECT_NAME;
+import static net.coru.kloadgen.util.PropsKeysHelper.WARMUP_RECORDS;
+import static net.coru.kloadgen.util.PropsKeysHelper.WARMUP_SECONDS;
 import static net.coru.kloadgen.util.SchemaRegistryKeyHelper.SCHEMA_REGISTRY_AUTH_BASIC_TYPE;
 import static net.coru.kloadgen.util.SchemaRegistryKeyHelper.SCHEMA_REGISTRY_AUTH_FLAG;
 import static net.coru.kloadgen.util.SchemaRegistryKeyHelper.SCHEMA_REGISTRY_AUTH_KEY;
@@ -91,7 +94,10 @@ import net.coru.kloadgen.exception.KLoadGenException;
 import net.coru.kloadgen.loadgen.BaseLoadGenerator;
 import net.coru.kloadgen.loadgen.impl.AvroLoadGenerator;
 import net.coru.kloadgen.loadgen.impl.JsonLoadGenerator;
+import net.coru.kloadgen.loadgen.impl.MultiVersionLoadGenerator;
 import net.coru.kloadgen.loadgen.impl.ProtobufLoadGenerator;
+import net.coru.kloadgen.loadgen.impl.SchemaBundle;
+import net.coru.kloadgen.metrics.WarmUp;
 import net.coru.kloadgen.model.FieldValueMapping;
 import net.coru.kloadgen.model.HeaderMapping;
 import net.coru.kloadgen.randomtool.generator.StatelessGeneratorTool;
@@ -270,7 +276,7 @@ public final class SamplerUtil {
 
   private static void setupSchemaRegistryAuthenticationProperties(JMeterVariables context, Map<String, String> props) {
     if (Objects.nonNull(context.get(SCHEMA_REGISTRY_URL))) {
-      props.put(SCHEMA_REGISTRY_URL, context.get(SCHEMA_REGISTRY_URL));
+      props.put(SCHEMA_REGISTRY_URL, SchemaBundle.registryUrl(context.get(SCHEMA_REGISTRY_URL)));
 
       if (FLAG_YES.equals(context.get(SCHEMA_REGISTRY_AUTH_FLAG))) {
         if (SCHEMA_REGISTRY_AUTH_BASIC_TYPE.equals(context.get(SCHEMA_REGISTRY_AUTH_KEY))) {
@@ -405,6 +411,10 @@ public final class SamplerUtil {
 
       props.putAll(originals);
 
+      if (StringUtils.isNotBlank(props.getProperty(VALUE_SCHEMA_VERSIONS))) {
+        generator = new MultiVersionLoadGenerator(generator, props.getProperty(VALUE_SCHEMA_VERSIONS));
+      }
+
       try {
         generator.setUpGenerator(
             originals,
@@ -459,7 +469,7 @@ public final class SamplerUtil {
 
     if (Objects.nonNull(jMeterVariables.get(SCHEMA_REGISTRY_URL))) {
       Map<String, String> originals = new HashMap<>();
-      originals.put(SCHEMA_REGISTRY_URL_CONFIG, jMeterVariables.get(SCHEMA_REGISTRY_URL));
+      originals.put(SCHEMA_REGISTRY_URL_CONFIG, SchemaBundle.registryUrl(jMeterVariables.get(SCHEMA_REGISTRY_URL)));
 
       if (FLAG_YES.equals(jMeterVariables.get(SCHEMA_REGISTRY_AUTH_FLAG))) {
         if (SCHEMA_REGISTRY_AUTH_BASIC_TYPE.equals(jMeterVariables.get(SCHEMA_REGISTRY_AUTH_KEY))) {
@@ -486,6 +496,15 @@ public final class SamplerUtil {
     return generator;
   }
 
+  public static WarmUp acquireWarmUp(String name, JavaSamplerContext context) {
+    try {
+      return WarmUp.acquire(name, Long.parseLong(StringUtils.defaultIfBlank(context.getParameter(WARMUP_SECONDS), "0").trim()),
+                            Long.parseLong(StringUtils.defaultIfBlank(context.getParameter(WARMUP_RECORDS), "0").trim()));
+    } catch (NumberFormatException e) {
+      throw new KLoadGenException("Wrong warm-up configuration", e);
+    }
+  }
+
   public static List<String> populateHeaders(List<HeaderMapping> kafkaHeaders, ProducerRecord<Object, Object> producerRecord) {
     List<String> headersSB = new ArrayList<>();
     for (HeaderMapping kafkaHeader : kafkaHeaders) {
@@ -36,6 +36,11 @@ public class AvroSerializer<T extends EnrichedRecord> implements Serializer<T> {
       if (data != null) {
         log.debug("data='{}'", data);
 
+        if (data.getGenericRecord() instanceof EncodedAvroRecord) {
+          byte[] encoded = ((EncodedAvroRecord) data.getGenericRecord()).getData();
+          return ByteBuffer.allocate(1 + ID_SIZE + encoded.length).put(MAGIC_BYTE).putInt(data.getSchemaMetadata().getId()).put(encoded).array();
+        }
+
         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
         byteArrayOutputStream.write(MAGIC_BYTE);
         byteArrayOutputStream.write(ByteBuffer.allocate(ID_SIZE).putInt(data.getSchemaMetadata().getId()).array());
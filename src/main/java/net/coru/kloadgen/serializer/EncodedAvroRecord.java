@@ -0,0 +1,39 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.serializer;
+
+import java.io.IOException;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DecoderFactory;
+
+@Getter
+@RequiredArgsConstructor
+public class EncodedAvroRecord {
+
+  private final Schema schema;
+
+  private final byte[] data;
+
+  public GenericRecord toGenericRecord() {
+    try {
+      return new GenericDatumReader<GenericRecord>(schema).read(null, DecoderFactory.get().binaryDecoder(data, null));
+    } catch (IOException e) {
+      throw new KLoadGenException("Unable to decode Avro record of schema " + schema.getFullName(), e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return schema.getFullName() + " (" + data.length + " bytes encoded)";
+  }
+}
@@ -23,6 +23,9 @@ public class GenericAvroRecordBinarySerializer<T extends GenericRecord> implemen
 
   @Override
   public byte[] serialize(String s, T data) {
+    if (data == null) {
+      return null;
+    }
     DatumWriter<T> writer = new SpecificDatumWriter<>(data.getSchema());
     try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
       Encoder encoder = EncoderFactory.get().binaryEncoder(baos, null);
@@ -23,6 +23,9 @@ public class GenericAvroRecordSerializer<T extends GenericRecord> implements Ser
 
   @Override
   public byte[] serialize(String topic, T record) {
+    if (record == null) {
+      return null;
+    }
 
     DatumWriter<T> writer = new SpecificDatumWriter<>(record.getSchema());
     byte[] data = new byte[0];
@@ -21,6 +21,9 @@ public class GenericJsonRecordSerializer<T extends ObjectNode> implements Serial
 
   @Override
   public byte[] serialize(String topic, T record) {
+    if (record == null) {
+      return null;
+    }
 
     byte[] data = new byte[0];
     try {
@@ -0,0 +1,162 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.sink;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.google.protobuf.Message;
+import lombok.extern.slf4j.Slf4j;
+import net.coru.kloadgen.metrics.Allocations;
+import net.coru.kloadgen.producer.SerializingProducer;
+import net.coru.kloadgen.serializer.EncodedAvroRecord;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.avro.generic.GenericContainer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+@Slf4j
+public class NullSinkProducer extends SerializingProducer {
+
+  private static final ConcurrentMap<String, SchemaStatistics> STATISTICS = new ConcurrentHashMap<>();
+
+  private static final ThreadLocal<long[]> ALLOCATED = ThreadLocal.withInitial(() -> new long[] {-1, -1, -1});
+
+  private static int producers;
+
+  private static volatile long run;
+
+  public NullSinkProducer(Properties props) {
+    super(props, "by the null sink");
+    synchronized (NullSinkProducer.class) {
+      producers++;
+    }
+  }
+
+  public static <T> T generate(Supplier<T> generator) {
+    long start = Allocations.currentThreadAllocatedBytes();
+    T generated = generator.get();
+    long[] allocated = ALLOCATED.get();
+    allocated[0] = run;
+    allocated[1] = start < 0 ? -1 : Allocations.currentThreadAllocatedBytes() - start;
+    return generated;
+  }
+
+  @Override
+  protected void beforeSerialize(ProducerRecord<Object, Object> record) {
+    ALLOCATED.get()[2] = Allocations.currentThreadAllocatedBytes();
+  }
+
+  @Override
+  protected long write(ProducerRecord<Object, Object> record, byte[] key, byte[] value) {
+    long allocated = allocatedForRecord();
+    SchemaStatistics statistics = STATISTICS.computeIfAbsent(schemaName(record), name -> new SchemaStatistics());
+    return statistics.record(Math.max(0, sizeOf(key)) + Math.max(0, sizeOf(value)), allocated);
+  }
+
+  @Override
+  protected void release() {
+    synchronized (NullSinkProducer.class) {
+      if (--producers == 0) {
+        report().forEach(line -> log.info("Null sink {}", line));
+        STATISTICS.clear();
+        run++;
+      }
+    }
+  }
+
+  public static List<String> report() {
+    Map<String, String> lines = new TreeMap<>();
+    STATISTICS.forEach((schema, statistics) -> lines.put(schema, statistics.report(schema)));
+    return List.copyOf(lines.values());
+  }
+
+  static long recordCount(String schema) {
+    SchemaStatistics statistics = STATISTICS.get(schema);
+    return Objects.isNull(statistics) ? 0 : statistics.records.sum();
+  }
+
+  static long byteCount(String schema) {
+    SchemaStatistics statistics = STATISTICS.get(schema);
+    return Objects.isNull(statistics) ? 0 : statistics.bytes.sum();
+  }
+
+  static String schemaName(ProducerRecord<Object, Object> record) {
+    Object value = record.value();
+    String subject = null;
+    if (value instanceof EnrichedRecord) {
+      EnrichedRecord enrichedRecord = (EnrichedRecord) value;
+      subject = Objects.isNull(enrichedRecord.getSchemaMetadata()) ? null : enrichedRecord.getSchemaMetadata().getSubject();
+      value = enrichedRecord.getGenericRecord();
+    }
+    if (value instanceof GenericContainer) {
+      return ((GenericContainer) value).getSchema().getFullName();
+    } else if (value instanceof EncodedAvroRecord) {
+      return ((EncodedAvroRecord) value).getSchema().getFullName();
+    } else if (value instanceof Message) {
+      return ((Message) value).getDescriptorForType().getFullName();
+    }
+    return Objects.isNull(subject) ? record.topic() : subject;
+  }
+
+  private static long allocatedForRecord() {
+    long[] allocated = ALLOCATED.get();
+    long serialized = allocated[2] < 0 ? -1 : Allocations.currentThreadAllocatedBytes() - allocated[2];
+    long generated = allocated[0] == run ? allocated[1] : 0;
+    allocated[0] = -1;
+    return serialized < 0 || generated < 0 ? -1 : serialized + generated;
+  }
+
+  private static final class SchemaStatistics {
+
+    private final AtomicLong offset = new AtomicLong();
+
+    private final LongAdder records = new LongAdder();
+
+    private final LongAdder bytes = new LongAdder();
+
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    private final LongAdder allocationSamples = new LongAdder();
+
+    private final long startNanos = System.nanoTime();
+
+    private final LongAccumulator lastNanos = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    long record(long recordBytes, long allocated) {
+      records.increment();
+      bytes.add(recordBytes);
+      if (allocated >= 0) {
+        allocatedBytes.add(allocated);
+        allocationSamples.increment();
+      }
+      lastNanos.accumulate(System.nanoTime());
+      return offset.getAndIncrement();
+    }
+
+    String report(String schema) {
+      long count = records.sum();
+      double seconds = Math.max(1, lastNanos.get() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+      long samples = allocationSamples.sum();
+      String allocation = samples == 0 ? "allocation not available"
+                                       : String.format(Locale.ROOT, "%.1f MB/s allocated, %d bytes allocated per record",
+                                                       allocatedBytes.sum() / seconds / (1024 * 1024), allocatedBytes.sum() / samples);
+      return String.format(Locale.ROOT, "%s: %d records, %.1f records/s, %.1f bytes/s, %s", schema, count, count / seconds,
+                           bytes.sum() / seconds, allocation);
+    }
+  }
+}
@@ -14,19 +14,16 @@ import static net.coru.kloadgen.util.SchemaRegistryKeyHelper.SCHEMA_REGISTRY_URL
 
 import java.io.IOException;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 
 import io.confluent.kafka.schemaregistry.ParsedSchema;
-import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
-import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
-import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
-import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import net.coru.kloadgen.loadgen.impl.SchemaBundle;
+import net.coru.kloadgen.loadgen.impl.SchemaCache;
 
 public class JMeterHelper {
 
@@ -51,11 +48,10 @@ public class JMeterHelper {
       }
     }
 
-    SchemaRegistryClient schemaRegistryClient = new CachedSchemaRegistryClient(List.of(originals.get(SCHEMA_REGISTRY_URL_CONFIG)), 1000,
-                                                                               List.of(new AvroSchemaProvider(), new JsonSchemaProvider(), new ProtobufSchemaProvider()),
-                                                                               originals);
+    SchemaRegistryClient schemaRegistryClient = SchemaCache.client(originals);
 
     SchemaMetadata schemaMetadata = schemaRegistryClient.getLatestSchemaMetadata(subjectName);
+    SchemaBundle.exportIfEnabled(schemaRegistryClient, subjectName, schemaMetadata);
     return schemaRegistryClient.getSchemaBySubjectAndId(subjectName, schemaMetadata.getId());
   }
 
@@ -80,4 +80,30 @@ public class ProducerKeysHelper {
   public static final String RECORD_NAME_STRATEGY = "io.confluent.kafka.serializers.subject.RecordNameStrategy";
 
   public static final String TOPIC_NAME_STRATEGY = "io.confluent.kafka.serializers.subject.TopicRecordNameStrategy";
+
+  public static final String CORPUS_FILE = "corpus.file";
+
+  public static final String CORPUS_FILE_DEFAULT = "<Corpus File>";
+
+  public static final String CORPUS_LOOP = "corpus.loop";
+
+  public static final String VALUE_SIZE_DISTRIBUTION = "value.size.distribution";
+
+  public static final String VALUE_SIZE_PADDING_FIELD = "value.size.padding.field";
+
+  public static final String VALUE_SCHEMA_VERSIONS = "value.schema.versions";
+
+  public static final String VALUE_GENERATION_MODE = "value.generation.mode";
+
+  public static final String REPLY_TOPIC = "reply.topic";
+
+  public static final String REPLY_TOPIC_DEFAULT = "<Reply Topic>";
+
+  public static final String REPLY_CORRELATION_HEADER = "reply.correlation.header";
+
+  public static final String REPLY_CORRELATION_HEADER_DEFAULT = "correlationId";
+
+  public static final String REPLY_TOPIC_HEADER = "reply.topic.header";
+
+  public static final String REPLY_TIMEOUT_MILLIS = "reply.timeout.ms";
 }
@@ -20,6 +20,10 @@ public class PropsKeysHelper {
 
   public static final String SIMPLE_KEYED_MESSAGE_KEY = "simple.keyed.message";
 
+  public static final String PARTITION_KEYED_MESSAGE_KEY = "partition.keyed.message";
+
+  public static final String KEY_SPACE_KEYED_MESSAGE_KEY = "key.space.keyed.message";
+
   public static final String KEYED_MESSAGE_DEFAULT = "NO";
 
   public static final String MESSAGE_KEY_KEY_TYPE = "message.key.type";
@@ -46,6 +50,26 @@ public class PropsKeysHelper {
 
   public static final String KEY_TYPE = "key.type";
 
+  public static final String KEY_PARTITION_WEIGHTS = "key.partition.weights";
+
+  public static final String KEY_PARTITION_POOL_SIZE = "key.partition.pool.size";
+
+  public static final String KEY_PARTITION_COUNT = "key.partition.count";
+
+  public static final String KEY_PARTITION_PREFIX = "key.partition.prefix";
+
+  public static final String KEY_SPACE_CARDINALITY = "key.space.cardinality";
+
+  public static final String KEY_SPACE_PATTERN = "key.space.pattern";
+
+  public static final String KEY_SPACE_HOT_KEYS_RATIO = "key.space.hot.keys.ratio";
+
+  public static final String KEY_SPACE_HOT_TRAFFIC_RATIO = "key.space.hot.traffic.ratio";
+
+  public static final String KEY_SPACE_TOMBSTONE_RATIO = "key.space.tombstone.ratio";
+
+  public static final String KEY_SPACE_PREFIX = "key.space.prefix";
+
   public static final String VALUE_SERIALIZER_CLASS_PROPERTY = "value.serializer.class.property";
 
   public static final String KEY_SERIALIZER_CLASS_PROPERTY = "key.serializer.class.property";
@@ -56,6 +80,44 @@ public class PropsKeysHelper {
 
   public static final String TIMEOUT_MILLIS = "timeout.millis";
 
+  public static final String COMMIT_STRATEGY = "commit.strategy";
+
+  public static final String COMMIT_INTERVAL_RECORDS = "commit.interval.records";
+
+  public static final String ASSIGNMENT_MODE = "assignment.mode";
+
+  public static final String SEEK_MODE = "seek.mode";
+
+  public static final String SEEK_VALUE = "seek.value";
+
+  public static final String DECODE_WORKERS = "decode.workers";
+
+  public static final String DECODE_IN_FLIGHT = "decode.in.flight";
+
+  public static final String LAG_REFRESH_MILLIS = "lag.refresh.ms";
+
+  public static final String CONSUMER_LAG_VARIABLE = "consumerLag";
+
+  public static final String CONSUME_RATE_VARIABLE = "consumeRate";
+
+  public static final String PRODUCE_RATE_VARIABLE = "produceRate";
+
+  public static final String CATCH_UP_SECONDS_VARIABLE = "catchUpSeconds";
+
+  public static final String METRICS_PORT = "kloadgen.metrics.port";
+
+  public static final String AGGREGATE_INTERVAL_SECONDS = "kloadgen.aggregate.interval.seconds";
+
+  public static final String SHARD_INDEX = "kloadgen.shard.index";
+
+  public static final String SHARD_COUNT = "kloadgen.shard.count";
+
+  public static final String WORKER_JVM_OPTIONS = "kloadgen.worker.jvm.options";
+
+  public static final String WARMUP_SECONDS = "warmup.seconds";
+
+  public static final String WARMUP_RECORDS = "warmup.records";
+
   private PropsKeysHelper() {
   }
 }
@@ -35,4 +35,8 @@ public class SchemaRegistryKeyHelper {
   public static final String SCHEMA_REGISTRY_AUTH_FLAG = "schema.registry.auth.enabled";
 
   public static final String ENABLE_AUTO_SCHEMA_REGISTRATION_CONFIG = "auto.register.schemas";
+
+  public static final String SCHEMA_REGISTRY_BUNDLE = "schema.registry.bundle";
+
+  public static final String SCHEMA_REGISTRY_BUNDLE_EXPORT = "schema.registry.bundle.export";
 }
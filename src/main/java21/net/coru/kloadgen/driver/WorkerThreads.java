@@ -0,0 +1,26 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import java.util.concurrent.ThreadFactory;
+
+final class WorkerThreads {
+
+  private WorkerThreads() {
+  }
+
+  static boolean supportsVirtualThreads() {
+    return true;
+  }
+
+  static ThreadFactory threadFactory(ThreadModel threadModel, String prefix) {
+    if (ThreadModel.VIRTUAL == threadModel) {
+      return Thread.ofVirtual().name(prefix, 0).factory();
+    }
+    return Thread.ofPlatform().name(prefix, 0).factory();
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.config.keypartition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.apache.jmeter.util.JMeterUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KeyPartitionConfigElementBeanInfoTest {
+
+  private KeyPartitionConfigElementBeanInfo keyPartitionConfigElementBeanInfo;
+
+  @BeforeEach
+  public void setUp() {
+    JMeterUtils.setLocale(Locale.ENGLISH);
+    keyPartitionConfigElementBeanInfo = new KeyPartitionConfigElementBeanInfo();
+  }
+
+  @Test
+  public void shouldGenerateElements() {
+    PropertyDescriptor[] propertyDescriptors = keyPartitionConfigElementBeanInfo.getPropertyDescriptors();
+    assertThat(propertyDescriptors).hasSize(4);
+    assertThat(Arrays.stream(propertyDescriptors).map(PropertyDescriptor::getName))
+        .containsExactlyInAnyOrder("partitionWeights", "keysPerPartition", "partitionCount", "keyPrefix");
+  }
+}
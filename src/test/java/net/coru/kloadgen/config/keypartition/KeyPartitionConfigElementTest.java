@@ -0,0 +1,36 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.config.keypartition;
+
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_PARTITION_POOL_SIZE;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_PARTITION_WEIGHTS;
+import static net.coru.kloadgen.util.PropsKeysHelper.PARTITION_KEYED_MESSAGE_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KeyPartitionConfigElementTest {
+
+  @BeforeEach
+  public void setUp() {
+    JMeterContextService.getContext().setVariables(new JMeterVariables());
+  }
+
+  @Test
+  public void testIterateStart() {
+    KeyPartitionConfigElement keyPartitionConfigElement = new KeyPartitionConfigElement("*:1,0:5", "100", "0", "key-");
+    keyPartitionConfigElement.iterationStart(null);
+
+    JMeterVariables variables = JMeterContextService.getContext().getVariables();
+    assertThat(variables.get(KEY_PARTITION_WEIGHTS)).isEqualTo("*:1,0:5");
+    assertThat(variables.get(KEY_PARTITION_POOL_SIZE)).isEqualTo("100");
+    assertThat(variables.get(PARTITION_KEYED_MESSAGE_KEY)).isEqualTo("true");
+  }
+}
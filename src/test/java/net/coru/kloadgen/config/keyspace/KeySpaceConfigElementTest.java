@@ -0,0 +1,38 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.config.keyspace;
+
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_CARDINALITY;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_KEYED_MESSAGE_KEY;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_PATTERN;
+import static net.coru.kloadgen.util.PropsKeysHelper.KEY_SPACE_TOMBSTONE_RATIO;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KeySpaceConfigElementTest {
+
+  @BeforeEach
+  public void setUp() {
+    JMeterContextService.getContext().setVariables(new JMeterVariables());
+  }
+
+  @Test
+  public void testIterateStart() {
+    KeySpaceConfigElement keySpaceConfigElement = new KeySpaceConfigElement("1000000", "HOTSET", "0.2", "0.8", "0.05", "key-");
+    keySpaceConfigElement.iterationStart(null);
+
+    JMeterVariables variables = JMeterContextService.getContext().getVariables();
+    assertThat(variables.get(KEY_SPACE_CARDINALITY)).isEqualTo("1000000");
+    assertThat(variables.get(KEY_SPACE_PATTERN)).isEqualTo("HOTSET");
+    assertThat(variables.get(KEY_SPACE_TOMBSTONE_RATIO)).isEqualTo("0.05");
+    assertThat(variables.get(KEY_SPACE_KEYED_MESSAGE_KEY)).isEqualTo("true");
+  }
+}
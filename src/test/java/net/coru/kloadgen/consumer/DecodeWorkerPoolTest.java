@@ -0,0 +1,120 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.jupiter.api.Test;
+
+class DecodeWorkerPoolTest {
+
+  private static final String TOPIC = "test";
+
+  private final Map<String, List<String>> decodedByPartition = new ConcurrentHashMap<>();
+
+  @Test
+  void testDecodePreservesPartitionOrder() throws InterruptedException {
+    Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>> recordsByPartition = new HashMap<>();
+    for (int partition = 0; partition < 4; partition++) {
+      List<ConsumerRecord<byte[], byte[]>> partitionRecords = new ArrayList<>();
+      for (int offset = 0; offset < 50; offset++) {
+        partitionRecords.add(new ConsumerRecord<>(TOPIC, partition, offset, null, bytes(partition + ":" + offset)));
+      }
+      recordsByPartition.put(new TopicPartition(TOPIC, partition), partitionRecords);
+    }
+
+    try (DecodeWorkerPool pool = new DecodeWorkerPool(3, RecordingDeserializer::new, RecordingDeserializer::new)) {
+      DecodeResult result = pool.decode(new ConsumerRecords<>(recordsByPartition));
+      assertThat(result.getRecords()).isEqualTo(200);
+      assertThat(result.getPartitions()).isEqualTo(4);
+      assertThat(result.getInvalidRecords()).isZero();
+      assertThat(result.getFirstError()).isNull();
+    }
+
+    for (int partition = 0; partition < 4; partition++) {
+      List<String> expected = new ArrayList<>();
+      for (int offset = 0; offset < 50; offset++) {
+        expected.add(partition + ":" + offset);
+      }
+      assertThat(decodedByPartition.get(String.valueOf(partition))).containsExactlyElementsOf(expected);
+    }
+  }
+
+  @Test
+  void testDecodeCountsInvalidRecords() throws InterruptedException {
+    List<ConsumerRecord<byte[], byte[]>> partitionRecords = List.of(
+        new ConsumerRecord<>(TOPIC, 0, 0L, null, bytes("0:0")),
+        new ConsumerRecord<>(TOPIC, 0, 1L, null, bytes("broken")),
+        new ConsumerRecord<>(TOPIC, 0, 2L, null, null));
+
+    try (DecodeWorkerPool pool = new DecodeWorkerPool(1, RecordingDeserializer::new, RecordingDeserializer::new)) {
+      DecodeResult result = pool.decode(new ConsumerRecords<>(Map.of(new TopicPartition(TOPIC, 0), partitionRecords)));
+      assertThat(result.getRecords()).isEqualTo(3);
+      assertThat(result.getInvalidRecords()).isEqualTo(1);
+      assertThat(result.getFirstError()).isEqualTo("Not a partition record: broken");
+    }
+  }
+
+  @Test
+  void testSubmitDoesNotWaitForDecode() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<Deserializer<Object>> blockingDeserializers = () -> (topic, data) -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return new String(data, StandardCharsets.UTF_8);
+    };
+    ConsumerRecords<byte[], byte[]> records = new ConsumerRecords<>(Map.of(new TopicPartition(TOPIC, 0),
+                                                                           List.of(new ConsumerRecord<>(TOPIC, 0, 0L, null, bytes("0:0")))));
+
+    try (DecodeWorkerPool pool = new DecodeWorkerPool(1, RecordingDeserializer::new, blockingDeserializers)) {
+      PendingDecode first = pool.submit(records);
+      PendingDecode second = pool.submit(records);
+      assertThat(first.isDone()).isFalse();
+      assertThat(second.isDone()).isFalse();
+
+      release.countDown();
+      assertThat(first.await().getRecords()).isEqualTo(1);
+      assertThat(second.await().getRecords()).isEqualTo(1);
+      assertThat(second.await().getFinishedMillis()).isPositive();
+    }
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private class RecordingDeserializer implements Deserializer<Object> {
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+      String value = new String(data, StandardCharsets.UTF_8);
+      int separator = value.indexOf(':');
+      if (separator < 0) {
+        throw new SerializationException("Not a partition record: " + value);
+      }
+      decodedByPartition.computeIfAbsent(value.substring(0, separator), partition -> new ArrayList<>()).add(value);
+      return value;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Map;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class LagSnapshotTest {
+
+  private static final TopicPartition PARTITION_0 = new TopicPartition("test", 0);
+
+  private static final TopicPartition PARTITION_1 = new TopicPartition("test", 1);
+
+  @Test
+  void testLagPerPartition() {
+    LagSnapshot snapshot = LagSnapshot.of(1000L, Map.of(PARTITION_0, 40L), Map.of(PARTITION_0, 100L, PARTITION_1, 10L), null);
+
+    assertThat(snapshot.getPartitionLag()).containsEntry(0, 60L).containsEntry(1, 10L);
+    assertThat(snapshot.getTotalLag()).isEqualTo(70L);
+    assertThat(snapshot.getConsumeRate()).isZero();
+    assertThat(snapshot.getCatchUpSeconds()).isEqualTo(LagSnapshot.NOT_CATCHING_UP);
+  }
+
+  @Test
+  void testRatesAndCatchUpTime() {
+    LagSnapshot first = LagSnapshot.of(1000L, Map.of(PARTITION_0, 0L), Map.of(PARTITION_0, 1000L), null);
+    LagSnapshot second = LagSnapshot.of(3000L, Map.of(PARTITION_0, 400L), Map.of(PARTITION_0, 1200L), first);
+
+    assertThat(second.getConsumeRate()).isCloseTo(200.0, within(0.001));
+    assertThat(second.getProduceRate()).isCloseTo(100.0, within(0.001));
+    assertThat(second.getTotalLag()).isEqualTo(800L);
+    assertThat(second.getCatchUpSeconds()).isCloseTo(8.0, within(0.001));
+  }
+
+  @Test
+  void testCaughtUp() {
+    LagSnapshot first = LagSnapshot.of(1000L, Map.of(PARTITION_0, 10L), Map.of(PARTITION_0, 10L), null);
+    LagSnapshot second = LagSnapshot.of(2000L, Map.of(PARTITION_0, 10L), Map.of(PARTITION_0, 10L), first);
+
+    assertThat(second.getTotalLag()).isZero();
+    assertThat(second.getCatchUpSeconds()).isZero();
+  }
+}
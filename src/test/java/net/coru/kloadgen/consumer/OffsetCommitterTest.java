@@ -0,0 +1,107 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.Map;
+
+import net.coru.kloadgen.sampler.ConsumerCommitStrategy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class OffsetCommitterTest {
+
+  private static final TopicPartition PARTITION = new TopicPartition("topic", 0);
+
+  private final Consumer<?, ?> consumer = mock(Consumer.class);
+
+  @Test
+  void testSyncCommitsEveryInterval() {
+    OffsetCommitter committer = new OffsetCommitter(consumer, ConsumerCommitStrategy.SYNC, 10);
+
+    for (int i = 0; i < 9; i++) {
+      committer.consumed(1);
+    }
+    verify(consumer, never()).commitSync();
+
+    committer.consumed(1);
+    verify(consumer, times(1)).commitSync();
+
+    committer.consumed(15);
+    committer.consumed(4);
+    verify(consumer, times(2)).commitSync();
+    verify(consumer, never()).commitAsync(any(OffsetCommitCallback.class));
+  }
+
+  @Test
+  void testAsyncCommitsEveryInterval() {
+    OffsetCommitter committer = new OffsetCommitter(consumer, ConsumerCommitStrategy.ASYNC, 2);
+
+    committer.consumed(1);
+    committer.consumed(1);
+    committer.consumed(1);
+    committer.consumed(1);
+
+    verify(consumer, times(2)).commitAsync(any(OffsetCommitCallback.class));
+    verify(consumer, never()).commitSync();
+  }
+
+  @Test
+  void testNoneNeverCommits() {
+    OffsetCommitter committer = new OffsetCommitter(consumer, ConsumerCommitStrategy.NONE, 1);
+
+    committer.consumed(5);
+    committer.decoded(5, Map.of(PARTITION, new OffsetAndMetadata(5)));
+    committer.commitRemaining();
+
+    verifyNoInteractions(consumer);
+  }
+
+  @Test
+  void testDecodedCommitsTheDecodedOffsets() {
+    OffsetCommitter committer = new OffsetCommitter(consumer, ConsumerCommitStrategy.SYNC, 10);
+
+    committer.decoded(6, Map.of(PARTITION, new OffsetAndMetadata(6)));
+    verify(consumer, never()).commitSync(anyMap());
+
+    committer.decoded(6, Map.of(PARTITION, new OffsetAndMetadata(12)));
+    verify(consumer).commitSync(Map.of(PARTITION, new OffsetAndMetadata(12)));
+  }
+
+  @Test
+  void testAsyncDecodedCommitsTheDecodedOffsets() {
+    OffsetCommitter committer = new OffsetCommitter(consumer, ConsumerCommitStrategy.ASYNC, 1);
+
+    committer.decoded(3, Map.of(PARTITION, new OffsetAndMetadata(3)));
+
+    verify(consumer).commitAsync(eq(Map.of(PARTITION, new OffsetAndMetadata(3))), any(OffsetCommitCallback.class));
+  }
+
+  @Test
+  void testCommitRemainingOnlyCommitsPendingRecords() {
+    OffsetCommitter committer = new OffsetCommitter(consumer, ConsumerCommitStrategy.ASYNC, 10);
+
+    committer.commitRemaining();
+    verifyNoInteractions(consumer);
+
+    committer.consumed(3);
+    committer.commitRemaining();
+    committer.commitRemaining();
+    verify(consumer, times(1)).commitSync();
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class PartitionSplitTest {
+
+  private static final String TOPIC = "topic";
+
+  @Test
+  void testSpreadsPartitionsOverThreads() {
+    List<PartitionInfo> partitions = partitions(6);
+
+    assertThat(PartitionSplit.forThread(partitions, 0, 4)).containsExactly(new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 4));
+    assertThat(PartitionSplit.forThread(partitions, 1, 4)).containsExactly(new TopicPartition(TOPIC, 1), new TopicPartition(TOPIC, 5));
+    assertThat(PartitionSplit.forThread(partitions, 3, 4)).containsExactly(new TopicPartition(TOPIC, 3));
+  }
+
+  @Test
+  void testThreadsBeyondThePartitionCountGetNone() {
+    List<PartitionInfo> partitions = partitions(3);
+
+    List<TopicPartition> assigned = new ArrayList<>();
+    for (int threadNum = 0; threadNum < 5; threadNum++) {
+      List<TopicPartition> threadPartitions = PartitionSplit.forThread(partitions, threadNum, 5);
+      assertThat(threadPartitions).hasSize(threadNum < 3 ? 1 : 0);
+      assigned.addAll(threadPartitions);
+    }
+    assertThat(assigned).containsExactlyInAnyOrder(new TopicPartition(TOPIC, 0), new TopicPartition(TOPIC, 1), new TopicPartition(TOPIC, 2));
+  }
+
+  @Test
+  void testSingleThreadGetsEveryPartition() {
+    assertThat(PartitionSplit.forThread(partitions(4), 0, 1)).hasSize(4);
+  }
+
+  private static List<PartitionInfo> partitions(int count) {
+    return IntStream.range(0, count).mapToObj(partition -> new PartitionInfo(TOPIC, partition, null, null, null)).collect(Collectors.toList());
+  }
+}
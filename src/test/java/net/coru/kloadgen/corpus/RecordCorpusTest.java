@@ -0,0 +1,185 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.corpus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import net.coru.kloadgen.loadgen.Shard;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RecordCorpusTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testWriteAndReadRecords() throws IOException {
+    Path corpusFile = tempDir.resolve("records.corpus");
+    RecordHeaders headers = new RecordHeaders();
+    headers.add("correlation", "abc".getBytes(StandardCharsets.UTF_8));
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      writer.append(bytes("key-1"), bytes("value-1"), headers);
+      writer.append(null, bytes("value-2"), null);
+    }
+
+    RecordCorpusReader reader = new RecordCorpusReader(corpusFile);
+    assertThat(reader.getRecordCount()).isEqualTo(2);
+
+    CorpusRecord first = reader.read(0);
+    assertThat(string(first.getKey())).isEqualTo("key-1");
+    assertThat(string(first.getValue())).isEqualTo("value-1");
+    assertThat(first.getHeaders()).hasSize(1);
+    assertThat(first.getHeaders().get(0).key()).isEqualTo("correlation");
+    assertThat(first.getHeaders().get(0).value()).isEqualTo(bytes("abc"));
+
+    CorpusRecord second = reader.read(1);
+    assertThat(second.getKey()).isNull();
+    assertThat(string(second.getValue())).isEqualTo("value-2");
+    assertThat(second.getHeaders()).isEmpty();
+  }
+
+  @Test
+  void testAppendToExistingCorpus() throws IOException {
+    Path corpusFile = tempDir.resolve("append.corpus");
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      writer.append(bytes("k1"), bytes("v1"), null);
+    }
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      assertThat(writer.append(bytes("k2"), bytes("v2"), null)).isEqualTo(1L);
+    }
+
+    RecordCorpusReader reader = new RecordCorpusReader(corpusFile);
+    assertThat(reader.getRecordCount()).isEqualTo(2);
+    assertThat(string(reader.read(1).getValue())).isEqualTo("v2");
+  }
+
+  @Test
+  void testRebuildsMissingIndex() throws IOException {
+    Path corpusFile = tempDir.resolve("missing-index.corpus");
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      writer.append(bytes("k1"), bytes("v1"), null);
+      writer.append(bytes("k2"), bytes("v2"), null);
+    }
+    Files.delete(RecordCorpusWriter.indexFileOf(corpusFile));
+
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      assertThat(writer.getRecordCount()).isEqualTo(2);
+      assertThat(writer.append(bytes("k3"), bytes("v3"), null)).isEqualTo(2L);
+    }
+
+    RecordCorpusReader reader = new RecordCorpusReader(corpusFile);
+    assertThat(reader.getRecordCount()).isEqualTo(3);
+    assertThat(string(reader.read(1).getValue())).isEqualTo("v2");
+    assertThat(string(reader.read(2).getValue())).isEqualTo("v3");
+  }
+
+  @Test
+  void testDropsIncompleteLastRecord() throws IOException {
+    Path corpusFile = tempDir.resolve("truncated.corpus");
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      writer.append(bytes("k1"), bytes("v1"), null);
+      writer.append(bytes("k2"), bytes("v2"), null);
+    }
+    try (FileChannel channel = FileChannel.open(corpusFile, StandardOpenOption.WRITE)) {
+      channel.truncate(channel.size() - 3);
+    }
+
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      assertThat(writer.getRecordCount()).isEqualTo(1);
+      writer.append(bytes("k3"), bytes("v3"), null);
+    }
+
+    RecordCorpusReader reader = new RecordCorpusReader(corpusFile);
+    assertThat(reader.getRecordCount()).isEqualTo(2);
+    assertThat(string(reader.read(0).getValue())).isEqualTo("v1");
+    assertThat(string(reader.read(1).getValue())).isEqualTo("v3");
+  }
+
+  @Test
+  void testNextStopsOrLoops() throws IOException {
+    Path corpusFile = tempDir.resolve("loop.corpus");
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      writer.append(bytes("k1"), bytes("v1"), null);
+    }
+
+    RecordCorpusReader onceReader = new RecordCorpusReader(corpusFile);
+    assertThat(onceReader.next(false)).isNotNull();
+    assertThat(onceReader.next(false)).isNull();
+
+    RecordCorpusReader loopReader = new RecordCorpusReader(corpusFile);
+    assertThat(string(loopReader.next(true).getValue())).isEqualTo("v1");
+    assertThat(string(loopReader.next(true).getValue())).isEqualTo("v1");
+  }
+
+  @Test
+  void testShardsReadDisjointRecords() throws IOException {
+    Path corpusFile = tempDir.resolve("shard.corpus");
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      for (int i = 0; i < 5; i++) {
+        writer.append(bytes("k" + i), bytes("v" + i), null);
+      }
+    }
+
+    RecordCorpusReader firstShard = new RecordCorpusReader(corpusFile, new Shard(0, 2));
+    assertThat(string(firstShard.next(false).getValue())).isEqualTo("v0");
+    assertThat(string(firstShard.next(false).getValue())).isEqualTo("v2");
+    assertThat(string(firstShard.next(false).getValue())).isEqualTo("v4");
+    assertThat(firstShard.next(false)).isNull();
+
+    RecordCorpusReader secondShard = new RecordCorpusReader(corpusFile, new Shard(1, 2));
+    assertThat(string(secondShard.next(true).getValue())).isEqualTo("v1");
+    assertThat(string(secondShard.next(true).getValue())).isEqualTo("v3");
+    assertThat(string(secondShard.next(true).getValue())).isEqualTo("v1");
+  }
+
+  @Test
+  void testReleasedReaderRemapsRewrittenCorpus() throws IOException {
+    Path corpusFile = tempDir.resolve("shared.corpus");
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      writer.append(bytes("k1"), bytes("v1"), null);
+    }
+
+    RecordCorpusReader first = RecordCorpusReader.acquire(corpusFile);
+    RecordCorpusReader second = RecordCorpusReader.acquire(corpusFile);
+    assertThat(second).isSameAs(first);
+    first.release();
+    second.release();
+
+    Files.delete(corpusFile);
+    Files.delete(RecordCorpusWriter.indexFileOf(corpusFile));
+    try (RecordCorpusWriter writer = new RecordCorpusWriter(corpusFile)) {
+      writer.append(bytes("k2"), bytes("v2"), null);
+      writer.append(bytes("k3"), bytes("v3"), null);
+    }
+
+    RecordCorpusReader reader = RecordCorpusReader.acquire(corpusFile);
+    assertThat(reader).isNotSameAs(first);
+    assertThat(reader.getRecordCount()).isEqualTo(2);
+    assertThat(string(reader.read(0).getValue())).isEqualTo("v2");
+    reader.release();
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String string(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
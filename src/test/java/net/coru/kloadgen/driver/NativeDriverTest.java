@@ -0,0 +1,284 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.driver;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.Shard;
+import net.coru.kloadgen.metrics.LatencyHistogram;
+import net.coru.kloadgen.serializer.AvroSerializer;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.jmeter.util.JMeterUtils;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NativeDriverTest {
+
+  private static final String SCHEMA = "{\"type\":\"record\",\"name\":\"User\",\"fields\":[{\"name\":\"name\",\"type\":\"string\"},{\"name\":\"age\",\"type\":\"int\"}]}";
+
+  private static final String CUSTOMER_SCHEMA = "{\"type\":\"record\",\"name\":\"Customer\",\"fields\":[{\"name\":\"id\",\"type\":\"long\"}]}";
+
+  @TempDir
+  Path tempDir;
+
+  @BeforeEach
+  void setUp() {
+    File file = new File("src/test/resources");
+    JMeterUtils.loadJMeterProperties(file.getAbsolutePath() + "/kloadgen.properties");
+    JMeterUtils.setLocale(Locale.ENGLISH);
+  }
+
+  @Test
+  void testProducesConfiguredMessages() {
+    Properties properties = new Properties();
+    properties.setProperty(DriverConfig.TOPIC, "users");
+    properties.setProperty(DriverConfig.THREADS, "2");
+    properties.setProperty(DriverConfig.MESSAGES, "100");
+    properties.setProperty(DriverConfig.VALUE_SCHEMA, SCHEMA);
+    properties.setProperty(DriverConfig.FIELD_PREFIX + "0.name", "name");
+    properties.setProperty(DriverConfig.FIELD_PREFIX + "0.type", "string");
+    properties.setProperty(DriverConfig.FIELD_PREFIX + "1.name", "age");
+    properties.setProperty(DriverConfig.FIELD_PREFIX + "1.type", "int");
+    MockProducer<Object, Object> producer = mockProducer();
+
+    DriverSummary summary = new NativeDriver(DriverConfig.from(properties)) {
+
+      @Override
+      protected Producer<Object, Object> createProducer(Properties producerProperties) {
+        return producer;
+      }
+    }.run();
+
+    assertThat(summary.getSent()).isEqualTo(100);
+    assertThat(summary.getAcknowledged()).isEqualTo(100);
+    assertThat(summary.getFailed()).isZero();
+    assertThat(summary.getLatency().getCount()).isEqualTo(100);
+    assertThat(producer.history()).hasSize(100).allSatisfy(record -> assertThat(record.topic()).isEqualTo("users"));
+  }
+
+  @Test
+  void testSpreadsThreadsOverTopics() {
+    Properties properties = new Properties();
+    properties.setProperty(DriverConfig.TOPICS, "users,customers");
+    properties.setProperty(DriverConfig.THREADS, "4");
+    properties.setProperty(DriverConfig.MESSAGES, "200");
+    properties.setProperty(DriverConfig.VALUE_SCHEMA, SCHEMA);
+    properties.setProperty(DriverConfig.TOPICS + ".customers.value.schema", CUSTOMER_SCHEMA);
+    properties.setProperty(DriverConfig.TOPICS + ".customers.field.0.name", "id");
+    properties.setProperty(DriverConfig.TOPICS + ".customers.field.0.type", "long");
+    MockProducer<Object, Object> producer = mockProducer();
+
+    DriverSummary summary = new NativeDriver(DriverConfig.from(properties)) {
+
+      @Override
+      protected Producer<Object, Object> createProducer(Properties producerProperties) {
+        return producer;
+      }
+    }.run();
+
+    assertThat(summary.getAcknowledged()).isEqualTo(200);
+    assertThat(producer.history()).extracting(ProducerRecord::topic).containsOnly("users", "customers");
+    assertThat(producer.history()).filteredOn(record -> "customers".equals(record.topic()))
+                                  .isNotEmpty()
+                                  .allSatisfy(record -> assertThat(((EnrichedRecord) record.value()).getGenericRecord().toString()).contains("\"id\""));
+  }
+
+  @Test
+  void testTopicsNeedAThreadEach() {
+    Properties properties = new Properties();
+    properties.setProperty(DriverConfig.TOPICS, "users,customers");
+    properties.setProperty(DriverConfig.VALUE_SCHEMA, SCHEMA);
+
+    assertThatExceptionOfType(KLoadGenException.class).isThrownBy(() -> DriverConfig.from(properties));
+  }
+
+  @Test
+  void testClosedLoopClients() {
+    Properties properties = new Properties();
+    properties.setProperty(DriverConfig.TOPIC, "users");
+    properties.setProperty(DriverConfig.THREADS, "50");
+    properties.setProperty(DriverConfig.THREAD_MODEL, ThreadModel.VIRTUAL.name());
+    properties.setProperty(DriverConfig.CLOSED_LOOP, "true");
+    properties.setProperty(DriverConfig.MESSAGES, "500");
+    properties.setProperty(DriverConfig.VALUE_SCHEMA, SCHEMA);
+    MockProducer<Object, Object> producer = mockProducer();
+
+    DriverSummary summary = new NativeDriver(DriverConfig.from(properties)) {
+
+      @Override
+      protected Producer<Object, Object> createProducer(Properties producerProperties) {
+        return producer;
+      }
+    }.run();
+
+    assertThat(summary.getAcknowledged()).isEqualTo(500);
+    assertThat(producer.history()).hasSize(500);
+  }
+
+  @Test
+  void testExcludesWarmUpMessages() {
+    Properties properties = new Properties();
+    properties.setProperty(DriverConfig.TOPIC, "users");
+    properties.setProperty(DriverConfig.THREADS, "2");
+    properties.setProperty(DriverConfig.MESSAGES, "100");
+    properties.setProperty(DriverConfig.WARMUP_MESSAGES, "20");
+    properties.setProperty(DriverConfig.VALUE_SCHEMA, SCHEMA);
+    MockProducer<Object, Object> producer = mockProducer();
+
+    DriverSummary summary = new NativeDriver(DriverConfig.from(properties)) {
+
+      @Override
+      protected Producer<Object, Object> createProducer(Properties producerProperties) {
+        return producer;
+      }
+    }.run();
+
+    assertThat(summary.getSent()).isEqualTo(100);
+    assertThat(summary.getAcknowledged()).isEqualTo(100);
+    assertThat(summary.getLatency().getCount()).isEqualTo(100);
+    assertThat(producer.history()).hasSize(120);
+  }
+
+  @Test
+  void testNullSinkSerializesWithoutKafka() {
+    Properties properties = new Properties();
+    properties.setProperty(DriverConfig.TOPIC, "users");
+    properties.setProperty(DriverConfig.THREADS, "2");
+    properties.setProperty(DriverConfig.MESSAGES, "50");
+    properties.setProperty(DriverConfig.NULL_SINK, "true");
+    properties.setProperty(DriverConfig.VALUE_SCHEMA, SCHEMA);
+
+    DriverSummary summary = new NativeDriver(DriverConfig.from(properties)).run();
+
+    assertThat(summary.getAcknowledged()).isEqualTo(50);
+    assertThat(summary.getFailed()).isZero();
+    assertThat(summary.getSentBytes()).isGreaterThan(50 * 5);
+  }
+
+  @Test
+  void testShardSendsItsShareOfMessages() {
+    Properties properties = new Properties();
+    properties.setProperty(DriverConfig.TOPIC, "users");
+    properties.setProperty(DriverConfig.MESSAGES, "100");
+    properties.setProperty(DriverConfig.VALUE_SCHEMA, SCHEMA);
+    MockProducer<Object, Object> producer = mockProducer();
+
+    DriverSummary summary;
+    try {
+      Shard.configure(new Shard(0, 3));
+      summary = new NativeDriver(DriverConfig.from(properties)) {
+
+        @Override
+        protected Producer<Object, Object> createProducer(Properties producerProperties) {
+          return producer;
+        }
+      }.run();
+    } finally {
+      Shard.configure(Shard.NONE);
+    }
+
+    assertThat(summary.getAcknowledged()).isEqualTo(34);
+    assertThat(producer.history()).hasSize(34);
+  }
+
+  @Test
+  void testMergesWorkerSummaries() throws Exception {
+    LatencyHistogram firstLatency = new LatencyHistogram();
+    firstLatency.recordMicros(100);
+    LatencyHistogram secondLatency = new LatencyHistogram();
+    secondLatency.recordMicros(300);
+    secondLatency.recordMicros(500);
+    Path summaryFile = tempDir.resolve("worker-1.properties");
+    new DriverSummary(2, 2, 0, 200, 2000, secondLatency).store(summaryFile);
+
+    DriverSummary summary = DriverSummary.merge(List.of(new DriverSummary(1, 1, 1, 100, 1000, firstLatency), DriverSummary.load(summaryFile)));
+
+    assertThat(summary.getSent()).isEqualTo(3);
+    assertThat(summary.getAcknowledged()).isEqualTo(3);
+    assertThat(summary.getFailed()).isEqualTo(1);
+    assertThat(summary.getSentBytes()).isEqualTo(300);
+    assertThat(summary.getElapsedMillis()).isEqualTo(2000);
+    assertThat(summary.getLatency().getCount()).isEqualTo(3);
+    assertThat(summary.getLatency().getMaxMicros()).isEqualTo(500);
+  }
+
+  @Test
+  void testWorkerCommand() {
+    ShardedDriver driver = new ShardedDriver(Path.of("driver.properties"), 4, "-Xmx1g  -XX:+UseParallelGC");
+
+    List<String> command = driver.command(new Shard(2, 4), Path.of("worker-2.properties"));
+
+    assertThat(command.get(0)).endsWith("java");
+    assertThat(command.subList(1, 3)).containsExactly("-Xmx1g", "-XX:+UseParallelGC");
+    assertThat(command).containsSequence(KLoadGenDriver.class.getName(), "-c", Path.of("driver.properties").toAbsolutePath().toString(), "-s", "2/4")
+                       .containsSequence("--summary", "worker-2.properties");
+  }
+
+  @Test
+  void testConvertsTestPlan() throws Exception {
+    Path testPlan = tempDir.resolve("plan.jmx");
+    Files.writeString(testPlan, "<jmeterTestPlan><hashTree>"
+                                + "<ThreadGroup><stringProp name=\"ThreadGroup.num_threads\">4</stringProp></ThreadGroup>"
+                                + "<JavaSampler><stringProp name=\"classname\">net.coru.kloadgen.sampler.KafkaSchemaSampler</stringProp>"
+                                + "<elementProp name=\"arguments\" elementType=\"Arguments\"><collectionProp name=\"Arguments.arguments\">"
+                                + argument("bootstrap.servers", "localhost:9092") + argument("kafka.topic.name", "users") + argument("jaas.enabled", "NO")
+                                + "</collectionProp></elementProp></JavaSampler>"
+                                + "<ConfigTestElement><stringProp name=\"valueSubjectName\">users-value</stringProp>"
+                                + "<stringProp name=\"valueSchemaType\">AVRO</stringProp>"
+                                + "<collectionProp name=\"valueSchemaProperties\"><elementProp name=\"name\" elementType=\"FieldValueMapping\">"
+                                + "<stringProp name=\"fieldName\">name</stringProp><stringProp name=\"fieldType\">string</stringProp>"
+                                + "</elementProp></collectionProp></ConfigTestElement>"
+                                + "<ConfigTestElement><stringProp name=\"schemaRegistryUrl\">http://localhost:8081</stringProp></ConfigTestElement>"
+                                + "</hashTree></jmeterTestPlan>");
+
+    Properties properties = JmxConverter.convert(testPlan);
+
+    assertThat(properties)
+        .containsEntry(DriverConfig.TOPIC, "users")
+        .containsEntry(DriverConfig.THREADS, "4")
+        .containsEntry("kafka.bootstrap.servers", "localhost:9092")
+        .containsEntry("schema.registry.url", "http://localhost:8081")
+        .containsEntry(DriverConfig.VALUE_SUBJECT, "users-value")
+        .containsEntry(DriverConfig.FIELD_PREFIX + "0.name", "name")
+        .doesNotContainKey("kafka.jaas.enabled");
+    assertThat(DriverConfig.from(properties).getTopics().get(0).getFieldMappings()).hasSize(1);
+  }
+
+  @Test
+  void testRequiresOneValueSchema() {
+    Properties properties = new Properties();
+    properties.setProperty(DriverConfig.TOPIC, "users");
+
+    assertThatExceptionOfType(KLoadGenException.class).isThrownBy(() -> DriverConfig.from(properties));
+  }
+
+  private static String argument(String name, String value) {
+    return "<elementProp name=\"" + name + "\" elementType=\"Argument\"><stringProp name=\"Argument.name\">" + name
+           + "</stringProp><stringProp name=\"Argument.value\">" + value + "</stringProp></elementProp>";
+  }
+
+  private static MockProducer<Object, Object> mockProducer() {
+    StringSerializer keySerializer = new StringSerializer();
+    AvroSerializer<EnrichedRecord> valueSerializer = new AvroSerializer<>();
+    return new MockProducer<>(true, (topic, key) -> keySerializer.serialize(topic, (String) key),
+                              (topic, value) -> valueSerializer.serialize(topic, (EnrichedRecord) value));
+  }
+}
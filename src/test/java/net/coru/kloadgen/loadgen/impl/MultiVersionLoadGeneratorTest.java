@@ -0,0 +1,108 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.impl;
+
+import static io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MultiVersionLoadGeneratorTest {
+
+  private static final String REGISTRY_URL = SchemaBundle.MOCK_URL_PREFIX + "multi-version-test";
+
+  private static final String SUBJECT = "users-value";
+
+  private static final String SCHEMA_V1 = "{\"type\":\"record\",\"name\":\"User\",\"fields\":[{\"name\":\"name\",\"type\":\"string\"}]}";
+
+  private static final String SCHEMA_V2 = "{\"type\":\"record\",\"name\":\"User\",\"fields\":[{\"name\":\"name\",\"type\":\"string\"},"
+                                          + "{\"name\":\"age\",\"type\":\"int\",\"default\":0}]}";
+
+  @BeforeEach
+  void setUp() throws Exception {
+    SchemaCache.clear();
+    SchemaRegistryClient registry = SchemaBundle.mockClient(REGISTRY_URL);
+    registry.reset();
+    registry.register(SUBJECT, new AvroSchema(SCHEMA_V1));
+    registry.register(SUBJECT, new AvroSchema(SCHEMA_V2));
+  }
+
+  @Test
+  void testParseVersionWeights() {
+    assertThat(MultiVersionLoadGenerator.parseVersionWeights("1:3, 2 ,latest:1"))
+        .containsExactly(Pair.of(1, 3), Pair.of(2, 1), Pair.of(null, 1));
+  }
+
+  @Test
+  void testParseVersionWeightsRejectsWrongWeights() {
+    assertThatExceptionOfType(KLoadGenException.class).isThrownBy(() -> MultiVersionLoadGenerator.parseVersionWeights("1:0"));
+    assertThatExceptionOfType(KLoadGenException.class).isThrownBy(() -> MultiVersionLoadGenerator.parseVersionWeights("one:1"));
+    assertThatExceptionOfType(KLoadGenException.class).isThrownBy(() -> MultiVersionLoadGenerator.parseVersionWeights(" , "));
+  }
+
+  @Test
+  void testOnlyAvroAndProtobufAreSupported() {
+    assertThatExceptionOfType(KLoadGenException.class).isThrownBy(() -> new MultiVersionLoadGenerator(new JsonLoadGenerator(), "1"));
+  }
+
+  @Test
+  void testConfiguredMappingsAreKeptPerVersion() {
+    FieldValueMapping configuredName = FieldValueMapping.builder().fieldName("name").fieldType("string").fieldValueList("fixed").build();
+    FieldValueMapping extractedName = FieldValueMapping.builder().fieldName("name").fieldType("string").build();
+    FieldValueMapping extractedAge = FieldValueMapping.builder().fieldName("age").fieldType("int").build();
+
+    assertThat(MultiVersionLoadGenerator.versionMappings(List.of(extractedName, extractedAge), List.of(configuredName)))
+        .containsExactly(configuredName, extractedAge);
+  }
+
+  @Test
+  void testRotatesAcrossVersions() {
+    MultiVersionLoadGenerator generator = new MultiVersionLoadGenerator(new AvroLoadGenerator(), "1:1,2:1");
+    generator.setUpGenerator(Map.of(SCHEMA_REGISTRY_URL_CONFIG, REGISTRY_URL), SUBJECT,
+                             List.of(FieldValueMapping.builder().fieldName("name").fieldType("string").fieldValueList("fixed").build()));
+
+    Map<Integer, Integer> versions = new HashMap<>();
+    for (int i = 0; i < 200; i++) {
+      EnrichedRecord message = generator.nextMessage();
+      assertThat(((GenericRecord) message.getGenericRecord()).get("name")).hasToString("fixed");
+      versions.merge(message.getSchemaMetadata().getVersion(), 1, Integer::sum);
+    }
+    assertThat(versions).containsOnlyKeys(1, 2);
+  }
+
+  @Test
+  void testGenerationModesReachEveryVersion() {
+    MultiVersionLoadGenerator generator = new MultiVersionLoadGenerator(new AvroLoadGenerator(), "1:1,2:1");
+    generator.setUpGenerator(Map.of(SCHEMA_REGISTRY_URL_CONFIG, REGISTRY_URL), SUBJECT,
+                             List.of(FieldValueMapping.builder().fieldName("name").fieldType("string").fieldValueList("fixed").build(),
+                                     FieldValueMapping.builder().fieldName("age").fieldType("int").build()));
+
+    assertThat(generator.enableMessagePlan()).isFalse();
+    assertThat(generator.enableRecordPlan()).isTrue();
+
+    Map<Integer, Integer> versions = new HashMap<>();
+    for (int i = 0; i < 200; i++) {
+      EnrichedRecord message = generator.nextMessage();
+      assertThat(((GenericRecord) message.getGenericRecord()).get("name")).hasToString("fixed");
+      versions.merge(message.getSchemaMetadata().getVersion(), 1, Integer::sum);
+    }
+    assertThat(versions).containsOnlyKeys(1, 2);
+  }
+}
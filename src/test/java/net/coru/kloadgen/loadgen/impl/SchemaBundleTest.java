@@ -0,0 +1,64 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.impl;
+
+import static io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SchemaBundleTest {
+
+  private static final String SUBJECT = "users-value";
+
+  private static final String SCHEMA = "{\"type\":\"record\",\"name\":\"User\",\"fields\":[{\"name\":\"name\",\"type\":\"string\"}]}";
+
+  @TempDir
+  Path tempDir;
+
+  @BeforeEach
+  void setUp() {
+    SchemaCache.clear();
+  }
+
+  @Test
+  void testExportAndLoadKeepIds() throws Exception {
+    MockSchemaRegistryClient registry = new MockSchemaRegistryClient(List.of(new AvroSchemaProvider()));
+    registry.register(SUBJECT, new AvroSchema(SCHEMA), 3, 42);
+    Path bundleFile = tempDir.resolve("bundle.json");
+
+    SchemaBundle.export(bundleFile, registry, SUBJECT, registry.getLatestSchemaMetadata(SUBJECT));
+    SchemaBundle.export(bundleFile, registry, SUBJECT, registry.getLatestSchemaMetadata(SUBJECT));
+
+    List<SchemaBundleEntry> entries = SchemaBundle.readEntries(bundleFile);
+    assertThat(entries).hasSize(1);
+    assertThat(entries.get(0)).extracting(SchemaBundleEntry::getId, SchemaBundleEntry::getVersion, SchemaBundleEntry::getSchemaType)
+                              .containsExactly(42, 3, AvroSchema.TYPE);
+
+    SchemaRegistryClient bundleClient = SchemaBundle.load(bundleFile);
+    SchemaMetadata metadata = bundleClient.getLatestSchemaMetadata(SUBJECT);
+    assertThat(metadata.getId()).isEqualTo(42);
+    assertThat(metadata.getVersion()).isEqualTo(3);
+
+    Pair<SchemaMetadata, ParsedSchema> cached = SchemaCache.getSchema(Map.of(SCHEMA_REGISTRY_URL_CONFIG, SchemaBundle.BUNDLE_REGISTRY_URL), SUBJECT, null);
+    assertThat(cached.getLeft().getId()).isEqualTo(42);
+    assertThat(cached.getRight().name()).isEqualTo("User");
+  }
+}
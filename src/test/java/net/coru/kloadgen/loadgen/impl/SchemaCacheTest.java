@@ -0,0 +1,118 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.impl;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static net.coru.kloadgen.util.SchemaRegistryKeyHelper.SCHEMA_REGISTRY_URL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
+import com.google.protobuf.DynamicMessage;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import net.coru.kloadgen.processor.ProtobufSchemaProcessor;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+@WireMockTest
+class SchemaCacheTest {
+
+  @BeforeEach
+  void setUp() {
+    SchemaCache.clear();
+  }
+
+  @Test
+  void testRegistrySchemaIsFetchedOnce(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+    Map<String, String> originals = Map.of(SCHEMA_REGISTRY_URL, wmRuntimeInfo.getHttpBaseUrl());
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Callable<Pair<SchemaMetadata, ParsedSchema>>> tasks = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        tasks.add(() -> SchemaCache.getSchema(originals, "avroSubject", null));
+      }
+      List<Future<Pair<SchemaMetadata, ParsedSchema>>> results = executor.invokeAll(tasks);
+      Pair<SchemaMetadata, ParsedSchema> first = results.get(0).get();
+      for (Future<Pair<SchemaMetadata, ParsedSchema>> result : results) {
+        assertThat(result.get()).isSameAs(first);
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    verify(1, getRequestedFor(urlPathEqualTo("/subjects/avroSubject/versions/latest")));
+    verify(1, getRequestedFor(urlPathEqualTo("/schemas/ids/71")));
+  }
+
+  @Test
+  void testReleaseDropsCachedSchemas(WireMockRuntimeInfo wmRuntimeInfo) throws Exception {
+    Map<String, String> originals = Map.of(SCHEMA_REGISTRY_URL, wmRuntimeInfo.getHttpBaseUrl());
+    SchemaCache.acquire();
+    SchemaCache.acquire();
+
+    SchemaCache.getSchema(originals, "avroSubject", null);
+    SchemaCache.release();
+    SchemaCache.getSchema(originals, "avroSubject", null);
+    verify(1, getRequestedFor(urlPathEqualTo("/subjects/avroSubject/versions/latest")));
+
+    SchemaCache.release();
+    SchemaCache.getSchema(originals, "avroSubject", null);
+    verify(2, getRequestedFor(urlPathEqualTo("/subjects/avroSubject/versions/latest")));
+  }
+
+  @Test
+  void testClientIsSharedPerRegistryConfiguration() {
+    SchemaRegistryClient first = SchemaCache.client(Map.of(SCHEMA_REGISTRY_URL, "http://localhost:8081"));
+
+    assertThat(SchemaCache.client(Map.of(SCHEMA_REGISTRY_URL, "http://localhost:8081"))).isSameAs(first);
+    assertThat(SchemaCache.client(Map.of(SCHEMA_REGISTRY_URL, "http://localhost:8082"))).isNotSameAs(first);
+  }
+
+  @Test
+  void testParsedSchemaIsShared() {
+    String schema = "{\"type\":\"record\",\"name\":\"Test\",\"fields\":[{\"name\":\"name\",\"type\":\"string\"}]}";
+
+    ParsedSchema first = SchemaCache.parseSchema(AvroSchema.TYPE, schema, AvroSchema::new);
+    ParsedSchema second = SchemaCache.parseSchema(AvroSchema.TYPE, schema, AvroSchema::new);
+
+    assertThat(second).isSameAs(first);
+    assertThat(first.name()).isEqualTo("Test");
+  }
+
+  @Test
+  void testReleaseDropsProtobufDescriptors() throws Exception {
+    ParsedSchema schema = new ProtobufSchema("syntax = \"proto3\";\npackage kloadgen;\nmessage Test {\n  string name = 1;\n}\n");
+    SchemaCache.acquire();
+
+    Object first = descriptorOf(schema);
+    assertThat(descriptorOf(schema)).isSameAs(first);
+
+    SchemaCache.release();
+    assertThat(descriptorOf(schema)).isNotSameAs(first);
+  }
+
+  private static Object descriptorOf(ParsedSchema schema) throws Exception {
+    ProtobufSchemaProcessor processor = new ProtobufSchemaProcessor();
+    processor.processSchema(schema, new SchemaMetadata(1, 1, ""), List.of());
+    return ((DynamicMessage) processor.next().getGenericRecord()).getDescriptorForType();
+  }
+}
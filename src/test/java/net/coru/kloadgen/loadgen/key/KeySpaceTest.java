@@ -0,0 +1,83 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.Shard;
+import org.junit.jupiter.api.Test;
+
+class KeySpaceTest {
+
+  @Test
+  void testSequentialKeysCycleOverCardinality() {
+    KeySpace keySpace = new KeySpace(100, KeySpacePattern.SEQUENTIAL, 0, 0, 0, "key-");
+    Set<String> keys = new HashSet<>();
+    for (int i = 0; i < 300; i++) {
+      keys.add(keySpace.keyName(keySpace.nextKey()));
+    }
+    assertThat(keys).hasSize(100).contains("key-0", "key-99");
+  }
+
+  @Test
+  void testHotSetReceivesHotTraffic() {
+    KeySpace keySpace = new KeySpace(1000, KeySpacePattern.HOTSET, 0.1, 0.9, 0, "key-");
+    int hot = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (keySpace.nextKey() < 100) {
+        hot++;
+      }
+    }
+    assertThat(hot).isBetween(8_500, 9_500);
+  }
+
+  @Test
+  void testRecentKeysStayBehindCursor() {
+    KeySpace keySpace = new KeySpace(1_000_000, KeySpacePattern.RECENT, 0.001, 0.5, 0, "key-");
+    long maxKey = 0;
+    for (int i = 0; i < 10_000; i++) {
+      maxKey = Math.max(maxKey, keySpace.nextKey());
+    }
+    assertThat(maxKey).isLessThan(10_000);
+  }
+
+  @Test
+  void testTombstonesOnlyForLiveKeys() {
+    KeySpace keySpace = new KeySpace(10, KeySpacePattern.UNIFORM, 0, 0, 1, "key-");
+    assertThat(keySpace.nextIsTombstone(3)).isFalse();
+    assertThat(keySpace.isLive(3)).isTrue();
+    assertThat(keySpace.nextIsTombstone(3)).isTrue();
+    assertThat(keySpace.isLive(3)).isFalse();
+    assertThat(keySpace.nextIsTombstone(3)).isFalse();
+  }
+
+  @Test
+  void testShardsUseDisjointKeys() {
+    KeySpace first = new KeySpace(10, KeySpacePattern.SEQUENTIAL, 0, 0, 0, "key-", new Shard(0, 3));
+    KeySpace last = new KeySpace(10, KeySpacePattern.UNIFORM, 0, 0, 0, "key-", new Shard(2, 3));
+    Set<Long> firstKeys = new HashSet<>();
+    Set<Long> lastKeys = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      firstKeys.add(first.nextKey());
+      lastKeys.add(last.nextKey());
+    }
+    assertThat(firstKeys).containsExactlyInAnyOrder(0L, 3L, 6L, 9L);
+    assertThat(lastKeys).containsExactlyInAnyOrder(2L, 5L, 8L);
+  }
+
+  @Test
+  void testWrongConfiguration() {
+    assertThatThrownBy(() -> new KeySpace(0, KeySpacePattern.UNIFORM, 0, 0, 0, "key-")).isInstanceOf(KLoadGenException.class);
+    assertThatThrownBy(() -> new KeySpace(10, KeySpacePattern.UNIFORM, 0, 0, 1.5, "key-")).isInstanceOf(KLoadGenException.class);
+    assertThatThrownBy(() -> new KeySpace(2, KeySpacePattern.UNIFORM, 0, 0, 0, "key-", new Shard(0, 3))).isInstanceOf(KLoadGenException.class);
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.junit.jupiter.api.Test;
+
+class PartitionKeyPoolTest {
+
+  @Test
+  void testKeysArePinnedToPartition() {
+    PartitionKeyPool pool = PartitionKeyPool.build(6, PartitionKeyPool.parseWeights("*:0,2:1", 6), 50, "pinned-");
+    assertThat(pool.getPartitions()).containsExactly(2);
+    for (int i = 0; i < 500; i++) {
+      assertThat(PartitionKeyPool.partitionOf(pool.next(), 6)).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void testKeysFollowPartitionWeights() {
+    PartitionKeyPool pool = PartitionKeyPool.build(4, PartitionKeyPool.parseWeights("3:9", 4), 100, "key-");
+    int[] counts = new int[4];
+    for (int i = 0; i < 12_000; i++) {
+      counts[PartitionKeyPool.partitionOf(pool.next(), 4)]++;
+    }
+    assertThat(counts[3]).isBetween(8_000, 10_000);
+    assertThat(counts[0]).isBetween(600, 1_400);
+    assertThat(counts[1]).isBetween(600, 1_400);
+    assertThat(counts[2]).isBetween(600, 1_400);
+  }
+
+  @Test
+  void testUniformWeightsByDefault() {
+    assertThat(PartitionKeyPool.parseWeights("", 3)).containsExactly(1, 1, 1);
+  }
+
+  @Test
+  void testWrongWeights() {
+    assertThatThrownBy(() -> PartitionKeyPool.parseWeights("5:1", 3)).isInstanceOf(KLoadGenException.class);
+    assertThatThrownBy(() -> PartitionKeyPool.parseWeights("*:0", 3)).isInstanceOf(KLoadGenException.class);
+    assertThatThrownBy(() -> PartitionKeyPool.parseWeights("1:-1", 3)).isInstanceOf(KLoadGenException.class);
+  }
+}
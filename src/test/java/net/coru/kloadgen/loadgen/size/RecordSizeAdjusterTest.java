@@ -0,0 +1,110 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.size;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import net.coru.kloadgen.exception.KLoadGenException;
+import net.coru.kloadgen.loadgen.BaseLoadGenerator;
+import net.coru.kloadgen.loadgen.impl.SizedLoadGenerator;
+import net.coru.kloadgen.serializer.AvroSerializer;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class RecordSizeAdjusterTest {
+
+  private static final String UUID = "3f1c9a52-8d0e-4b7a-9e25-6c1d2f4a8b90";
+
+  private static final Schema SCHEMA = SchemaBuilder.record("sized").fields()
+                                                    .requiredInt("id")
+                                                    .requiredString("uuid")
+                                                    .requiredString("name")
+                                                    .endRecord();
+
+  @ParameterizedTest
+  @ValueSource(ints = {45, 63, 64, 65, 1000, 20000})
+  void testAvroRecordReachesTargetSize(int targetSize) {
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("id", 1);
+    record.put("uuid", UUID);
+    record.put("name", "initial-name");
+    BaseLoadGenerator generator = mock(BaseLoadGenerator.class);
+    when(generator.nextMessage()).thenReturn(EnrichedRecord.builder().genericRecord(record).build());
+
+    EnrichedRecord sized = new SizedLoadGenerator(generator, SizeDistribution.fixed(targetSize), "name").nextMessage();
+
+    assertThat(new AvroRecordSizeAdjuster("name").sizeOf(sized)).isEqualTo(targetSize);
+    assertThat(((GenericRecord) sized.getGenericRecord()).get("uuid")).isEqualTo(UUID);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {50, 64, 1000})
+  void testSerializedValueReachesTargetSize(int targetSize) {
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("id", 1);
+    record.put("uuid", UUID);
+    record.put("name", "initial-name");
+    BaseLoadGenerator generator = mock(BaseLoadGenerator.class);
+    when(generator.nextMessage()).thenReturn(EnrichedRecord.builder().schemaMetadata(new SchemaMetadata(1, 1, "")).genericRecord(record).build());
+    Serializer<Object> serializer = (Serializer) new AvroSerializer<EnrichedRecord>();
+
+    EnrichedRecord sized = new SizedLoadGenerator(generator, SizeDistribution.fixed(targetSize), "name", serializer, "sized", true).nextMessage();
+
+    assertThat(new AvroSerializer<EnrichedRecord>().serialize("sized", sized)).hasSize(targetSize);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {80, 500, 5000})
+  void testJsonRecordReachesTargetSize(int targetSize) {
+    ObjectNode node = JsonNodeFactory.instance.objectNode();
+    node.put("id", 1);
+    node.put("uuid", UUID);
+    node.putObject("customer").put("name", "initial-name");
+    BaseLoadGenerator generator = mock(BaseLoadGenerator.class);
+    when(generator.nextMessage()).thenReturn(EnrichedRecord.builder().genericRecord(node).build());
+
+    EnrichedRecord sized = new SizedLoadGenerator(generator, SizeDistribution.fixed(targetSize), "customer.name").nextMessage();
+
+    assertThat(new JsonRecordSizeAdjuster("customer.name").sizeOf(sized)).isEqualTo(targetSize);
+    assertThat(((ObjectNode) sized.getGenericRecord()).get("uuid").textValue()).isEqualTo(UUID);
+  }
+
+  @Test
+  void testPaddingFieldIsNeeded() {
+    BaseLoadGenerator generator = mock(BaseLoadGenerator.class);
+
+    assertThatExceptionOfType(KLoadGenException.class).isThrownBy(() -> new SizedLoadGenerator(generator, SizeDistribution.fixed(100), " "));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"id", "missing", "name.first"})
+  void testPaddingFieldMustBeFreeText(String paddingField) {
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("id", 1);
+    record.put("uuid", UUID);
+    record.put("name", "initial-name");
+    BaseLoadGenerator generator = mock(BaseLoadGenerator.class);
+    when(generator.nextMessage()).thenReturn(EnrichedRecord.builder().genericRecord(record).build());
+
+    SizedLoadGenerator sizedGenerator = new SizedLoadGenerator(generator, SizeDistribution.fixed(100), paddingField);
+
+    assertThatExceptionOfType(KLoadGenException.class).isThrownBy(sizedGenerator::nextMessage);
+  }
+}
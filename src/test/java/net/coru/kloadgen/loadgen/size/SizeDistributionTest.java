@@ -0,0 +1,63 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.loadgen.size;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SizeDistributionTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testFixedDistribution() {
+    SizeDistribution distribution = SizeDistribution.parse("fixed:512");
+    assertThat(distribution.next()).isEqualTo(512);
+  }
+
+  @Test
+  void testUniformDistribution() {
+    SizeDistribution distribution = SizeDistribution.parse("uniform:100-200");
+    for (int i = 0; i < 1000; i++) {
+      assertThat(distribution.next()).isBetween(100, 200);
+    }
+  }
+
+  @Test
+  void testHistogramDistribution() throws IOException {
+    Path histogram = Files.write(tempDir.resolve("sizes.csv"), List.of("# size,weight", "100,0", "200,1", "", "300,0"));
+    SizeDistribution distribution = SizeDistribution.parse("histogram:" + histogram);
+    for (int i = 0; i < 100; i++) {
+      assertThat(distribution.next()).isEqualTo(200);
+    }
+  }
+
+  @Test
+  void testHistogramSkipsZeroWeightBuckets() {
+    SizeDistribution distribution = SizeDistribution.histogram(List.of("100,1", "200,0", "300,1"));
+    for (int i = 0; i < 1000; i++) {
+      assertThat(distribution.next()).isIn(100, 300);
+    }
+  }
+
+  @Test
+  void testWrongDistribution() {
+    assertThatThrownBy(() -> SizeDistribution.parse("normal:100")).isInstanceOf(KLoadGenException.class);
+    assertThatThrownBy(() -> SizeDistribution.parse("uniform:200-100")).isInstanceOf(KLoadGenException.class);
+    assertThatThrownBy(() -> SizeDistribution.parse("fixed:abc")).isInstanceOf(KLoadGenException.class);
+  }
+}
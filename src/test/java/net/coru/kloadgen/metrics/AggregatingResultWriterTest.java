@@ -0,0 +1,156 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.util.JMeterUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AggregatingResultWriterTest {
+
+  @BeforeAll
+  static void setUp() {
+    File file = new File("src/test/resources");
+    String absolutePath = file.getAbsolutePath();
+    JMeterUtils.loadJMeterProperties(absolutePath + "/kloadgen.properties");
+  }
+
+  @Test
+  void testWritesIntervalRecordsAndStatistics(@TempDir Path tempDir) throws IOException {
+    Path intervalFile = tempDir.resolve("results.csv");
+    Path statisticsFile = tempDir.resolve("results-statistics.json");
+    AggregatingResultWriter writer = new AggregatingResultWriter(intervalFile, statisticsFile, 60);
+
+    writer.testStarted();
+    for (int i = 1; i <= 100; i++) {
+      writer.record(sample("producer", i, true, 10));
+    }
+    writer.flush();
+    writer.record(sample("producer", 200, false, 10));
+    writer.record(sample("consumer, batch", 5, true, 20));
+    writer.testEnded();
+
+    List<String> lines = Files.readAllLines(intervalFile, StandardCharsets.UTF_8);
+    assertThat(lines).hasSize(4);
+    assertThat(lines.get(0)).isEqualTo(AggregatingResultWriter.HEADER);
+    assertThat(lines.get(1)).matches("\\d+,producer,100,0,1000,0,50.50,1,50,90,96,100,100,0");
+    assertThat(lines.subList(2, 4)).anyMatch(line -> line.matches("\\d+,producer,1,1,10,0,200.00,200,200,200,200,200,200,0"))
+                                   .anyMatch(line -> line.matches("\\d+,\"consumer, batch\",1,0,20,0,5.00,5,5,5,5,5,5,0"));
+
+    JsonNode statistics = new ObjectMapper().readTree(statisticsFile.toFile());
+    assertThat(statistics.get("producer").get("sampleCount").asLong()).isEqualTo(101);
+    assertThat(statistics.get("producer").get("errorCount").asLong()).isEqualTo(1);
+    assertThat(statistics.get("producer").get("minResTime").asLong()).isEqualTo(1);
+    assertThat(statistics.get("producer").get("maxResTime").asLong()).isEqualTo(200);
+    assertThat(statistics.get("producer").get("pct3ResTime").asLong()).isEqualTo(100);
+    assertThat(statistics.get("Total").get("sampleCount").asLong()).isEqualTo(102);
+    assertThat(statistics.get("Total").get("errorCount").asLong()).isEqualTo(1);
+    assertThat(statistics.get("Total").get("minResTime").asLong()).isEqualTo(1);
+  }
+
+  @Test
+  void testSkipsIdleLabels(@TempDir Path tempDir) throws IOException {
+    Path intervalFile = tempDir.resolve("results.csv");
+    AggregatingResultWriter writer = new AggregatingResultWriter(intervalFile, tempDir.resolve("statistics.json"), 60);
+
+    writer.testStarted();
+    writer.record(sample("producer", 3, true, 10));
+    writer.flush();
+    writer.flush();
+    writer.testEnded();
+
+    assertThat(Files.readAllLines(intervalFile, StandardCharsets.UTF_8)).hasSize(2);
+  }
+
+  @Test
+  void testIntervalMeanMatchesItsSamples(@TempDir Path tempDir) throws Exception {
+    Path intervalFile = tempDir.resolve("results.csv");
+    AggregatingResultWriter writer = new AggregatingResultWriter(intervalFile, tempDir.resolve("statistics.json"), 60);
+
+    writer.testStarted();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<?>> recorders = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      recorders.add(executor.submit(() -> {
+        for (int j = 0; j < 20000; j++) {
+          writer.record(sample("producer", 10, true, 1));
+        }
+      }));
+    }
+    while (recorders.stream().anyMatch(recorder -> !recorder.isDone())) {
+      writer.flush();
+    }
+    executor.shutdown();
+    writer.testEnded();
+
+    List<String> lines = Files.readAllLines(intervalFile, StandardCharsets.UTF_8);
+    assertThat(lines.subList(1, lines.size())).allMatch(line -> line.split(",")[6].equals("10.00"));
+    assertThat(lines.subList(1, lines.size()).stream().mapToLong(line -> Long.parseLong(line.split(",")[2])).sum()).isEqualTo(80000);
+  }
+
+  @Test
+  void testMergesWorkerResults(@TempDir Path tempDir) throws IOException {
+    List<Path> intervalFiles = new ArrayList<>();
+    List<Path> stateFiles = new ArrayList<>();
+    for (int worker = 0; worker < 2; worker++) {
+      Path intervalFile = tempDir.resolve("worker-" + worker + ".csv");
+      Path stateFile = tempDir.resolve("worker-" + worker + ".properties");
+      AggregatingResultWriter writer = new AggregatingResultWriter(intervalFile, tempDir.resolve("worker-" + worker + "-statistics.json"), stateFile, 60);
+      writer.testStarted();
+      for (int i = 1; i <= 50; i++) {
+        writer.record(sample("producer", worker * 50 + i, true, 10));
+      }
+      writer.record(sample("worker " + worker, 7, worker == 0, 5));
+      writer.testEnded();
+      intervalFiles.add(intervalFile);
+      stateFiles.add(stateFile);
+    }
+    Path intervalFile = tempDir.resolve("results.csv");
+    Path statisticsFile = tempDir.resolve("statistics.json");
+
+    AggregatingResultWriter.merge(intervalFiles, stateFiles, intervalFile, statisticsFile);
+
+    List<String> lines = Files.readAllLines(intervalFile, StandardCharsets.UTF_8);
+    assertThat(lines).hasSize(5);
+    assertThat(lines.get(0)).isEqualTo(AggregatingResultWriter.HEADER);
+    assertThat(lines.subList(1, 5)).filteredOn(line -> line.contains(",producer,")).hasSize(2);
+    JsonNode statistics = new ObjectMapper().readTree(statisticsFile.toFile());
+    assertThat(statistics.get("producer").get("sampleCount").asLong()).isEqualTo(100);
+    assertThat(statistics.get("producer").get("minResTime").asLong()).isEqualTo(1);
+    assertThat(statistics.get("producer").get("maxResTime").asLong()).isEqualTo(100);
+    assertThat(statistics.get("producer").get("meanResTime").asDouble()).isEqualTo(50.5);
+    assertThat(statistics.get("producer").get("pct1ResTime").asLong()).isEqualTo(90);
+    assertThat(statistics.get("worker 1").get("errorCount").asLong()).isEqualTo(1);
+    assertThat(statistics.get("Total").get("sampleCount").asLong()).isEqualTo(102);
+    assertThat(statistics.get("Total").get("errorCount").asLong()).isEqualTo(1);
+  }
+
+  private static SampleResult sample(String label, long elapsedMillis, boolean successful, long bytes) {
+    SampleResult sampleResult = SampleResult.createTestSample(1000, 1000 + elapsedMillis);
+    sampleResult.setSampleLabel(label);
+    sampleResult.setSuccessful(successful);
+    sampleResult.setBytes(bytes);
+    return sampleResult;
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LatencyHistogramTest {
+
+  @ParameterizedTest
+  @ValueSource(longs = {0, 1, 63, 64, 65, 127, 128, 1000, 123456, 1L << 39})
+  void testBucketsKeepRelativePrecision(long value) {
+    long bucketValue = LatencyHistogram.valueOf(LatencyHistogram.bucketOf(value));
+
+    assertThat(bucketValue).isGreaterThanOrEqualTo(value);
+    assertThat((double) bucketValue).isCloseTo(value, within(Math.max(1, value * 0.04)));
+  }
+
+  @Test
+  void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.recordMicros(i);
+    }
+
+    assertThat(histogram.getCount()).isEqualTo(1000);
+    assertThat(histogram.getMaxMicros()).isEqualTo(1000);
+    assertThat((double) histogram.percentileMicros(50)).isCloseTo(500, within(20.0));
+    assertThat((double) histogram.percentileMicros(99)).isCloseTo(990, within(40.0));
+    assertThat(histogram.percentileMicros(100)).isEqualTo(1000);
+  }
+
+  @Test
+  void testDrainMovesCountsToInterval() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.recordMicros(10);
+    histogram.recordMicros(20);
+
+    LatencyHistogram interval = histogram.drain();
+    LatencyHistogram total = new LatencyHistogram();
+    total.add(interval);
+
+    assertThat(histogram.getCount()).isZero();
+    assertThat(interval.getCount()).isEqualTo(2);
+    assertThat(total.getMaxMicros()).isEqualTo(20);
+  }
+
+  @Test
+  void testEncodeAndDecode() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.recordMicros(i * 10L);
+    }
+
+    LatencyHistogram decoded = LatencyHistogram.decode(histogram.encode());
+
+    assertThat(decoded.getCount()).isEqualTo(1000);
+    assertThat(decoded.getMaxMicros()).isEqualTo(10_000);
+    assertThat(decoded.percentileMicros(99)).isEqualTo(histogram.percentileMicros(99));
+    assertThat(LatencyHistogram.decode(new LatencyHistogram().encode()).getCount()).isZero();
+  }
+}
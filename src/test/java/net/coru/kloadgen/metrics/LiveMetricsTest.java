@@ -0,0 +1,116 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import net.coru.kloadgen.util.PropsKeysHelper;
+import org.apache.jmeter.util.JMeterUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LiveMetricsTest {
+
+  @BeforeEach
+  void setUp() {
+    LiveMetrics.reset();
+    LiveMetrics.enable();
+  }
+
+  @AfterEach
+  void tearDown() {
+    MetricsServer.stop();
+    LiveMetrics.reset();
+  }
+
+  @Test
+  void testScrapeExposesCountersAndCumulativeHistogram() {
+    for (int i = 1; i <= 100; i++) {
+      LiveMetrics.recordSend(10, i * 1000L);
+    }
+    LiveMetrics.recordFailure();
+    LiveMetrics.recordConsumed(5, 50);
+    LiveMetrics.recordConsumerLag("group-1", "topic-1", 42);
+
+    String scrape = LiveMetrics.scrape();
+
+    assertThat(scrape)
+        .contains("# TYPE kloadgen_messages_sent_total counter\nkloadgen_messages_sent_total 100\n")
+        .contains("kloadgen_bytes_sent_total 1000\n")
+        .contains("kloadgen_messages_failed_total 1\n")
+        .contains("kloadgen_messages_consumed_total 5\n")
+        .contains("kloadgen_bytes_consumed_total 50\n")
+        .contains("# TYPE kloadgen_send_latency_seconds histogram\n")
+        .contains("kloadgen_send_latency_seconds_bucket{le=\"5.0E-4\"} 0\n")
+        .contains("kloadgen_send_latency_seconds_bucket{le=\"0.001\"} 1\n")
+        .contains("kloadgen_send_latency_seconds_bucket{le=\"0.05\"} 50\n")
+        .contains("kloadgen_send_latency_seconds_bucket{le=\"0.1\"} 100\n")
+        .contains("kloadgen_send_latency_seconds_bucket{le=\"+Inf\"} 100\n")
+        .contains("kloadgen_send_latency_seconds_sum 5.05\n")
+        .contains("kloadgen_send_latency_seconds_count 100\n")
+        .contains("kloadgen_consumer_lag{group=\"group-1\",topic=\"topic-1\"} 42\n");
+  }
+
+  @Test
+  void testScrapeDoesNotResetValues() {
+    LiveMetrics.recordSend(10, 1000);
+
+    assertThat(LiveMetrics.scrape()).isEqualTo(LiveMetrics.scrape())
+                                    .contains("kloadgen_messages_sent_total 1\n")
+                                    .contains("kloadgen_send_latency_seconds_count 1\n")
+                                    .doesNotContain("kloadgen_consumer_lag");
+  }
+
+  @Test
+  void testNothingIsRecordedWithoutEndpoint() {
+    LiveMetrics.reset();
+    LiveMetrics.recordSend(10, 1000);
+    LiveMetrics.recordFailure();
+
+    assertThat(LiveMetrics.isEnabled()).isFalse();
+    assertThat(LiveMetrics.scrape()).contains("kloadgen_messages_sent_total 0\n").contains("kloadgen_messages_failed_total 0\n");
+  }
+
+  @Test
+  void testServerStopsWhenLastUserReleasesIt() {
+    JMeterUtils.loadJMeterProperties(new File("src/test/resources").getAbsolutePath() + "/kloadgen.properties");
+    JMeterUtils.setProperty(PropsKeysHelper.METRICS_PORT, "0");
+    try {
+      MetricsServer.startIfConfigured();
+      MetricsServer.startIfConfigured();
+      MetricsServer.release();
+      assertThat(LiveMetrics.isEnabled()).isTrue();
+      MetricsServer.release();
+      assertThat(LiveMetrics.isEnabled()).isFalse();
+    } finally {
+      JMeterUtils.getJMeterProperties().remove(PropsKeysHelper.METRICS_PORT);
+    }
+  }
+
+  @Test
+  void testServerServesPrometheusText() throws IOException {
+    LiveMetrics.recordSend(10, 1000);
+    int port = MetricsServer.start(0);
+
+    HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/metrics").openConnection();
+    try (InputStream body = connection.getInputStream()) {
+      assertThat(connection.getResponseCode()).isEqualTo(200);
+      assertThat(connection.getContentType()).startsWith("text/plain; version=0.0.4");
+      assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8)).contains("kloadgen_messages_sent_total 1\n");
+    } finally {
+      connection.disconnect();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.junit.jupiter.api.Test;
+
+class WarmUpTest {
+
+  @Test
+  void testWarmsUpForConfiguredRecords() {
+    WarmUp warmUp = new WarmUp("producer", 0, 3);
+
+    assertThat(warmUp.record(1)).isTrue();
+    assertThat(warmUp.record(2)).isTrue();
+    assertThat(warmUp.isFinished()).isFalse();
+    assertThat(warmUp.record(1)).isFalse();
+    assertThat(warmUp.isFinished()).isTrue();
+    assertThat(warmUp.getFinishedNanos()).isNotEqualTo(Long.MIN_VALUE);
+    assertThat(warmUp.record(1)).isFalse();
+  }
+
+  @Test
+  void testWarmsUpForConfiguredDuration() {
+    WarmUp warmUp = new WarmUp("consumer", 3600, 1);
+
+    assertThat(warmUp.record(10)).isTrue();
+    assertThat(warmUp.record(10)).isTrue();
+    assertThat(warmUp.isFinished()).isFalse();
+  }
+
+  @Test
+  void testNoWarmUp() {
+    assertThat(WarmUp.acquire("producer", 0, 0)).isSameAs(WarmUp.NONE);
+    assertThat(WarmUp.NONE.record(1)).isFalse();
+    assertThat(WarmUp.NONE.getFinishedNanos()).isEqualTo(Long.MIN_VALUE);
+  }
+
+  @Test
+  void testSharedBetweenThreadsOfTheSameSampler() {
+    WarmUp first = WarmUp.acquire("producer users", 0, 10);
+    WarmUp second = WarmUp.acquire("producer users", 0, 10);
+    WarmUp consumer = WarmUp.acquire("consumer users", 0, 10);
+    try {
+      assertThat(second).isSameAs(first);
+      assertThat(consumer).isNotSameAs(first);
+    } finally {
+      first.release();
+      second.release();
+      consumer.release();
+    }
+    WarmUp third = WarmUp.acquire("producer users", 0, 10);
+    third.release();
+    assertThat(third).isNotSameAs(first);
+  }
+
+  @Test
+  void testRejectsNegativeValues() {
+    assertThatExceptionOfType(KLoadGenException.class).isThrownBy(() -> new WarmUp("producer", -1, 0));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import net.coru.kloadgen.extractor.SchemaExtractor;
+import net.coru.kloadgen.extractor.impl.SchemaExtractorImpl;
+import net.coru.kloadgen.metrics.Allocations;
+import net.coru.kloadgen.serializer.AvroSerializer;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import net.coru.kloadgen.serializer.GenericJsonRecordSerializer;
+import net.coru.kloadgen.serializer.ProtobufSerializer;
+import net.coru.kloadgen.testutil.FileHelper;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.jmeter.util.JMeterUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class AllocationBudgetTest {
+
+  private static final String TOPIC = "budget";
+
+  private static final int WARM_UP_RECORDS = 5000;
+
+  private static final int MEASURED_RECORDS = 2000;
+
+  private static final double HEADROOM = 1.25;
+
+  private final FileHelper fileHelper = new FileHelper();
+
+  private final SchemaExtractor extractor = new SchemaExtractorImpl();
+
+  @BeforeEach
+  void setUp() {
+    File file = new File("src/test/resources");
+    JMeterUtils.loadJMeterProperties(file.getAbsolutePath() + "/kloadgen.properties");
+    JMeterContextService.getContext().setVariables(new JMeterVariables());
+    JMeterUtils.setLocale(Locale.ENGLISH);
+  }
+
+  @ParameterizedTest
+  @CsvSource({"/avro-files/userTest.avsc,444416", "/avro-files/embedded-avros-example-test.avsc,44032",
+              "/avro-files/avros-example-with-sub-entity-array-test.avsc,193536"})
+  void testAvroRecordStaysWithinBudget(String schemaFile, long baseline) throws Exception {
+    ParsedSchema schema = extractor.schemaTypesList(fileHelper.getFile(schemaFile), "AVRO");
+    AvroSchemaProcessor processor = new AvroSchemaProcessor();
+    processor.processSchema(schema, new SchemaMetadata(1, 1, ""), extractor.flatPropertiesList(schema));
+    AvroSerializer<EnrichedRecord> serializer = new AvroSerializer<>();
+
+    long allocated = allocatedBytesPerRecord(() -> serializer.serialize(TOPIC, processor.next()));
+
+    assertThat(allocated).as("Bytes allocated per record for %s", schemaFile).isLessThanOrEqualTo(budget(baseline));
+  }
+
+  @ParameterizedTest
+  @CsvSource({"/jsonschema/basic.jcs,73728", "/jsonschema/medium-document.jcs,1297408"})
+  void testJsonRecordStaysWithinBudget(String schemaFile, long baseline) throws Exception {
+    ParsedSchema schema = extractor.schemaTypesList(fileHelper.getFile(schemaFile), "JSON");
+    JsonSchemaProcessor processor = new JsonSchemaProcessor();
+    processor.processSchema(extractor.flatPropertiesList(schema));
+    GenericJsonRecordSerializer<ObjectNode> serializer = new GenericJsonRecordSerializer<>();
+
+    long allocated = allocatedBytesPerRecord(() -> serializer.serialize(TOPIC, processor.next()));
+
+    assertThat(allocated).as("Bytes allocated per record for %s", schemaFile).isLessThanOrEqualTo(budget(baseline));
+  }
+
+  @ParameterizedTest
+  @CsvSource({"/proto-files/easyTest.proto,22528", "/proto-files/complexTest.proto,568320"})
+  void testProtobufRecordStaysWithinBudget(String schemaFile, long baseline) throws Exception {
+    ParsedSchema schema = extractor.schemaTypesList(fileHelper.getFile(schemaFile), "PROTOBUF");
+    ProtobufSchemaProcessor processor = new ProtobufSchemaProcessor();
+    processor.processSchema(schema, new SchemaMetadata(1, 1, ""), extractor.flatPropertiesList(schema));
+    ProtobufSerializer<EnrichedRecord> serializer = new ProtobufSerializer<>();
+
+    long allocated = allocatedBytesPerRecord(() -> serializer.serialize(TOPIC, processor.next()));
+
+    assertThat(allocated).as("Bytes allocated per record for %s", schemaFile).isLessThanOrEqualTo(budget(baseline));
+  }
+
+  private static long budget(long baseline) {
+    return (long) Math.ceil(baseline * HEADROOM);
+  }
+
+  private static long allocatedBytesPerRecord(Supplier<byte[]> nextRecord) {
+    assumeTrue(Allocations.isSupported(), "Thread allocation counters are not supported by this JVM");
+    long sink = 0;
+    for (int i = 0; i < WARM_UP_RECORDS; i++) {
+      sink += nextRecord.get().length;
+    }
+    long start = Allocations.currentThreadAllocatedBytes();
+    for (int i = 0; i < MEASURED_RECORDS; i++) {
+      sink += nextRecord.get().length;
+    }
+    long allocated = Allocations.currentThreadAllocatedBytes() - start;
+    assertThat(sink).isNotNegative();
+    return allocated / MEASURED_RECORDS;
+  }
+}
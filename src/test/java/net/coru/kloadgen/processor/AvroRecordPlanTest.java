@@ -0,0 +1,120 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.randomtool.generator.AvroGeneratorTool;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.jmeter.threads.JMeterContext;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.jmeter.util.JMeterUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AvroRecordPlanTest {
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.record("Address").fields()
+                                                            .requiredString("city")
+                                                            .optionalString("street")
+                                                            .endRecord();
+
+  private static final Schema USER_SCHEMA = SchemaBuilder.record("User").fields()
+                                                         .requiredString("name")
+                                                         .name("address").type(ADDRESS_SCHEMA).noDefault()
+                                                         .name("tags").type().array().items().stringType().noDefault()
+                                                         .endRecord();
+
+  private static final List<FieldValueMapping> USER_FIELDS = List.of(
+      FieldValueMapping.builder().fieldName("name").fieldType("string").fieldValueList("alice").required(true).build(),
+      FieldValueMapping.builder().fieldName("address.city").fieldType("string").fieldValueList("Madrid").required(true).build(),
+      FieldValueMapping.builder().fieldName("address.street").fieldType("string").fieldValueList("null").required(false).build());
+
+  @BeforeEach
+  void setUp() {
+    File file = new File("src/test/resources");
+    JMeterUtils.loadJMeterProperties(file.getAbsolutePath() + "/kloadgen.properties");
+    JMeterContext jmcx = JMeterContextService.getContext();
+    jmcx.setVariables(new JMeterVariables());
+    JMeterUtils.setLocale(Locale.ENGLISH);
+    AvroRecordPlan.clear();
+  }
+
+  @Test
+  void testPlanBuildsNestedRecords() {
+    GenericRecord record = AvroRecordPlan.forSchema(USER_SCHEMA, USER_FIELDS).orElseThrow().next(new AvroGeneratorTool());
+
+    assertThat(record.get("name")).hasToString("alice");
+    GenericRecord address = (GenericRecord) record.get("address");
+    assertThat(address.get("city")).hasToString("Madrid");
+    assertThat(address.get("street")).isNull();
+    assertThat(record.get("tags")).isNull();
+  }
+
+  @Test
+  void testPlanIsAGeneratedClass() {
+    AvroRecordPlan plan = AvroRecordPlan.forSchema(USER_SCHEMA, USER_FIELDS).orElseThrow();
+
+    assertThat(plan).extracting("generator").satisfies(generator -> assertThat(generator.getClass().isSynthetic()).isTrue());
+  }
+
+  @Test
+  void testAncestorRequiredFieldsArePlannedUnlessTheyCanBeNull() {
+    List<FieldValueMapping> requiredFields = List.of(
+        FieldValueMapping.builder().fieldName("name").fieldType("string").fieldValueList("alice").required(true).isAncestorRequired(true).build());
+    List<FieldValueMapping> nullableFields = List.of(
+        FieldValueMapping.builder().fieldName("name").fieldType("string").fieldValueList("alice,null").required(false).isAncestorRequired(true).build());
+
+    assertThat(AvroRecordPlan.forSchema(USER_SCHEMA, requiredFields)).isPresent();
+    assertThat(AvroRecordPlan.forSchema(USER_SCHEMA, nullableFields)).isEmpty();
+  }
+
+  @Test
+  void testPlansAreSharedForTheSameSchemaAndMappings() {
+    assertThat(AvroRecordPlan.forSchema(USER_SCHEMA, USER_FIELDS)).containsSame(AvroRecordPlan.forSchema(USER_SCHEMA, List.copyOf(USER_FIELDS)).orElseThrow());
+  }
+
+  @Test
+  void testPlanCacheIsBounded() {
+    for (int i = 0; i <= AvroRecordPlan.MAX_PLANS; i++) {
+      AvroRecordPlan.forSchema(USER_SCHEMA, List.of(FieldValueMapping.builder().fieldName("name").fieldType("string").fieldValueList("user" + i).build()));
+    }
+
+    assertThat(AvroRecordPlan.cachedPlans()).isEqualTo(AvroRecordPlan.MAX_PLANS);
+  }
+
+  @Test
+  void testUnsupportedMappingsHaveNoPlan() {
+    List<FieldValueMapping> arrayFields = List.of(FieldValueMapping.builder().fieldName("tags[]").fieldType("string-array").build());
+    List<FieldValueMapping> unknownFields = List.of(FieldValueMapping.builder().fieldName("surname").fieldType("string").build());
+
+    assertThat(AvroRecordPlan.forSchema(USER_SCHEMA, arrayFields)).isEmpty();
+    assertThat(AvroRecordPlan.forSchema(USER_SCHEMA, unknownFields)).isEmpty();
+  }
+
+  @Test
+  void testProcessorFallsBackToInterpretedPath() {
+    AvroSchemaProcessor processor = new AvroSchemaProcessor();
+    processor.processSchema(USER_SCHEMA, new SchemaMetadata(1, 1, USER_SCHEMA.toString()),
+                            List.of(FieldValueMapping.builder().fieldName("tags[]").fieldType("string-array").fieldValueList("a").build()));
+
+    assertThat(processor.enableRecordPlan()).isFalse();
+
+    processor.processSchema(USER_SCHEMA, new SchemaMetadata(1, 1, USER_SCHEMA.toString()), USER_FIELDS);
+    assertThat(processor.enableRecordPlan()).isTrue();
+    assertThat(((GenericRecord) processor.next().getGenericRecord()).get("name")).hasToString("alice");
+  }
+}
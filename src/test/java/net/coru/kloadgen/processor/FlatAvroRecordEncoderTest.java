@@ -0,0 +1,126 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.serializer.AvroSerializer;
+import net.coru.kloadgen.serializer.EncodedAvroRecord;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.jmeter.threads.JMeterContext;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.jmeter.util.JMeterUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FlatAvroRecordEncoderTest {
+
+  private static final Schema FLAT_SCHEMA = SchemaBuilder.record("User").fields()
+                                                         .requiredString("name")
+                                                         .requiredInt("age")
+                                                         .optionalString("nickname")
+                                                         .name("status").type().enumeration("Status").symbols("ACTIVE", "INACTIVE").noDefault()
+                                                         .endRecord();
+
+  private static final List<FieldValueMapping> FLAT_FIELDS = List.of(
+      FieldValueMapping.builder().fieldName("name").fieldType("string").fieldValueList("alice").required(true).build(),
+      FieldValueMapping.builder().fieldName("age").fieldType("int").fieldValueList("42").required(true).build(),
+      FieldValueMapping.builder().fieldName("nickname").fieldType("string").fieldValueList("null").required(false).build(),
+      FieldValueMapping.builder().fieldName("status").fieldType("enum").fieldValueList("INACTIVE").required(true).build());
+
+  @BeforeEach
+  void setUp() {
+    File file = new File("src/test/resources");
+    JMeterUtils.loadJMeterProperties(file.getAbsolutePath() + "/kloadgen.properties");
+    JMeterContext jmcx = JMeterContextService.getContext();
+    jmcx.setVariables(new JMeterVariables());
+    JMeterUtils.setLocale(Locale.ENGLISH);
+  }
+
+  @Test
+  void testSupportsOnlyFlatRecords() {
+    Schema nested = SchemaBuilder.record("Order").fields().name("user").type(FLAT_SCHEMA).noDefault().endRecord();
+    Schema logical = SchemaBuilder.record("Event").fields()
+                                  .name("date").type(LogicalTypes.date().addToSchema(Schema.create(Schema.Type.INT))).noDefault()
+                                  .endRecord();
+
+    assertThat(FlatAvroRecordEncoder.supports(FLAT_SCHEMA, FLAT_FIELDS)).isTrue();
+    assertThat(FlatAvroRecordEncoder.supports(FLAT_SCHEMA, FLAT_FIELDS.subList(0, 1))).isFalse();
+    assertThat(FlatAvroRecordEncoder.supports(nested, List.of(FieldValueMapping.builder().fieldName("user.name").fieldType("string").build()))).isFalse();
+    assertThat(FlatAvroRecordEncoder.supports(logical, List.of(FieldValueMapping.builder().fieldName("date").fieldType("int_date").build()))).isFalse();
+  }
+
+  @Test
+  void testEncodesFieldsInSchemaOrder() {
+    EncodedAvroRecord encoded = new FlatAvroRecordEncoder(FLAT_SCHEMA, FLAT_FIELDS).next();
+
+    GenericRecord decoded = encoded.toGenericRecord();
+    assertThat(decoded.get("name")).hasToString("alice");
+    assertThat(decoded.get("age")).isEqualTo(42);
+    assertThat(decoded.get("nickname")).isNull();
+    assertThat(decoded.get("status")).hasToString("INACTIVE");
+  }
+
+  @Test
+  void testResolvesContextValuesOnEveryRecord() {
+    FlatAvroRecordEncoder encoder = new FlatAvroRecordEncoder(FLAT_SCHEMA, List.of(
+        FieldValueMapping.builder().fieldName("name").fieldType("string").fieldValueList("${userName}").required(true).build(),
+        FLAT_FIELDS.get(1), FLAT_FIELDS.get(2), FLAT_FIELDS.get(3)));
+
+    JMeterContextService.getContext().getVariables().put("userName", "alice");
+    assertThat(encoder.next().toGenericRecord().get("name")).hasToString("alice");
+    JMeterContextService.getContext().getVariables().put("userName", "bob");
+    assertThat(encoder.next().toGenericRecord().get("name")).hasToString("bob");
+  }
+
+  @Test
+  void testRendersWithoutDecoding() {
+    EncodedAvroRecord encoded = new FlatAvroRecordEncoder(FLAT_SCHEMA, FLAT_FIELDS).next();
+
+    assertThat(encoded).hasToString("User (" + encoded.getData().length + " bytes encoded)");
+  }
+
+  @Test
+  void testSerializerFramesEncodedRecord() {
+    EncodedAvroRecord encoded = new FlatAvroRecordEncoder(FLAT_SCHEMA, FLAT_FIELDS).next();
+    EnrichedRecord record = EnrichedRecord.builder().schemaMetadata(new SchemaMetadata(7, 1, FLAT_SCHEMA.toString())).genericRecord(encoded).build();
+
+    byte[] serialized = new AvroSerializer<>().serialize("topic", record);
+
+    ByteBuffer buffer = ByteBuffer.wrap(serialized);
+    assertThat(buffer.get()).isZero();
+    assertThat(buffer.getInt()).isEqualTo(7);
+    assertThat(Arrays.copyOfRange(serialized, buffer.position(), serialized.length)).isEqualTo(encoded.getData());
+  }
+
+  @Test
+  void testProcessorFallsBackForNestedRecords() {
+    AvroSchemaProcessor processor = new AvroSchemaProcessor();
+    Schema nested = SchemaBuilder.record("Order").fields().name("user").type(FLAT_SCHEMA).noDefault().endRecord();
+    processor.processSchema(nested, new SchemaMetadata(1, 1, nested.toString()), List.of(
+        FieldValueMapping.builder().fieldName("user.name").fieldType("string").build()));
+
+    assertThat(processor.enableFlatRecordEncoding()).isFalse();
+
+    processor.processSchema(FLAT_SCHEMA, new SchemaMetadata(1, 1, FLAT_SCHEMA.toString()), FLAT_FIELDS);
+    assertThat(processor.enableFlatRecordEncoding()).isTrue();
+    assertThat(processor.next().getGenericRecord()).isInstanceOf(EncodedAvroRecord.class);
+  }
+}
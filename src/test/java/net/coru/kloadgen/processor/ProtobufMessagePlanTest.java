@@ -0,0 +1,71 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+
+import com.google.protobuf.DynamicMessage;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import net.coru.kloadgen.extractor.SchemaExtractor;
+import net.coru.kloadgen.extractor.impl.SchemaExtractorImpl;
+import net.coru.kloadgen.model.FieldValueMapping;
+import net.coru.kloadgen.testutil.FileHelper;
+import org.apache.jmeter.threads.JMeterContext;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.apache.jmeter.util.JMeterUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProtobufMessagePlanTest {
+
+  private static final List<FieldValueMapping> ADDRESS_FIELDS = List.of(
+      FieldValueMapping.builder().fieldName("street").fieldType("string").fieldValueList("Gran Via").required(true).build(),
+      FieldValueMapping.builder().fieldName("zipcode").fieldType("long").fieldValueList("28013").required(true).build());
+
+  private final FileHelper fileHelper = new FileHelper();
+
+  private final SchemaExtractor schemaExtractor = new SchemaExtractorImpl();
+
+  private ParsedSchema schema;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    File file = new File("src/test/resources");
+    JMeterUtils.loadJMeterProperties(file.getAbsolutePath() + "/kloadgen.properties");
+    JMeterContext jmcx = JMeterContextService.getContext();
+    jmcx.setVariables(new JMeterVariables());
+    JMeterUtils.setLocale(Locale.ENGLISH);
+    ProtobufMessagePlan.clear();
+    schema = schemaExtractor.schemaTypesList(fileHelper.getFile("/proto-files/easyTest.proto"), "PROTOBUF");
+  }
+
+  @Test
+  void testProcessorUsesPlanForSimpleFields() throws Exception {
+    ProtobufSchemaProcessor processor = new ProtobufSchemaProcessor();
+    processor.processSchema(schema, new SchemaMetadata(1, 1, ""), ADDRESS_FIELDS);
+
+    assertThat(processor.enableMessagePlan()).isTrue();
+    DynamicMessage message = (DynamicMessage) processor.next().getGenericRecord();
+    assertThat(message.getField(message.getDescriptorForType().findFieldByName("street"))).isEqualTo("Gran Via");
+    assertThat(message.getField(message.getDescriptorForType().findFieldByName("zipcode"))).isEqualTo(28013L);
+  }
+
+  @Test
+  void testProcessorFallsBackForRepeatedFields() throws Exception {
+    ProtobufSchemaProcessor processor = new ProtobufSchemaProcessor();
+    processor.processSchema(schema, new SchemaMetadata(1, 1, ""), schemaExtractor.flatPropertiesList(schema));
+
+    assertThat(processor.enableMessagePlan()).isFalse();
+    assertThat(processor.next().getGenericRecord()).isInstanceOf(DynamicMessage.class);
+  }
+}
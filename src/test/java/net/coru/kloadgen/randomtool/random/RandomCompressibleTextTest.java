@@ -0,0 +1,54 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.randomtool.random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class RandomCompressibleTextTest {
+
+  private final RandomCompressibleText randomCompressibleText = new RandomCompressibleText();
+
+  @ParameterizedTest
+  @CsvSource({"100,2.0", "100,4.0", "1000,3.0", "1000,8.0"})
+  void testGenerateStringWithTargetRatio(int length, double ratio) {
+    StringBuilder batch = new StringBuilder();
+    while (batch.length() < 64 * 1024) {
+      String value = randomCompressibleText.generateString(length, ratio);
+      assertThat(value).hasSize(length);
+      batch.append(value);
+    }
+    double actualRatio = RandomCompressibleText.compressionRatio(batch.toString().getBytes(StandardCharsets.US_ASCII));
+    assertThat(actualRatio).isCloseTo(ratio, within(ratio * 0.25));
+  }
+
+  @Test
+  void testRatioBelowOneIsRejected() {
+    assertThatThrownBy(() -> randomCompressibleText.generateString(10, 0.5)).isInstanceOf(KLoadGenException.class);
+  }
+
+  @Test
+  void testRandomObjectGeneratesCompressibleTypes() {
+    RandomObject randomObject = new RandomObject();
+    Object stringValue = randomObject.generateRandom("compressible-string", 50, List.of("3"), Collections.emptyMap());
+    Object bytesValue = randomObject.generateRandom("compressible-bytes", 50, Collections.emptyList(), Collections.emptyMap());
+    assertThat(stringValue).isInstanceOf(String.class).asString().hasSize(50);
+    assertThat(bytesValue).isInstanceOf(ByteBuffer.class);
+    assertThat(((ByteBuffer) bytesValue).remaining()).isEqualTo(50);
+  }
+}
@@ -6,8 +6,10 @@
 
 package net.coru.kloadgen.randomtool.random;
 
+import net.coru.kloadgen.loadgen.Shard;
 import org.apache.groovy.util.Maps;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -62,4 +64,19 @@ class RandomSequenceTest {
     }
     assertThat(intList).containsExactlyElementsOf(expected);
   }
-}
\ No newline at end of file
+
+  @Test
+  void testShardedSequencesDoNotOverlap() {
+    var context = new HashMap<String, Object>();
+    var values = new ArrayList<>();
+    try {
+      Shard.configure(new Shard(2, 4));
+      for (int i = 0; i < 3; i++) {
+        values.add(new RandomSequence().generateSeq("id", "long", singletonList("10"), context));
+      }
+    } finally {
+      Shard.configure(Shard.NONE);
+    }
+    assertThat(values).containsExactly(12L, 16L, 20L);
+  }
+}
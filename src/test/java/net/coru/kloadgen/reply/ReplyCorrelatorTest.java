@@ -0,0 +1,98 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.reply;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import net.coru.kloadgen.exception.KLoadGenException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+
+class ReplyCorrelatorTest {
+
+  private static final String HEADER = "correlationId";
+
+  private final ReplyCorrelator correlator = new ReplyCorrelator("test", new MockConsumer<>(OffsetResetStrategy.LATEST), HEADER);
+
+  @Test
+  void testReplyCompletesPendingRequest() throws Exception {
+    String correlationId = correlator.nextCorrelationId();
+    CompletableFuture<Reply> pendingReply = correlator.register(correlationId, 5000);
+
+    ConsumerRecord<byte[], byte[]> replyRecord = reply(correlationId);
+    correlator.complete(replyRecord);
+
+    assertThat(pendingReply.get().getConsumerRecord()).isSameAs(replyRecord);
+    assertThat(correlator.getPendingCount()).isZero();
+    assertThat(correlator.getUnmatchedReplies()).isZero();
+  }
+
+  @Test
+  void testUnknownRepliesAreCounted() {
+    correlator.register(correlator.nextCorrelationId(), 5000);
+
+    correlator.complete(reply("unknown"));
+    correlator.complete(new ConsumerRecord<>("replies", 0, 1L, null, new byte[0]));
+
+    assertThat(correlator.getUnmatchedReplies()).isEqualTo(2);
+    assertThat(correlator.getPendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  void testPendingRequestTimesOut() throws InterruptedException {
+    String correlationId = correlator.nextCorrelationId();
+    CompletableFuture<Reply> pendingReply = correlator.register(correlationId, 10);
+
+    assertThatThrownBy(pendingReply::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(TimeoutException.class);
+    for (int i = 0; i < 100 && correlator.getPendingCount() > 0; i++) {
+      Thread.sleep(10);
+    }
+    assertThat(correlator.getPendingCount()).isZero();
+
+    correlator.complete(reply(correlationId));
+    assertThat(correlator.getUnmatchedReplies()).isEqualTo(1);
+  }
+
+  @Test
+  void testPollFailureFailsPendingRequests() {
+    MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.LATEST);
+    consumer.updatePartitions("replies", List.of(new PartitionInfo("replies", 0, null, null, null)));
+    consumer.updateEndOffsets(Map.of(new TopicPartition("replies", 0), 0L));
+    ReplyCorrelator failingCorrelator = new ReplyCorrelator("failing", consumer, HEADER);
+    failingCorrelator.start("replies");
+    CompletableFuture<Reply> pendingReply = failingCorrelator.register(failingCorrelator.nextCorrelationId(), 5000);
+
+    consumer.setPollException(new KafkaException("Broker gone"));
+
+    assertThatThrownBy(pendingReply::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(KLoadGenException.class);
+    assertThatThrownBy(() -> failingCorrelator.register(failingCorrelator.nextCorrelationId(), 5000)).isInstanceOf(KLoadGenException.class);
+  }
+
+  @Test
+  void testCorrelationIdsAreUnique() {
+    assertThat(correlator.nextCorrelationId()).isNotEqualTo(correlator.nextCorrelationId());
+  }
+
+  private static ConsumerRecord<byte[], byte[]> reply(String correlationId) {
+    ConsumerRecord<byte[], byte[]> replyRecord = new ConsumerRecord<>("replies", 0, 0L, null, "ok".getBytes(StandardCharsets.UTF_8));
+    replyRecord.headers().add(HEADER, correlationId.getBytes(StandardCharsets.UTF_8));
+    return replyRecord;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  * License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package net.coru.kloadgen.sink;
+
+import static org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import net.coru.kloadgen.metrics.Allocations;
+import net.coru.kloadgen.serializer.AvroSerializer;
+import net.coru.kloadgen.serializer.EnrichedRecord;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+
+class NullSinkProducerTest {
+
+  @Test
+  void testSerializesAndDiscardsRecords() throws ExecutionException, InterruptedException {
+    NullSinkProducer producer = new NullSinkProducer(properties(StringSerializer.class.getName()));
+    try {
+      List<RecordMetadata> acknowledged = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        producer.send(new ProducerRecord<>("strings", "key", "value"), (metadata, exception) -> acknowledged.add(metadata));
+      }
+      RecordMetadata metadata = producer.send(new ProducerRecord<>("strings", null, "value")).get();
+
+      assertThat(acknowledged).hasSize(10).allSatisfy(ack -> assertThat(ack.serializedValueSize()).isEqualTo(5));
+      assertThat(metadata.offset()).isEqualTo(10);
+      assertThat(metadata.serializedKeySize()).isEqualTo(-1);
+      assertThat(NullSinkProducer.recordCount("strings")).isEqualTo(11);
+      assertThat(NullSinkProducer.byteCount("strings")).isEqualTo(85);
+      assertThat(NullSinkProducer.report()).singleElement().asString().startsWith("strings: 11 records");
+    } finally {
+      producer.close();
+    }
+    assertThat(NullSinkProducer.report()).isEmpty();
+  }
+
+  @Test
+  void testGroupsStatisticsBySchema() throws ExecutionException, InterruptedException {
+    Schema schema = SchemaBuilder.record("User").namespace("net.coru").fields().requiredString("name").endRecord();
+    GenericRecord user = new GenericData.Record(schema);
+    user.put("name", "Ann");
+    EnrichedRecord record = EnrichedRecord.builder()
+                                          .schemaMetadata(new SchemaMetadata(1, 1, schema.toString()))
+                                          .genericRecord(user)
+                                          .build();
+    NullSinkProducer producer = new NullSinkProducer(properties(AvroSerializer.class.getName()));
+    try {
+      RecordMetadata metadata = producer.send(new ProducerRecord<>("users", "key", record)).get();
+
+      assertThat(metadata.serializedValueSize()).isEqualTo(9);
+      assertThat(NullSinkProducer.recordCount("net.coru.User")).isEqualTo(1);
+      assertThat(NullSinkProducer.recordCount("users")).isZero();
+    } finally {
+      producer.close();
+    }
+  }
+
+  @Test
+  void testMeasuresAllocationOfGenerationAndSerialization() throws ExecutionException, InterruptedException {
+    assumeTrue(Allocations.isSupported(), "Thread allocation counters are not supported by this JVM");
+    NullSinkProducer producer = new NullSinkProducer(properties(StringSerializer.class.getName()));
+    try {
+      String value = NullSinkProducer.generate(() -> new String(new char[1 << 20]));
+      producer.send(new ProducerRecord<>("allocations", null, value)).get();
+
+      Matcher matcher = Pattern.compile("(\\d+) bytes allocated per record").matcher(NullSinkProducer.report().get(0));
+      assertThat(matcher.find()).isTrue();
+      assertThat(Long.parseLong(matcher.group(1))).isGreaterThanOrEqualTo(2L << 20);
+    } finally {
+      producer.close();
+    }
+  }
+
+  @Test
+  void testRejectsTransactions() {
+    NullSinkProducer producer = new NullSinkProducer(properties(StringSerializer.class.getName()));
+    try {
+      assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(producer::initTransactions)
+                                                                    .withMessage("Transactions are not supported by the null sink");
+    } finally {
+      producer.close();
+    }
+  }
+
+  private static Properties properties(String valueSerializer) {
+    Properties properties = new Properties();
+    properties.put(KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+    properties.put(VALUE_SERIALIZER_CLASS_CONFIG, valueSerializer);
+    return properties;
+  }
+}